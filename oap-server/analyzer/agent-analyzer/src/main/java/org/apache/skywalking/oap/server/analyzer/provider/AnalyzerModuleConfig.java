@@ -130,6 +130,37 @@ public class AnalyzerModuleConfig extends ModuleConfig {
     @Getter
     private String segmentStatusAnalysisStrategy = FROM_SPAN_STATUS.name();
 
+    /**
+     * The compression of the serialized segment saved in the storage. Available values are `NONE` and `DEFLATE`.
+     * The segments saved in any compression are readable, no matter which one is active now.
+     *
+     * @see org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentBinaryCodec.Compression
+     * @since 9.3.0
+     */
+    @Setter
+    @Getter
+    private String segmentBinaryCompression = "NONE";
+
+    /**
+     * The idle time of a series in the counter window of the MAL increase and rate functions before being expired. Unit
+     * is minute. 0 means never expired.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    @Getter
+    private long counterWindowSeriesTTL = 30;
+
+    /**
+     * The max number of series in the counter window of the MAL increase and rate functions. The samples of the new
+     * series are not tracked, and treated as the first sample, when the max is reached. 0 means unbounded.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    @Getter
+    private int counterWindowMaxSeries = 0;
+
     private List<Integer> virtualPeers;
 
     /**
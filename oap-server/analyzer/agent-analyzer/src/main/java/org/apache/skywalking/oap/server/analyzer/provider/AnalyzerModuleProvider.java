@@ -18,7 +18,10 @@
 
 package org.apache.skywalking.oap.server.analyzer.provider;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import org.apache.skywalking.oap.meter.analyzer.dsl.counter.CounterWindow;
 import org.apache.skywalking.oap.server.analyzer.module.AnalyzerModule;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfigs;
@@ -48,8 +51,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
-
-import java.util.List;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 public class AnalyzerModuleProvider extends ModuleProvider {
     @Getter
@@ -131,6 +133,11 @@ public class AnalyzerModuleProvider extends ModuleProvider {
 
         segmentParserService.setListenerManager(listenerManager());
 
+        CounterWindow.INSTANCE.configure(
+            TimeUnit.MINUTES.toMillis(moduleConfig.getCounterWindowSeriesTTL()),
+            moduleConfig.getCounterWindowMaxSeries(),
+            getManager().find(TelemetryModule.NAME).provider().getService(MetricsCreator.class)
+        );
         processService.start(meterConfigs);
     }
 
@@ -35,6 +35,7 @@ import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.manual.searchtag.Tag;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentBinaryCodec;
 import org.apache.skywalking.oap.server.core.config.ConfigService;
 import org.apache.skywalking.oap.server.core.config.NamingControl;
 import org.apache.skywalking.oap.server.core.source.Segment;
@@ -54,6 +55,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private final NamingControl namingControl;
     private final List<String> searchableTagKeys;
     private final SegmentStatusAnalyzer segmentStatusAnalyzer;
+    private final SegmentBinaryCodec.Compression segmentBinaryCompression;
 
     private final Segment segment = new Segment();
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
@@ -97,7 +99,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         segment.setStartTime(startTimestamp);
         segment.setTimeBucket(timeBucket);
         segment.setIsError(BooleanUtils.booleanToValue(isError));
-        segment.setDataBinary(segmentObject.toByteArray());
+        segment.setDataBinary(SegmentBinaryCodec.encode(segmentObject.toByteArray(), segmentBinaryCompression));
 
         endpointName = namingControl.formatEndpointName(serviceName, span.getOperationName());
         endpointId = IDManager.EndpointID.buildId(
@@ -206,6 +208,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         private final NamingControl namingControl;
         private final List<String> searchTagKeys;
         private final SegmentStatusAnalyzer segmentStatusAnalyzer;
+        private final SegmentBinaryCodec.Compression segmentBinaryCompression;
 
         public Factory(ModuleManager moduleManager, AnalyzerModuleConfig config) {
             this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
@@ -220,6 +223,8 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
                                               .getService(NamingControl.class);
             this.segmentStatusAnalyzer = SegmentStatusStrategy.findByName(config.getSegmentStatusAnalysisStrategy())
                                                               .getExceptionAnalyzer();
+            this.segmentBinaryCompression = SegmentBinaryCodec.Compression.findByName(
+                config.getSegmentBinaryCompression());
         }
 
         @Override
@@ -230,7 +235,8 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
                 forceSampleErrorSegment,
                 namingControl,
                 searchTagKeys,
-                segmentStatusAnalyzer
+                segmentStatusAnalyzer,
+                segmentBinaryCompression
             );
         }
     }
@@ -18,25 +18,33 @@
 
 package org.apache.skywalking.oap.log.analyzer.dsl;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Message;
-import groovy.lang.Closure;
+import groovy.lang.GroovyObject;
 import groovy.lang.GroovyObjectSupport;
-import groovy.lang.MissingPropertyException;
+import groovy.lang.MetaProperty;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import lombok.Getter;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
 import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.DatabaseSlowStatementBuilder;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
 import org.apache.skywalking.oap.server.core.source.Log;
 
 /**
  * The binding bridge between OAP and the DSL, which provides some convenient methods to ease the use of the raw {@link groovy.lang.Binding#setProperty(java.lang.String, java.lang.Object)} and {@link
  * groovy.lang.Binding#getProperty(java.lang.String)}.
+ *
+ * <p>The convenient methods access the variables directly. The raw property methods look up the properties of the
+ * binding class first, and fall back to the variables through the {@link groovy.lang.MissingPropertyException}, which
+ * is too expensive for every log.
  */
 public class Binding extends groovy.lang.Binding {
     public static final String KEY_LOG = "log";
@@ -54,15 +62,27 @@ public class Binding extends groovy.lang.Binding {
     public static final String KEY_DATABASE_SLOW_STATEMENT = "database_slow_statement";
 
     public Binding() {
-        setProperty(KEY_PARSED, new Parsed());
+        setVariable(KEY_PARSED, new Parsed());
+    }
+
+    /**
+     * Reset the state of the previous log, in order to reuse the binding for the next log. The variables assigned by
+     * the scripts are removed too, the log should be set by {@link #log(LogData.Builder)} then.
+     */
+    public Binding reset() {
+        final Parsed parsed = parsed();
+        parsed.reset();
+        getVariables().clear();
+        setVariable(KEY_PARSED, parsed);
+        return this;
     }
 
     public Binding log(final LogData.Builder log) {
-        setProperty(KEY_LOG, log);
-        setProperty(KEY_SAVE, true);
-        setProperty(KEY_ABORT, false);
-        setProperty(KEY_METRICS_CONTAINER, null);
-        setProperty(KEY_LOG_CONTAINER, null);
+        setVariable(KEY_LOG, log);
+        setVariable(KEY_SAVE, true);
+        setVariable(KEY_ABORT, false);
+        setVariable(KEY_METRICS_CONTAINER, null);
+        setVariable(KEY_LOG_CONTAINER, null);
         parsed().log = log;
         return this;
     }
@@ -72,7 +92,7 @@ public class Binding extends groovy.lang.Binding {
     }
 
     public LogData.Builder log() {
-        return (LogData.Builder) getProperty(KEY_LOG);
+        return (LogData.Builder) getVariable(KEY_LOG);
     }
 
     public Binding extraLog(final Message extraLog) {
@@ -95,39 +115,39 @@ public class Binding extends groovy.lang.Binding {
     }
 
     public Parsed parsed() {
-        return (Parsed) getProperty(KEY_PARSED);
+        return (Parsed) getVariable(KEY_PARSED);
     }
 
     public DatabaseSlowStatementBuilder databaseSlowStatement() {
-        return (DatabaseSlowStatementBuilder) getProperty(KEY_DATABASE_SLOW_STATEMENT);
+        return (DatabaseSlowStatementBuilder) getVariable(KEY_DATABASE_SLOW_STATEMENT);
     }
 
     public Binding databaseSlowStatement(DatabaseSlowStatementBuilder databaseSlowStatementBuilder) {
-        setProperty(KEY_DATABASE_SLOW_STATEMENT, databaseSlowStatementBuilder);
+        setVariable(KEY_DATABASE_SLOW_STATEMENT, databaseSlowStatementBuilder);
         return this;
     }
 
     public Binding save() {
-        setProperty(KEY_SAVE, true);
+        setVariable(KEY_SAVE, true);
         return this;
     }
 
     public Binding drop() {
-        setProperty(KEY_SAVE, false);
+        setVariable(KEY_SAVE, false);
         return this;
     }
 
     public boolean shouldSave() {
-        return (boolean) getProperty(KEY_SAVE);
+        return (boolean) getVariable(KEY_SAVE);
     }
 
     public Binding abort() {
-        setProperty(KEY_ABORT, true);
+        setVariable(KEY_ABORT, true);
         return this;
     }
 
     public boolean shouldAbort() {
-        return (boolean) getProperty(KEY_ABORT);
+        return (boolean) getVariable(KEY_ABORT);
     }
 
     /**
@@ -138,13 +158,13 @@ public class Binding extends groovy.lang.Binding {
      * @param container the metrics container
      */
     public Binding metricsContainer(List<SampleFamily> container) {
-        setProperty(KEY_METRICS_CONTAINER, container);
+        setVariable(KEY_METRICS_CONTAINER, container);
         return this;
     }
 
     public Optional<List<SampleFamily>> metricsContainer() {
         // noinspection unchecked
-        return Optional.ofNullable((List<SampleFamily>) getProperty(KEY_METRICS_CONTAINER));
+        return Optional.ofNullable((List<SampleFamily>) getVariable(KEY_METRICS_CONTAINER));
     }
 
     /**
@@ -155,16 +175,33 @@ public class Binding extends groovy.lang.Binding {
      * @param container the log container
      */
     public Binding logContainer(AtomicReference<Log> container) {
-        setProperty(KEY_LOG_CONTAINER, container);
+        setVariable(KEY_LOG_CONTAINER, container);
         return this;
     }
 
     public Optional<AtomicReference<Log>> logContainer() {
         // noinspection unchecked
-        return Optional.ofNullable((AtomicReference<Log>) getProperty(KEY_LOG_CONTAINER));
+        return Optional.ofNullable((AtomicReference<Log>) getVariable(KEY_LOG_CONTAINER));
     }
 
     public static class Parsed extends GroovyObjectSupport {
+        /**
+         * The properties of {@link Parsed} itself, which are not resolved to the parsed fields.
+         */
+        static final Set<String> PROPERTIES = ImmutableSet.of(
+            "matcher", "map", "log", "extraLog", "class", "metaClass", "properties", "metaPropertyValues");
+
+        /**
+         * The resolved properties of the classes, such as the fields of the protobuf messages.
+         */
+        private static final ClassValue<Map<String, Optional<MetaProperty>>> META_PROPERTIES =
+            new ClassValue<Map<String, Optional<MetaProperty>>>() {
+                @Override
+                protected Map<String, Optional<MetaProperty>> computeValue(final Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
         @Getter
         private Matcher matcher;
 
@@ -199,14 +236,50 @@ public class Binding extends groovy.lang.Binding {
             return getAt(name);
         }
 
-        static Object getField(Object obj, String name) {
-            try {
-                Closure<?> c = new Closure<Object>(obj, obj) {
-                };
-                return c.getProperty(name);
-            } catch (MissingPropertyException ignored) {
+        /**
+         * The statically compiled {@code object.name} in the scripts, which gets the value of the key from a map and
+         * the parsed fields from {@link Parsed} without the dynamic dispatch.
+         */
+        public static Object property(final Object object, final String name) {
+            if (object instanceof Map) {
+                return ((Map<?, ?>) object).get(name);
             }
-            return null;
+            if (object instanceof Parsed && !PROPERTIES.contains(name)) {
+                return ((Parsed) object).getAt(name);
+            }
+            if (object != null && !(object instanceof GroovyObject) && !(object instanceof Class)) {
+                final MetaProperty property = metaProperty(object, name);
+                if (property != null) {
+                    return property.getProperty(object);
+                }
+            }
+            return InvokerHelper.getProperty(object, name);
+        }
+
+        /**
+         * The statically compiled {@code object?.name} in the scripts.
+         */
+        public static Object safeProperty(final Object object, final String name) {
+            return object == null ? null : property(object, name);
+        }
+
+        void reset() {
+            matcher = null;
+            map = null;
+            log = null;
+            extraLog = null;
+        }
+
+        static Object getField(Object obj, String name) {
+            final MetaProperty property = metaProperty(obj, name);
+            return property == null ? null : property.getProperty(obj);
+        }
+
+        private static MetaProperty metaProperty(final Object obj, final String name) {
+            return META_PROPERTIES.get(obj.getClass())
+                                  .computeIfAbsent(name, it -> Optional.ofNullable(
+                                      InvokerHelper.getMetaClass(obj).getMetaProperty(it)))
+                                  .orElse(null);
         }
     }
 }
@@ -25,8 +25,10 @@ import groovy.util.DelegatingScript;
 import java.lang.reflect.Array;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.LALDelegatingScript;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.filter.FilterSpec;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
@@ -36,6 +38,7 @@ import org.codehaus.groovy.ast.stmt.DoWhileStatement;
 import org.codehaus.groovy.ast.stmt.ForStatement;
 import org.codehaus.groovy.ast.stmt.Statement;
 import org.codehaus.groovy.ast.stmt.WhileStatement;
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
 import org.codehaus.groovy.control.customizers.SecureASTCustomizer;
@@ -43,6 +46,7 @@ import org.codehaus.groovy.control.customizers.SecureASTCustomizer;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 
+@Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class DSL {
     private final DelegatingScript script;
@@ -52,6 +56,29 @@ public class DSL {
     public static DSL of(final ModuleManager moduleManager,
                          final LogAnalyzerModuleConfig config,
                          final String dsl) throws ModuleStartException {
+        DelegatingScript script;
+        Set<String> parsedFields;
+        try {
+            final ParsedPropertyTransformer transformer = new ParsedPropertyTransformer();
+            script = compile(dsl, transformer);
+            parsedFields = transformer.parsedFields();
+        } catch (final CompilationFailedException e) {
+            log.info("The parsed properties in \"{}\" can't be compiled statically, fall back to the dynamic ones: {}",
+                     dsl, e.getMessage());
+            script = compile(dsl, null);
+            parsedFields = null;
+        }
+        final FilterSpec filterSpec = new FilterSpec(moduleManager, config, parsedFields);
+        script.setDelegate(filterSpec);
+
+        return new DSL(script, filterSpec);
+    }
+
+    /**
+     * @param transformer to compile the properties of the {@code parsed} variable statically, or null to dispatch them
+     *                    dynamically.
+     */
+    private static DelegatingScript compile(final String dsl, final ParsedPropertyTransformer transformer) {
         final CompilerConfiguration cc = new CompilerConfiguration();
         final ASTTransformationCustomizer customizer =
             new ASTTransformationCustomizer(
@@ -78,14 +105,14 @@ public class DSL {
                          .add(Array.class)
                          .build());
         cc.addCompilationCustomizers(secureASTCustomizer);
+        if (transformer != null) {
+            // After the secure customizer, which checks the script as it is written.
+            cc.addCompilationCustomizers(transformer);
+        }
         cc.setScriptBaseClass(LALDelegatingScript.class.getName());
 
         final GroovyShell sh = new GroovyShell(cc);
-        final DelegatingScript script = (DelegatingScript) sh.parse(dsl);
-        final FilterSpec filterSpec = new FilterSpec(moduleManager, config);
-        script.setDelegate(filterSpec);
-
-        return new DSL(script, filterSpec);
+        return (DelegatingScript) sh.parse(dsl);
     }
 
     public void bind(final Binding binding) {
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.log.analyzer.dsl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.AbstractSpec;
+import org.codehaus.groovy.ast.ClassCodeExpressionTransformer;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.DynamicVariable;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.AttributeExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+
+/**
+ * ParsedPropertyTransformer rewrites the {@code parsed} variable and the property chains on it, such as {@code
+ * parsed?.response?.responseCode}, to the static methods {@link AbstractSpec#parsed()}, {@link
+ * Binding.Parsed#property(Object, String)} and {@link Binding.Parsed#safeProperty(Object, String)}, which are compiled
+ * statically instead of being dispatched dynamically.
+ *
+ * <p>The names of the parsed fields referenced by the script are collected, see {@link #parsedFields()}.
+ */
+class ParsedPropertyTransformer extends CompilationCustomizer {
+    private static final ClassNode SPEC = ClassHelper.make(AbstractSpec.class);
+
+    private static final ClassNode PARSED = ClassHelper.make(Binding.Parsed.class);
+
+    private final Set<String> parsedFields = new HashSet<>();
+
+    private boolean wholeParsed;
+
+    ParsedPropertyTransformer() {
+        super(CompilePhase.CANONICALIZATION);
+    }
+
+    /**
+     * @return the names of the parsed fields referenced by the script, such as {@code response} of {@code
+     * parsed?.response?.responseCode}, or null if the {@code parsed} variable is used in other ways, such as {@code
+     * parsed.map} or {@code parsed['response']}.
+     */
+    Set<String> parsedFields() {
+        return wholeParsed ? null : Collections.unmodifiableSet(parsedFields);
+    }
+
+    @Override
+    public void call(final SourceUnit source, final GeneratorContext context, final ClassNode classNode) {
+        if (!classNode.isScript()) {
+            return;
+        }
+        final MethodNode run = classNode.getMethod("run", Parameter.EMPTY_ARRAY);
+        if (run != null) {
+            new Rewriter(source).visitMethod(run);
+        }
+    }
+
+    private class Rewriter extends ClassCodeExpressionTransformer {
+        private final SourceUnit source;
+
+        private Rewriter(final SourceUnit source) {
+            this.source = source;
+        }
+
+        @Override
+        protected SourceUnit getSourceUnit() {
+            return source;
+        }
+
+        @Override
+        public Expression transform(final Expression exp) {
+            if (exp == null) {
+                return null;
+            }
+            if (exp instanceof ClosureExpression) {
+                ((ClosureExpression) exp).getCode().visit(this);
+                return exp;
+            }
+            if (isParsed(exp)) {
+                wholeParsed = true;
+                return parsed(exp);
+            }
+            if (isParsedProperty(exp)) {
+                final PropertyExpression property = (PropertyExpression) exp;
+                final Expression object = property.getObjectExpression();
+                final Expression receiver;
+                if (isParsed(object)) {
+                    final String name = property.getPropertyAsString();
+                    if (Binding.Parsed.PROPERTIES.contains(name)) {
+                        wholeParsed = true;
+                    } else {
+                        parsedFields.add(name);
+                    }
+                    receiver = parsed(object);
+                } else {
+                    receiver = transform(object);
+                }
+                return call(
+                    PARSED, property.isSafe() ? "safeProperty" : "property",
+                    new ArgumentListExpression(receiver, property.getProperty()), exp
+                );
+            }
+            return exp.transformExpression(this);
+        }
+
+        private Expression parsed(final Expression origin) {
+            return call(SPEC, "parsed", new ArgumentListExpression(), origin);
+        }
+
+        private boolean isParsed(final Expression exp) {
+            return exp instanceof VariableExpression
+                && Binding.KEY_PARSED.equals(((VariableExpression) exp).getName())
+                && ((VariableExpression) exp).getAccessedVariable() instanceof DynamicVariable;
+        }
+
+        private boolean isParsedProperty(final Expression exp) {
+            if (!(exp instanceof PropertyExpression) || exp instanceof AttributeExpression) {
+                return false;
+            }
+            final PropertyExpression property = (PropertyExpression) exp;
+            if (property.isSpreadSafe() || !(property.getProperty() instanceof ConstantExpression)) {
+                return false;
+            }
+            final Expression object = property.getObjectExpression();
+            return isParsed(object) || isParsedProperty(object);
+        }
+
+        private Expression call(final ClassNode owner, final String method,
+                                final ArgumentListExpression args, final Expression origin) {
+            final StaticMethodCallExpression call = new StaticMethodCallExpression(owner, method, args);
+            call.setSourcePosition(origin);
+            return call;
+        }
+    }
+}
@@ -41,6 +41,13 @@ public abstract class AbstractSpec {
         BINDING.set(b);
     }
 
+    /**
+     * The {@code parsed} variable of the current log, for the statically compiled scripts.
+     */
+    public static Binding.Parsed parsed() {
+        return BINDING.get().parsed();
+    }
+
     @SuppressWarnings("unused")
     public void abort(final Closure<Void> cl) {
         BINDING.get().abort();
@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.oap.log.analyzer.dsl.spec.filter;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.protobuf.Message;
 import com.google.protobuf.TextFormat;
 import groovy.lang.Closure;
@@ -27,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.skywalking.apm.network.logging.v3.LogData;
@@ -63,14 +63,19 @@ public class FilterSpec extends AbstractSpec {
 
     private final SinkSpec sink;
 
-    private final TypeReference<Map<String, Object>> parsedType;
-
     public FilterSpec(final ModuleManager moduleManager,
                       final LogAnalyzerModuleConfig moduleConfig) throws ModuleStartException {
-        super(moduleManager, moduleConfig);
+        this(moduleManager, moduleConfig, null);
+    }
 
-        parsedType = new TypeReference<Map<String, Object>>() {
-        };
+    /**
+     * @param parsedFields the names of the parsed fields referenced by the script, the JSON logs are parsed into these
+     *                     fields only, or null to parse all fields.
+     */
+    public FilterSpec(final ModuleManager moduleManager,
+                      final LogAnalyzerModuleConfig moduleConfig,
+                      final Set<String> parsedFields) throws ModuleStartException {
+        super(moduleManager, moduleConfig);
 
         sinkListenerFactories = Arrays.asList(
             new RecordSinkListener.Factory(moduleManager(), moduleConfig()),
@@ -78,7 +83,7 @@ public class FilterSpec extends AbstractSpec {
         );
 
         textParser = new TextParserSpec(moduleManager(), moduleConfig());
-        jsonParser = new JsonParserSpec(moduleManager(), moduleConfig());
+        jsonParser = new JsonParserSpec(moduleManager(), moduleConfig(), parsedFields);
         yamlParser = new YamlParserSpec(moduleManager(), moduleConfig());
 
         extractor = new ExtractorSpec(moduleManager(), moduleConfig());
@@ -106,9 +111,7 @@ public class FilterSpec extends AbstractSpec {
         final LogData.Builder logData = BINDING.get().log();
         try {
 
-            final Map<String, Object> parsed = jsonParser.create().readValue(
-                logData.getBody().getJson().getJson(), parsedType
-            );
+            final Map<String, Object> parsed = jsonParser.parse(logData.getBody().getJson().getJson());
 
             BINDING.get().parsed(parsed);
         } catch (final Exception e) {
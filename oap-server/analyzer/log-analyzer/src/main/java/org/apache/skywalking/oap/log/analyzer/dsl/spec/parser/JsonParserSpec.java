@@ -18,23 +18,72 @@
 
 package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
 public class JsonParserSpec extends AbstractParserSpec {
+    private static final TypeReference<Map<String, Object>> PARSED_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
     private final ObjectMapper mapper;
 
+    /**
+     * The names of the top level fields to parse, or null to parse all fields.
+     */
+    private final Set<String> fields;
+
     public JsonParserSpec(final ModuleManager moduleManager,
                           final LogAnalyzerModuleConfig moduleConfig) {
+        this(moduleManager, moduleConfig, null);
+    }
+
+    public JsonParserSpec(final ModuleManager moduleManager,
+                          final LogAnalyzerModuleConfig moduleConfig,
+                          final Set<String> fields) {
         super(moduleManager, moduleConfig);
 
         // We just create a mapper instance in advance for now (for the sake of performance),
         // when we want to provide some extra options, we'll move this into method "create" then.
         mapper = new ObjectMapper();
+        this.fields = fields;
     }
 
     public ObjectMapper create() {
         return mapper;
     }
+
+    /**
+     * Parse the JSON object into a map. When the fields are specified, the other fields are skipped by the tokenizer,
+     * without being decoded into strings, numbers, maps or lists.
+     */
+    public Map<String, Object> parse(final String json) throws IOException {
+        if (fields == null) {
+            return mapper.readValue(json, PARSED_TYPE);
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                // Not an object, leave it to the mapper to keep the same result or error.
+                return mapper.readValue(json, PARSED_TYPE);
+            }
+            final Map<String, Object> parsed = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if (fields.contains(name)) {
+                    parsed.put(name, mapper.readValue(parser, Object.class));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return parsed;
+        }
+    }
 }
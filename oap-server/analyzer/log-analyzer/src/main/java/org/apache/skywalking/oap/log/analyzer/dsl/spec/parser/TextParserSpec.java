@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
@@ -25,6 +27,11 @@ import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
 public class TextParserSpec extends AbstractParserSpec {
+    /**
+     * The matchers of the regular expressions, which are compiled once, and reset for every log in the same thread.
+     */
+    private final Map<String, ThreadLocal<Matcher>> matchers = new ConcurrentHashMap<>();
+
     public TextParserSpec(final ModuleManager moduleManager,
                           final LogAnalyzerModuleConfig moduleConfig) {
         super(moduleManager, moduleConfig);
@@ -32,7 +39,15 @@ public class TextParserSpec extends AbstractParserSpec {
 
     @SuppressWarnings("unused")
     public void regexp(final String regexp) {
-        regexp(Pattern.compile(regexp));
+        if (BINDING.get().shouldAbort()) {
+            return;
+        }
+        final Matcher matcher = matchers.computeIfAbsent(regexp, r -> {
+            final Pattern pattern = Pattern.compile(r);
+            return ThreadLocal.withInitial(() -> pattern.matcher(""));
+        }).get();
+        matcher.reset(BINDING.get().log().getBody().getText().getText());
+        match(matcher);
     }
 
     public void regexp(final Pattern pattern) {
@@ -40,7 +55,10 @@ public class TextParserSpec extends AbstractParserSpec {
             return;
         }
         final LogData.Builder log = BINDING.get().log();
-        final Matcher matcher = pattern.matcher(log.getBody().getText().getText());
+        match(pattern.matcher(log.getBody().getText().getText()));
+    }
+
+    private void match(final Matcher matcher) {
         final boolean matched = matcher.find();
         if (matched) {
             BINDING.get().parsed(matcher);
@@ -48,6 +48,26 @@ public class LogAnalyzerModuleConfig extends ModuleConfig {
     @Setter
     private String malFiles;
 
+    /**
+     * The number of threads analyzing the logs, the logs of the same service are analyzed by the same thread in
+     * order. 0 means analyzing the logs in the threads receiving them.
+     *
+     * @since 9.3.0
+     */
+    @Getter
+    @Setter
+    private int workerThreads = 0;
+
+    /**
+     * The max number of logs waiting for every analyzing thread. The threads receiving the logs are blocked when the
+     * buffer is full.
+     *
+     * @since 9.3.0
+     */
+    @Getter
+    @Setter
+    private int workerBufferSize = 10_000;
+
     private List<Rule> meterConfigs;
 
     public List<String> lalFiles() {
@@ -20,22 +20,53 @@ package org.apache.skywalking.oap.log.analyzer.provider.log;
 import com.google.protobuf.Message;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.log.analyzer.provider.log.listener.LogAnalysisListenerFactory;
 import org.apache.skywalking.oap.log.analyzer.provider.log.listener.LogSinkListenerFactory;
+import org.apache.skywalking.oap.server.library.datacarrier.DataCarrier;
+import org.apache.skywalking.oap.server.library.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.library.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
-@RequiredArgsConstructor
+@Slf4j
 public class LogAnalyzerServiceImpl implements ILogAnalyzerService, ILogAnalysisListenerManager {
     private final ModuleManager moduleManager;
     private final LogAnalyzerModuleConfig moduleConfig;
     private final List<LogAnalysisListenerFactory> analysisListenerFactories = new ArrayList<>();
     private final List<LogSinkListenerFactory> sinkListenerFactories = new ArrayList<>();
+    /**
+     * The queues of the analyzing threads, null if the logs are analyzed in the threads receiving them.
+     */
+    private final DataCarrier<PendingLog> dataCarrier;
+
+    public LogAnalyzerServiceImpl(final ModuleManager moduleManager, final LogAnalyzerModuleConfig moduleConfig) {
+        this.moduleManager = moduleManager;
+        this.moduleConfig = moduleConfig;
+
+        final int threads = moduleConfig.getWorkerThreads();
+        if (threads > 0) {
+            dataCarrier = new DataCarrier<>("LogAnalyzer", "LOG_ANALYZER", threads, moduleConfig.getWorkerBufferSize());
+            dataCarrier.setPartitioner(new ServicePartitioner());
+            dataCarrier.consume(new PendingLogConsumer(), threads);
+        } else {
+            dataCarrier = null;
+        }
+    }
 
     @Override
     public void doAnalysis(final LogData.Builder log, Message extraLog) {
+        if (dataCarrier != null) {
+            dataCarrier.produce(new PendingLog(log, extraLog));
+            return;
+        }
+        analyze(log, extraLog);
+    }
+
+    private void analyze(final LogData.Builder log, final Message extraLog) {
         LogAnalyzer analyzer = new LogAnalyzer(moduleManager, moduleConfig, this);
         analyzer.doAnalysis(log, extraLog);
     }
@@ -59,4 +90,51 @@ public class LogAnalyzerServiceImpl implements ILogAnalyzerService, ILogAnalysis
     public List<LogSinkListenerFactory> getSinkListenerFactory() {
         return sinkListenerFactories;
     }
+
+    @RequiredArgsConstructor
+    private static class PendingLog {
+        private final LogData.Builder log;
+        private final Message extraLog;
+    }
+
+    /**
+     * Keep the logs of the same service in the same thread, which are analyzed in the order of receiving.
+     */
+    private static class ServicePartitioner implements IDataPartitioner<PendingLog> {
+        @Override
+        public int partition(final int total, final PendingLog data) {
+            return (data.log.getService().hashCode() & Integer.MAX_VALUE) % total;
+        }
+
+        @Override
+        public int maxRetryCount() {
+            return 1;
+        }
+    }
+
+    private class PendingLogConsumer implements IConsumer<PendingLog> {
+        @Override
+        public void init(final Properties properties) {
+        }
+
+        @Override
+        public void consume(final List<PendingLog> data) {
+            for (final PendingLog pending : data) {
+                try {
+                    analyze(pending.log, pending.extraLog);
+                } catch (final Exception e) {
+                    log.error("Failed to analyze the log of service {}", pending.log.getService(), e);
+                }
+            }
+        }
+
+        @Override
+        public void onError(final List<PendingLog> data, final Throwable t) {
+            log.error(t.getMessage(), t);
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
 }
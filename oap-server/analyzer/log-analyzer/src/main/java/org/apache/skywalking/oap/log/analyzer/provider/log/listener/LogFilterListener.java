@@ -40,6 +40,11 @@ import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 @Slf4j
 @RequiredArgsConstructor
 public class LogFilterListener implements LogAnalysisListener {
+    /**
+     * The binding of every thread, which is reset for the next log, rather than created for every log.
+     */
+    private static final ThreadLocal<Binding> BINDINGS = ThreadLocal.withInitial(Binding::new);
+
     @lombok.NonNull
     private final DSL dsl;
 
@@ -55,7 +60,7 @@ public class LogFilterListener implements LogAnalysisListener {
     @Override
     public LogAnalysisListener parse(final LogData.Builder logData,
                                      final Message extraLog) {
-        dsl.bind(new Binding().log(logData.build()).extraLog(extraLog));
+        dsl.bind(BINDINGS.get().reset().log(logData.build()).extraLog(extraLog));
         return this;
     }
 
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.log.analyzer.dsl;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Set;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -36,6 +37,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.powermock.reflect.Whitebox;
 
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -216,4 +219,17 @@ public class DSLTest {
         dsl.bind(new Binding().log(LogData.newBuilder().build()));
         dsl.evaluate();
     }
+
+    @Test
+    public void testParsedPropertiesCompileStatic() throws Exception {
+        // Compiling without falling back to the dynamic parsed properties.
+        final ParsedPropertyTransformer transformer = new ParsedPropertyTransformer();
+        Whitebox.invokeMethod(DSL.class, "compile", script, transformer);
+
+        final Set<String> parsedFields = transformer.parsedFields();
+        assertNotNull(parsedFields);
+        for (final String field : parsedFields) {
+            assertTrue(script.contains("parsed." + field) || script.contains("parsed?." + field));
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.apache.skywalking.apm.network.logging.v3.JSONLog;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogDataBody;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
+import org.apache.skywalking.oap.log.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JsonParserSpecTest {
+    private static final String JSON = "{" +
+        "\"service\":\"test-service\"," +
+        "\"skipped\":{\"array\":[1,{\"nested\":null},\"]}\"],\"text\":\"{\\\"escaped\\\":1}\"}," +
+        "\"nested\":{\"endpoint\":\"/test\",\"code\":500,\"flags\":[\"UF\",\"URX\"],\"empty\":{}}," +
+        "\"skippedArray\":[[1,2],[3,[4]]]," +
+        "\"time\":1666000000000," +
+        "\"skippedValue\":true" +
+        "}";
+
+    final ModuleManager manager = mock(ModuleManager.class);
+
+    @Before
+    public void setup() {
+        Whitebox.setInternalState(manager, "isInPrepareStage", false);
+        when(manager.find(anyString())).thenReturn(mock(ModuleProviderHolder.class));
+        when(manager.find(CoreModule.NAME).provider()).thenReturn(mock(ModuleServiceHolder.class));
+        when(manager.find(CoreModule.NAME).provider().getService(SourceReceiver.class))
+                .thenReturn(mock(SourceReceiver.class));
+        when(manager.find(CoreModule.NAME).provider().getService(ConfigService.class))
+                .thenReturn(mock(ConfigService.class));
+        when(manager.find(CoreModule.NAME)
+                .provider()
+                .getService(ConfigService.class)
+                .getSearchableLogsTags())
+                .thenReturn("");
+    }
+
+    @Test
+    public void testParseFields() throws Exception {
+        final Set<String> fields = ImmutableSet.of("service", "nested", "time", "absent");
+        final Map<String, Object> all = new JsonParserSpec(manager, new LogAnalyzerModuleConfig()).parse(JSON);
+        final Map<String, Object> parsed =
+            new JsonParserSpec(manager, new LogAnalyzerModuleConfig(), fields).parse(JSON);
+
+        assertEquals(filter(all, fields), parsed);
+        assertEquals(all.get("nested"), parsed.get("nested"));
+    }
+
+    @Test
+    public void testParseNoFields() throws Exception {
+        final Map<String, Object> parsed =
+            new JsonParserSpec(manager, new LogAnalyzerModuleConfig(), Collections.emptySet()).parse(JSON);
+
+        assertEquals(Collections.emptyMap(), parsed);
+    }
+
+    @Test
+    public void testParseNotObject() throws Exception {
+        final JsonParserSpec all = new JsonParserSpec(manager, new LogAnalyzerModuleConfig());
+        final JsonParserSpec fields = new JsonParserSpec(manager, new LogAnalyzerModuleConfig(), ImmutableSet.of("a"));
+
+        assertNull(all.parse("null"));
+        assertNull(fields.parse("null"));
+
+        // Falling back to the whole parsing, which fails the same way.
+        for (final String json : new String[] {"[{\"a\":1}]", "\"a\"", "1"}) {
+            final Class<? extends Exception> expected = parseError(all, json);
+            assertEquals(json, expected, parseError(fields, json));
+        }
+    }
+
+    @Test
+    public void testParseReferencedFieldsInScript() throws Exception {
+        final DSL dsl = DSL.of(
+            manager, new LogAnalyzerModuleConfig(),
+            "filter {\n" +
+                "  json {\n" +
+                "  }\n" +
+                "  extractor {\n" +
+                "    service parsed.service as String\n" +
+                "    endpoint parsed.nested?.endpoint as String\n" +
+                "  }\n" +
+                "}"
+        );
+        Whitebox.setInternalState(
+            Whitebox.getInternalState(dsl, "filterSpec"), "sinkListenerFactories", Collections.emptyList()
+        );
+        final Binding binding = new Binding().log(
+            LogData.newBuilder()
+                   .setBody(LogDataBody.newBuilder().setJson(JSONLog.newBuilder().setJson(JSON)))
+                   .build()
+        );
+
+        dsl.bind(binding);
+        dsl.evaluate();
+
+        final Map<String, Object> all = new JsonParserSpec(manager, new LogAnalyzerModuleConfig()).parse(JSON);
+        assertEquals(filter(all, ImmutableSet.of("service", "nested")), binding.parsed().getMap());
+        assertEquals("test-service", binding.log().getService());
+        assertEquals("/test", binding.log().getEndpoint());
+    }
+
+    private static Map<String, Object> filter(final Map<String, Object> all, final Set<String> fields) {
+        final Map<String, Object> filtered = new LinkedHashMap<>(all);
+        filtered.keySet().retainAll(fields);
+        return filtered;
+    }
+
+    private static Class<? extends Exception> parseError(final JsonParserSpec spec, final String json) {
+        try {
+            spec.parse(json);
+        } catch (final Exception e) {
+            return e.getClass();
+        }
+        fail("Parsing " + json + " should fail");
+        return null;
+    }
+}
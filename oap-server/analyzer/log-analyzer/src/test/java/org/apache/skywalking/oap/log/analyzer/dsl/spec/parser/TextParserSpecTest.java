@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogDataBody;
+import org.apache.skywalking.apm.network.logging.v3.TextLog;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
+import org.apache.skywalking.oap.log.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TextParserSpecTest {
+    private static final String REGEXP = "(?<id>\\d+) \\[(?<thread>.+?)] (?<level>\\w{4,}) (?<msg>.+)";
+
+    private static final String[] GROUPS = {
+        "id",
+        "thread",
+        "level",
+        "msg"
+    };
+
+    private static final String[] TEXTS = {
+        "1 [main] INFO started",
+        "prefix 22 [pool-1-thread-2] ERROR failed [x] twice",
+        "333 [main] DBG too short level",
+        "no match",
+        ""
+    };
+
+    final ModuleManager manager = mock(ModuleManager.class);
+
+    @Before
+    public void setup() {
+        Whitebox.setInternalState(manager, "isInPrepareStage", false);
+        when(manager.find(anyString())).thenReturn(mock(ModuleProviderHolder.class));
+        when(manager.find(CoreModule.NAME).provider()).thenReturn(mock(ModuleServiceHolder.class));
+        when(manager.find(CoreModule.NAME).provider().getService(SourceReceiver.class))
+                .thenReturn(mock(SourceReceiver.class));
+        when(manager.find(CoreModule.NAME).provider().getService(ConfigService.class))
+                .thenReturn(mock(ConfigService.class));
+        when(manager.find(CoreModule.NAME)
+                .provider()
+                .getService(ConfigService.class)
+                .getSearchableLogsTags())
+                .thenReturn("");
+    }
+
+    @Test
+    public void testRegexpSameAsPattern() {
+        final TextParserSpec spec = new TextParserSpec(manager, new LogAnalyzerModuleConfig());
+        final Pattern pattern = Pattern.compile(REGEXP);
+
+        for (final String text : TEXTS) {
+            final Binding byRegexp = new Binding().log(log(text));
+            spec.bind(byRegexp);
+            spec.regexp(REGEXP);
+            final Map<String, Object> expected = groups(byRegexp);
+
+            final Binding byPattern = new Binding().log(log(text));
+            spec.bind(byPattern);
+            spec.regexp(pattern);
+
+            assertEquals(text, groups(byPattern), expected);
+            assertEquals(text, byPattern.shouldAbort(), byRegexp.shouldAbort());
+        }
+    }
+
+    @Test
+    public void testRegexpAbortOnFailure() {
+        final TextParserSpec spec = new TextParserSpec(manager, new LogAnalyzerModuleConfig());
+
+        final Binding binding = new Binding().log(log("no match"));
+        spec.bind(binding);
+        spec.regexp(REGEXP);
+        assertTrue(binding.shouldAbort());
+        assertNull(binding.parsed().getMatcher());
+
+        spec.abortOnFailure(false);
+        final Binding notAborted = new Binding().log(log("no match"));
+        spec.bind(notAborted);
+        spec.regexp(REGEXP);
+        assertFalse(notAborted.shouldAbort());
+    }
+
+    @Test
+    public void testRegexpInThreads() throws Exception {
+        final DSL dsl = DSL.of(
+            manager, new LogAnalyzerModuleConfig(),
+            "filter {\n" +
+                "  text {\n" +
+                "    abortOnFailure false\n" +
+                "    regexp $/" + REGEXP + "/$\n" +
+                "  }\n" +
+                "  extractor {\n" +
+                "    endpoint parsed.msg as String\n" +
+                "  }\n" +
+                "}"
+        );
+        Whitebox.setInternalState(
+            Whitebox.getInternalState(dsl, "filterSpec"), "sinkListenerFactories", Collections.emptyList()
+        );
+
+        final int threads = 8;
+        final int logs = 2000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    final Binding binding = new Binding();
+                    for (int i = 0; i < logs; i++) {
+                        final String msg = "message " + thread + "-" + i;
+                        dsl.bind(binding.reset().log(log(i + " [thread-" + thread + "] INFO " + msg)));
+                        dsl.evaluate();
+
+                        assertEquals(String.valueOf(i), binding.parsed().getAt("id"));
+                        assertEquals("thread-" + thread, binding.parsed().getAt("thread"));
+                        assertEquals(msg, binding.log().getEndpoint());
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LogData.Builder log(final String text) {
+        return LogData.newBuilder().setBody(LogDataBody.newBuilder().setText(TextLog.newBuilder().setText(text)));
+    }
+
+    private static Map<String, Object> groups(final Binding binding) {
+        if (binding.parsed().getMatcher() == null) {
+            return null;
+        }
+        final Map<String, Object> groups = new LinkedHashMap<>();
+        for (final String group : GROUPS) {
+            groups.put(group, binding.parsed().getAt(group));
+        }
+        return groups;
+    }
+}
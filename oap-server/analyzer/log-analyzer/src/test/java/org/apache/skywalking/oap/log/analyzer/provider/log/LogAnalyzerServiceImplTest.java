@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.provider.log;
+
+import com.google.protobuf.Message;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.log.analyzer.provider.log.listener.LogAnalysisListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogAnalyzerServiceImplTest {
+    private static final int SERVICES = 8;
+    private static final int LOGS_PER_SERVICE = 500;
+
+    @Test
+    public void testKeepOrderOfLogsPerService() throws InterruptedException {
+        final LogAnalyzerModuleConfig config = new LogAnalyzerModuleConfig();
+        config.setWorkerThreads(3);
+        config.setWorkerBufferSize(16);
+        final LogAnalyzerServiceImpl service = new LogAnalyzerServiceImpl(null, config);
+
+        final Map<String, List<Long>> analyzed = new ConcurrentHashMap<>();
+        final Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+        final AtomicInteger count = new AtomicInteger();
+        service.addListenerFactory(layer -> new LogAnalysisListener() {
+            @Override
+            public void build() {
+            }
+
+            @Override
+            public LogAnalysisListener parse(final LogData.Builder logData, final Message extraLog) {
+                analyzed.computeIfAbsent(logData.getService(), it -> new ArrayList<>()).add(logData.getTimestamp());
+                threads.computeIfAbsent(logData.getService(), it -> ConcurrentHashMap.newKeySet())
+                       .add(Thread.currentThread().getName());
+                count.incrementAndGet();
+                return this;
+            }
+        });
+
+        // The logs of all services are interleaved, and the small buffer blocks the producer.
+        for (int i = 1; i <= LOGS_PER_SERVICE; i++) {
+            for (int s = 0; s < SERVICES; s++) {
+                service.doAnalysis(LogData.newBuilder().setService("service-" + s).setTimestamp(i), null);
+            }
+        }
+        for (int i = 0; i < 100 && count.get() < SERVICES * LOGS_PER_SERVICE; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        Assert.assertEquals(SERVICES * LOGS_PER_SERVICE, count.get());
+        Assert.assertEquals(SERVICES, analyzed.size());
+        for (int s = 0; s < SERVICES; s++) {
+            final List<Long> timestamps = analyzed.get("service-" + s);
+            Assert.assertEquals(LOGS_PER_SERVICE, timestamps.size());
+            for (int i = 0; i < LOGS_PER_SERVICE; i++) {
+                Assert.assertEquals(i + 1, timestamps.get(i).longValue());
+            }
+            Assert.assertEquals(1, threads.get("service-" + s).size());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.provider.log.listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
+import org.apache.skywalking.oap.log.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.DatabaseSlowStatementBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LogFilterListenerTest {
+    @Test
+    public void testReusedBindingDoesNotCarryVariables() {
+        final DSL dsl = mock(DSL.class);
+        final LogFilterListener listener = new LogFilterListener(dsl);
+        final ArgumentCaptor<Binding> captor = ArgumentCaptor.forClass(Binding.class);
+
+        listener.parse(LogData.newBuilder().setService("service-1"), null);
+        verify(dsl).bind(captor.capture());
+        final Binding first = captor.getValue();
+        // The state left by the script of the first log.
+        first.setVariable("assignedByScript", "service-1");
+        first.parsed(Collections.singletonMap("level", "ERROR"));
+        first.drop();
+        first.abort();
+        first.metricsContainer(new ArrayList<>());
+        first.logContainer(new AtomicReference<>());
+        first.databaseSlowStatement(mock(DatabaseSlowStatementBuilder.class));
+
+        listener.parse(LogData.newBuilder().setService("service-2"), null);
+        verify(dsl, times(2)).bind(captor.capture());
+        final List<Binding> bindings = captor.getAllValues();
+        final Binding second = bindings.get(bindings.size() - 1);
+
+        Assert.assertSame(first, second);
+        Assert.assertFalse(second.hasVariable("assignedByScript"));
+        Assert.assertNull(second.parsed().getMap());
+        Assert.assertNull(second.parsed().getAt("level"));
+        Assert.assertTrue(second.shouldSave());
+        Assert.assertFalse(second.shouldAbort());
+        Assert.assertFalse(second.metricsContainer().isPresent());
+        Assert.assertFalse(second.logContainer().isPresent());
+        Assert.assertFalse(second.hasVariable(Binding.KEY_DATABASE_SLOW_STATEMENT));
+        Assert.assertEquals("service-2", second.log().getService());
+        Assert.assertEquals("service-2", second.parsed().getAt("service"));
+    }
+}
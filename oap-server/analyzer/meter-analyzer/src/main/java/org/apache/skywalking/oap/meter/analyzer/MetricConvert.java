@@ -22,7 +22,11 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import io.vavr.control.Try;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
@@ -51,14 +55,37 @@ public class MetricConvert {
 
     private final List<Analyzer> analyzers;
 
+    /**
+     * The indexes of the {@link #analyzers} referencing the sample, keyed by the sample name.
+     */
+    private final Map<String, BitSet> sampleIndex;
+
     public MetricConvert(MetricRuleConfig rule, MeterSystem service) {
+        this(Collections.singletonList(rule), service);
+    }
+
+    /**
+     * Convert the samples by the analyzers of all rules. Every sample family is only handed to the analyzers
+     * referencing it, through the index of the sample names built here.
+     */
+    public MetricConvert(List<? extends MetricRuleConfig> rules, MeterSystem service) {
+        this.analyzers = rules.stream().flatMap(rule -> buildAnalyzers(rule, service).stream()).collect(toList());
+        this.sampleIndex = new HashMap<>();
+        for (int i = 0; i < analyzers.size(); i++) {
+            for (final String sample : analyzers.get(i).getSamples()) {
+                sampleIndex.computeIfAbsent(sample, k -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    private List<Analyzer> buildAnalyzers(MetricRuleConfig rule, MeterSystem service) {
         Preconditions.checkState(!Strings.isNullOrEmpty(rule.getMetricPrefix()));
         // init expression script
         if (StringUtils.isNotEmpty(rule.getInitExp())) {
             handleInitExp(rule.getInitExp());
         }
 
-        this.analyzers = rule.getMetricsRules().stream().map(
+        return rule.getMetricsRules().stream().map(
             r -> {
                 String exp = r.getExp();
                 if (!Strings.isNullOrEmpty(rule.getExpPrefix())) {
@@ -78,6 +105,13 @@ public class MetricConvert {
         ).collect(toList());
     }
 
+    /**
+     * @return true if any analyzer references the sample of the given name.
+     */
+    public boolean isSampleReferenced(final String sampleName) {
+        return sampleIndex.containsKey(sampleName);
+    }
+
     /**
      * toMeter transforms {@link SampleFamily} collection  to meter-system metrics.
      *
@@ -88,7 +122,15 @@ public class MetricConvert {
         if (sampleFamilies.size() < 1) {
             return;
         }
-        for (Analyzer each : analyzers) {
+        final BitSet interested = new BitSet(analyzers.size());
+        for (final String sampleName : sampleFamilies.keySet()) {
+            final BitSet indexes = sampleIndex.get(sampleName);
+            if (indexes != null) {
+                interested.or(indexes);
+            }
+        }
+        for (int i = interested.nextSetBit(0); i >= 0; i = interested.nextSetBit(i + 1)) {
+            final Analyzer each = analyzers.get(i);
             try {
                 each.analyse(sampleFamilies);
             } catch (Throwable t) {
@@ -21,11 +21,14 @@ package org.apache.skywalking.oap.meter.analyzer.dsl;
 import com.google.common.collect.ImmutableList;
 import groovy.lang.Binding;
 import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import groovy.transform.CompileStatic;
 import groovy.util.DelegatingScript;
 import java.lang.reflect.Array;
 import java.util.List;
 import java.util.Map;
 
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.meter.analyzer.dsl.registry.ProcessRegistry;
 import org.apache.skywalking.oap.meter.analyzer.dsl.tagOpt.K8sRetagType;
 import org.apache.skywalking.oap.server.core.analysis.Layer;
@@ -34,14 +37,21 @@ import org.codehaus.groovy.ast.stmt.DoWhileStatement;
 import org.codehaus.groovy.ast.stmt.ForStatement;
 import org.codehaus.groovy.ast.stmt.Statement;
 import org.codehaus.groovy.ast.stmt.WhileStatement;
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
 import org.codehaus.groovy.control.customizers.SecureASTCustomizer;
 
 /**
  * DSL combines methods to parse groovy based DSL expression.
  */
+@Slf4j
 public final class DSL {
+    /**
+     * Compile the expressions statically when the environment variable {@code SW_MAL_COMPILE_STATIC} is true.
+     */
+    private static final boolean COMPILE_STATIC = Boolean.parseBoolean(System.getenv("SW_MAL_COMPILE_STATIC"));
 
     /**
      * Parse string literal to Expression object, which can be reused.
@@ -50,8 +60,35 @@ public final class DSL {
      * @return Expression object could be executed.
      */
     public static Expression parse(final String expression) {
+        return parse(expression, COMPILE_STATIC);
+    }
+
+    /**
+     * Parse string literal to Expression object, which can be reused.
+     *
+     * The statically compiled expression runs without the dynamic dispatch of Groovy. The expression, which can't pass
+     * the static type checking, such as using an untyped closure parameter, falls back to the dynamic one.
+     *
+     * @param expression    string literal represents the DSL expression.
+     * @param compileStatic true to compile the expression statically.
+     * @return Expression object could be executed.
+     */
+    public static Expression parse(final String expression, final boolean compileStatic) {
+        if (compileStatic) {
+            try {
+                return new Expression(expression, compile(expression, true));
+            } catch (CompilationFailedException e) {
+                log.info("\"{}\" can't be compiled statically, fall back to the dynamic one: {}",
+                         expression, e.getMessage());
+            }
+        }
+        return new Expression(expression, compile(expression, false));
+    }
+
+    private static Script compile(final String expression, final boolean compileStatic) {
         CompilerConfiguration cc = new CompilerConfiguration();
-        cc.setScriptBaseClass(DelegatingScript.class.getName());
+        cc.setScriptBaseClass(
+            compileStatic ? StaticExpressionScript.class.getName() : DelegatingScript.class.getName());
         ImportCustomizer icz = new ImportCustomizer();
         icz.addImport("K8sRetagType", K8sRetagType.class.getName());
         icz.addImport("DetectPoint", DetectPoint.class.getName());
@@ -79,9 +116,12 @@ public final class DSL {
                          .add(ProcessRegistry.class)
                 .build());
         cc.addCompilationCustomizers(secureASTCustomizer);
+        if (compileStatic) {
+            cc.addCompilationCustomizers(
+                new StaticExpressionTransformer(), new ASTTransformationCustomizer(CompileStatic.class));
+        }
 
         GroovyShell sh = new GroovyShell(new Binding(), cc);
-        DelegatingScript script = (DelegatingScript) sh.parse(expression);
-        return new Expression(expression, script);
+        return sh.parse(expression);
     }
 }
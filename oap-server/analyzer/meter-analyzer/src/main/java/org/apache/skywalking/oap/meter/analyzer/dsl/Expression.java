@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.meter.analyzer.dsl;
 import com.google.common.collect.ImmutableMap;
 import groovy.lang.ExpandoMetaClass;
 import groovy.lang.GroovyObjectSupport;
+import groovy.lang.Script;
 import groovy.util.DelegatingScript;
 import java.time.Instant;
 import java.util.Map;
@@ -38,9 +39,9 @@ public class Expression {
 
     private final String literal;
 
-    private final DelegatingScript expression;
+    private final Script expression;
 
-    public Expression(final String literal, final DelegatingScript expression) {
+    public Expression(final String literal, final Script expression) {
         this.literal = literal;
         this.expression = expression;
         this.empower();
@@ -93,8 +94,39 @@ public class Expression {
         }
     }
 
+    /**
+     * Look up the sample family referred by the running expression.
+     *
+     * @param metricName the name of the sample family.
+     * @param literal    the expression literal, for logging.
+     * @return the sample family, or {@link SampleFamily#EMPTY} if it's absent.
+     */
+    static SampleFamily lookup(final String metricName, final String literal) {
+        ExpressionParsingContext.get().ifPresent(ctx -> {
+            if (!ctx.samples.contains(metricName)) {
+                ctx.samples.add(metricName);
+            }
+        });
+        Map<String, SampleFamily> sampleFamilies = PROPERTY_REPOSITORY.get();
+        if (sampleFamilies == null) {
+            return SampleFamily.EMPTY;
+        }
+        if (sampleFamilies.containsKey(metricName)) {
+            return sampleFamilies.get(metricName);
+        }
+        if (!ExpressionParsingContext.get().isPresent()) {
+            log.warn("{} referred by \"{}\" doesn't exist in {}", metricName, literal, sampleFamilies.keySet());
+        }
+        return SampleFamily.EMPTY;
+    }
+
     private void empower() {
-        expression.setDelegate(new ExpressionDelegate(literal));
+        if (expression instanceof StaticExpressionScript) {
+            // Samples and binary operations are bound at compile time, no delegate or number extension required.
+            ((StaticExpressionScript) expression).setLiteral(literal);
+            return;
+        }
+        ((DelegatingScript) expression).setDelegate(new ExpressionDelegate(literal));
         extendNumber(Number.class);
     }
 
@@ -118,22 +150,7 @@ public class Expression {
         private final String literal;
 
         public SampleFamily propertyMissing(String metricName) {
-            ExpressionParsingContext.get().ifPresent(ctx -> {
-                if (!ctx.samples.contains(metricName)) {
-                    ctx.samples.add(metricName);
-                }
-            });
-            Map<String, SampleFamily> sampleFamilies = PROPERTY_REPOSITORY.get();
-            if (sampleFamilies == null) {
-                return SampleFamily.EMPTY;
-            }
-            if (sampleFamilies.containsKey(metricName)) {
-                return sampleFamilies.get(metricName);
-            }
-            if (!ExpressionParsingContext.get().isPresent()) {
-                log.warn("{} referred by \"{}\" doesn't exist in {}", metricName, literal, sampleFamilies.keySet());
-            }
-            return SampleFamily.EMPTY;
+            return lookup(metricName, literal);
         }
 
         public Number time() {
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LabelGroups groups the samples by the values of the given labels. The samples are hashed by the label values into
+ * an open addressing table of the sample indexes, so no label map is built for every sample, but only one for every
+ * group.
+ */
+final class LabelGroups {
+    private final Sample[] samples;
+    private final String[] keys;
+    /**
+     * The group index of every sample.
+     */
+    private final int[] groupOfSample;
+    /**
+     * The index of the first sample of every group, which represents the label values of the group.
+     */
+    private final int[] firstSample;
+    private int size;
+
+    private LabelGroups(final Sample[] samples, final List<String> keys) {
+        this.samples = samples;
+        this.keys = keys.toArray(new String[0]);
+        this.groupOfSample = new int[samples.length];
+        this.firstSample = new int[samples.length];
+    }
+
+    static LabelGroups of(final Sample[] samples, final List<String> keys) {
+        final LabelGroups groups = new LabelGroups(samples, keys);
+        groups.group();
+        return groups;
+    }
+
+    private void group() {
+        final int capacity = Integer.highestOneBit(Math.max(samples.length, 1) * 2 - 1) << 1;
+        final int mask = capacity - 1;
+        // The group index plus one of every slot, 0 means the slot is empty.
+        final int[] slots = new int[capacity];
+        final int[] hashes = new int[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            final int hash = hash(samples[i]);
+            int slot = spread(hash) & mask;
+            int group;
+            while ((group = slots[slot] - 1) >= 0) {
+                if (hashes[group] == hash && sameValues(samples[firstSample[group]], samples[i])) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (group < 0) {
+                group = size++;
+                firstSample[group] = i;
+                hashes[group] = hash;
+                slots[slot] = group + 1;
+            }
+            groupOfSample[i] = group;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int groupOf(final int sample) {
+        return groupOfSample[sample];
+    }
+
+    boolean isFirstOfGroup(final int sample) {
+        return firstSample[groupOfSample[sample]] == sample;
+    }
+
+    Sample first(final int group) {
+        return samples[firstSample[group]];
+    }
+
+    /**
+     * @return the labels of the group, the absent labels have the empty value.
+     */
+    ImmutableMap<String, String> labels(final int group) {
+        final Sample sample = first(group);
+        final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        for (final String key : keys) {
+            builder.put(key, sample.labels.getOrDefault(key, ""));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the samples of every group, in their original order.
+     */
+    Sample[][] members() {
+        final int[] counts = new int[size];
+        for (int i = 0; i < samples.length; i++) {
+            counts[groupOfSample[i]]++;
+        }
+        final Sample[][] members = new Sample[size][];
+        for (int group = 0; group < size; group++) {
+            members[group] = new Sample[counts[group]];
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < samples.length; i++) {
+            final int group = groupOfSample[i];
+            members[group][counts[group]++] = samples[i];
+        }
+        return members;
+    }
+
+    /**
+     * Map the labels of every group to the group index. The map is filled as {@link
+     * java.util.stream.Collectors#groupingBy} does, calling {@link Map#computeIfAbsent} for every sample, so it has the
+     * same iteration order as grouping the samples by the labels before. The label map is built once for every group.
+     */
+    @SuppressWarnings("unchecked")
+    Map<ImmutableMap<String, String>, Integer> byLabels() {
+        final Map<ImmutableMap<String, String>, Integer> groups = new HashMap<>();
+        final ImmutableMap<String, String>[] labels = new ImmutableMap[size];
+        for (int i = 0; i < samples.length; i++) {
+            final Integer group = groupOfSample[i];
+            if (labels[group] == null) {
+                labels[group] = labels(group);
+            }
+            groups.computeIfAbsent(labels[group], key -> group);
+        }
+        return groups;
+    }
+
+    private int hash(final Sample sample) {
+        int hash = 1;
+        for (final String key : keys) {
+            hash = 31 * hash + sample.labels.getOrDefault(key, "").hashCode();
+        }
+        return hash;
+    }
+
+    private boolean sameValues(final Sample a, final Sample b) {
+        for (final String key : keys) {
+            if (!Objects.equals(a.labels.getOrDefault(key, ""), b.labels.getOrDefault(key, ""))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -18,12 +18,6 @@
 
 package org.apache.skywalking.oap.meter.analyzer.dsl;
 
-import static java.util.function.UnaryOperator.identity;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-
 import org.apache.commons.lang3.StringUtils;
 import org.apache.skywalking.oap.meter.analyzer.dsl.EntityDescription.EndpointEntityDescription;
 import org.apache.skywalking.oap.meter.analyzer.dsl.EntityDescription.EntityDescription;
@@ -38,17 +32,24 @@ import org.apache.skywalking.oap.server.core.analysis.Layer;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
 import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
 import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import com.google.common.base.Preconditions;
@@ -56,8 +57,8 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import groovy.lang.Closure;
-import io.vavr.Function2;
-import io.vavr.Function3;
+import groovy.transform.stc.ClosureParams;
+import groovy.transform.stc.FromString;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -81,10 +82,25 @@ public class SampleFamily {
     static SampleFamily build(RunningContext ctx, Sample... samples) {
         Preconditions.checkNotNull(samples);
         Preconditions.checkArgument(samples.length > 0);
-        samples = Arrays.stream(samples).filter(sample -> !Double.isNaN(sample.getValue())).toArray(Sample[]::new);
-        if (samples.length == 0) {
+        int n = 0;
+        for (final Sample sample : samples) {
+            if (!Double.isNaN(sample.value)) {
+                n++;
+            }
+        }
+        if (n == 0) {
             return EMPTY;
         }
+        if (n < samples.length) {
+            final Sample[] ss = new Sample[n];
+            n = 0;
+            for (final Sample sample : samples) {
+                if (!Double.isNaN(sample.value)) {
+                    ss[n++] = sample;
+                }
+            }
+            samples = ss;
+        }
         return new SampleFamily(samples, Optional.ofNullable(ctx).orElseGet(RunningContext::instance));
     }
 
@@ -98,44 +114,44 @@ public class SampleFamily {
 
     /* tag filter operations*/
     public SampleFamily tagEqual(String... labels) {
-        return match(labels, InternalOps::stringComp);
+        return match(labels, Function.identity(), InternalOps::stringComp);
     }
 
     public SampleFamily tagNotEqual(String[] labels) {
-        return match(labels, (sv, lv) -> !InternalOps.stringComp(sv, lv));
+        return match(labels, Function.identity(), (sv, lv) -> !InternalOps.stringComp(sv, lv));
     }
 
     public SampleFamily tagMatch(String[] labels) {
-        return match(labels, String::matches);
+        return match(labels, Pattern::compile, (sv, p) -> p.matcher(sv).matches());
     }
 
     public SampleFamily tagNotMatch(String[] labels) {
-        return match(labels, (sv, lv) -> !sv.matches(lv));
+        return match(labels, Pattern::compile, (sv, p) -> !p.matcher(sv).matches());
     }
 
     /* value filter operations*/
     public SampleFamily valueEqual(double compValue) {
-        return valueMatch(CompType.EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.EQUAL, compValue);
     }
 
     public SampleFamily valueNotEqual(double compValue) {
-        return valueMatch(CompType.NOT_EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.NOT_EQUAL, compValue);
     }
 
     public SampleFamily valueGreater(double compValue) {
-        return valueMatch(CompType.GREATER, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.GREATER, compValue);
     }
 
     public SampleFamily valueGreaterEqual(double compValue) {
-        return valueMatch(CompType.GREATER_EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.GREATER_EQUAL, compValue);
     }
 
     public SampleFamily valueLess(double compValue) {
-        return valueMatch(CompType.LESS, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.LESS, compValue);
     }
 
     public SampleFamily valueLessEqual(double compValue) {
-        return valueMatch(CompType.LESS_EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.LESS_EQUAL, compValue);
     }
 
     /* Binary operator overloading*/
@@ -226,19 +242,16 @@ public class SampleFamily {
                 this.context, InternalOps.newSample(samples[0].name, ImmutableMap.of(), samples[0].timestamp, result));
         }
 
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .collect(groupingBy(it -> InternalOps.getLabels(by, it), mapping(identity(), toList())))
-                  .entrySet().stream()
-                  .map(entry -> InternalOps.newSample(
-                      entry.getValue().get(0).getName(),
-                      entry.getKey(),
-                      entry.getValue().get(0).getTimestamp(),
-                      entry.getValue().stream().mapToDouble(Sample::getValue).average().orElse(0.0D)
-                  ))
-                  .toArray(Sample[]::new)
-        );
+        final LabelGroups groups = LabelGroups.of(samples, by);
+        final DoubleSummaryStatistics[] statistics = new DoubleSummaryStatistics[groups.size()];
+        for (int i = 0; i < samples.length; i++) {
+            final int group = groups.groupOf(i);
+            if (statistics[group] == null) {
+                statistics[group] = new DoubleSummaryStatistics();
+            }
+            statistics[group].accept(samples[i].value);
+        }
+        return aggregated(groups, group -> statistics[group].getAverage());
     }
 
     protected SampleFamily aggregate(List<String> by, DoubleBinaryOperator aggregator) {
@@ -251,19 +264,29 @@ public class SampleFamily {
             return SampleFamily.build(
                 this.context, InternalOps.newSample(samples[0].name, ImmutableMap.of(), samples[0].timestamp, result));
         }
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .collect(groupingBy(it -> InternalOps.getLabels(by, it), mapping(identity(), toList())))
-                  .entrySet().stream()
-                  .map(entry -> InternalOps.newSample(
-                      entry.getValue().get(0).getName(),
-                      entry.getKey(),
-                      entry.getValue().get(0).getTimestamp(),
-                      entry.getValue().stream().mapToDouble(Sample::getValue).reduce(aggregator).orElse(0.0D)
-                  ))
-                  .toArray(Sample[]::new)
-        );
+        final LabelGroups groups = LabelGroups.of(samples, by);
+        final double[] values = new double[groups.size()];
+        for (int i = 0; i < samples.length; i++) {
+            final int group = groups.groupOf(i);
+            values[group] = groups.isFirstOfGroup(i)
+                ? samples[i].value
+                : aggregator.applyAsDouble(values[group], samples[i].value);
+        }
+        return aggregated(groups, group -> values[group]);
+    }
+
+    /**
+     * Build the aggregated samples of the groups, in the order of grouping them into a hash map keyed by the labels.
+     */
+    private SampleFamily aggregated(LabelGroups groups, IntToDoubleFunction valueOfGroup) {
+        final Sample[] aggregated = new Sample[groups.size()];
+        int n = 0;
+        for (final Map.Entry<ImmutableMap<String, String>, Integer> entry : groups.byLabels().entrySet()) {
+            final Sample first = groups.first(entry.getValue());
+            aggregated[n++] = InternalOps.newSample(
+                first.name, entry.getKey(), first.timestamp, valueOfGroup.applyAsDouble(entry.getValue()));
+        }
+        return SampleFamily.build(this.context, aggregated);
     }
 
     /* Function */
@@ -317,7 +340,7 @@ public class SampleFamily {
     }
 
     @SuppressWarnings(value = "unchecked")
-    public SampleFamily tag(Closure<?> cl) {
+    public SampleFamily tag(@ClosureParams(value = FromString.class, options = "Map<String,String>") Closure<?> cl) {
         if (this == EMPTY) {
             return EMPTY;
         }
@@ -339,7 +362,8 @@ public class SampleFamily {
         );
     }
 
-    public SampleFamily filter(Closure<Boolean> filter) {
+    public SampleFamily filter(
+        @ClosureParams(value = FromString.class, options = "Map<String,String>") Closure<Boolean> filter) {
         if (this == EMPTY) {
             return EMPTY;
         }
@@ -418,6 +442,22 @@ public class SampleFamily {
         return this;
     }
 
+    /**
+     * Calculate the percentiles like {@link #histogram_percentile(List)}, but keep the values in the mergeable quantile
+     * sketch rather than the buckets.
+     */
+    public SampleFamily histogram_percentile2(List<Integer> percentiles) {
+        Preconditions.checkArgument(percentiles.size() > 0);
+        int[] p = percentiles.stream().mapToInt(i -> i).toArray();
+        ExpressionParsingContext.get().ifPresent(ctx -> {
+            Preconditions.checkState(
+                ctx.isHistogram, "histogram() should be invoked before invoking histogram_percentile2()");
+            ctx.percentiles = p;
+            ctx.isPercentileSketch = true;
+        });
+        return this;
+    }
+
     public SampleFamily service(List<String> labelKeys, Layer layer) {
         Preconditions.checkArgument(labelKeys.size() > 0);
         ExpressionParsingContext.get().ifPresent(ctx -> {
@@ -444,7 +484,9 @@ public class SampleFamily {
 
     public SampleFamily instance(List<String> serviceKeys, String serviceDelimiter,
                                  List<String> instanceKeys, String instanceDelimiter,
-                                 Layer layer, Closure<Map<String, String>> propertiesExtractor) {
+                                 Layer layer,
+                                 @ClosureParams(value = FromString.class, options = "Map<String,String>")
+                                 Closure<Map<String, String>> propertiesExtractor) {
         Preconditions.checkArgument(serviceKeys.size() > 0);
         Preconditions.checkArgument(instanceKeys.size() > 0);
         ExpressionParsingContext.get().ifPresent(ctx -> {
@@ -491,7 +533,9 @@ public class SampleFamily {
         return createMeterSamples(new ServiceRelationEntityDescription(sourceServiceKeys, destServiceKeys, detectPoint, layer, Const.POINT));
     }
 
-    public SampleFamily forEach(List<String> array, Closure<Void> each) {
+    public SampleFamily forEach(List<String> array,
+                                @ClosureParams(value = FromString.class, options = "String,Map<String,String>")
+                                Closure<?> each) {
         if (this == EMPTY) {
             return EMPTY;
         }
@@ -526,69 +570,89 @@ public class SampleFamily {
 
     private SampleFamily createMeterSamples(EntityDescription entityDescription) {
         Map<MeterEntity, Sample[]> meterSamples = new HashMap<>();
-        Arrays.stream(samples)
-              .collect(groupingBy(it -> InternalOps.getLabels(entityDescription.getLabelKeys(), it),
-                                  mapping(identity(), toList())
-              ))
-              .forEach((labels, samples) -> {
-                  MeterEntity meterEntity = InternalOps.buildMeterEntity(samples, entityDescription);
-                  meterSamples.put(
-                      meterEntity, InternalOps.left(samples, entityDescription.getLabelKeys()));
-              });
+        final LabelGroups groups = LabelGroups.of(samples, entityDescription.getLabelKeys());
+        final Sample[][] members = groups.members();
+        for (final Integer group : groups.byLabels().values()) {
+            final List<Sample> samples = Arrays.asList(members[group]);
+            MeterEntity meterEntity = InternalOps.buildMeterEntity(samples, entityDescription);
+            meterSamples.put(meterEntity, InternalOps.left(samples, entityDescription.getLabelKeys()));
+        }
 
         this.context.setMeterSamples(meterSamples);
         //This samples is original, The grouped samples is in context which mapping with MeterEntity
         return SampleFamily.build(this.context, samples);
     }
 
-    private SampleFamily match(String[] labels, Function2<String, String, Boolean> op) {
+    /**
+     * Filter the samples by the label pairs. The label values of the expression are compiled once, such as the regular
+     * expressions, rather than for every sample.
+     */
+    private <T> SampleFamily match(String[] labels, Function<String, T> compiler, BiPredicate<String, T> op) {
         Preconditions.checkArgument(labels.length % 2 == 0);
         Map<String, String> ll = new HashMap<>(labels.length / 2);
         for (int i = 0; i < labels.length; i += 2) {
             ll.put(labels[i], labels[i + 1]);
         }
-        Sample[] ss = Arrays.stream(samples)
-                            .filter(sample -> ll.entrySet()
-                                                .stream()
-                                                .allMatch(
-                                                    entry -> op.apply(sample.labels.getOrDefault(entry.getKey(), ""),
-                                                                      entry.getValue()
-                                                    )))
-                            .toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+        final String[] keys = new String[ll.size()];
+        final List<T> values = new ArrayList<>(ll.size());
+        for (final Map.Entry<String, String> entry : ll.entrySet()) {
+            keys[values.size()] = entry.getKey();
+            values.add(compiler.apply(entry.getValue()));
+        }
+        return filterSamples(sample -> {
+            for (int i = 0; i < keys.length; i++) {
+                if (!op.test(sample.labels.getOrDefault(keys[i], ""), values.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private SampleFamily valueMatch(CompType compType, double compValue) {
+        return filterSamples(sample -> InternalOps.doubleComp(compType, sample.value, compValue));
     }
 
-    private SampleFamily valueMatch(CompType compType,
-                                    double compValue,
-                                    Function3<CompType, Double, Double, Boolean> op) {
-        Sample[] ss = Arrays.stream(samples)
-                            .filter(sample -> op.apply(compType, sample.value, compValue)).toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+    private SampleFamily filterSamples(Predicate<Sample> predicate) {
+        final Sample[] ss = new Sample[samples.length];
+        int n = 0;
+        for (final Sample sample : samples) {
+            if (predicate.test(sample)) {
+                ss[n++] = sample;
+            }
+        }
+        return n > 0 ? SampleFamily.build(this.context, n == ss.length ? ss : Arrays.copyOf(ss, n)) : EMPTY;
     }
 
-    SampleFamily newValue(Function<Double, Double> transform) {
+    SampleFamily newValue(DoubleUnaryOperator transform) {
         if (this == EMPTY) {
             return EMPTY;
         }
         Sample[] ss = new Sample[samples.length];
         for (int i = 0; i < ss.length; i++) {
-            ss[i] = samples[i].newValue(transform);
+            ss[i] = samples[i].toBuilder().value(transform.applyAsDouble(samples[i].value)).build();
         }
         return SampleFamily.build(this.context, ss);
     }
 
-    private SampleFamily newValue(SampleFamily another, Function2<Double, Double, Double> transform) {
-        Sample[] ss = Arrays.stream(samples)
-                            .flatMap(cs -> io.vavr.collection.Stream.of(another.samples)
-                                                                    .find(as -> cs.labels.equals(as.labels))
-                                                                    .map(as -> cs.toBuilder()
-                                                                                 .value(transform.apply(cs.value,
-                                                                                                        as.value
-                                                                                 )))
-                                                                    .map(Sample.SampleBuilder::build)
-                                                                    .toJavaStream())
-                            .toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+    /**
+     * Apply the binary operation to the samples with the same labels of both sides. The samples of the right-hand side
+     * are indexed by their labels, rather than scanned for every sample of the left-hand side.
+     */
+    private SampleFamily newValue(SampleFamily another, DoubleBinaryOperator transform) {
+        final Map<ImmutableMap<String, String>, Sample> index = Maps.newHashMapWithExpectedSize(another.samples.length);
+        for (final Sample as : another.samples) {
+            index.putIfAbsent(as.labels, as);
+        }
+        final Sample[] ss = new Sample[samples.length];
+        int n = 0;
+        for (final Sample cs : samples) {
+            final Sample as = index.get(cs.labels);
+            if (as != null) {
+                ss[n++] = cs.toBuilder().value(transform.applyAsDouble(cs.value, as.value)).build();
+            }
+        }
+        return n > 0 ? SampleFamily.build(this.context, n == ss.length ? ss : Arrays.copyOf(ss, n)) : EMPTY;
     }
 
     public SampleFamily downsampling(final DownsamplingType type) {
@@ -736,14 +800,6 @@ public class SampleFamily {
 
             return false;
         }
-
-        private static ImmutableMap<String, String> getLabels(final List<String> labelKeys, final Sample sample) {
-            return labelKeys.stream()
-                            .collect(toImmutableMap(
-                                Function.identity(),
-                                labelKey -> sample.labels.getOrDefault(labelKey, "")
-                            ));
-        }
     }
 
     private enum CompType {
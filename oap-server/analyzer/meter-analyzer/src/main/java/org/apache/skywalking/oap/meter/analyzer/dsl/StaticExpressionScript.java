@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import groovy.lang.Script;
+import java.time.Instant;
+import lombok.Setter;
+import org.codehaus.groovy.runtime.typehandling.NumberMath;
+
+/**
+ * StaticExpressionScript is the base class of the statically compiled expressions. The samples referred by the
+ * expression are rewritten to {@link #sample(String)} calls, and the arithmetic operators are rewritten to the
+ * overloaded binary operation methods, so all of them are bound at compile time instead of through the meta classes.
+ *
+ * @see StaticExpressionTransformer
+ */
+public abstract class StaticExpressionScript extends Script {
+    @Setter
+    private String literal;
+
+    public SampleFamily sample(String metricName) {
+        return Expression.lookup(metricName, literal);
+    }
+
+    public Number time() {
+        return Instant.now().getEpochSecond();
+    }
+
+    /* Binary operations, the operator methods of the left-hand side are used when it's a SampleFamily. */
+    public static Number plus(Number left, Number right) {
+        return NumberMath.add(left, right);
+    }
+
+    public static SampleFamily plus(Number left, SampleFamily right) {
+        return right.plus(left);
+    }
+
+    public static SampleFamily plus(SampleFamily left, Number right) {
+        return left.plus(right);
+    }
+
+    public static SampleFamily plus(SampleFamily left, SampleFamily right) {
+        return left.plus(right);
+    }
+
+    public static Number minus(Number left, Number right) {
+        return NumberMath.subtract(left, right);
+    }
+
+    public static SampleFamily minus(Number left, SampleFamily right) {
+        return right.minus(left).negative();
+    }
+
+    public static SampleFamily minus(SampleFamily left, Number right) {
+        return left.minus(right);
+    }
+
+    public static SampleFamily minus(SampleFamily left, SampleFamily right) {
+        return left.minus(right);
+    }
+
+    public static Number multiply(Number left, Number right) {
+        return NumberMath.multiply(left, right);
+    }
+
+    public static SampleFamily multiply(Number left, SampleFamily right) {
+        return right.multiply(left);
+    }
+
+    public static SampleFamily multiply(SampleFamily left, Number right) {
+        return left.multiply(right);
+    }
+
+    public static SampleFamily multiply(SampleFamily left, SampleFamily right) {
+        return left.multiply(right);
+    }
+
+    public static Number div(Number left, Number right) {
+        return NumberMath.divide(left, right);
+    }
+
+    public static SampleFamily div(Number left, SampleFamily right) {
+        return right.newValue(v -> left.doubleValue() / v);
+    }
+
+    public static SampleFamily div(SampleFamily left, Number right) {
+        return left.div(right);
+    }
+
+    public static SampleFamily div(SampleFamily left, SampleFamily right) {
+        return left.div(right);
+    }
+}
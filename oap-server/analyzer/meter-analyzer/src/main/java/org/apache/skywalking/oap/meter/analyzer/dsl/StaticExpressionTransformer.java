@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.codehaus.groovy.ast.ClassCodeExpressionTransformer;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.DynamicVariable;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+import org.codehaus.groovy.syntax.Types;
+
+/**
+ * StaticExpressionTransformer rewrites the dynamic parts of an expression, which could be compiled statically
+ * then.
+ *
+ * <ul>
+ *     <li>The undeclared variables, which are the samples, to {@link StaticExpressionScript#sample(String)}.</li>
+ *     <li>{@code AVG}, {@code SUM}, {@code LATEST} and {@code SUM_PER_MIN} to the {@link DownsamplingType}
+ *     constants.</li>
+ *     <li>The arithmetic operators to the binary operation methods of {@link StaticExpressionScript}, which are
+ *     resolved by the static types of both sides, such as {@code 100 - server_cpu_seconds}.</li>
+ * </ul>
+ *
+ * The closures are kept as they are, their parameters are typed by the {@link groovy.transform.stc.ClosureParams} of
+ * the {@link SampleFamily} methods.
+ */
+class StaticExpressionTransformer extends CompilationCustomizer {
+    private static final Map<Integer, String> OPERATORS = ImmutableMap.of(
+        Types.PLUS, "plus",
+        Types.MINUS, "minus",
+        Types.MULTIPLY, "multiply",
+        Types.DIVIDE, "div"
+    );
+
+    StaticExpressionTransformer() {
+        super(CompilePhase.CANONICALIZATION);
+    }
+
+    @Override
+    public void call(final SourceUnit source, final GeneratorContext context, final ClassNode classNode) {
+        if (!classNode.isScript()) {
+            return;
+        }
+        final MethodNode run = classNode.getMethod("run", Parameter.EMPTY_ARRAY);
+        if (run != null) {
+            new Rewriter(source).visitMethod(run);
+        }
+    }
+
+    private static class Rewriter extends ClassCodeExpressionTransformer {
+        private final SourceUnit source;
+
+        private Rewriter(final SourceUnit source) {
+            this.source = source;
+        }
+
+        @Override
+        protected SourceUnit getSourceUnit() {
+            return source;
+        }
+
+        @Override
+        public Expression transform(final Expression exp) {
+            if (exp == null || exp instanceof ClosureExpression) {
+                return exp;
+            }
+            if (exp instanceof VariableExpression
+                && ((VariableExpression) exp).getAccessedVariable() instanceof DynamicVariable) {
+                return rewriteVariable((VariableExpression) exp);
+            }
+            if (exp instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) exp;
+                final String operator = OPERATORS.get(binary.getOperation().getType());
+                if (operator != null) {
+                    return call(
+                        operator, new ArgumentListExpression(
+                            transform(binary.getLeftExpression()), transform(binary.getRightExpression())), exp);
+                }
+            }
+            return exp.transformExpression(this);
+        }
+
+        private Expression rewriteVariable(final VariableExpression variable) {
+            final String name = variable.getName();
+            for (final DownsamplingType type : DownsamplingType.values()) {
+                if (type.name().equals(name)) {
+                    final Expression constant = new PropertyExpression(
+                        new ClassExpression(ClassHelper.make(DownsamplingType.class)), name);
+                    constant.setSourcePosition(variable);
+                    return constant;
+                }
+            }
+            return call("sample", new ArgumentListExpression(new ConstantExpression(name)), variable);
+        }
+
+        private Expression call(final String method, final ArgumentListExpression args, final Expression origin) {
+            final MethodCallExpression call = new MethodCallExpression(
+                VariableExpression.THIS_EXPRESSION, method, args);
+            call.setImplicitThis(true);
+            call.setSourcePosition(origin);
+            return call;
+        }
+    }
+}
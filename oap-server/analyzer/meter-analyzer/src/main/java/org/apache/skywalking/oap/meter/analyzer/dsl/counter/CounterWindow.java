@@ -15,72 +15,267 @@
  * limitations under the License.
  *
  */
-
 package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
 
 import com.google.common.collect.ImmutableMap;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
 
 /**
  * CounterWindow stores a series of counter samples in order to calculate the increase
  * or instant rate of increase.
  *
+ * <p>The samples of every series are kept in a primitive ring buffer sorted by the timestamp, guarded by the lock of
+ * the series itself. The series not accessed in the {@link #seriesTTL} are expired, and the new series are ignored
+ * once the number of series reaches the {@link #maxSeries}, which are reported through the telemetry.
  */
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-@ToString
-@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class CounterWindow {
 
     public static final CounterWindow INSTANCE = new CounterWindow();
 
-    private final Map<ID, Tuple2<Long, Double>> lastElementMap = new ConcurrentHashMap<>();
-    private final Map<ID, Queue<Tuple2<Long, Double>>> windows = new ConcurrentHashMap<>();
+    private final Map<ID, Series> windows = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong nextExpiration = new AtomicLong();
+
+    /**
+     * The idle time of a series before being expired, in ms. 0 means never expired.
+     */
+    private volatile long seriesTTL = TimeUnit.MINUTES.toMillis(30);
+    /**
+     * The max number of series in the window. 0 means unbounded.
+     */
+    private volatile int maxSeries = 0;
+
+    private GaugeMetrics seriesGauge;
+    private CounterMetrics expiredCounter;
+    private CounterMetrics droppedCounter;
+
+    {
+        createMetrics(new MetricsCreatorNoop());
+    }
+
+    /**
+     * @param seriesTTL      the idle time of a series before being expired, in ms. 0 means never expired.
+     * @param maxSeries      the max number of series. 0 means unbounded.
+     * @param metricsCreator to report the number of series, the expired series and the dropped samples.
+     */
+    public void configure(long seriesTTL, int maxSeries, MetricsCreator metricsCreator) {
+        this.seriesTTL = seriesTTL;
+        this.maxSeries = maxSeries;
+        createMetrics(metricsCreator);
+        seriesGauge.setValue(size.get());
+    }
 
     public Tuple2<Long, Double> increase(String name, ImmutableMap<String, String> labels, Double value, long windowSize, long now) {
-        ID id = new ID(name, labels);
-        Queue<Tuple2<Long, Double>> window = windows.computeIfAbsent(id, unused -> new PriorityQueue<>());
-        window.offer(Tuple.of(now, value));
-        long waterLevel = now - windowSize;
-        Tuple2<Long, Double> peek = window.peek();
-        if (peek._1 > waterLevel) {
-            return peek;
+        final long current = System.currentTimeMillis();
+        expireIfNecessary(current);
+        final ID id = new ID(name, labels);
+        while (true) {
+            final Series series = series(id);
+            if (series == null) {
+                return Tuple.of(now, value);
+            }
+            synchronized (series) {
+                if (!series.expired) {
+                    series.lastAccess = current;
+                    return series.increase(now, value, windowSize);
+                }
+            }
         }
+    }
 
-        Tuple2<Long, Double> result = peek;
-        while (peek._1 < waterLevel) {
-            result = window.poll();
-            peek = window.element();
+    public Tuple2<Long, Double> pop(String name, ImmutableMap<String, String> labels, Double value, long now) {
+        final long current = System.currentTimeMillis();
+        expireIfNecessary(current);
+        final ID id = new ID(name, labels);
+        while (true) {
+            final Series series = series(id);
+            if (series == null) {
+                return Tuple.of(now, value);
+            }
+            synchronized (series) {
+                if (!series.expired) {
+                    series.lastAccess = current;
+                    return series.pop(now, value);
+                }
+            }
         }
+    }
 
-        // Choose the closed slot to the expected timestamp
-        if (waterLevel - result._1 <= peek._1 - waterLevel) {
-            return result;
-        }
+    public void reset() {
+        windows.clear();
+        size.set(0);
+        seriesGauge.setValue(0);
+    }
 
-        return peek;
+    int size() {
+        return size.get();
     }
 
-    public Tuple2<Long, Double> pop(String name, ImmutableMap<String, String> labels, Double value, long now) {
-        ID id = new ID(name, labels);
+    /**
+     * Expire the series not accessed in the TTL before the given time.
+     */
+    void expire(long current) {
+        final long ttl = seriesTTL;
+        if (ttl <= 0) {
+            return;
+        }
+        for (final Map.Entry<ID, Series> entry : windows.entrySet()) {
+            final Series series = entry.getValue();
+            synchronized (series) {
+                if (current - series.lastAccess < ttl) {
+                    continue;
+                }
+                series.expired = true;
+            }
+            if (windows.remove(entry.getKey(), series)) {
+                size.decrementAndGet();
+                seriesGauge.dec();
+                expiredCounter.inc();
+            }
+        }
+    }
 
-        Tuple2<Long, Double> element = Tuple.of(now, value);
-        Tuple2<Long, Double> result = lastElementMap.put(id, element);
-        if (result == null) {
-            return element;
+    private void expireIfNecessary(long current) {
+        final long next = nextExpiration.get();
+        if (current >= next && nextExpiration.compareAndSet(next, current + seriesTTL)) {
+            expire(current);
         }
-        return result;
     }
 
-    public void reset() {
-        windows.clear();
+    private Series series(ID id) {
+        final Series series = windows.get(id);
+        if (series != null) {
+            return series;
+        }
+        final int max = maxSeries;
+        if (max > 0 && size.get() >= max) {
+            droppedCounter.inc();
+            return null;
+        }
+        return windows.computeIfAbsent(id, unused -> {
+            size.incrementAndGet();
+            seriesGauge.inc();
+            return new Series();
+        });
+    }
+
+    private void createMetrics(MetricsCreator metricsCreator) {
+        seriesGauge = metricsCreator.createGauge(
+            "meter_counter_window_series",
+            "The number of series in the counter window of the increase and rate functions",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        expiredCounter = metricsCreator.createCounter(
+            "meter_counter_window_expired_series_count",
+            "The number of series expired in the counter window as not accessed in the TTL",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        droppedCounter = metricsCreator.createCounter(
+            "meter_counter_window_dropped_sample_count",
+            "The number of samples not tracked in the counter window as the max series is reached",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    /**
+     * The samples of one series in ascending order of the timestamp and value, and the last sample for the rate.
+     */
+    private static class Series {
+        private long[] timestamps = new long[4];
+        private double[] values = new double[4];
+        private int head;
+        private int count;
+
+        private boolean hasLast;
+        private long lastTimestamp;
+        private double lastValue;
+
+        private long lastAccess;
+        private boolean expired;
+
+        Tuple2<Long, Double> increase(long now, double value, long windowSize) {
+            offer(now, value);
+            final long waterLevel = now - windowSize;
+            if (timestamps[head] > waterLevel) {
+                return Tuple.of(timestamps[head], values[head]);
+            }
+
+            long resultTimestamp = timestamps[head];
+            double resultValue = values[head];
+            while (timestamps[head] < waterLevel) {
+                resultTimestamp = timestamps[head];
+                resultValue = values[head];
+                head = index(1);
+                count--;
+            }
+
+            // Choose the closed slot to the expected timestamp
+            if (waterLevel - resultTimestamp <= timestamps[head] - waterLevel) {
+                return Tuple.of(resultTimestamp, resultValue);
+            }
+
+            return Tuple.of(timestamps[head], values[head]);
+        }
+
+        Tuple2<Long, Double> pop(long now, double value) {
+            final Tuple2<Long, Double> result = hasLast ? Tuple.of(lastTimestamp, lastValue) : Tuple.of(now, value);
+            hasLast = true;
+            lastTimestamp = now;
+            lastValue = value;
+            return result;
+        }
+
+        private void offer(long timestamp, double value) {
+            if (count == timestamps.length) {
+                grow();
+            }
+            // Samples mostly come in order, scan from the tail to find the slot.
+            int i = count;
+            while (i > 0) {
+                final int prev = index(i - 1);
+                if (timestamps[prev] < timestamp
+                    || timestamps[prev] == timestamp && Double.compare(values[prev], value) <= 0) {
+                    break;
+                }
+                final int slot = index(i);
+                timestamps[slot] = timestamps[prev];
+                values[slot] = values[prev];
+                i--;
+            }
+            final int slot = index(i);
+            timestamps[slot] = timestamp;
+            values[slot] = value;
+            count++;
+        }
+
+        private void grow() {
+            final long[] newTimestamps = new long[timestamps.length << 1];
+            final double[] newValues = new double[values.length << 1];
+            for (int i = 0; i < count; i++) {
+                newTimestamps[i] = timestamps[index(i)];
+                newValues[i] = values[index(i)];
+            }
+            timestamps = newTimestamps;
+            values = newValues;
+            head = 0;
+        }
+
+        private int index(int i) {
+            return (head + i) & (timestamps.length - 1);
+        }
     }
 }
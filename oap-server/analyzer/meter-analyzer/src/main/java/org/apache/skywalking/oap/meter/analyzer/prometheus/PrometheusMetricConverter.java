@@ -25,6 +25,7 @@ import com.google.common.collect.ImmutableMap;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
@@ -70,7 +71,15 @@ public class PrometheusMetricConverter {
     private final MetricConvert convert;
 
     public PrometheusMetricConverter(Rule rule, MeterSystem service) {
-        this.convert = new MetricConvert(rule, service);
+        this(Collections.singletonList(rule), service);
+    }
+
+    /**
+     * Convert the metrics by all rules at once. Every metric is converted to samples once, and only handed to the
+     * analyzers referencing it.
+     */
+    public PrometheusMetricConverter(List<Rule> rules, MeterSystem service) {
+        this.convert = new MetricConvert(rules, service);
         this.metricsNameEscapePattern = Pattern.compile("\\.");
     }
 
@@ -80,10 +89,22 @@ public class PrometheusMetricConverter {
      * @param metricStream prometheus metrics stream.
      */
     public void toMeter(Stream<Metric> metricStream) {
-        ImmutableMap<String, SampleFamily> data = convertPromMetricToSampleFamily(metricStream);
+        ImmutableMap<String, SampleFamily> data = convertPromMetricToSampleFamily(
+            metricStream.filter(metric -> isMetricReferenced(metric.getName())));
         convert.toMeter(data);
     }
 
+    /**
+     * @param name of the prometheus metric, before escaped.
+     * @return true if the samples converted from the metric, including the `_count` and `_sum` of the histogram and
+     * summary, are referenced by any rule. The metric not referenced could be dropped before converted.
+     */
+    public boolean isMetricReferenced(String name) {
+        return convert.isSampleReferenced(escapedName(name))
+            || convert.isSampleReferenced(escapedName(name + "_count"))
+            || convert.isSampleReferenced(escapedName(name + "_sum"));
+    }
+
     public ImmutableMap<String, SampleFamily> convertPromMetricToSampleFamily(Stream<Metric> metricStream) {
         return metricStream
             .peek(metric -> log.debug("Prom metric to be convert to SampleFamily: {}", metric))
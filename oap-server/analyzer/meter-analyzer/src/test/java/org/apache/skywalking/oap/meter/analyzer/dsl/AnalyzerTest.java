@@ -29,8 +29,10 @@ import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgFunction;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgHistogramPercentileFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgHistogramPercentileSketchFunction;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgLabeledFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.analysis.metrics.QuantileSketch;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
 import org.apache.skywalking.oap.server.core.config.NamingControl;
 import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
@@ -240,4 +242,65 @@ public class AnalyzerTest {
         Assert.assertEquals(122L, instance2.getSummation().get("instance2:750"), 0.0);
         Assert.assertEquals(1L, instance2.getCount().get("instance2:750"), 0.0);
     }
+
+    @Test
+    public void testHistogramPercentileSketch() {
+        analyzer = Analyzer.build(
+            "instance_cpu_percentage_sketch",
+            null,
+            "instance_cpu_percentage.sum(['le' , 'service' , 'instance']).histogram().histogram_percentile2([25,75,99]).service(['service'], Layer.GENERAL)",
+            meterSystem
+        );
+        ImmutableMap<String, SampleFamily> input = ImmutableMap.of(
+            "instance_cpu_percentage", SampleFamilyBuilder.newBuilder(
+                Sample.builder()
+                      .labels(of("le", "0.025", "service", "service1", "instance", "instance1"))
+                      .value(100)
+                      .name("instance_cpu_percentage")
+                      .build(),
+                Sample.builder()
+                      .labels(of("le", "1.25", "service", "service1", "instance", "instance1"))
+                      .value(300)
+                      .name("instance_cpu_percentage")
+                      .build(),
+                Sample.builder()
+                      .labels(of("le", "0.75", "service", "service1", "instance", "instance2"))
+                      .value(122)
+                      .name("instance_cpu_percentage")
+                      .build()
+            ).build()
+        );
+
+        Map<String, AvgHistogramPercentileSketchFunction> actValues = new HashMap<>();
+        doAnswer(invocationOnMock -> {
+            AvgHistogramPercentileSketchFunction actValue =
+                (AvgHistogramPercentileSketchFunction) invocationOnMock.getArgument(0, AcceptableValue.class);
+            actValue.getSketches().forEach((group, sketch) -> actValues.put(group, actValue));
+            return null;
+        }).when(meterSystem).doStreamingCalculation(any());
+
+        analyzer.analyse(input);
+        Assert.assertEquals(2, actValues.size());
+        String expServiceId = IDManager.ServiceID.buildId("service1", true);
+        IntList expRanks = new IntList(3) {
+            {
+                add(25);
+                add(75);
+                add(99);
+            }
+        };
+        actValues.forEach((key, actValue) -> {
+            Assert.assertEquals(expServiceId, actValue.getEntityId());
+            Assert.assertThat(expRanks, is(actValue.getRanks()));
+        });
+        AvgHistogramPercentileSketchFunction instance1 = actValues.get("instance1");
+        AvgHistogramPercentileSketchFunction instance2 = actValues.get("instance2");
+        Assert.assertEquals(400L, instance1.getSketches().get("instance1").getCount());
+        Assert.assertEquals(122L, instance2.getSketches().get("instance2").getCount());
+
+        instance1.calculate();
+        Assert.assertEquals(25L, instance1.getPercentileValues().get("instance1:25"), 25 * QuantileSketch.RELATIVE_ACCURACY + 1);
+        Assert.assertEquals(1250L, instance1.getPercentileValues().get("instance1:75"), 1250 * QuantileSketch.RELATIVE_ACCURACY + 1);
+        Assert.assertEquals(1250L, instance1.getPercentileValues().get("instance1:99"), 1250 * QuantileSketch.RELATIVE_ACCURACY + 1);
+    }
 }
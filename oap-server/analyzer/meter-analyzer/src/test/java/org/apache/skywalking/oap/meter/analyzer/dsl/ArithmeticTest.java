@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.powermock.reflect.Whitebox;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -468,7 +469,17 @@ public class ArithmeticTest {
 
     @Test
     public void test() {
-        Expression e = DSL.parse(expression);
+        verify(DSL.parse(expression));
+    }
+
+    @Test
+    public void testCompileStatic() {
+        Expression e = DSL.parse(expression, true);
+        assertThat(Whitebox.getInternalState(e, "expression") instanceof StaticExpressionScript, is(true));
+        verify(e);
+    }
+
+    private void verify(final Expression e) {
         Result r = null;
         try {
             r = e.run(input);
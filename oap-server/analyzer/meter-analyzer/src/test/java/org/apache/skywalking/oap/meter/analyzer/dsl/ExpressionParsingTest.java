@@ -24,6 +24,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.powermock.reflect.Whitebox;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -91,6 +92,20 @@ public class ExpressionParsingTest {
                                         .percentiles(new int[]{50, 99}).build(),
                 false,
             },
+            {
+                "percentileSketch",
+                "foo.sum(['le', 'rr']).histogram().histogram_percentile2([50,99]).service(['rr'], Layer.GENERAL)",
+                ExpressionParsingContext.builder()
+                                        .samples(Collections.singletonList("foo"))
+                                        .scopeType(ScopeType.SERVICE)
+                                        .scopeLabels(Sets.newHashSet("rr"))
+                                        .aggregationLabels(Sets.newHashSet("le", "rr"))
+                                        .downsampling(DownsamplingType.AVG)
+                                        .isHistogram(true)
+                                        .percentiles(new int[]{50, 99})
+                                        .isPercentileSketch(true).build(),
+                false,
+            },
             {
                 "sameSamples",
                 "(node_cpu_seconds_total.sum(['node_identifier_host_name']) - node_cpu_seconds_total.tagEqual('mode', 'idle').sum(['node_identifier_host_name'])).service(['node_identifier_host_name'], Layer.GENERAL) ",
@@ -108,7 +123,17 @@ public class ExpressionParsingTest {
 
     @Test
     public void test() {
-        Expression e = DSL.parse(expression);
+        verify(DSL.parse(expression));
+    }
+
+    @Test
+    public void testCompileStatic() {
+        Expression e = DSL.parse(expression, true);
+        assertThat(Whitebox.getInternalState(e, "expression") instanceof StaticExpressionScript, is(true));
+        verify(e);
+    }
+
+    private void verify(final Expression e) {
         ExpressionParsingContext r = null;
         try {
             r = e.parse();
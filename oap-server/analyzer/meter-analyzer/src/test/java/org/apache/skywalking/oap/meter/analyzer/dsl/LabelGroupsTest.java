@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LabelGroupsTest {
+
+    @Test
+    public void testGroup() {
+        Sample[] samples = new Sample[] {
+            sample(ImmutableMap.of("idc", "t1"), 1),
+            sample(ImmutableMap.of("idc", "t3", "region", "cn"), 2),
+            sample(ImmutableMap.of("idc", "t1", "region", "us"), 3),
+            sample(ImmutableMap.of("idc", "t1", "region", "us", "instance", "10.0.0.1"), 4),
+            sample(ImmutableMap.of("idc", "t1", "region", ""), 5)
+        };
+        LabelGroups groups = LabelGroups.of(samples, Arrays.asList("region", "idc"));
+
+        assertEquals(3, groups.size());
+        assertEquals(groups.groupOf(0), groups.groupOf(4));
+        assertEquals(groups.groupOf(2), groups.groupOf(3));
+        assertTrue(groups.isFirstOfGroup(2));
+        assertTrue(!groups.isFirstOfGroup(3));
+        assertSame(samples[1], groups.first(groups.groupOf(1)));
+        assertEquals(ImmutableMap.of("region", "", "idc", "t1"), groups.labels(groups.groupOf(0)));
+        assertArrayEquals(new Sample[] {samples[2], samples[3]}, groups.members()[groups.groupOf(2)]);
+    }
+
+    @Test
+    public void testSameOrderAsGroupingBy() {
+        Random random = new Random(0);
+        // Less than 48 groups, the bins of the hash map are never turned into trees, whose order is not determined.
+        List<String> keys = Arrays.asList("a", "b");
+        for (int round = 0; round < 100; round++) {
+            Sample[] samples = new Sample[1 + random.nextInt(200)];
+            for (int i = 0; i < samples.length; i++) {
+                Map<String, String> labels = new LinkedHashMap<>();
+                for (String key : keys) {
+                    if (random.nextInt(4) > 0) {
+                        labels.put(key, "v" + random.nextInt(round % 4 + 1));
+                    }
+                }
+                samples[i] = sample(ImmutableMap.copyOf(labels), i);
+            }
+            List<String> by = new ArrayList<>(keys.subList(0, 1 + random.nextInt(keys.size())));
+            Collections.shuffle(by, random);
+
+            Map<ImmutableMap<String, String>, List<Sample>> want = Arrays.stream(samples).collect(
+                Collectors.groupingBy(
+                    sample -> by.stream().collect(ImmutableMap.toImmutableMap(
+                        key -> key, key -> sample.labels.getOrDefault(key, ""))),
+                    Collectors.toList()
+                ));
+            LabelGroups groups = LabelGroups.of(samples, by);
+            Sample[][] members = groups.members();
+
+            assertEquals(new ArrayList<>(want.keySet()), new ArrayList<>(groups.byLabels().keySet()));
+            groups.byLabels().forEach((labels, group) -> assertEquals(
+                want.get(labels), Arrays.asList(members[group])));
+        }
+    }
+
+    private static Sample sample(ImmutableMap<String, String> labels, double value) {
+        return Sample.builder().name("http_success_request").labels(labels).value(value).build();
+    }
+}
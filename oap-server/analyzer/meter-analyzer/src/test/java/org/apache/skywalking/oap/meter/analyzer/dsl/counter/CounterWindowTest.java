@@ -22,6 +22,8 @@ import com.google.common.collect.Lists;
 import io.vavr.Tuple2;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -93,4 +95,32 @@ public class CounterWindowTest {
 
         Assert.assertArrayEquals(new double[] {0, 1d, 2d, 3d, 4d, 0d, 1d, 2d}, actuals, 0.d);
     }
+
+    @Test
+    public void testExpire() {
+        CounterWindow window = new CounterWindow();
+        window.configure(TimeUnit.MINUTES.toMillis(1), 0, new MetricsCreatorNoop());
+        ImmutableMap<String, String> labels = ImmutableMap.of();
+        window.increase("test", labels, 10d, 60_000, 1_000);
+        window.pop("test", labels, 10d, 1_000);
+        Assert.assertEquals(10d, window.increase("test", labels, 12d, 60_000, 2_000)._2, 0.d);
+        Assert.assertEquals(10d, window.pop("test", labels, 12d, 2_000)._2, 0.d);
+
+        window.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1));
+        Assert.assertEquals(0, window.size());
+        Assert.assertEquals(15d, window.increase("test", labels, 15d, 60_000, 3_000)._2, 0.d);
+        Assert.assertEquals(15d, window.pop("test", labels, 15d, 3_000)._2, 0.d);
+    }
+
+    @Test
+    public void testMaxSeries() {
+        CounterWindow window = new CounterWindow();
+        window.configure(0, 1, new MetricsCreatorNoop());
+        ImmutableMap<String, String> labels = ImmutableMap.of();
+        window.increase("a", labels, 10d, 60_000, 1_000);
+        window.increase("b", labels, 10d, 60_000, 1_000);
+        Assert.assertEquals(1, window.size());
+        Assert.assertEquals(10d, window.increase("a", labels, 12d, 60_000, 2_000)._2, 0.d);
+        Assert.assertEquals(12d, window.increase("b", labels, 12d, 60_000, 2_000)._2, 0.d);
+    }
 }
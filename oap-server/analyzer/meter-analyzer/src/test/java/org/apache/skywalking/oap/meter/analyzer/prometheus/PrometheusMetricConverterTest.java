@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.meter.analyzer.prometheus;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.MetricsRule;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgFunction;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.storage.StorageException;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Counter;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Gauge;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.powermock.reflect.Whitebox;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PrometheusMetricConverterTest {
+
+    @Mock
+    private ModuleManager moduleManager;
+    private MeterSystem meterSystem;
+
+    @Before
+    public void setup() throws StorageException {
+        meterSystem = spy(new MeterSystem(moduleManager));
+        Whitebox.setInternalState(MetricsStreamProcessor.class, "PROCESSOR",
+                                  Mockito.spy(MetricsStreamProcessor.getInstance())
+        );
+        doNothing().when(MetricsStreamProcessor.getInstance()).create(any(), (StreamDefinition) any(), any());
+    }
+
+    @BeforeClass
+    public static void init() {
+        MeterEntity.setNamingControl(
+            new NamingControl(512, 512, 512, new EndpointNameGrouping()));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        MeterEntity.setNamingControl(null);
+    }
+
+    @Test
+    public void testConvertReferencedMetricsOnly() {
+        final PrometheusMetricConverter converter = new PrometheusMetricConverter(Arrays.asList(
+            rule("jvm", "jvm_memory_used.sum(['service']).service(['service'], Layer.GENERAL)"),
+            rule("http", "http_requests.sum(['service']).service(['service'], Layer.GENERAL)")
+        ), meterSystem);
+
+        Assert.assertTrue(converter.isMetricReferenced("jvm.memory.used"));
+        Assert.assertTrue(converter.isMetricReferenced("http_requests"));
+        Assert.assertTrue(converter.isMetricReferenced("http.requests"));
+        Assert.assertFalse(converter.isMetricReferenced("jvm.threads"));
+
+        final List<Long> values = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocationOnMock -> {
+            AvgFunction value = (AvgFunction) invocationOnMock.getArgument(0, AcceptableValue.class);
+            values.add(value.getSummation());
+            return null;
+        }).when(meterSystem).doStreamingCalculation(any());
+
+        final long now = System.currentTimeMillis();
+        converter.toMeter(Stream.of(
+            new Gauge("jvm.memory.used", ImmutableMap.of("service", "svc"), 100, now),
+            new Gauge("jvm.threads", ImmutableMap.of("service", "svc"), 1000, now),
+            new Counter("http.requests", ImmutableMap.of("service", "svc"), 7, now)
+        ));
+
+        Collections.sort(values);
+        Assert.assertEquals(Arrays.asList(7L, 100L), values);
+    }
+
+    private Rule rule(String name, String exp) {
+        final Rule rule = new Rule();
+        rule.setName(name);
+        rule.setMetricPrefix(name);
+        rule.setMetricsRules(Collections.singletonList(MetricsRule.builder().name("test").exp(exp).build()));
+        return rule;
+    }
+}
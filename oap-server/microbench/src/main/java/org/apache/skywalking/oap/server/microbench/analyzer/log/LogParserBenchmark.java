@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.analyzer.log;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogDataBody;
+import org.apache.skywalking.apm.network.logging.v3.TextLog;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.parser.JsonParserSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.parser.TextParserSpec;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare the JSON parser decoding all fields of a log with the one decoding the fields referenced by the LAL script
+ * only, and the regexp compiled for every log with the cached one.
+ */
+@State(Scope.Thread)
+public class LogParserBenchmark extends AbstractMicrobenchmark {
+    private static final String JSON =
+        "{\"time\":\"1663056000000\",\"layer\":\"MYSQL\",\"service\":\"root[root]@[localhost]\","
+            + "\"id\":\"cbc48a36-6f21-4a7b-b5a1-9a4cd3a3b2f4\","
+            + "\"statement\":\"" + Strings.repeat("select * from orders where id = 1; ", 20) + "\","
+            + "\"query_time\":2000,"
+            + "\"headers\":{\"user-agent\":\"mysql-client\",\"hosts\":[\"10.0.0.1\",\"10.0.0.2\"]},"
+            + "\"message\":\"" + Strings.repeat("slow query detected ", 50) + "\"}";
+
+    private static final String REGEXP =
+        "(?s)(?<timestamp>\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}.\\d{3}) \\[TID:(?<tid>.+?)] "
+            + "\\[(?<thread>.+?)] (?<level>\\w{4,}) (?<logger>.{1,36}) (?<msg>.+)";
+
+    private static final String TEXT =
+        "2022-09-13 08:00:00.000 [TID:N/A] [main] INFO  o.a.s.oap.server.starter.OAPServerBootstrap - Start";
+
+    private final JsonParserSpec fullJsonParser = new JsonParserSpec(null, null);
+    private final JsonParserSpec projectedJsonParser = new JsonParserSpec(
+        null, null, ImmutableSet.of("layer", "service", "query_time"));
+    private final TextParserSpec textParser = new TextParserSpec(null, null);
+
+    @Setup
+    public void setup() {
+        textParser.bind(new Binding().log(
+            LogData.newBuilder().setBody(LogDataBody.newBuilder().setText(TextLog.newBuilder().setText(TEXT)))));
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonAllFields() throws IOException {
+        return fullJsonParser.parse(JSON);
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonReferencedFields() throws IOException {
+        return projectedJsonParser.parse(JSON);
+    }
+
+    @Benchmark
+    public void regexpCompiled() {
+        textParser.regexp(Pattern.compile(REGEXP));
+    }
+
+    @Benchmark
+    public void regexpCached() {
+        textParser.regexp(REGEXP);
+    }
+}
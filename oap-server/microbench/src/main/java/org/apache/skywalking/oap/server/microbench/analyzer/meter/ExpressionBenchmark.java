@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.analyzer.meter;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.apache.skywalking.oap.meter.analyzer.dsl.DSL;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Expression;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Result;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Sample;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamilyBuilder;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare the dynamically dispatched MAL expression, which is the default, with the statically compiled one. Both run
+ * the same expression, mixing the sample references, the number-on-left arithmetic, a closure and an aggregation.
+ */
+@State(Scope.Thread)
+public class ExpressionBenchmark extends AbstractMicrobenchmark {
+    private static final String EXPRESSION =
+        "(100 - node_cpu_idle * 100 / node_cpu_total)"
+            + ".tag({tags -> tags.service = 'vm::' + tags.host}).sum(['service'])";
+
+    private final Expression dynamicExpression = DSL.parse(EXPRESSION, false);
+    private final Expression staticExpression = DSL.parse(EXPRESSION, true);
+    private final Map<String, SampleFamily> sampleFamilies = ImmutableMap.of(
+        "node_cpu_idle", sampleFamily("node_cpu_idle", 30),
+        "node_cpu_total", sampleFamily("node_cpu_total", 120)
+    );
+
+    @Benchmark
+    public Result dynamicDispatch() {
+        return dynamicExpression.run(sampleFamilies);
+    }
+
+    @Benchmark
+    public Result compileStatic() {
+        return staticExpression.run(sampleFamilies);
+    }
+
+    private static SampleFamily sampleFamily(String name, double value) {
+        Sample[] samples = new Sample[10];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = Sample.builder()
+                               .name(name)
+                               .labels(ImmutableMap.of("host", "host-" + i, "cpu", String.valueOf(i)))
+                               .value(value + i)
+                               .timestamp(System.currentTimeMillis())
+                               .build();
+        }
+        return SampleFamilyBuilder.newBuilder(samples).build();
+    }
+}
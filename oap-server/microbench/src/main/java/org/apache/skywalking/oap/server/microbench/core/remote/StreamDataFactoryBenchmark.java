@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.remote;
+
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactories;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare the reflective instantiation of the stream data, which is how the remote service handler worked before, with
+ * the generated {@link StreamDataFactory}. Both deserialize the same remote data, as the L2 receive path does.
+ */
+@State(Scope.Thread)
+public class StreamDataFactoryBenchmark extends AbstractMicrobenchmark {
+    private static final RemoteData REMOTE_DATA = RemoteData.newBuilder()
+                                                            .addDataStrings("service-a")
+                                                            .addDataLongs(202210181200L)
+                                                            .addDataLongs(100)
+                                                            .build();
+
+    private final Class<? extends StreamData> streamDataClass = SampleStreamData.class;
+    private final StreamDataFactory factory = StreamDataFactories.create(SampleStreamData.class);
+
+    @Benchmark
+    public StreamData reflection() throws Exception {
+        StreamData streamData = streamDataClass.newInstance();
+        streamData.deserialize(REMOTE_DATA);
+        return streamData;
+    }
+
+    @Benchmark
+    public StreamData factory() {
+        StreamData streamData = factory.newInstance();
+        streamData.deserialize(REMOTE_DATA);
+        return streamData;
+    }
+
+    public static class SampleStreamData extends StreamData {
+        private String entityId;
+        private long timeBucket;
+        private long value;
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+            entityId = remoteData.getDataStrings(0);
+            timeBucket = remoteData.getDataLongs(0);
+            value = remoteData.getDataLongs(1);
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder()
+                             .addDataStrings(entityId)
+                             .addDataLongs(timeBucket)
+                             .addDataLongs(value);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.library.datacarrier;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.oap.server.library.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.oap.server.library.datacarrier.buffer.Channels;
+import org.apache.skywalking.oap.server.library.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.oap.server.library.datacarrier.partition.SimpleRollingPartitioner;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Compare the lock based {@link BufferStrategy#BLOCKING} channel with the lock-free {@link BufferStrategy#LOCK_FREE}
+ * one, with many producers and a single consumer, which is how the L1 aggregation channels are used.
+ * <p>
+ * The producers block when the buffer is full, the synchronized iterations of JMH keep the consumer draining until
+ * every producer thread finishes the iteration. Once the measurement stops, the producers don't save any more, as
+ * the consumer could leave the warm down before them, and a BLOCKING producer would then wait forever on a full
+ * buffer, which is not released by switching the strategy.
+ */
+@State(Scope.Group)
+public class QueueBufferBenchmark extends AbstractMicrobenchmark {
+    private static final int PRODUCERS = 8;
+    private static final SampleData DATA = new SampleData();
+
+    private Channels<SampleData> blocking;
+    private Channels<SampleData> lockFree;
+    private QueueBuffer<SampleData> blockingBuffer;
+    private QueueBuffer<SampleData> lockFreeBuffer;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        blocking = new Channels<>(1, 10000, new SimpleRollingPartitioner<>(), BufferStrategy.BLOCKING);
+        lockFree = new Channels<>(1, 10000, new SimpleRollingPartitioner<>(), BufferStrategy.LOCK_FREE);
+        blockingBuffer = blocking.getBuffer(0);
+        lockFreeBuffer = lockFree.getBuffer(0);
+    }
+
+    @State(Scope.Thread)
+    public static class ConsumeList {
+        private final List<SampleData> list = new ArrayList<>(10000);
+    }
+
+    @Benchmark
+    @Group("blocking")
+    @GroupThreads(PRODUCERS)
+    public boolean blockingProduce(Control control) {
+        if (control.stopMeasurement) {
+            return false;
+        }
+        return blocking.save(DATA);
+    }
+
+    @Benchmark
+    @Group("blocking")
+    @GroupThreads(1)
+    public int blockingConsume(ConsumeList consumeList) {
+        blockingBuffer.obtain(consumeList.list);
+        int size = consumeList.list.size();
+        consumeList.list.clear();
+        return size;
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(PRODUCERS)
+    public boolean lockFreeProduce(Control control) {
+        if (control.stopMeasurement) {
+            return false;
+        }
+        return lockFree.save(DATA);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public int lockFreeConsume(ConsumeList consumeList) {
+        lockFreeBuffer.obtain(consumeList.list);
+        int size = consumeList.list.size();
+        consumeList.list.clear();
+        return size;
+    }
+
+    /**
+     * Test Data
+     */
+    public static class SampleData {
+    }
+
+    /*
+        Environment:
+
+        # JMH version: 1.21
+        # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+        # VM options: <none>
+        # CPU: 1 core
+        # Warmup: 5 iterations, 2 s each
+        # Measurement: 5 iterations, 2 s each
+        # Timeout: 10 min per iteration
+        # Threads: 9 threads (1 group; 1x consume, 8x produce in each group), will synchronize iterations
+        # Benchmark mode: Throughput, ops/time
+
+        The consume score counts the drains rather than the drained elements, compare the produce scores.
+
+        Benchmark                                           Mode  Cnt         Score         Error   Units
+        QueueBufferBenchmark.blocking                      thrpt    5  27686044.304 ± 4505602.095   ops/s
+        QueueBufferBenchmark.blocking:blockingConsume      thrpt    5  19048776.508 ± 3472019.899   ops/s
+        QueueBufferBenchmark.blocking:blockingProduce      thrpt    5   8637267.796 ± 1123333.013   ops/s
+        QueueBufferBenchmark.blocking:·gc.alloc.rate       thrpt    5         0.208 ±       0.022  MB/sec
+        QueueBufferBenchmark.blocking:·gc.alloc.rate.norm  thrpt    5         0.009 ±       0.002    B/op
+        QueueBufferBenchmark.blocking:·gc.count            thrpt    5           ≈ 0                counts
+        QueueBufferBenchmark.lockFree                      thrpt    5  21189556.160 ± 5877400.135   ops/s
+        QueueBufferBenchmark.lockFree:lockFreeConsume      thrpt    5   2593919.476 ± 2982135.505   ops/s
+        QueueBufferBenchmark.lockFree:lockFreeProduce      thrpt    5  18595636.684 ± 2935895.482   ops/s
+        QueueBufferBenchmark.lockFree:·gc.alloc.rate       thrpt    5         0.042 ±       0.001  MB/sec
+        QueueBufferBenchmark.lockFree:·gc.alloc.rate.norm  thrpt    5         0.002 ±       0.001    B/op
+        QueueBufferBenchmark.lockFree:·gc.count            thrpt    5           ≈ 0                counts
+     */
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * OALClassCache keeps the bytecode of the classes generated from an OAL script on the disk. The cache is keyed by the
+ * hash of the script, the OAP version and the other inputs of the generation, the changes of any of them lead to a new
+ * cache. The classes are listed in the order of their generation, and the list is only written after all classes, so
+ * an incomplete cache is never read.
+ */
+@Slf4j
+class OALClassCache {
+    private static final String CLASS_LIST = "classes.list";
+
+    private final File folder;
+    private final List<CachedClass> generatedClasses = new ArrayList<>();
+
+    /**
+     * @param cacheFolder the root folder of the caches of all OAL scripts.
+     * @param keys        the inputs of the generation, such as the script and the OAP version.
+     */
+    OALClassCache(File cacheFolder, String... keys) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        for (final String key : keys) {
+            hasher.putInt(key.length()).putString(key, StandardCharsets.UTF_8);
+        }
+        folder = new File(cacheFolder, hasher.hash().toString());
+    }
+
+    /**
+     * @return the cached classes in the order of their generation, or null if the cache doesn't exist or can't be read.
+     * The broken cache is removed, so it could be written by {@link #save()} again.
+     */
+    List<CachedClass> load(ClassPool classPool) {
+        final File classList = new File(folder, CLASS_LIST);
+        if (!classList.isFile()) {
+            // The class list is written at last, the folder without it is not a cache.
+            FileUtils.deleteQuietly(folder);
+            return null;
+        }
+        try {
+            final List<CachedClass> classes = new ArrayList<>();
+            for (final String line : FileUtils.readLines(classList, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final String[] typeAndName = line.split(" ", 2);
+                final byte[] bytecode = FileUtils.readFileToByteArray(new File(folder, typeAndName[1] + ".class"));
+                final CtClass ctClass = classPool.makeClass(new ByteArrayInputStream(bytecode));
+                if (!ctClass.getName().equals(typeAndName[1])) {
+                    throw new IOException(
+                        "Class " + typeAndName[1] + " is expected, but " + ctClass.getName() + " found");
+                }
+                classes.add(new CachedClass(typeAndName[0], ctClass));
+            }
+            return classes;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Can't read the OAL class cache {}, remove it.", folder, e);
+            FileUtils.deleteQuietly(folder);
+            return null;
+        }
+    }
+
+    /**
+     * Add a generated class, which is written into the cache by {@link #save()}.
+     */
+    void add(String type, CtClass ctClass) {
+        generatedClasses.add(new CachedClass(type, ctClass));
+    }
+
+    /**
+     * Write the generated classes into the cache. The classes are written into a temporary folder, which is renamed to
+     * the cache folder at last, another OAP sharing the cache folder may have done the same.
+     */
+    void save() {
+        final File temp = new File(folder.getParentFile(), folder.getName() + "-" + UUID.randomUUID());
+        try {
+            final StringBuilder classList = new StringBuilder();
+            for (final CachedClass generated : generatedClasses) {
+                final String name = generated.getCtClass().getName();
+                FileUtils.writeByteArrayToFile(new File(temp, name + ".class"), generated.getCtClass().toBytecode());
+                classList.append(generated.getType()).append(' ').append(name).append('\n');
+            }
+            FileUtils.writeStringToFile(new File(temp, CLASS_LIST), classList.toString(), StandardCharsets.UTF_8);
+            if (!folder.exists() && !temp.renameTo(folder)) {
+                log.warn("Can't move the OAL class cache {} to {}, ignore.", temp, folder);
+            }
+        } catch (IOException | CannotCompileException e) {
+            log.warn("Can't write the OAL class cache {}, ignore.", folder, e);
+        } finally {
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    File getFolder() {
+        return folder;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class CachedClass {
+        private final String type;
+        private final CtClass ctClass;
+    }
+}
@@ -26,6 +26,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -49,6 +50,7 @@ import javassist.bytecode.annotation.IntegerMemberValue;
 import javassist.bytecode.annotation.StringMemberValue;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.JavaVersion;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.skywalking.oal.rt.output.AllDispatcherContext;
@@ -73,6 +75,7 @@ import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
 import org.apache.skywalking.oap.server.core.storage.annotation.BanyanDB;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.version.Version;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.util.ResourceUtils;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
@@ -104,6 +107,9 @@ public class OALRuntime implements OALEngine {
         "entity2Storage",
         "storage2Entity"
     };
+    private static final String METRICS_TYPE = "metrics";
+    private static final String METRICS_BUILDER_TYPE = "metrics/builder";
+    private static final String DISPATCHER_TYPE = "dispatcher";
     private static boolean IS_RT_TEMP_FOLDER_INIT_COMPLETED = false;
 
     private final OALDefine oalDefine;
@@ -117,6 +123,8 @@ public class OALRuntime implements OALEngine {
     private final List<Class> metricsClasses;
     private final List<Class> dispatcherClasses;
     private final boolean openEngineDebug;
+    private final String classCacheFolder;
+    private OALClassCache classCache;
 
     public OALRuntime(OALDefine define) {
         oalDefine = define;
@@ -128,6 +136,7 @@ public class OALRuntime implements OALEngine {
         metricsClasses = new ArrayList<>();
         dispatcherClasses = new ArrayList<>();
         openEngineDebug = StringUtil.isNotEmpty(System.getenv("SW_OAL_ENGINE_DEBUG"));
+        classCacheFolder = System.getenv("SW_OAL_ENGINE_CLASS_CACHE");
     }
 
     @Override
@@ -153,23 +162,32 @@ public class OALRuntime implements OALEngine {
         }
 
         this.currentClassLoader = currentClassLoader;
-        Reader read;
+        String script;
 
-        try {
-            read = ResourceUtils.read(oalDefine.getConfigFile());
+        try (Reader read = ResourceUtils.read(oalDefine.getConfigFile())) {
+            script = IOUtils.toString(read);
         } catch (FileNotFoundException e) {
             throw new ModuleStartException("Can't locate " + oalDefine.getConfigFile(), e);
+        } catch (IOException e) {
+            throw new ModuleStartException("Can't read " + oalDefine.getConfigFile(), e);
         }
 
         OALScripts oalScripts;
         try {
-            ScriptParser scriptParser = ScriptParser.createFromFile(read, oalDefine.getSourcePackage());
+            ScriptParser scriptParser = ScriptParser.createFromFile(
+                new StringReader(script), oalDefine.getSourcePackage());
             oalScripts = scriptParser.parse();
         } catch (IOException e) {
             throw new ModuleStartException("OAL script parse analysis failure.", e);
         }
 
-        this.generateClassAtRuntime(oalScripts);
+        classCache = createClassCache(script);
+        if (classCache == null || !this.loadClassFromCache(oalScripts)) {
+            this.generateClassAtRuntime(oalScripts);
+            if (classCache != null) {
+                classCache.save();
+            }
+        }
     }
 
     @Override
@@ -208,6 +226,90 @@ public class OALRuntime implements OALEngine {
         });
     }
 
+    /**
+     * The class cache is activated by the env variable SW_OAL_ENGINE_CLASS_CACHE, which is the folder of the cache. The
+     * cache is keyed by the OAL script, the OAP version and the storage builder template.
+     *
+     * @return null if the class cache is not activated.
+     */
+    private OALClassCache createClassCache(String script) {
+        if (StringUtil.isEmpty(classCacheFolder)) {
+            return null;
+        }
+        String version;
+        try {
+            version = Version.CURRENT.toString();
+        } catch (Throwable t) {
+            log.warn("Can't read the OAP version, the OAL class cache is deactivated.", t);
+            return null;
+        }
+        return new OALClassCache(
+            new File(classCacheFolder),
+            version,
+            oalDefine.getConfigFile(),
+            script,
+            oalDefine.getSourcePackage(),
+            oalDefine.getDynamicMetricsClassPackage(),
+            oalDefine.getDynamicMetricsBuilderClassPackage(),
+            oalDefine.getDynamicDispatcherClassPackage(),
+            storageBuilderFactory.builderTemplate().getSuperClass(),
+            storageBuilderFactory.builderTemplate().getTemplatePath()
+        );
+    }
+
+    /**
+     * Load the classes generated by the previous start from the class cache. All cached classes are read before any of
+     * them is injected to the classloader, so a broken cache could fall back to the generation.
+     *
+     * @return false if the cache doesn't exist or can't be read.
+     */
+    private boolean loadClassFromCache(OALScripts oalScripts) throws OALCompileException {
+        List<OALClassCache.CachedClass> cachedClasses = classCache.load(classPool);
+        if (cachedClasses == null) {
+            return false;
+        }
+
+        for (OALClassCache.CachedClass cachedClass : cachedClasses) {
+            CtClass ctClass = cachedClass.getCtClass();
+            switch (cachedClass.getType()) {
+                case METRICS_TYPE:
+                    metricsClasses.add(toClass(ctClass, MetricClassPackageHolder.class));
+                    break;
+                case METRICS_BUILDER_TYPE:
+                    toClass(ctClass, MetricBuilderClassPackageHolder.class);
+                    break;
+                case DISPATCHER_TYPE:
+                    dispatcherClasses.add(toClass(ctClass, DispatcherClassPackageHolder.class));
+                    break;
+                default:
+                    throw new OALCompileException("Unknown type of the cached class " + ctClass.getName());
+            }
+            writeGeneratedFile(ctClass, ctClass.getSimpleName(), cachedClass.getType());
+        }
+        log.info("Load {} OAL classes from the class cache {}.", cachedClasses.size(), classCache.getFolder());
+
+        oalScripts.getDisableCollection().getAllDisableSources().forEach(DisableRegister.INSTANCE::add);
+        return true;
+    }
+
+    /**
+     * Inject the class to the classloader.
+     *
+     * @param neighbor the class in the same package, used since JDK 11.
+     */
+    private Class toClass(CtClass ctClass, Class<?> neighbor) throws OALCompileException {
+        try {
+            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
+                return ctClass.toClass(currentClassLoader, null);
+            } else {
+                return ctClass.toClass(neighbor);
+            }
+        } catch (CannotCompileException e) {
+            log.error("Can't compile/load " + ctClass.getName() + ".", e);
+            throw new OALCompileException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Generate metrics class, and inject it to classloader
      */
@@ -315,20 +417,11 @@ public class OALRuntime implements OALEngine {
         annotationsAttribute.addAnnotation(streamAnnotation);
         metricsClassClassFile.addAttribute(annotationsAttribute);
 
-        Class targetClass;
-        try {
-            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
-                targetClass = metricsClass.toClass(currentClassLoader, null);
-            } else {
-                targetClass = metricsClass.toClass(MetricClassPackageHolder.class);
-            }
-        } catch (CannotCompileException e) {
-            log.error("Can't compile/load " + className + ".", e);
-            throw new OALCompileException(e.getMessage(), e);
-        }
+        Class targetClass = toClass(metricsClass, MetricClassPackageHolder.class);
 
         log.debug("Generate metrics class, " + metricsClass.getName());
-        writeGeneratedFile(metricsClass, metricsClass.getSimpleName(), "metrics");
+        writeGeneratedFile(metricsClass, metricsClass.getSimpleName(), METRICS_TYPE);
+        addToClassCache(METRICS_TYPE, metricsClass);
 
         return targetClass;
     }
@@ -374,18 +467,10 @@ public class OALRuntime implements OALEngine {
             }
         }
 
-        try {
-            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
-                metricsBuilderClass.toClass(currentClassLoader, null);
-            } else {
-                metricsBuilderClass.toClass(MetricBuilderClassPackageHolder.class);
-            }
-        } catch (CannotCompileException e) {
-            log.error("Can't compile/load " + className + ".", e);
-            throw new OALCompileException(e.getMessage(), e);
-        }
+        toClass(metricsBuilderClass, MetricBuilderClassPackageHolder.class);
 
-        writeGeneratedFile(metricsBuilderClass, className, "metrics/builder");
+        writeGeneratedFile(metricsBuilderClass, className, METRICS_BUILDER_TYPE);
+        addToClassCache(METRICS_BUILDER_TYPE, metricsBuilderClass);
     }
 
     /**
@@ -455,19 +540,10 @@ public class OALRuntime implements OALEngine {
             throw new OALCompileException(e.getMessage(), e);
         }
 
-        Class targetClass;
-        try {
-            if (SystemUtils.isJavaVersionAtMost(JavaVersion.JAVA_1_8)) {
-                targetClass = dispatcherClass.toClass(currentClassLoader, null);
-            } else {
-                targetClass = dispatcherClass.toClass(DispatcherClassPackageHolder.class);
-            }
-        } catch (CannotCompileException e) {
-            log.error("Can't compile/load " + className + ".", e);
-            throw new OALCompileException(e.getMessage(), e);
-        }
+        Class targetClass = toClass(dispatcherClass, DispatcherClassPackageHolder.class);
 
-        writeGeneratedFile(dispatcherClass, className, "dispatcher");
+        writeGeneratedFile(dispatcherClass, className, DISPATCHER_TYPE);
+        addToClassCache(DISPATCHER_TYPE, dispatcherClass);
         return targetClass;
     }
 
@@ -513,6 +589,12 @@ public class OALRuntime implements OALEngine {
         }
     }
 
+    private void addToClassCache(String type, CtClass ctClass) {
+        if (classCache != null) {
+            classCache.add(type, ctClass);
+        }
+    }
+
     private void writeGeneratedFile(CtClass metricsClass, String className, String type) throws OALCompileException {
         if (openEngineDebug) {
             DataOutputStream printWriter = null;
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.rt;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OALClassCacheTest {
+    private static final String VERSION = "9.3.0";
+    private static final String CONFIG_FILE = "oal/core.oal";
+    private static final String SCRIPT = "service_resp_time = from(Service.latency).longAvg();";
+    private static final String METRICS_CLASS = "org.apache.skywalking.oal.rt.test.ServiceRespTimeMetrics";
+    private static final String DISPATCHER_CLASS = "org.apache.skywalking.oal.rt.test.ServiceDispatcher";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File cacheFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheFolder = temporaryFolder.newFolder("oal-cache");
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        final OALClassCache saved = saveCache();
+
+        final List<OALClassCache.CachedClass> loaded = newCache().load(new ClassPool(true));
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(saved.getFolder(), newCache().getFolder());
+        Assert.assertEquals(2, loaded.size());
+        Assert.assertEquals("metrics", loaded.get(0).getType());
+        Assert.assertEquals(METRICS_CLASS, loaded.get(0).getCtClass().getName());
+        Assert.assertNotNull(loaded.get(0).getCtClass().getField("value"));
+        Assert.assertEquals("dispatcher", loaded.get(1).getType());
+        Assert.assertEquals(DISPATCHER_CLASS, loaded.get(1).getCtClass().getName());
+    }
+
+    @Test
+    public void testNoCacheBeforeSave() {
+        Assert.assertNull(newCache().load(new ClassPool(true)));
+    }
+
+    @Test
+    public void testKeyMismatch() throws Exception {
+        final OALClassCache saved = saveCache();
+
+        final OALClassCache[] changed = new OALClassCache[] {
+            new OALClassCache(cacheFolder, "9.4.0", CONFIG_FILE, SCRIPT),
+            new OALClassCache(cacheFolder, VERSION, "oal/browser.oal", SCRIPT),
+            new OALClassCache(cacheFolder, VERSION, CONFIG_FILE, SCRIPT + "\nservice_cpm = from(Service.*).cpm();"),
+            // The keys are separated by their lengths.
+            new OALClassCache(cacheFolder, VERSION, CONFIG_FILE + SCRIPT.charAt(0), SCRIPT.substring(1)),
+        };
+        for (final OALClassCache cache : changed) {
+            Assert.assertNotEquals(saved.getFolder(), cache.getFolder());
+            Assert.assertNull(cache.load(new ClassPool(true)));
+        }
+        Assert.assertNotNull(newCache().load(new ClassPool(true)));
+    }
+
+    @Test
+    public void testMissingClassList() throws Exception {
+        final OALClassCache saved = saveCache();
+        FileUtils.forceDelete(new File(saved.getFolder(), "classes.list"));
+
+        Assert.assertNull(newCache().load(new ClassPool(true)));
+        Assert.assertFalse(saved.getFolder().exists());
+    }
+
+    @Test
+    public void testTruncatedClassFile() throws Exception {
+        final OALClassCache saved = saveCache();
+        final File classFile = new File(saved.getFolder(), METRICS_CLASS + ".class");
+        final byte[] bytecode = FileUtils.readFileToByteArray(classFile);
+        FileUtils.writeByteArrayToFile(classFile, Arrays.copyOf(bytecode, bytecode.length / 2));
+
+        Assert.assertNull(newCache().load(new ClassPool(true)));
+        Assert.assertFalse(saved.getFolder().exists());
+
+        // The broken cache is written again by the next generation.
+        saveCache();
+        Assert.assertNotNull(newCache().load(new ClassPool(true)));
+    }
+
+    @Test
+    public void testMismatchedClassName() throws Exception {
+        final OALClassCache saved = saveCache();
+        final File classList = new File(saved.getFolder(), "classes.list");
+        FileUtils.writeStringToFile(
+            classList,
+            FileUtils.readFileToString(classList, StandardCharsets.UTF_8).replace(DISPATCHER_CLASS, METRICS_CLASS),
+            StandardCharsets.UTF_8
+        );
+        FileUtils.copyFile(
+            new File(saved.getFolder(), DISPATCHER_CLASS + ".class"),
+            new File(saved.getFolder(), METRICS_CLASS + ".class")
+        );
+
+        Assert.assertNull(newCache().load(new ClassPool(true)));
+    }
+
+    private OALClassCache newCache() {
+        return new OALClassCache(cacheFolder, VERSION, CONFIG_FILE, SCRIPT);
+    }
+
+    private OALClassCache saveCache() throws Exception {
+        final ClassPool classPool = new ClassPool(true);
+        final CtClass metricsClass = classPool.makeClass(METRICS_CLASS);
+        metricsClass.addField(CtField.make("public long value;", metricsClass));
+        final CtClass dispatcherClass = classPool.makeClass(DISPATCHER_CLASS);
+
+        final OALClassCache cache = newCache();
+        cache.add("metrics", metricsClass);
+        cache.add("dispatcher", dispatcherClass);
+        cache.save();
+        return cache;
+    }
+}
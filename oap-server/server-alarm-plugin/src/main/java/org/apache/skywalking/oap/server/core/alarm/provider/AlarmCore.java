@@ -19,13 +19,18 @@
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.skywalking.oap.server.core.alarm.AlarmCallback;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
+import org.apache.skywalking.oap.server.library.server.pool.CustomThreadFactory;
 import org.joda.time.LocalDateTime;
 import org.joda.time.Minutes;
 import org.slf4j.Logger;
@@ -40,36 +45,65 @@ public class AlarmCore {
 
     private LocalDateTime lastExecuteTime;
     private AlarmRulesWatcher alarmRulesWatcher;
+    /**
+     * The number of threads checking the rules, the windows of every rule are split into this number of shards.
+     */
+    private final int checkThreads;
+    private ExecutorService checkExecutor;
 
     AlarmCore(AlarmRulesWatcher alarmRulesWatcher) {
+        this(alarmRulesWatcher, 1);
+    }
+
+    AlarmCore(AlarmRulesWatcher alarmRulesWatcher, int checkThreads) {
         this.alarmRulesWatcher = alarmRulesWatcher;
+        this.checkThreads = Math.max(checkThreads, 1);
     }
 
-    public List<RunningRule> findRunningRule(String metricsName) {
-        return alarmRulesWatcher.getRunningContext().get(metricsName);
+    public List<RunningRule> findRunningRule(String metricsName, String name) {
+        return alarmRulesWatcher.findRunningRules(metricsName, name);
     }
 
     public void start(List<AlarmCallback> allCallbacks) {
         LocalDateTime now = LocalDateTime.now();
         lastExecuteTime = now;
+        if (checkThreads > 1) {
+            checkExecutor = Executors.newFixedThreadPool(checkThreads, new CustomThreadFactory("AlarmCheck"));
+        }
         Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> {
             try {
                 final List<AlarmMessage> alarmMessageList = new ArrayList<>(30);
                 LocalDateTime checkTime = LocalDateTime.now();
                 int minutes = Minutes.minutesBetween(lastExecuteTime, checkTime).getMinutes();
                 boolean[] hasExecute = new boolean[]{false};
+                /*
+                 * Don't run in the first quarter per min, avoid to trigger false alarm.
+                 */
+                final boolean toCheck = checkTime.getSecondOfMinute() > 15;
+                final List<Callable<List<AlarmMessage>>> shardChecks = new ArrayList<>();
                 alarmRulesWatcher.getRunningContext().values().forEach(ruleList -> ruleList.forEach(runningRule -> {
                     if (minutes > 0) {
-                        runningRule.moveTo(checkTime);
-                        /*
-                         * Don't run in the first quarter per min, avoid to trigger false alarm.
-                         */
-                        if (checkTime.getSecondOfMinute() > 15) {
+                        if (toCheck) {
                             hasExecute[0] = true;
-                            alarmMessageList.addAll(runningRule.check());
                         }
+                        if (checkExecutor == null) {
+                            runningRule.moveTo(checkTime);
+                            if (toCheck) {
+                                alarmMessageList.addAll(runningRule.check());
+                            }
+                            return;
+                        }
+                        runningRule.shards(checkThreads).forEach(shard -> shardChecks.add(() -> {
+                            shard.moveTo(checkTime);
+                            return toCheck ? shard.check() : Collections.emptyList();
+                        }));
                     }
                 }));
+                if (!shardChecks.isEmpty()) {
+                    for (final Future<List<AlarmMessage>> shardCheck : checkExecutor.invokeAll(shardChecks)) {
+                        alarmMessageList.addAll(shardCheck.get());
+                    }
+                }
                 // Set the last execute time, and make sure the second is `00`, such as: 18:30:00
                 if (hasExecute[0]) {
                     lastExecuteTime = checkTime.minusSeconds(checkTime.getSecondOfMinute());
@@ -49,6 +49,10 @@ import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 public class AlarmRulesWatcher extends ConfigChangeWatcher {
     @Getter
     private volatile Map<String, List<RunningRule>> runningContext;
+    /**
+     * The index of the {@link #runningContext}, by the metrics names and the entity names.
+     */
+    private volatile Map<String, RunningRuleIndex> runningRuleIndexes;
     private volatile Map<AlarmRule, RunningRule> alarmRuleRunningRuleMap;
     private volatile Rules rules;
     private volatile String settingsString;
@@ -58,6 +62,7 @@ public class AlarmRulesWatcher extends ConfigChangeWatcher {
     public AlarmRulesWatcher(Rules defaultRules, ModuleProvider provider) {
         super(AlarmModule.NAME, provider, "alarm-settings");
         this.runningContext = new HashMap<>();
+        this.runningRuleIndexes = new HashMap<>();
         this.alarmRuleRunningRuleMap = new HashMap<>();
         this.settingsString = null;
         Expression expression = new Expression(new ExpressionContext());
@@ -98,12 +103,26 @@ public class AlarmRulesWatcher extends ConfigChangeWatcher {
             runningRules.add(runningRule);
         });
 
+        Map<String, RunningRuleIndex> newRunningRuleIndexes = new HashMap<>();
+        newRunningContext.forEach(
+            (metricsName, runningRules) -> newRunningRuleIndexes.put(metricsName, new RunningRuleIndex(runningRules)));
+
         this.rules = newRules;
         this.runningContext = newRunningContext;
+        this.runningRuleIndexes = newRunningRuleIndexes;
         this.alarmRuleRunningRuleMap = newAlarmRuleRunningRuleMap;
         log.info("Update alarm rules to {}", rules);
     }
 
+    /**
+     * @return the running rules of the metrics, which include the entity name, or null if there is no rule of the
+     * metrics.
+     */
+    public List<RunningRule> findRunningRules(String metricsName, String name) {
+        final RunningRuleIndex index = runningRuleIndexes.get(metricsName);
+        return index == null ? null : index.find(name);
+    }
+
     @Override
     public String value() {
         return settingsString;
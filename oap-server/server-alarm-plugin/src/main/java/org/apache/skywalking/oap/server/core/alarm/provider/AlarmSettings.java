@@ -18,7 +18,18 @@
 
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 
+@Getter
+@Setter
 public class AlarmSettings extends ModuleConfig {
+    /**
+     * The number of threads checking the alarm rules every minute. The windows of every rule are split into this number
+     * of shards, and checked concurrently. 1 means checking them in the scheduler thread.
+     *
+     * @since 9.3.0
+     */
+    private int checkThreads = 1;
 }
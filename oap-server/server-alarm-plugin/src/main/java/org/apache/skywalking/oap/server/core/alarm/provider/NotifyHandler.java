@@ -55,8 +55,15 @@ public class NotifyHandler implements MetricsNotify {
     private final ModuleManager manager;
 
     public NotifyHandler(AlarmRulesWatcher alarmRulesWatcher, ModuleManager manager) {
+        this(alarmRulesWatcher, manager, 1);
+    }
+
+    /**
+     * @param checkThreads the number of threads checking the alarm rules.
+     */
+    public NotifyHandler(AlarmRulesWatcher alarmRulesWatcher, ModuleManager manager, int checkThreads) {
         this.alarmRulesWatcher = alarmRulesWatcher;
-        core = new AlarmCore(alarmRulesWatcher);
+        core = new AlarmCore(alarmRulesWatcher, checkThreads);
         this.manager = manager;
     }
 
@@ -169,12 +176,12 @@ public class NotifyHandler implements MetricsNotify {
             return;
         }
 
-        List<RunningRule> runningRules = core.findRunningRule(meta.getMetricsName());
+        List<RunningRule> runningRules = core.findRunningRule(meta.getMetricsName(), metaInAlarm.getName());
         if (runningRules == null) {
             return;
         }
 
-        runningRules.forEach(rule -> rule.in(metaInAlarm, metrics));
+        runningRules.forEach(rule -> rule.accept(metaInAlarm, metrics));
     }
 
     public void init(AlarmCallback... callbacks) {
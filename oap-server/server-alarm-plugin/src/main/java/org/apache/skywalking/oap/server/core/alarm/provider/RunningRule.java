@@ -20,8 +20,7 @@ package org.apache.skywalking.oap.server.core.alarm.provider;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,7 +29,6 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
@@ -55,6 +53,7 @@ import org.joda.time.format.DateTimeFormatter;
 @Slf4j
 public class RunningRule {
     private static DateTimeFormatter TIME_BUCKET_FORMATTER = DateTimeFormat.forPattern("yyyyMMddHHmm");
+    private static final int MAX_CACHED_LABELS = 1000;
 
     private final String ruleName;
     private final int period;
@@ -73,6 +72,7 @@ public class RunningRule {
     private final List<String> excludeLabels;
     private final Pattern includeLabelsRegex;
     private final Pattern excludeLabelsRegex;
+    private final Map<String, Boolean> includedLabels = new ConcurrentHashMap<>();
     private final AlarmMessageFormatter formatter;
     private final boolean onlyAsCondition;
     private final List<Tag> tags;
@@ -129,11 +129,17 @@ public class RunningRule {
             return;
         }
 
-        final String metaName = meta.getName();
-        if (!validate(metaName, includeNames, excludeNames, includeNamesRegex, excludeNamesRegex)) {
+        if (!isIncluded(meta.getName())) {
             return;
         }
 
+        accept(meta, metrics);
+    }
+
+    /**
+     * Receive the metrics of the entity included by this rule, see {@link #isIncluded(String)}.
+     */
+    void accept(MetaInAlarm meta, Metrics metrics) {
         if (valueType == null) {
             if (metrics instanceof LongValueHolder) {
                 valueType = MetricsValueType.LONG;
@@ -149,13 +155,7 @@ public class RunningRule {
                 threshold.setType(MetricsValueType.MULTI_INTS);
             } else if (metrics instanceof LabeledValueHolder) {
                 if (((LabeledValueHolder) metrics).getValue().keys().stream()
-                                                  .noneMatch(label -> validate(
-                                                      label,
-                                                      includeLabels,
-                                                      excludeLabels,
-                                                      includeLabelsRegex,
-                                                      excludeLabelsRegex
-                                                  ))) {
+                                                  .noneMatch(this::isIncludedLabel)) {
                     return;
                 }
                 valueType = MetricsValueType.LABELED_LONG;
@@ -172,6 +172,37 @@ public class RunningRule {
         }
     }
 
+    /**
+     * @return true if the metrics of the entity are included by the name lists and regular expressions of this rule.
+     */
+    boolean isIncluded(String name) {
+        return validate(name, includeNames, excludeNames, includeNamesRegex, excludeNamesRegex);
+    }
+
+    /**
+     * @return true if this rule filters the entities by names.
+     */
+    boolean hasNameFilters() {
+        return CollectionUtils.isNotEmpty(includeNames) || CollectionUtils.isNotEmpty(excludeNames)
+            || includeNamesRegex != null || excludeNamesRegex != null;
+    }
+
+    /**
+     * @return true if the label is included by the label lists and regular expressions of this rule. The results are
+     * cached, as the labels of a metrics are a few fixed ones usually.
+     */
+    private boolean isIncludedLabel(String label) {
+        final Boolean cached = includedLabels.get(label);
+        if (cached != null) {
+            return cached;
+        }
+        final boolean included = validate(label, includeLabels, excludeLabels, includeLabelsRegex, excludeLabelsRegex);
+        if (includedLabels.size() < MAX_CACHED_LABELS) {
+            includedLabels.put(label, included);
+        }
+        return included;
+    }
+
     /**
      * Validate target whether matching rules which is included list, excludes list, include regular expression or
      * exclude regular expression.
@@ -229,10 +260,29 @@ public class RunningRule {
      * Check the conditions, decide to whether trigger alarm.
      */
     public List<AlarmMessage> check() {
+        return check(windows.entrySet());
+    }
+
+    /**
+     * Split the windows into at most the given number of shards, which are moved and checked independently, by
+     * different threads.
+     */
+    public List<Shard> shards(int count) {
+        final List<Map.Entry<MetaInAlarm, Window>> entries = new ArrayList<>(windows.entrySet());
+        final int size = Math.min(count, entries.size());
+        final List<Shard> shards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            shards.add(new Shard(entries.subList(entries.size() * i / size, entries.size() * (i + 1) / size)));
+        }
+        return shards;
+    }
+
+    private List<AlarmMessage> check(Collection<Map.Entry<MetaInAlarm, Window>> windows) {
         List<AlarmMessage> alarmMessageList = new ArrayList<>(30);
 
-        windows.forEach((meta, window) -> {
-            Optional<AlarmMessage> alarmMessageOptional = window.checkAlarm();
+        windows.forEach(entry -> {
+            final MetaInAlarm meta = entry.getKey();
+            Optional<AlarmMessage> alarmMessageOptional = entry.getValue().checkAlarm();
             if (alarmMessageOptional.isPresent()) {
                 AlarmMessage alarmMessage = alarmMessageOptional.get();
                 alarmMessage.setScopeId(meta.getScopeId());
@@ -253,58 +303,139 @@ public class RunningRule {
         return alarmMessageList;
     }
 
+    /**
+     * Whether the metrics matches the threshold.
+     */
+    private boolean isMatch(Metrics metrics) {
+        switch (valueType) {
+            case LONG:
+                long lvalue = ((LongValueHolder) metrics).getValue();
+                long lexpected = this.threshold.getLongThreshold();
+                return op.test(lexpected, lvalue);
+            case INT:
+                int ivalue = ((IntValueHolder) metrics).getValue();
+                int iexpected = this.threshold.getIntThreshold();
+                return op.test(iexpected, ivalue);
+            case DOUBLE:
+                double dvalue = ((DoubleValueHolder) metrics).getValue();
+                double dexpected = this.threshold.getDoubleThreshold();
+                return op.test(dexpected, dvalue);
+            case MULTI_INTS:
+                int[] ivalueArray = ((MultiIntValuesHolder) metrics).getValues();
+                Integer[] iaexpected = this.threshold.getIntValuesThreshold();
+                if (log.isTraceEnabled()) {
+                    log.trace("Value array is {}, expected array is {}", ivalueArray, iaexpected);
+                }
+                for (int i = 0; i < ivalueArray.length; i++) {
+                    ivalue = ivalueArray[i];
+                    Integer iNullableExpected = 0;
+                    if (iaexpected.length > i) {
+                        iNullableExpected = iaexpected[i];
+                        if (iNullableExpected == null) {
+                            continue;
+                        }
+                    }
+                    if (op.test(iNullableExpected, ivalue)) {
+                        if (log.isTraceEnabled()) {
+                            log.trace("Matched, expected {}, value {}", iNullableExpected, ivalue);
+                        }
+                        return true;
+                    }
+                }
+                return false;
+            case LABELED_LONG:
+                DataTable values = ((LabeledValueHolder) metrics).getValue();
+                lexpected = this.threshold.getLongThreshold();
+                return values.keys().stream().anyMatch(label -> isIncludedLabel(label)
+                    && op.test(lexpected, values.get(label)));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * A part of the windows of the rule, see {@link #shards(int)}.
+     */
+    @RequiredArgsConstructor
+    public class Shard {
+        private final List<Map.Entry<MetaInAlarm, Window>> windows;
+
+        public void moveTo(LocalDateTime targetTime) {
+            windows.forEach(entry -> entry.getValue().moveTo(targetTime));
+        }
+
+        public List<AlarmMessage> check() {
+            return RunningRule.this.check(windows);
+        }
+    }
+
     /**
      * A metrics window, based on AlarmRule#period. This window slides with time, just keeps the recent N(period)
      * buckets.
+     *
+     * The threshold of the rule is applied to the metrics when they are added, the window keeps the results in a ring
+     * buffer, and the number of matched buckets, which is updated as the window slides.
      */
     public class Window {
         private LocalDateTime endTime;
         private int period;
         private int silenceCountdown;
 
-        private LinkedList<Metrics> values;
+        /**
+         * Whether the metrics of the buckets match the threshold, the bucket of {@link #endTime} is at {@link #head},
+         * and the earlier buckets are before it.
+         */
+        private final boolean[] matches;
+        private int head;
+        private int matchCount;
         private ReentrantLock lock = new ReentrantLock();
 
         public Window(int period) {
             this.period = period;
             // -1 means silence countdown is not running.
             silenceCountdown = -1;
+            matches = new boolean[period];
             init();
         }
 
         public void moveTo(LocalDateTime current) {
             lock.lock();
             try {
-                if (endTime == null) {
-                    init();
-                } else {
-                    int minutes = Minutes.minutesBetween(endTime, current).getMinutes();
-                    if (minutes <= 0) {
-                        return;
-                    }
-                    if (minutes > values.size()) {
-                        // re-init
-                        init();
-                    } else {
-                        for (int i = 0; i < minutes; i++) {
-                            values.removeFirst();
-                            values.addLast(null);
-                        }
-                    }
-                }
-                endTime = current;
+                slide(current);
             } finally {
                 lock.unlock();
             }
             if (log.isTraceEnabled()) {
-                log.trace("Move window {}", transformValues(values));
+                log.trace("Move window {}", this);
             }
         }
 
+        private void slide(LocalDateTime current) {
+            if (endTime == null) {
+                init();
+            } else {
+                int minutes = Minutes.minutesBetween(endTime, current).getMinutes();
+                if (minutes <= 0) {
+                    return;
+                }
+                if (minutes > period) {
+                    // re-init
+                    init();
+                } else {
+                    for (int i = 0; i < minutes; i++) {
+                        head = (head + 1) % period;
+                        set(head, false);
+                    }
+                }
+            }
+            endTime = current;
+        }
+
         public void add(Metrics metrics) {
             long bucket = metrics.getTimeBucket();
 
             LocalDateTime timeBucket = TIME_BUCKET_FORMATTER.parseLocalDateTime(bucket + "");
+            boolean matched = RunningRule.this.isMatch(metrics);
 
             this.lock.lock();
             try {
@@ -314,28 +445,28 @@ public class RunningRule {
                 }
                 int minutes = Minutes.minutesBetween(timeBucket, this.endTime).getMinutes();
                 if (minutes < 0) {
-                    this.moveTo(timeBucket);
+                    slide(timeBucket);
                     minutes = 0;
                 }
 
-                if (minutes >= values.size()) {
+                if (minutes >= period) {
                     // too old data
                     // also should happen, but maybe if agent/probe mechanism time is not right.
                     if (log.isTraceEnabled()) {
                         log.trace(
                             "Timebucket is {}, endTime is {} and value size is {}", timeBucket, this.endTime,
-                            values.size()
+                            period
                         );
                     }
                     return;
                 }
 
-                this.values.set(values.size() - minutes - 1, metrics);
+                set((head - minutes + period) % period, matched);
             } finally {
                 this.lock.unlock();
             }
             if (log.isTraceEnabled()) {
-                log.trace("Add metric {} to window {}", metrics, transformValues(this.values));
+                log.trace("Add metric {} to window {}", metrics, this);
             }
         }
 
@@ -359,74 +490,12 @@ public class RunningRule {
         }
 
         private boolean isMatch() {
-            int matchCount = 0;
-            for (Metrics metrics : values) {
-                if (metrics == null) {
-                    continue;
-                }
-
-                switch (valueType) {
-                    case LONG:
-                        long lvalue = ((LongValueHolder) metrics).getValue();
-                        long lexpected = RunningRule.this.threshold.getLongThreshold();
-                        if (op.test(lexpected, lvalue)) {
-                            matchCount++;
-                        }
-                        break;
-                    case INT:
-                        int ivalue = ((IntValueHolder) metrics).getValue();
-                        int iexpected = RunningRule.this.threshold.getIntThreshold();
-                        if (op.test(iexpected, ivalue)) {
-                            matchCount++;
-                        }
-                        break;
-                    case DOUBLE:
-                        double dvalue = ((DoubleValueHolder) metrics).getValue();
-                        double dexpected = RunningRule.this.threshold.getDoubleThreshold();
-                        if (op.test(dexpected, dvalue)) {
-                            matchCount++;
-                        }
-                        break;
-                    case MULTI_INTS:
-                        int[] ivalueArray = ((MultiIntValuesHolder) metrics).getValues();
-                        Integer[] iaexpected = RunningRule.this.threshold.getIntValuesThreshold();
-                        if (log.isTraceEnabled()) {
-                            log.trace("Value array is {}, expected array is {}", ivalueArray, iaexpected);
-                        }
-                        for (int i = 0; i < ivalueArray.length; i++) {
-                            ivalue = ivalueArray[i];
-                            Integer iNullableExpected = 0;
-                            if (iaexpected.length > i) {
-                                iNullableExpected = iaexpected[i];
-                                if (iNullableExpected == null) {
-                                    continue;
-                                }
-                            }
-                            if (op.test(iNullableExpected, ivalue)) {
-                                if (log.isTraceEnabled()) {
-                                    log.trace("Matched, expected {}, value {}", iNullableExpected, ivalue);
-                                }
-                                matchCount++;
-                                break;
-                            }
-                        }
-                        break;
-                    case LABELED_LONG:
-                        DataTable values = ((LabeledValueHolder) metrics).getValue();
-                        lexpected = RunningRule.this.threshold.getLongThreshold();
-                        if (values.keys().stream().anyMatch(label ->
-                                                                validate(
-                                                                    label,
-                                                                    RunningRule.this.includeLabels,
-                                                                    RunningRule.this.excludeLabels,
-                                                                    RunningRule.this.includeLabelsRegex,
-                                                                    RunningRule.this.excludeLabelsRegex
-                                                                )
-                                                                    && op.test(lexpected, values.get(label)))) {
-                            matchCount++;
-                        }
-                        break;
-                }
+            int matchCount;
+            lock.lock();
+            try {
+                matchCount = this.matchCount;
+            } finally {
+                lock.unlock();
             }
 
             if (log.isTraceEnabled()) {
@@ -436,52 +505,26 @@ public class RunningRule {
             return matchCount >= countThreshold;
         }
 
-        private void init() {
-            values = new LinkedList<>();
-            for (int i = 0; i < period; i++) {
-                values.add(null);
+        private void set(int index, boolean matched) {
+            if (matches[index] != matched) {
+                matches[index] = matched;
+                matchCount += matched ? 1 : -1;
             }
         }
-    }
 
-    private LinkedList<TraceLogMetric> transformValues(final LinkedList<Metrics> values) {
-        LinkedList<TraceLogMetric> r = new LinkedList<>();
-        values.forEach(m -> {
-            if (m == null) {
-                r.add(null);
-                return;
-            }
-            switch (valueType) {
-                case LONG:
-                    r.add(new TraceLogMetric(m.getTimeBucket(), new Number[] {((LongValueHolder) m).getValue()}));
-                    break;
-                case INT:
-                    r.add(new TraceLogMetric(m.getTimeBucket(), new Number[] {((IntValueHolder) m).getValue()}));
-                    break;
-                case DOUBLE:
-                    r.add(new TraceLogMetric(m.getTimeBucket(), new Number[] {((DoubleValueHolder) m).getValue()}));
-                    break;
-                case MULTI_INTS:
-                    int[] iArr = ((MultiIntValuesHolder) m).getValues();
-                    r.add(new TraceLogMetric(m.getTimeBucket(), Arrays.stream(iArr).boxed().toArray(Number[]::new)));
-                    break;
-                case LABELED_LONG:
-                    DataTable dt = ((LabeledValueHolder) m).getValue();
-                    TraceLogMetric l = new TraceLogMetric(
-                        m.getTimeBucket(), dt.sortedValues(Comparator.naturalOrder())
-                                             .toArray(new Number[0]));
-                    l.labels = dt.sortedKeys(Comparator.naturalOrder()).toArray(new String[0]);
-                    r.add(l);
-            }
-        });
-        return r;
-    }
+        private void init() {
+            Arrays.fill(matches, false);
+            head = period - 1;
+            matchCount = 0;
+        }
 
-    @RequiredArgsConstructor
-    @ToString
-    private static class TraceLogMetric {
-        private final long timeBucket;
-        private final Number[] value;
-        private String[] labels;
+        @Override
+        public String toString() {
+            final StringBuilder buckets = new StringBuilder(period);
+            for (int i = 1; i <= period; i++) {
+                buckets.append(matches[(head + i) % period] ? '1' : '0');
+            }
+            return "Window(endTime=" + endTime + ", matches=" + buckets + ", matchCount=" + matchCount + ")";
+        }
     }
 }
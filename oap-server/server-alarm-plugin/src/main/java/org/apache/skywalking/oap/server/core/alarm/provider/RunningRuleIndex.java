@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.alarm.provider;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * RunningRuleIndex indexes the running rules of a metrics by the entity names, the metrics of an entity are only sent
+ * to the rules including its name, which are matched once and cached. The index is rebuilt when the rules are updated.
+ */
+class RunningRuleIndex {
+    private static final long MAX_CACHED_NAMES = 100_000;
+
+    private final List<RunningRule> rules;
+    /**
+     * The rules including the entity names, null if none of the rules filters the entities by names.
+     */
+    private final Cache<String, List<RunningRule>> rulesOfNames;
+
+    RunningRuleIndex(List<RunningRule> rules) {
+        this.rules = rules;
+        this.rulesOfNames = rules.stream().anyMatch(RunningRule::hasNameFilters) ?
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_NAMES).build() : null;
+    }
+
+    /**
+     * @return the rules including the entity name.
+     */
+    List<RunningRule> find(String name) {
+        if (rulesOfNames == null) {
+            return rules;
+        }
+        List<RunningRule> found = rulesOfNames.getIfPresent(name);
+        if (found == null) {
+            found = match(name);
+            rulesOfNames.put(name, found);
+        }
+        return found;
+    }
+
+    private List<RunningRule> match(String name) {
+        final List<RunningRule> matched = rules.stream()
+                                               .filter(rule -> rule.isIncluded(name))
+                                               .collect(Collectors.toList());
+        if (matched.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Share the list of all rules, which most entities match.
+        return matched.size() == rules.size() ? rules : matched;
+    }
+}
@@ -190,4 +190,39 @@ public class AlarmRulesWatcherTest {
         assertEquals(1, alarmRulesWatcher.getRunningContext().get("metrics2").size());
         assertEquals(1, alarmRulesWatcher.getRunningContext().get("metrics3").size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindRunningRulesIncludingEntityName() {
+        Rules rules = new Rules();
+        rules.getRules().add(AlarmRule.builder()
+                                      .alarmRuleName("all")
+                                      .metricsName("metrics1")
+                                      .threshold("1")
+                                      .op(">")
+                                      .tags(new HashMap<>())
+                                      .build());
+        rules.getRules().add(AlarmRule.builder()
+                                      .alarmRuleName("included")
+                                      .metricsName("metrics1")
+                                      .includeNames(new ArrayList<>(Arrays.asList("service_a", "service_b")))
+                                      .excludeNamesRegex("service_b")
+                                      .threshold("1")
+                                      .op(">")
+                                      .tags(new HashMap<>())
+                                      .build());
+
+        alarmRulesWatcher = new AlarmRulesWatcher(rules, null);
+
+        assertEquals(2, alarmRulesWatcher.findRunningRules("metrics1", "service_a").size());
+        assertEquals(1, alarmRulesWatcher.findRunningRules("metrics1", "service_b").size());
+        assertEquals(1, alarmRulesWatcher.findRunningRules("metrics1", "service_c").size());
+        assertEquals(
+            alarmRulesWatcher.getRunningContext().get("metrics1").get(0),
+            alarmRulesWatcher.findRunningRules("metrics1", "service_c").get(0)
+        );
+        assertNull(alarmRulesWatcher.findRunningRules("metrics2", "service_a"));
+
+        alarmRulesWatcher.notify(new Rules());
+        assertNull(alarmRulesWatcher.findRunningRules("metrics1", "service_a"));
+    }
+}
@@ -99,7 +99,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -130,7 +130,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -155,7 +155,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -183,7 +183,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -212,7 +212,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -241,7 +241,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -274,7 +274,7 @@ public class NotifyHandlerTest {
         ArgumentCaptor<MetaInAlarm> metaCaptor = ArgumentCaptor.forClass(MetaInAlarm.class);
 
         notifyHandler.notify(metrics);
-        verify(rule).in(metaCaptor.capture(), any());
+        verify(rule).accept(metaCaptor.capture(), any());
 
         MetaInAlarm metaInAlarm = metaCaptor.getValue();
 
@@ -336,9 +336,9 @@ public class NotifyHandlerTest {
 
         rule = mock(RunningRule.class);
 
-        doNothing().when(rule).in(any(MetaInAlarm.class), any(Metrics.class));
+        doNothing().when(rule).accept(any(MetaInAlarm.class), any(Metrics.class));
 
-        when(core.findRunningRule(anyString())).thenReturn(Lists.newArrayList(rule));
+        when(core.findRunningRule(anyString(), anyString())).thenReturn(Lists.newArrayList(rule));
 
         Whitebox.setInternalState(notifyHandler, "core", core);
     }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
 import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -74,11 +75,13 @@ public class RunningRuleTest {
         RunningRule.Window window = windows.get(getMetaInAlarm(123));
         LocalDateTime endTime = Whitebox.getInternalState(window, "endTime");
         int period = Whitebox.getInternalState(window, "period");
-        LinkedList<Metrics> metricsBuffer = Whitebox.getInternalState(window, "values");
+        boolean[] matches = Whitebox.getInternalState(window, "matches");
+        int matchCount = Whitebox.getInternalState(window, "matchCount");
 
         Assert.assertTrue(startTime.equals(endTime));
         Assert.assertEquals(15, period);
-        Assert.assertEquals(15, metricsBuffer.size());
+        Assert.assertEquals(15, matches.length);
+        Assert.assertEquals(1, matchCount);
     }
 
     @Test
@@ -115,6 +118,42 @@ public class RunningRuleTest {
         Assert.assertEquals(1, alarmMessages.size());
     }
 
+    @Test
+    public void testShards() {
+        AlarmRule alarmRule = new AlarmRule();
+        alarmRule.setAlarmRuleName("endpoint_percent_rule");
+        alarmRule.setMetricsName("endpoint_percent");
+        alarmRule.setOp("<");
+        alarmRule.setThreshold("75");
+        alarmRule.setCount(2);
+        alarmRule.setPeriod(5);
+        alarmRule.setTags(new HashMap<>());
+        RunningRule runningRule = new RunningRule(alarmRule);
+
+        for (int id = 0; id < 5; id++) {
+            runningRule.in(getMetaInAlarm(id), getMetrics(201808301434L, 70));
+            runningRule.in(getMetaInAlarm(id), getMetrics(201808301436L, id < 3 ? 70 : 80));
+        }
+
+        List<RunningRule.Shard> shards = runningRule.shards(2);
+        Assert.assertEquals(2, shards.size());
+        Assert.assertEquals(1, runningRule.shards(1).size());
+        Assert.assertEquals(5, runningRule.shards(8).size());
+
+        List<AlarmMessage> alarmMessages = new ArrayList<>();
+        for (RunningRule.Shard shard : shards) {
+            shard.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301437"));
+            alarmMessages.addAll(shard.check());
+        }
+        Assert.assertEquals(3, alarmMessages.size());
+
+        // The matched metrics at 201808301434 slide out of the window.
+        for (RunningRule.Shard shard : runningRule.shards(2)) {
+            shard.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301439"));
+            Assert.assertEquals(0, shard.check().size());
+        }
+    }
+
     @Test
     public void testMultipleValuesAlarm() {
         AlarmRule alarmRule = new AlarmRule();
@@ -42,6 +42,7 @@ import org.apache.skywalking.oap.server.core.query.MetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileTaskQueryService;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeAggregator;
 import org.apache.skywalking.oap.server.core.query.TagAutoCompleteQueryService;
 import org.apache.skywalking.oap.server.core.query.TopNRecordsQueryService;
 import org.apache.skywalking.oap.server.core.query.TopologyQueryService;
@@ -109,6 +110,7 @@ public class CoreModule extends ModuleDefine {
         classes.add(ProfileTaskMutationService.class);
         classes.add(ProfileTaskQueryService.class);
         classes.add(ProfileTaskCache.class);
+        classes.add(ProfileThreadSnapshotTreeAggregator.class);
     }
 
     private void addOALService(List<Class> classes) {
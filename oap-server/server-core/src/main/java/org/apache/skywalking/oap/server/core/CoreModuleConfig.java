@@ -57,12 +57,44 @@ public class CoreModuleConfig extends ModuleConfig {
      * The threshold of session time. Unit is ms. Default value is 70s.
      */
     private long storageSessionTimeout = 70_000;
+    /**
+     * The max number of metrics in the session cache of every metrics model at L2 aggregation. The size bounded cache
+     * evicts the less frequently accessed metrics first. 0 means unbounded, only expired by the session timeout.
+     *
+     * @since 9.3.0
+     */
+    private int metricsSessionCacheMaxSize = 0;
+    /**
+     * The names of the metrics streams merging in the primitive keyed hash table at L1 and L2 aggregation, split by
+     * comma. `*` means all streams.
+     *
+     * @since 9.3.0
+     */
+    private String metricsHashMergeTable = "";
     private final List<String> downsampling;
     /**
      * The period of doing data persistence. Unit is second.
      */
     @Setter
     private long persistentPeriod = 25;
+    /**
+     * Run the persistence of every worker as an independent pipeline, every worker starts its rounds in its own cadence
+     * of {@link #persistentPeriod}. The prepare stage of the next round doesn't wait for the execute stage of the
+     * previous round, and a slow worker doesn't delay others.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    private boolean enablePersistencePipeline = false;
+    /**
+     * The max number of rounds of one worker in the pipeline, which are prepared but not finished in the storage. The
+     * next round of the worker is delayed, and the data is kept in its cache, when the budget is exhausted. The rounds
+     * of one worker are written to the storage one by one in order.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    private int persistenceMaxInFlightRounds = 2;
 
     private boolean enableDataKeeperExecutor = true;
 
@@ -86,6 +118,20 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private int remoteTimeout = 20;
+    /**
+     * The max number of stream data in one message for cluster internal communication. The stream data of the same
+     * next worker are sent in batch. 0 means sending them one by one, which is compatible with the OAP nodes before
+     * 9.3.0.
+     *
+     * @since 9.3.0
+     */
+    private int remoteBatchSize = 0;
+    /**
+     * The gRPC compression for cluster internal communication, such as gzip. No compression if empty.
+     *
+     * @since 9.3.0
+     */
+    private String remoteCompression = "";
     /**
      * The size of network address alias.
      */
@@ -20,6 +20,8 @@ package org.apache.skywalking.oap.server.core;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.configuration.api.ConfigurationModule;
 import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationService;
 import org.apache.skywalking.oap.server.core.analysis.ApdexThresholdConfig;
@@ -64,6 +66,7 @@ import org.apache.skywalking.oap.server.core.query.MetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileTaskQueryService;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeAggregator;
 import org.apache.skywalking.oap.server.core.query.TagAutoCompleteQueryService;
 import org.apache.skywalking.oap.server.core.query.TopNRecordsQueryService;
 import org.apache.skywalking.oap.server.core.query.TopologyQueryService;
@@ -124,6 +127,7 @@ public class CoreModuleProvider extends ModuleProvider {
     private OALEngineLoaderService oalEngineLoaderService;
     private LoggingConfigWatcher loggingConfigWatcher;
     private EndpointNameGroupingRule4OpenapiWatcher endpointNameGroupingRule4OpenapiWatcher;
+    private ProfileThreadSnapshotTreeAggregator profileThreadSnapshotTreeAggregator;
 
     public CoreModuleProvider() {
         super();
@@ -272,6 +276,9 @@ public class CoreModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(
             ProfileTaskQueryService.class, new ProfileTaskQueryService(getManager(), moduleConfig));
         this.registerServiceImplementation(ProfileTaskCache.class, new ProfileTaskCache(getManager(), moduleConfig));
+        profileThreadSnapshotTreeAggregator = new ProfileThreadSnapshotTreeAggregator();
+        this.registerServiceImplementation(
+            ProfileThreadSnapshotTreeAggregator.class, profileThreadSnapshotTreeAggregator);
 
         this.registerServiceImplementation(
             EBPFProfilingMutationService.class, new EBPFProfilingMutationService(getManager()));
@@ -293,6 +300,8 @@ public class CoreModuleProvider extends ModuleProvider {
         } else {
             this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteTimeout());
         }
+        this.remoteClientManager.setRemoteBatchSize(moduleConfig.getRemoteBatchSize());
+        this.remoteClientManager.setRemoteCompression(moduleConfig.getRemoteCompression());
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
 
         // Management
@@ -313,6 +322,12 @@ public class CoreModuleProvider extends ModuleProvider {
         metricsStreamProcessor.setL1FlushPeriod(moduleConfig.getL1FlushPeriod());
         metricsStreamProcessor.setStorageSessionTimeout(moduleConfig.getStorageSessionTimeout());
         metricsStreamProcessor.setMetricsDataTTL(moduleConfig.getMetricsDataTTL());
+        metricsStreamProcessor.setSessionCacheMaxSize(moduleConfig.getMetricsSessionCacheMaxSize());
+        metricsStreamProcessor.setHashMergeTableStreams(
+            Arrays.stream(moduleConfig.getMetricsHashMergeTable().split(","))
+                  .map(String::trim)
+                  .filter(name -> !name.isEmpty())
+                  .collect(Collectors.toSet()));
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
@@ -382,6 +397,8 @@ public class CoreModuleProvider extends ModuleProvider {
 
         CacheUpdateTimer.INSTANCE.start(getManager(), moduleConfig.getMetricsDataTTL());
 
+        profileThreadSnapshotTreeAggregator.start();
+
         try {
             new UITemplateInitializer(getManager()).initAll();
         } catch (IOException e) {
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * HashMergableBufferedData is a thread no safe implementation of {@link BufferedData}, which merges {@link Metrics}
+ * like {@link MergableBufferedData}, but without building the {@link Metrics#id()} string of every accepted metrics.
+ * <p>
+ * The metrics are kept in an open addressing table with linear probing, keyed by a 64-bit hash of {@link
+ * Metrics#remoteHashCode()}, which is built from the entity fields, and the time bucket. {@link Metrics#equals(Object)}
+ * is only called when the keys are the same. The table arrays are reused across {@link #read()}s, so the table doesn't
+ * allocate when the cardinality is stable.
+ * <p>
+ * Concurrency {@link #accept(Metrics)}s and {@link #read()} while {@link #accept(Metrics)} are both not recommended.
+ */
+public class HashMergableBufferedData<METRICS extends Metrics> implements BufferedData<METRICS> {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private long[] keys;
+    private Metrics[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public HashMergableBufferedData() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Accept the data into the cache and merge with the existing value.
+     *
+     * This method is not thread safe, should avoid concurrency calling.
+     *
+     * @param data to be added potentially.
+     */
+    @Override
+    public void accept(final METRICS data) {
+        final long key = key(data);
+        int index = slot(key);
+        while (true) {
+            final Metrics existed = values[index];
+            if (existed == null) {
+                keys[index] = key;
+                values[index] = data;
+                if (++size > resizeThreshold) {
+                    resize();
+                }
+                return;
+            }
+            if (keys[index] == key && existed.equals(data)) {
+                final boolean isAbandoned = !existed.combine(data);
+                if (isAbandoned) {
+                    remove(index);
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<METRICS> read() {
+        final List<METRICS> result = new ArrayList<>(size);
+        if (size > 0) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    result.add((METRICS) values[i]);
+                    values[i] = null;
+                }
+            }
+            size = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Remove the entry of the given slot, and shift the following entries of the same probe chain backward, to keep
+     * them reachable without tombstones.
+     */
+    private void remove(int index) {
+        values[index] = null;
+        size--;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                return;
+            }
+            final int home = slot(keys[next]);
+            // The entry could fill the hole only if its home slot isn't in the cyclic range (hole, next].
+            final boolean stay = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!stay) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                values[next] = null;
+                hole = next;
+            }
+        }
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final Metrics[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = slot(oldKeys[i]);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Metrics[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity >> 1;
+    }
+
+    private int slot(long key) {
+        // The finalizer of MurmurHash3, to spread the bits before masking.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private static long key(Metrics metrics) {
+        return metrics.remoteHashCode() * 0x9E3779B97F4A7C15L + metrics.getTimeBucket();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * SessionCache hosts the metrics loaded from or persisted to the storage, keyed by the metrics itself, in order to
+ * avoid reading the storage before every merge.
+ *
+ * The methods wouldn't be required to be thread-safe. SessionCache is only accessed in the persistence stage of one
+ * {@link org.apache.skywalking.oap.server.core.analysis.worker.MetricsPersistentWorker}.
+ *
+ * @since 9.3.0
+ */
+public interface SessionCache {
+    /**
+     * @return the cached metrics having the same ID of the given metrics, or null if not cached.
+     */
+    Metrics get(Metrics metrics);
+
+    /**
+     * Cache the metrics. The implementation maybe wouldn't keep it, or evict others, if it is size bounded.
+     */
+    void put(Metrics metrics);
+
+    void remove(Metrics metrics);
+
+    void clear();
+
+    int size();
+
+    /**
+     * Remove the metrics which haven't been updated in the session timeout.
+     */
+    void removeExpired(long timestamp, long sessionTimeout);
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+
+/**
+ * TinyLFUSessionCache is a size bounded {@link SessionCache}, following the W-TinyLFU policy.
+ *
+ * <pre>
+ * new metrics -> window(LRU, 1%) -> candidate --admitted by frequency--> probation(LRU) --hit--> protected(LRU, 80%)
+ *                                           \--rejected--> evicted         \--victim--> evicted
+ * </pre>
+ *
+ * A new metrics stays in the window first, which absorbs the bursts. The one leaving the window competes with the
+ * eldest one in the probation segment, and the less frequently accessed one, estimated by the {@link FrequencySketch},
+ * is evicted. So the one-hit metrics of a high cardinality entity explosion can't flush out the frequently merged ones.
+ *
+ * Not thread-safe, see {@link SessionCache}.
+ *
+ * @since 9.3.0
+ */
+public class TinyLFUSessionCache implements SessionCache {
+    private final int windowMaxSize;
+    private final int mainMaxSize;
+    private final int protectedMaxSize;
+    private final LinkedHashMap<Metrics, Metrics> window;
+    private final LinkedHashMap<Metrics, Metrics> probation;
+    private final LinkedHashMap<Metrics, Metrics> protect;
+    private final FrequencySketch sketch;
+    private final CounterMetrics evictionCounter;
+
+    /**
+     * @param maximumSize     the max number of the cached metrics.
+     * @param evictionCounter the telemetry counter of evicted metrics.
+     */
+    public TinyLFUSessionCache(int maximumSize, CounterMetrics evictionCounter) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("The max size of the session cache should be at least 2.");
+        }
+        this.windowMaxSize = Math.max(1, maximumSize / 100);
+        this.mainMaxSize = maximumSize - windowMaxSize;
+        this.protectedMaxSize = (int) (mainMaxSize * 0.8);
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.probation = new LinkedHashMap<>(16, 0.75f, true);
+        this.protect = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(maximumSize);
+        this.evictionCounter = evictionCounter;
+    }
+
+    @Override
+    public Metrics get(final Metrics metrics) {
+        sketch.increment(metrics.hashCode());
+        Metrics cached = window.get(metrics);
+        if (cached != null) {
+            return cached;
+        }
+        cached = protect.get(metrics);
+        if (cached != null) {
+            return cached;
+        }
+        cached = probation.remove(metrics);
+        if (cached != null) {
+            // Promote the re-accessed one, and demote the least recently used protected one if it overflows.
+            protect.put(cached, cached);
+            if (protect.size() > protectedMaxSize) {
+                final Metrics demoted = removeEldest(protect);
+                probation.put(demoted, demoted);
+            }
+        }
+        return cached;
+    }
+
+    @Override
+    public void put(final Metrics metrics) {
+        if (replace(window, metrics) || replace(protect, metrics) || replace(probation, metrics)) {
+            return;
+        }
+
+        // The access has been recorded by the missed get, which always happens before put in the persistent worker.
+        window.put(metrics, metrics);
+        if (window.size() > windowMaxSize) {
+            admit(removeEldest(window));
+        }
+    }
+
+    /**
+     * Move the candidate leaving the window into the main segments, if it is more popular than the victim.
+     */
+    private void admit(final Metrics candidate) {
+        if (probation.size() + protect.size() < mainMaxSize) {
+            probation.put(candidate, candidate);
+            return;
+        }
+        final Iterator<Metrics> iterator = (probation.isEmpty() ? protect : probation).keySet().iterator();
+        final Metrics victim = iterator.next();
+        if (sketch.frequency(candidate.hashCode()) > sketch.frequency(victim.hashCode())) {
+            iterator.remove();
+            probation.put(candidate, candidate);
+        }
+        evictionCounter.inc();
+    }
+
+    /**
+     * Replace the cached one by the given metrics in the segment, as the most recently used one. The entry is removed
+     * and re-inserted, because {@link LinkedHashMap#put} keeps the old key object of an existing entry.
+     *
+     * @return true if the segment has cached the metrics.
+     */
+    private static boolean replace(final LinkedHashMap<Metrics, Metrics> segment, final Metrics metrics) {
+        if (segment.remove(metrics) == null) {
+            return false;
+        }
+        segment.put(metrics, metrics);
+        return true;
+    }
+
+    private static Metrics removeEldest(final LinkedHashMap<Metrics, Metrics> segment) {
+        final Iterator<Map.Entry<Metrics, Metrics>> iterator = segment.entrySet().iterator();
+        final Metrics eldest = iterator.next().getValue();
+        iterator.remove();
+        return eldest;
+    }
+
+    @Override
+    public void remove(final Metrics metrics) {
+        if (window.remove(metrics) == null && probation.remove(metrics) == null) {
+            protect.remove(metrics);
+        }
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protect.clear();
+    }
+
+    @Override
+    public int size() {
+        return window.size() + probation.size() + protect.size();
+    }
+
+    @Override
+    public void removeExpired(final long timestamp, final long sessionTimeout) {
+        window.values().removeIf(metrics -> metrics.isExpired(timestamp, sessionTimeout));
+        probation.values().removeIf(metrics -> metrics.isExpired(timestamp, sessionTimeout));
+        protect.values().removeIf(metrics -> metrics.isExpired(timestamp, sessionTimeout));
+    }
+}
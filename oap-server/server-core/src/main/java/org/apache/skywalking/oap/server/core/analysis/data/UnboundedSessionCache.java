@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * UnboundedSessionCache keeps every metrics until it is expired by the session timeout.
+ *
+ * @since 9.3.0
+ */
+public class UnboundedSessionCache implements SessionCache {
+    private final Map<Metrics, Metrics> context = new HashMap<>(100);
+
+    @Override
+    public Metrics get(final Metrics metrics) {
+        return context.get(metrics);
+    }
+
+    @Override
+    public void put(final Metrics metrics) {
+        context.put(metrics, metrics);
+    }
+
+    @Override
+    public void remove(final Metrics metrics) {
+        context.remove(metrics);
+    }
+
+    @Override
+    public void clear() {
+        context.clear();
+    }
+
+    @Override
+    public int size() {
+        return context.size();
+    }
+
+    @Override
+    public void removeExpired(final long timestamp, final long sessionTimeout) {
+        context.values().removeIf(metrics -> metrics.isExpired(timestamp, sessionTimeout));
+    }
+}
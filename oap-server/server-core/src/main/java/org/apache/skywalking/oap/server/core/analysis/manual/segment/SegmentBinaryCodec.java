@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+
+/**
+ * SegmentBinaryCodec compresses the {@link SegmentRecord#getDataBinary()} before it is saved in the storage, and
+ * restores the original serialized segment when it is read back.
+ *
+ * <p>The compressed binary starts with the {@link #HEADER} byte, followed by the {@link Compression#getId()} of the
+ * codec, 4 bytes of the original length and the compressed bytes. {@link #HEADER} could never be the first byte of a
+ * serialized protobuf message, as its wire type(7) is illegal, so the binaries persisted before, and the binaries
+ * saved with {@link Compression#NONE}, are read as they are.
+ *
+ * @since 9.3.0
+ */
+public final class SegmentBinaryCodec {
+    static final byte HEADER = (byte) 0xFF;
+    private static final int PREFIX_LENGTH = 6;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(
+        () -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private SegmentBinaryCodec() {
+    }
+
+    /**
+     * @return the binary compressed by the given compression, or the original binary if the compression is {@link
+     * Compression#NONE} or it doesn't make the binary smaller.
+     */
+    public static byte[] encode(final byte[] binary, final Compression compression) {
+        if (compression == Compression.NONE || binary == null || binary.length <= PREFIX_LENGTH) {
+            return binary;
+        }
+
+        final Deflater deflater = DEFLATER.get();
+        try {
+            deflater.setInput(binary);
+            deflater.finish();
+
+            final byte[] buffer = new byte[binary.length];
+            buffer[0] = HEADER;
+            buffer[1] = compression.getId();
+            writeInt(buffer, 2, binary.length);
+            int length = PREFIX_LENGTH;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    // Not compressible, keep the original one, which is smaller and cheaper to read.
+                    return binary;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            final byte[] compressed = new byte[length];
+            System.arraycopy(buffer, 0, compressed, 0, length);
+            return compressed;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * @return the original binary, whether it is compressed or not.
+     */
+    public static byte[] decode(final byte[] binary) {
+        if (!isCompressed(binary)) {
+            return binary;
+        }
+        final Compression compression = Compression.findById(binary[1]);
+        if (compression != Compression.DEFLATE) {
+            throw new UnexpectedException("Unknown compression id of the segment binary: " + binary[1]);
+        }
+
+        final Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(binary, PREFIX_LENGTH, binary.length - PREFIX_LENGTH);
+            final byte[] original = new byte[readInt(binary, 2)];
+            int length = 0;
+            while (!inflater.finished()) {
+                final int inflated = length < original.length
+                    ? inflater.inflate(original, length, original.length - length)
+                    // Inflate the trailer of the stream, which must not include any more data.
+                    : inflater.inflate(new byte[1]);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != original.length || !inflater.finished()) {
+                throw new UnexpectedException(
+                    "Corrupted segment binary, which should be inflated to " + original.length + " bytes");
+            }
+            return original;
+        } catch (DataFormatException e) {
+            throw new UnexpectedException("Corrupted segment binary, " + e.getMessage(), e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    static boolean isCompressed(final byte[] binary) {
+        return binary != null && binary.length > PREFIX_LENGTH && binary[0] == HEADER;
+    }
+
+    private static void writeInt(final byte[] buffer, final int offset, final int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(final byte[] buffer, final int offset) {
+        return (buffer[offset] & 0xFF) << 24
+            | (buffer[offset + 1] & 0xFF) << 16
+            | (buffer[offset + 2] & 0xFF) << 8
+            | buffer[offset + 3] & 0xFF;
+    }
+
+    @RequiredArgsConstructor
+    public enum Compression {
+        /**
+         * Save the serialized segment as it is.
+         */
+        NONE((byte) 0),
+        /**
+         * DEFLATE in the fastest level, provided by the JDK.
+         */
+        DEFLATE((byte) 1);
+
+        @Getter
+        private final byte id;
+
+        public static Compression findByName(final String name) {
+            for (final Compression compression : Compression.values()) {
+                if (compression.name().equalsIgnoreCase(name)) {
+                    return compression;
+                }
+            }
+            throw new IllegalArgumentException("Unknown segment binary compression: " + name);
+        }
+
+        static Compression findById(final byte id) {
+            for (final Compression compression : Compression.values()) {
+                if (compression.id == id) {
+                    return compression;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.meter.function;
+
+import com.google.common.base.Strings;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.meter.Meter;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.MultiIntValuesHolder;
+import org.apache.skywalking.oap.server.core.analysis.metrics.QuantileSketch;
+import org.apache.skywalking.oap.server.core.analysis.metrics.QuantileSketchTable;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.annotation.BanyanDB;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Entity;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Storage;
+import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+
+/**
+ * HistogramPercentileSketchFunction calculates the percentiles of the histogram like {@link PercentileFunction}, but
+ * keeps the values of every group in a {@link QuantileSketch}, which doesn't require the buckets of all inputs to be
+ * the same, and is merged by adding the counts of the sketches. The amount of every bucket is counted as its minimal
+ * value.
+ *
+ * @since 9.3.0
+ */
+@Slf4j
+public abstract class HistogramPercentileSketchFunction extends Meter
+    implements AcceptableValue<PercentileArgument>, MultiIntValuesHolder {
+    public static final String SKETCH = "sketch";
+    public static final String RANKS = "ranks";
+    public static final String VALUE = "value";
+
+    @Setter
+    @Getter
+    @Column(columnName = ENTITY_ID, length = 512)
+    @BanyanDB.ShardingKey(index = 0)
+    private String entityId;
+    @Getter
+    @Setter
+    @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
+    @ElasticSearch.Column(columnAlias = "datatable_value")
+    private DataTable percentileValues = new DataTable(10);
+    @Getter
+    @Setter
+    @Column(columnName = SKETCH, storageOnly = true)
+    private QuantileSketchTable sketches = new QuantileSketchTable();
+    /**
+     * Rank
+     */
+    @Getter
+    @Setter
+    @Column(columnName = RANKS, storageOnly = true)
+    private IntList ranks = new IntList(10);
+
+    private boolean isCalculated = false;
+
+    @Override
+    public void accept(final MeterEntity entity, final PercentileArgument value) {
+        for (final int rank : value.getRanks()) {
+            if (rank <= 0) {
+                throw new IllegalArgumentException("Illegal rank value " + rank + ", must be positive");
+            }
+        }
+
+        if (ranks.size() > 0) {
+            if (ranks.size() != value.getRanks().length) {
+                throw new IllegalArgumentException(
+                    "Incompatible ranks size = [" + value.getRanks().length + "] for current PercentileFunction["
+                        + ranks.size() + "]");
+            } else {
+                for (final int rank : value.getRanks()) {
+                    if (!ranks.include(rank)) {
+                        throw new IllegalArgumentException(
+                            "Rank " + rank + " doesn't exist in the previous ranks " + ranks);
+                    }
+                }
+            }
+        } else {
+            for (final int rank : value.getRanks()) {
+                ranks.add(rank);
+            }
+        }
+
+        this.entityId = entity.id();
+
+        final BucketedValues bucketedValues = value.getBucketedValues();
+        final QuantileSketch sketch = sketches.get(Strings.nullToEmpty(bucketedValues.getGroup()));
+        final long[] values = bucketedValues.getValues();
+        for (int i = 0; i < values.length; i++) {
+            // The Long.MIN_VALUE bucket is counted as 0, the same as any negative value.
+            sketch.add(bucketedValues.getBuckets()[i], values[i]);
+        }
+
+        this.isCalculated = false;
+    }
+
+    @Override
+    public boolean combine(final Metrics metrics) {
+        HistogramPercentileSketchFunction percentile = (HistogramPercentileSketchFunction) metrics;
+
+        if (this.ranks.size() > 0) {
+            IntList ranksOfThat = percentile.getRanks();
+            if (this.ranks.size() != ranksOfThat.size()) {
+                log.warn("Incompatible ranks size = [{}}] for current PercentileFunction[{}]",
+                         ranksOfThat.size(), this.ranks.size()
+                );
+                return true;
+            } else {
+                if (!this.ranks.equals(ranksOfThat)) {
+                    log.warn("Rank {} doesn't exist in the previous ranks {}", ranksOfThat, this.ranks);
+                    return true;
+                }
+            }
+        }
+
+        this.sketches.append(percentile.sketches);
+
+        this.isCalculated = false;
+        return true;
+    }
+
+    @Override
+    public void calculate() {
+        if (!isCalculated) {
+            sketches.forEach((group, sketch) -> {
+                for (int i = 0; i < ranks.size(); i++) {
+                    final int rank = ranks.get(i);
+                    final String key = group.isEmpty() ? String.valueOf(rank) : group + ":" + rank;
+                    percentileValues.put(key, sketch.quantile(rank / 100.0));
+                }
+            });
+            isCalculated = true;
+        }
+    }
+
+    @Override
+    public Metrics toHour() {
+        HistogramPercentileSketchFunction metrics = (HistogramPercentileSketchFunction) createNew();
+        metrics.setEntityId(getEntityId());
+        metrics.setTimeBucket(toTimeBucketInHour());
+        metrics.getSketches().copyFrom(getSketches());
+        metrics.setRanks(getRanks());
+        metrics.setPercentileValues(getPercentileValues());
+        return metrics;
+    }
+
+    @Override
+    public Metrics toDay() {
+        HistogramPercentileSketchFunction metrics = (HistogramPercentileSketchFunction) createNew();
+        metrics.setEntityId(getEntityId());
+        metrics.setTimeBucket(toTimeBucketInDay());
+        metrics.getSketches().copyFrom(getSketches());
+        metrics.setRanks(getRanks());
+        metrics.setPercentileValues(getPercentileValues());
+        return metrics;
+    }
+
+    @Override
+    public int[] getValues() {
+        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
+                               .stream()
+                               .flatMapToInt(l -> IntStream.of(l.intValue()))
+                               .toArray();
+    }
+
+    @Override
+    public int remoteHashCode() {
+        return entityId.hashCode();
+    }
+
+    @Override
+    public void deserialize(final RemoteData remoteData) {
+        this.setTimeBucket(remoteData.getDataLongs(0));
+
+        this.setEntityId(remoteData.getDataStrings(0));
+
+        this.setSketches(new QuantileSketchTable(remoteData.getDataObjectStrings(0)));
+        this.setRanks(new IntList(remoteData.getDataObjectStrings(1)));
+        this.setPercentileValues(new DataTable(remoteData.getDataObjectStrings(2)));
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataLongs(getTimeBucket());
+
+        remoteBuilder.addDataStrings(entityId);
+
+        remoteBuilder.addDataObjectStrings(sketches.toStorageData());
+        remoteBuilder.addDataObjectStrings(ranks.toStorageData());
+        remoteBuilder.addDataObjectStrings(percentileValues.toStorageData());
+
+        return remoteBuilder;
+    }
+
+    @Override
+    protected String id0() {
+        return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+    }
+
+    @Override
+    public Class<? extends StorageBuilder> builder() {
+        return HistogramPercentileSketchFunctionBuilder.class;
+    }
+
+    public static class HistogramPercentileSketchFunctionBuilder
+        implements StorageBuilder<HistogramPercentileSketchFunction> {
+        @Override
+        public HistogramPercentileSketchFunction storage2Entity(final Convert2Entity converter) {
+            HistogramPercentileSketchFunction metrics = new HistogramPercentileSketchFunction() {
+                @Override
+                public AcceptableValue<PercentileArgument> createNew() {
+                    throw new UnexpectedException("createNew should not be called");
+                }
+            };
+            metrics.setSketches(new QuantileSketchTable((String) converter.get(SKETCH)));
+            metrics.setRanks(new IntList((String) converter.get(RANKS)));
+            metrics.setPercentileValues(new DataTable((String) converter.get(VALUE)));
+            metrics.setTimeBucket(((Number) converter.get(TIME_BUCKET)).longValue());
+            metrics.setEntityId((String) converter.get(ENTITY_ID));
+            return metrics;
+        }
+
+        @Override
+        public void entity2Storage(final HistogramPercentileSketchFunction storageData,
+                                   final Convert2Storage converter) {
+            converter.accept(SKETCH, storageData.getSketches());
+            converter.accept(RANKS, storageData.getRanks());
+            converter.accept(VALUE, storageData.getPercentileValues());
+            converter.accept(TIME_BUCKET, storageData.getTimeBucket());
+            converter.accept(ENTITY_ID, storageData.getEntityId());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HistogramPercentileSketchFunction)) {
+            return false;
+        }
+        HistogramPercentileSketchFunction function = (HistogramPercentileSketchFunction) o;
+        return Objects.equals(entityId, function.entityId) &&
+            getTimeBucket() == function.getTimeBucket();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityId, getTimeBucket());
+    }
+}
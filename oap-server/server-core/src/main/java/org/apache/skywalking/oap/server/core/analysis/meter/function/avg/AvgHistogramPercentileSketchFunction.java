@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.meter.function.avg;
+
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.HistogramPercentileSketchFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.MeterFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileArgument;
+
+/**
+ * AvgHistogramPercentileSketchFunction calculates the percentiles of the histogram averaged over the interval(minute,
+ * hour or day) in the sketch. Averaging scales the counts of all buckets in the same ratio, which doesn't change any
+ * percentile, so it shares the implementation of the summary.
+ *
+ * @since 9.3.0
+ */
+@MeterFunction(functionName = "avgHistogramPercentileSketch")
+public abstract class AvgHistogramPercentileSketchFunction extends HistogramPercentileSketchFunction
+    implements AcceptableValue<PercentileArgument> {
+}
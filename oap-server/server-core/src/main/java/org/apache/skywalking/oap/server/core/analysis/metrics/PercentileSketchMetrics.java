@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ElasticSearch;
+
+/**
+ * PercentileSketchMetrics calculates the P50/75/90/95/99 values like {@link PercentileMetrics}, but keeps the values in
+ * a {@link QuantileSketch} rather than the precision based buckets. Merging is adding the counts of the sketches, and
+ * the error of every percentile is bounded by {@link QuantileSketch#RELATIVE_ACCURACY} of the value.
+ *
+ * @since 9.3.0
+ */
+@MetricsFunction(functionName = "percentile2")
+public abstract class PercentileSketchMetrics extends Metrics implements MultiIntValuesHolder {
+    protected static final String SKETCH = "sketch";
+    protected static final String VALUE = "value";
+
+    private static final int[] RANKS = {
+        50,
+        75,
+        90,
+        95,
+        99
+    };
+
+    @Getter
+    @Setter
+    @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
+    @ElasticSearch.Column(columnAlias = "datatable_value")
+    private DataTable percentileValues;
+    @Getter
+    @Setter
+    @Column(columnName = SKETCH, storageOnly = true)
+    private QuantileSketch sketch;
+
+    private boolean isCalculated;
+
+    public PercentileSketchMetrics() {
+        percentileValues = new DataTable(RANKS.length);
+        sketch = new QuantileSketch();
+    }
+
+    @Entrance
+    public final void combine(@SourceFrom int value) {
+        this.isCalculated = false;
+        sketch.add(value);
+    }
+
+    @Override
+    public boolean combine(Metrics metrics) {
+        this.isCalculated = false;
+
+        PercentileSketchMetrics percentileMetrics = (PercentileSketchMetrics) metrics;
+        this.sketch.merge(percentileMetrics.sketch);
+        return true;
+    }
+
+    @Override
+    public final void calculate() {
+        if (!isCalculated) {
+            for (int i = 0; i < RANKS.length; i++) {
+                percentileValues.put(String.valueOf(i), sketch.quantile(RANKS[i] / 100.0));
+            }
+            isCalculated = true;
+        }
+    }
+
+    @Override
+    public int[] getValues() {
+        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
+                               .stream()
+                               .flatMapToInt(l -> IntStream.of(l.intValue()))
+                               .toArray();
+    }
+}
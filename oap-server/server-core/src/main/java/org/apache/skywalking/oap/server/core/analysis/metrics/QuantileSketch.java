@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * QuantileSketch is a mergeable sketch of non-negative values, which estimates any quantile with the bounded relative
+ * error {@link #RELATIVE_ACCURACY}, following the DDSketch algorithm.
+ *
+ * <p>The value is mapped into the bin of index {@code ceil(log(value) / log(gamma))}, where {@code gamma = (1 +
+ * accuracy) / (1 - accuracy)}, and the bins are kept in a dense array. Merging sketches is adding counts of the arrays.
+ * Once the range of the bins exceeds {@link #MAX_BINS}, the lowest bins are collapsed, so the accuracy of the high
+ * quantiles is always kept.
+ *
+ * <p>The sketch is stored as the Base64 of its compact binary, the non-empty bins encoded in variable length.
+ *
+ * @since 9.3.0
+ */
+public class QuantileSketch implements StorageDataComplexObject<QuantileSketch> {
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MAX_BINS = 2048;
+    private static final int INITIAL_BINS = 16;
+    private static final byte VERSION = 1;
+    private static final long[] EMPTY_BINS = new long[0];
+
+    /**
+     * The count of values less than 1.
+     */
+    private long zeroCount;
+    /**
+     * The bin index of {@code bins[0]}.
+     */
+    private int offset;
+    private long[] bins = EMPTY_BINS;
+    /**
+     * The count of all values in the sketch.
+     */
+    @Getter
+    private long count;
+
+    public QuantileSketch() {
+    }
+
+    public QuantileSketch(String data) {
+        toObject(data);
+    }
+
+    public void add(final long value) {
+        add(value, 1L);
+    }
+
+    public void add(final long value, final long times) {
+        if (times <= 0) {
+            return;
+        }
+        if (value < 1) {
+            zeroCount += times;
+        } else {
+            addToBin((int) Math.ceil(Math.log(value) / LOG_GAMMA), times);
+        }
+        count += times;
+    }
+
+    /**
+     * Add all values of the given sketch into this one.
+     */
+    public void merge(final QuantileSketch sketch) {
+        if (sketch.count == 0) {
+            return;
+        }
+        zeroCount += sketch.zeroCount;
+        for (int i = 0; i < sketch.bins.length; i++) {
+            if (sketch.bins[i] != 0) {
+                addToBin(sketch.offset + i, sketch.bins[i]);
+            }
+        }
+        count += sketch.count;
+    }
+
+    /**
+     * @param quantile in [0, 1], such as 0.99 for the p99.
+     * @return the estimated value of the given quantile, or 0 if there is no value.
+     */
+    public long quantile(final double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        final double rank = quantile * (count - 1);
+        long accumulated = zeroCount;
+        if (accumulated > rank) {
+            return 0;
+        }
+        for (int i = 0; i < bins.length; i++) {
+            accumulated += bins[i];
+            if (accumulated > rank) {
+                return Math.round(2 * Math.pow(GAMMA, offset + i) / (1 + GAMMA));
+            }
+        }
+        return Math.round(2 * Math.pow(GAMMA, offset + bins.length - 1) / (1 + GAMMA));
+    }
+
+    private void addToBin(final int index, final long times) {
+        if (bins.length == 0) {
+            offset = index;
+        }
+        if (index < offset || index >= offset + bins.length) {
+            extendRange(index);
+        }
+        // The index lower than the range has been collapsed into the lowest bin.
+        bins[Math.max(index, offset) - offset] += times;
+    }
+
+    private void extendRange(final int index) {
+        final int low = Math.min(index, offset);
+        final int high = Math.max(index, offset + bins.length - 1);
+        final int length = Math.min(MAX_BINS, Math.max(high - low + 1, Math.max(bins.length * 2, INITIAL_BINS)));
+        int newOffset = index < offset ? high - length + 1 : low;
+        if (newOffset + length - 1 < high) {
+            newOffset = high - length + 1;
+        }
+
+        final long[] newBins = new long[length];
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] != 0) {
+                newBins[Math.max(offset + i, newOffset) - newOffset] += bins[i];
+            }
+        }
+        bins = newBins;
+        offset = newOffset;
+    }
+
+    @Override
+    public String toStorageData() {
+        if (count == 0) {
+            return "";
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(16 + bins.length * 2);
+        output.write(VERSION);
+        writeVarLong(output, zeroCount);
+        int nonEmptyBins = 0;
+        for (final long bin : bins) {
+            if (bin != 0) {
+                nonEmptyBins++;
+            }
+        }
+        writeVarLong(output, nonEmptyBins);
+        int previous = 0;
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] != 0) {
+                final int index = offset + i;
+                // ZigZag encoded delta, as the first index could be negative.
+                final int delta = index - previous;
+                writeVarLong(output, (delta << 1) ^ (delta >> 31));
+                writeVarLong(output, bins[i]);
+                previous = index;
+            }
+        }
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+    @Override
+    public void toObject(final String data) {
+        zeroCount = 0;
+        offset = 0;
+        bins = EMPTY_BINS;
+        count = 0;
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+
+        final byte[] binary = Base64.getDecoder().decode(data);
+        if (binary[0] != VERSION) {
+            throw new IllegalArgumentException("Unknown version of the quantile sketch: " + binary[0]);
+        }
+        final int[] position = {1};
+        zeroCount = readVarLong(binary, position);
+        count = zeroCount;
+        final long nonEmptyBins = readVarLong(binary, position);
+        int index = 0;
+        for (long i = 0; i < nonEmptyBins; i++) {
+            final int zigzag = (int) readVarLong(binary, position);
+            index += (zigzag >>> 1) ^ -(zigzag & 1);
+            final long times = readVarLong(binary, position);
+            addToBin(index, times);
+            count += times;
+        }
+    }
+
+    @Override
+    public void copyFrom(final QuantileSketch source) {
+        merge(source);
+    }
+
+    private static void writeVarLong(final ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static long readVarLong(final byte[] binary, final int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = binary[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length value in the quantile sketch");
+    }
+}
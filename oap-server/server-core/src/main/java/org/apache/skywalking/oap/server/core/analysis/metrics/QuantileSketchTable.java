@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * QuantileSketchTable keeps a {@link QuantileSketch} for every group of values, in the same layout as {@link
+ * DataTable}.
+ *
+ * @since 9.3.0
+ */
+public class QuantileSketchTable implements StorageDataComplexObject<QuantileSketchTable> {
+    private final Map<String, QuantileSketch> data = new HashMap<>();
+
+    public QuantileSketchTable() {
+    }
+
+    public QuantileSketchTable(String data) {
+        toObject(data);
+    }
+
+    /**
+     * @return the sketch of the given group, created if absent.
+     */
+    public QuantileSketch get(String group) {
+        return data.computeIfAbsent(group, k -> new QuantileSketch());
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public void forEach(BiConsumer<String, QuantileSketch> action) {
+        data.forEach(action);
+    }
+
+    /**
+     * Merge the sketches of the same group.
+     */
+    public void append(QuantileSketchTable table) {
+        table.data.forEach((group, sketch) -> get(group).merge(sketch));
+    }
+
+    @Override
+    public String toStorageData() {
+        StringBuilder builder = new StringBuilder();
+
+        this.data.forEach((group, sketch) -> {
+            if (builder.length() != 0) {
+                // For the first element.
+                builder.append(Const.ARRAY_SPLIT);
+            }
+            builder.append(group).append(Const.KEY_VALUE_SPLIT).append(sketch.toStorageData());
+        });
+        return builder.toString();
+    }
+
+    @Override
+    public void toObject(String data) {
+        String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
+        for (String keyValue : keyValues) {
+            final String[] keyValuePair = keyValue.split(Const.KEY_VALUE_SPLIT);
+            if (keyValuePair.length == 2) {
+                get(keyValuePair[0]).merge(new QuantileSketch(keyValuePair[1]));
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(final QuantileSketchTable source) {
+        this.append(source);
+    }
+}
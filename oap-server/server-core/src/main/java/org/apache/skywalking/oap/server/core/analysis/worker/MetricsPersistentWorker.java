@@ -20,21 +20,29 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.stream.Collectors;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.library.datacarrier.DataCarrier;
 import org.apache.skywalking.oap.server.library.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.oap.server.library.datacarrier.consumer.ConsumerPoolFactory;
 import org.apache.skywalking.oap.server.library.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.data.BufferedData;
+import org.apache.skywalking.oap.server.core.analysis.data.HashMergableBufferedData;
 import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
+import org.apache.skywalking.oap.server.core.analysis.data.SessionCache;
+import org.apache.skywalking.oap.server.core.analysis.data.TinyLFUSessionCache;
+import org.apache.skywalking.oap.server.core.analysis.data.UnboundedSessionCache;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
@@ -57,8 +65,14 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
      */
     private static long SESSION_TIMEOUT_OFFSITE_COUNTER = 0;
 
+    @Getter
     private final Model model;
-    private final Map<Metrics, Metrics> context;
+    private final SessionCache context;
+    /**
+     * The metrics written by the rounds whose execute stages are not finished, the latest round is the last one. The
+     * storage could return the older values of them, so they are merged with these values instead.
+     */
+    private final Deque<Map<Metrics, Metrics>> unflushedRounds = new ConcurrentLinkedDeque<>();
     private final IMetricsDAO metricsDAO;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
     private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
@@ -68,6 +82,8 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private final boolean supportUpdate;
     private long sessionTimeout;
     private CounterMetrics aggregationCounter;
+    private CounterMetrics sessionCacheHitCounter;
+    private CounterMetrics sessionCacheMissCounter;
     /**
      * The counter for the round of persistent.
      */
@@ -86,10 +102,13 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
                             AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
                             MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate,
-                            long storageSessionTimeout, int metricsDataTTL) {
-        super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
+                            long storageSessionTimeout, int metricsDataTTL, boolean hashMergeTable,
+                            int sessionCacheMaxSize) {
+        super(
+            moduleDefineHolder,
+            new ReadWriteSafeCache<>(newMergeBuffer(hashMergeTable), newMergeBuffer(hashMergeTable))
+        );
         this.model = model;
-        this.context = new HashMap<>(100);
         this.enableDatabaseSession = enableDatabaseSession;
         this.metricsDAO = metricsDAO;
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
@@ -106,7 +125,8 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         if (size == 0) {
             size = 1;
         }
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 20);
+        // Signal driven, the consumer is woken up by the new metrics, the cycle is only a fallback of missing signals.
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 1000, true);
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
@@ -124,6 +144,25 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             new MetricsTag.Keys("metricName", "level", "dimensionality"),
             new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
         );
+        sessionCacheHitCounter = metricsCreator.createCounter(
+            "metrics_session_cache_hit", "The number of metrics found in the session cache",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"),
+            new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
+        );
+        sessionCacheMissCounter = metricsCreator.createCounter(
+            "metrics_session_cache_miss", "The number of metrics not found in the session cache",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"),
+            new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
+        );
+        if (sessionCacheMaxSize > 0) {
+            this.context = new TinyLFUSessionCache(sessionCacheMaxSize, metricsCreator.createCounter(
+                "metrics_session_cache_eviction", "The number of metrics evicted from the size bounded session cache",
+                new MetricsTag.Keys("metricName", "level", "dimensionality"),
+                new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
+            ));
+        } else {
+            this.context = new UnboundedSessionCache();
+        }
         SESSION_TIMEOUT_OFFSITE_COUNTER++;
     }
 
@@ -136,10 +175,13 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                             boolean enableDatabaseSession,
                             boolean supportUpdate,
                             long storageSessionTimeout,
-                            int metricsDataTTL) {
+                            int metricsDataTTL,
+                            boolean hashMergeTable,
+                            int sessionCacheMaxSize) {
         this(moduleDefineHolder, model, metricsDAO,
              null, null, null,
-             enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL
+             enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL, hashMergeTable,
+             sessionCacheMaxSize
         );
         // For a down-sampling metrics, we prolong the session timeout for 4 times, nearly 5 minutes.
         // And add offset according to worker creation sequence, to avoid context clear overlap,
@@ -149,6 +191,10 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         this.persistentMod = 4;
     }
 
+    private static BufferedData<Metrics> newMergeBuffer(boolean hashMergeTable) {
+        return hashMergeTable ? new HashMergableBufferedData<>() : new MergableBufferedData<>();
+    }
+
     /**
      * Accept all metrics data and push them into the queue for serial processing
      */
@@ -178,21 +224,24 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         final int batchSize = Math.min(maxBatchGetSize, lastCollection.size());
         List<Metrics> metricsList = new ArrayList<>();
         List<PrepareRequest> prepareRequests = new ArrayList<>(lastCollection.size());
+        Map<Metrics, Metrics> writtenMetrics = new HashMap<>(lastCollection.size());
         for (Metrics data : lastCollection) {
             transWorker.ifPresent(metricsTransWorker -> metricsTransWorker.in(data));
 
             metricsList.add(data);
 
             if (metricsList.size() == batchSize) {
-                flushDataToStorage(metricsList, prepareRequests);
+                flushDataToStorage(metricsList, prepareRequests, writtenMetrics);
             }
         }
 
         if (metricsList.size() > 0) {
-            flushDataToStorage(metricsList, prepareRequests);
+            flushDataToStorage(metricsList, prepareRequests, writtenMetrics);
         }
 
         if (prepareRequests.size() > 0) {
+            // Removed in #endOfExecution, once the storage has the values.
+            unflushedRounds.addLast(writtenMetrics);
             log.debug(
                 "prepare batch requests for model {}, took time: {}, size: {}", model.getName(),
                 System.currentTimeMillis() - start, prepareRequests.size()
@@ -202,13 +251,14 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     }
 
     private void flushDataToStorage(List<Metrics> metricsList,
-                                    List<PrepareRequest> prepareRequests) {
+                                    List<PrepareRequest> prepareRequests,
+                                    Map<Metrics, Metrics> writtenMetrics) {
         try {
-            loadFromStorage(metricsList);
+            final Map<Metrics, Metrics> loadedMetrics = loadFromStorage(metricsList);
 
             long timestamp = System.currentTimeMillis();
             for (Metrics metrics : metricsList) {
-                Metrics cachedMetrics = context.get(metrics);
+                Metrics cachedMetrics = loadedMetrics.get(metrics);
                 if (cachedMetrics != null) {
                     /*
                      * If the metrics is not supportUpdate, defined through MetricsExtension#supportUpdate,
@@ -226,11 +276,13 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                     }
                     cachedMetrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchUpdate(model, cachedMetrics));
+                    writtenMetrics.put(cachedMetrics, cachedMetrics);
                     nextWorker(cachedMetrics);
                     cachedMetrics.setLastUpdateTimestamp(timestamp);
                 } else {
                     metrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchInsert(model, metrics));
+                    writtenMetrics.put(metrics, metrics);
                     nextWorker(metrics);
                     metrics.setLastUpdateTimestamp(timestamp);
                 }
@@ -256,16 +308,28 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
 
     /**
      * Load data from the storage, if {@link #enableDatabaseSession} == true, only load data when the id doesn't exist.
+     * The metrics written by the unflushed rounds are never loaded from the storage, which could be older.
+     *
+     * @return the cached or loaded metrics of this batch. The size bounded session cache could evict some of them
+     * before the batch is merged, so the merge should read them from the returned map rather than the session cache.
      */
-    private void loadFromStorage(List<Metrics> metrics) {
+    private Map<Metrics, Metrics> loadFromStorage(List<Metrics> metrics) {
         final long currentTimeMillis = System.currentTimeMillis();
+        final Map<Metrics, Metrics> loadedMetrics = new HashMap<>(metrics.size());
         try {
             List<Metrics> notInCacheMetrics =
                 metrics.stream()
                        .filter(m -> {
+                           final Metrics unflushedValue = getUnflushed(m);
+                           if (unflushedValue != null) {
+                               sessionCacheHitCounter.inc();
+                               loadedMetrics.put(unflushedValue, unflushedValue);
+                               return false;
+                           }
                            final Metrics cachedValue = context.get(m);
                            // Not cached or session disabled, the metric could be tagged `not in cache`.
                            if (cachedValue == null || !enableDatabaseSession) {
+                               sessionCacheMissCounter.inc();
                                return true;
                            }
                            // The metric is in the cache, but still we have to check
@@ -279,15 +343,18 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                                if (metricsDAO.isExpiredCache(model, cachedValue, currentTimeMillis, metricsDataTTL)) {
                                    // The expired metrics should be removed from the context and tagged `not in cache` directly.
                                    context.remove(m);
+                                   sessionCacheMissCounter.inc();
                                    return true;
                                }
                            }
 
+                           sessionCacheHitCounter.inc();
+                           loadedMetrics.put(cachedValue, cachedValue);
                            return false;
                        })
                        .collect(Collectors.toList());
             if (notInCacheMetrics.isEmpty()) {
-                return;
+                return loadedMetrics;
             }
 
             final List<Metrics> dbMetrics = metricsDAO.multiGet(model, notInCacheMetrics);
@@ -295,24 +362,49 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                 // Clear the cache only after results from DB are returned successfully.
                 context.clear();
             }
-            dbMetrics.forEach(m -> context.put(m, m));
+            dbMetrics.forEach(m -> {
+                context.put(m);
+                loadedMetrics.put(m, m);
+            });
         } catch (final Exception e) {
             log.error("Failed to load metrics for merging", e);
+            // Keep merging with the cached metrics, as the session cache is not changed.
+            metrics.forEach(m -> {
+                if (loadedMetrics.containsKey(m)) {
+                    return;
+                }
+                final Metrics cachedValue = context.get(m);
+                if (cachedValue != null) {
+                    loadedMetrics.put(cachedValue, cachedValue);
+                }
+            });
+        }
+        return loadedMetrics;
+    }
+
+    /**
+     * @return the latest value of the metrics written by the unflushed rounds, or null if it is not written.
+     */
+    private Metrics getUnflushed(Metrics metrics) {
+        final Iterator<Map<Metrics, Metrics>> rounds = unflushedRounds.descendingIterator();
+        while (rounds.hasNext()) {
+            final Metrics written = rounds.next().get(metrics);
+            if (written != null) {
+                return written;
+            }
         }
+        return null;
+    }
+
+    @Override
+    public void endOfExecution() {
+        unflushedRounds.pollFirst();
     }
 
     @Override
     public void endOfRound() {
         if (enableDatabaseSession) {
-            Iterator<Metrics> iterator = context.values().iterator();
-            long timestamp = System.currentTimeMillis();
-            while (iterator.hasNext()) {
-                Metrics metrics = iterator.next();
-
-                if (metrics.isExpired(timestamp, sessionTimeout)) {
-                    iterator.remove();
-                }
-            }
+            context.removeExpired(System.currentTimeMillis(), sessionTimeout);
         }
     }
 
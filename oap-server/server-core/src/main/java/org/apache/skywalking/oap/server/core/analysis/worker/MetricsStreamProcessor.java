@@ -20,9 +20,11 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -92,6 +94,22 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
      */
     @Setter
     private int metricsDataTTL = 3;
+    /**
+     * The names of the metrics streams, which merge metrics in the {@link
+     * org.apache.skywalking.oap.server.core.analysis.data.HashMergableBufferedData} at L1 and L2 aggregation. `*` means
+     * all streams.
+     *
+     * @since 9.3.0 from {@link org.apache.skywalking.oap.server.core.CoreModuleConfig#getMetricsHashMergeTable()}
+     */
+    @Setter
+    private Set<String> hashMergeTableStreams = Collections.emptySet();
+    /**
+     * The max number of metrics in the session cache of every persistent worker. 0 means unbounded.
+     *
+     * @since 9.3.0 from {@link org.apache.skywalking.oap.server.core.CoreModuleConfig#getMetricsSessionCacheMaxSize()}
+     */
+    @Setter
+    private int sessionCacheMaxSize = 0;
 
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
@@ -154,6 +172,8 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         boolean supportDownSampling = true;
         boolean supportUpdate = true;
         boolean timeRelativeID = true;
+        final boolean hashMergeTable = hashMergeTableStreams.contains("*")
+            || hashMergeTableStreams.contains(stream.getName());
         if (metricsExtension != null) {
             supportDownSampling = metricsExtension.supportDownSampling();
             supportUpdate = metricsExtension.supportUpdate();
@@ -165,14 +185,16 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                     metricsClass, stream.getScopeId(), new Storage(stream.getName(), timeRelativeID, DownSampling.Hour),
                     false
                 );
-                hourPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
+                hourPersistentWorker = downSamplingWorker(
+                    moduleDefineHolder, metricsDAO, model, supportUpdate, hashMergeTable);
             }
             if (configService.shouldToDay()) {
                 Model model = modelSetter.add(
                     metricsClass, stream.getScopeId(), new Storage(stream.getName(), timeRelativeID, DownSampling.Day),
                     false
                 );
-                dayPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
+                dayPersistentWorker = downSamplingWorker(
+                    moduleDefineHolder, metricsDAO, model, supportUpdate, hashMergeTable);
             }
 
             transWorker = new MetricsTransWorker(
@@ -184,7 +206,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
             false
         );
         MetricsPersistentWorker minutePersistentWorker = minutePersistentWorker(
-            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate);
+            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate, hashMergeTable);
 
         String remoteReceiverWorkerName = stream.getName() + "_rec";
         IWorkerInstanceSetter workerInstanceSetter = moduleDefineHolder.find(CoreModule.NAME)
@@ -194,7 +216,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
 
         MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(moduleDefineHolder, remoteReceiverWorkerName);
         MetricsAggregateWorker aggregateWorker = new MetricsAggregateWorker(
-            moduleDefineHolder, remoteWorker, stream.getName(), l1FlushPeriod);
+            moduleDefineHolder, remoteWorker, stream.getName(), l1FlushPeriod, hashMergeTable);
 
         entryWorkers.put(metricsClass, aggregateWorker);
     }
@@ -203,13 +225,15 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                            IMetricsDAO metricsDAO,
                                                            Model model,
                                                            MetricsTransWorker transWorker,
-                                                           boolean supportUpdate) {
+                                                           boolean supportUpdate,
+                                                           boolean hashMergeTable) {
         AlarmNotifyWorker alarmNotifyWorker = new AlarmNotifyWorker(moduleDefineHolder);
         ExportWorker exportWorker = new ExportWorker(moduleDefineHolder);
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
             moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker,
-            enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL
+            enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL, hashMergeTable,
+            sessionCacheMaxSize
         );
         persistentWorkers.add(minutePersistentWorker);
 
@@ -219,10 +243,12 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     private MetricsPersistentWorker downSamplingWorker(ModuleDefineHolder moduleDefineHolder,
                                                        IMetricsDAO metricsDAO,
                                                        Model model,
-                                                       boolean supportUpdate) {
+                                                       boolean supportUpdate,
+                                                       boolean hashMergeTable) {
         MetricsPersistentWorker persistentWorker = new MetricsPersistentWorker(
             moduleDefineHolder, model, metricsDAO,
-            enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL
+            enableDatabaseSession, supportUpdate, storageSessionTimeout, metricsDataTTL, hashMergeTable,
+            sessionCacheMaxSize
         );
         persistentWorkers.add(persistentWorker);
 
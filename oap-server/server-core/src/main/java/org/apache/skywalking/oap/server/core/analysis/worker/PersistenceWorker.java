@@ -24,6 +24,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
@@ -57,9 +58,21 @@ public abstract class PersistenceWorker<INPUT extends StorageData> extends Abstr
      */
     public abstract void endOfRound();
 
+    /**
+     * The notification method for the worker once the execute stage of a round is finished in the storage, no matter
+     * it succeeded or not. It is only called for the rounds with non-empty batch requests, in the order of the rounds.
+     */
+    public void endOfExecution() {
+    }
+
     /**
      * Prepare the batch persistence, transfer all prepared data to the executable data format based on the storage
      * implementations.
      */
     public abstract List<PrepareRequest> buildBatchRequests();
+
+    /**
+     * @return the model persisted by this worker.
+     */
+    public abstract Model getModel();
 }
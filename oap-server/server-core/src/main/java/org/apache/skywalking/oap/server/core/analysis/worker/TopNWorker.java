@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.library.datacarrier.DataCarrier;
 import org.apache.skywalking.oap.server.library.datacarrier.consumer.IConsumer;
@@ -39,6 +40,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 @Slf4j
 public class TopNWorker extends PersistenceWorker<TopN> {
     private final IRecordDAO recordDAO;
+    @Getter
     private final Model model;
     private final DataCarrier<TopN> dataCarrier;
     private long reportPeriod;
@@ -28,6 +28,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentBinaryCodec;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
 import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
@@ -180,7 +181,8 @@ public class ProfileTaskQueryService implements Service {
         }
 
         ProfiledSegment profiledSegment = new ProfiledSegment();
-        SegmentObject segmentObject = SegmentObject.parseFrom(segmentRecord.getDataBinary());
+        SegmentObject segmentObject = SegmentObject.parseFrom(
+            SegmentBinaryCodec.decode(segmentRecord.getDataBinary()));
         profiledSegment.getSpans().addAll(buildProfiledSpanList(segmentObject));
 
         return profiledSegment;
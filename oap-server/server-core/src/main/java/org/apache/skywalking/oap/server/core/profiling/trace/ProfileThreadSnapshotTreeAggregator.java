@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.trace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
+import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileSnapshotTree;
+import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileStack;
+import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.library.util.RunnableWithExceptionProtection;
+
+import static org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord.BLOCK_SIZE;
+
+/**
+ * Fold the received {@link ProfileThreadSnapshotRecord}s into the {@link ProfileSnapshotTree} of their blocks, in the
+ * order of the sequence. The {@link ProfileThreadSnapshotTreeRecord} is saved once all snapshots of the block are
+ * received, then the analysis reads the tree rather than the snapshots of the block.
+ *
+ * The block, which doesn't receive all snapshots, such as the last block of the segment, or the block whose snapshots
+ * are received by different OAP nodes, is removed when idle, and the analysis reads its snapshots.
+ */
+@Slf4j
+public class ProfileThreadSnapshotTreeAggregator implements Service {
+    private static final long BLOCK_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public void start() {
+        Executors.newSingleThreadScheduledExecutor()
+                 .scheduleWithFixedDelay(
+                     new RunnableWithExceptionProtection(
+                         () -> removeIdleBlocks(System.currentTimeMillis()),
+                         t -> log.error("Remove idle profile snapshot blocks failure.", t)
+                     ), 1, 1, TimeUnit.MINUTES);
+    }
+
+    public void in(ProfileThreadSnapshotRecord snapshot) {
+        final ProfileThreadSnapshotTreeRecord tree = fold(snapshot);
+        if (tree != null) {
+            RecordStreamProcessor.getInstance().in(tree);
+        }
+    }
+
+    /**
+     * @return the tree record if all snapshots of the block are folded, or null.
+     */
+    ProfileThreadSnapshotTreeRecord fold(ProfileThreadSnapshotRecord snapshot) {
+        if (snapshot.getSequence() < 0) {
+            return null;
+        }
+        final int blockIndex = snapshot.getSequence() / BLOCK_SIZE;
+        final String id = snapshot.getTaskId() + Const.ID_CONNECTOR + snapshot.getSegmentId()
+            + Const.ID_CONNECTOR + blockIndex;
+        final Block block = blocks.computeIfAbsent(id, key -> new Block(snapshot, blockIndex));
+        ProfileThreadSnapshotTreeRecord tree = null;
+        try {
+            tree = block.add(snapshot);
+        } catch (IllegalArgumentException e) {
+            log.warn("Can't fold the profile snapshot {} of the segment {}.", snapshot.getSequence(), snapshot.getSegmentId(), e);
+            blocks.remove(id, block);
+        }
+        if (tree != null) {
+            blocks.remove(id, block);
+        }
+        return tree;
+    }
+
+    void removeIdleBlocks(long now) {
+        blocks.entrySet().removeIf(entry -> now - entry.getValue().lastUpdateTime > BLOCK_IDLE_TIMEOUT);
+    }
+
+    int blockCount() {
+        return blocks.size();
+    }
+
+    private static class Block {
+        private final String taskId;
+        private final String segmentId;
+        private final int blockIndex;
+        private final ProfileSnapshotTree tree = new ProfileSnapshotTree();
+        /**
+         * The snapshots received before their previous snapshots.
+         */
+        private final ProfileThreadSnapshotRecord[] pending = new ProfileThreadSnapshotRecord[BLOCK_SIZE];
+        /**
+         * The offset of the next snapshot to fold, all snapshots before it are folded into the tree.
+         */
+        private int nextOffset;
+        private long timeBucket;
+        private volatile long lastUpdateTime = System.currentTimeMillis();
+
+        private Block(ProfileThreadSnapshotRecord snapshot, int blockIndex) {
+            this.taskId = snapshot.getTaskId();
+            this.segmentId = snapshot.getSegmentId();
+            this.blockIndex = blockIndex;
+        }
+
+        /**
+         * @return the tree record once all snapshots of the block are folded, or null.
+         */
+        private synchronized ProfileThreadSnapshotTreeRecord add(ProfileThreadSnapshotRecord snapshot) {
+            final int offset = snapshot.getSequence() - blockIndex * BLOCK_SIZE;
+            if (nextOffset == BLOCK_SIZE || offset < nextOffset || pending[offset] != null) {
+                // completed, or duplicated
+                return null;
+            }
+            lastUpdateTime = System.currentTimeMillis();
+            pending[offset] = snapshot;
+            while (nextOffset < BLOCK_SIZE && pending[nextOffset] != null) {
+                final ProfileThreadSnapshotRecord next = pending[nextOffset];
+                pending[nextOffset++] = null;
+                tree.accumulate(ProfileStack.deserialize(next));
+                timeBucket = Math.max(timeBucket, next.getTimeBucket());
+            }
+            if (nextOffset < BLOCK_SIZE) {
+                return null;
+            }
+
+            final ProfileThreadSnapshotTreeRecord record = new ProfileThreadSnapshotTreeRecord();
+            record.setTaskId(taskId);
+            record.setSegmentId(segmentId);
+            record.setBlock(blockIndex);
+            record.setTreeBinary(tree.serialize());
+            record.setTimeBucket(timeBucket);
+            return record;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.trace;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.Stream;
+import org.apache.skywalking.oap.server.core.analysis.record.Record;
+import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
+import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileSnapshotTree;
+import org.apache.skywalking.oap.server.core.source.ScopeDeclaration;
+import org.apache.skywalking.oap.server.core.storage.annotation.BanyanDB;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.SQLDatabase;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Entity;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Storage;
+import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+
+import static org.apache.skywalking.oap.server.core.source.DefaultScopeDefine.PROFILE_TASK_SEGMENT_SNAPSHOT_TREE;
+
+/**
+ * The {@link ProfileSnapshotTree} of the {@link #BLOCK_SIZE} continuous snapshots of a segment, the block N includes
+ * the snapshots from the sequence N * {@link #BLOCK_SIZE}. Only the block including all snapshots is saved.
+ */
+@Getter
+@Setter
+@ScopeDeclaration(id = PROFILE_TASK_SEGMENT_SNAPSHOT_TREE, name = "ProfileThreadSnapshotTree")
+@Stream(name = ProfileThreadSnapshotTreeRecord.INDEX_NAME, scopeId = PROFILE_TASK_SEGMENT_SNAPSHOT_TREE, builder = ProfileThreadSnapshotTreeRecord.Builder.class, processor = RecordStreamProcessor.class)
+public class ProfileThreadSnapshotTreeRecord extends Record {
+
+    public static final String INDEX_NAME = "profile_task_segment_snapshot_tree";
+    public static final String TASK_ID = "task_id";
+    public static final String SEGMENT_ID = "segment_id";
+    public static final String BLOCK = "block";
+    public static final String TREE_BINARY = "tree_binary";
+
+    /**
+     * The number of the snapshots in a block.
+     */
+    public static final int BLOCK_SIZE = 50;
+
+    @Column(columnName = TASK_ID)
+    private String taskId;
+    @Column(columnName = SEGMENT_ID)
+    @SQLDatabase.QueryUnifiedIndex(withColumns = {BLOCK})
+    @BanyanDB.ShardingKey(index = 0)
+    private String segmentId;
+    @Column(columnName = BLOCK)
+    private int block;
+    @Column(columnName = TREE_BINARY, storageOnly = true)
+    private byte[] treeBinary;
+
+    @Override
+    public String id() {
+        return getTaskId() + Const.ID_CONNECTOR + getSegmentId() + Const.ID_CONNECTOR + getBlock();
+    }
+
+    public static class Builder implements StorageBuilder<ProfileThreadSnapshotTreeRecord> {
+        @Override
+        public ProfileThreadSnapshotTreeRecord storage2Entity(final Convert2Entity converter) {
+            final ProfileThreadSnapshotTreeRecord tree = new ProfileThreadSnapshotTreeRecord();
+            tree.setTaskId((String) converter.get(TASK_ID));
+            tree.setSegmentId((String) converter.get(SEGMENT_ID));
+            tree.setBlock(((Number) converter.get(BLOCK)).intValue());
+            tree.setTimeBucket(((Number) converter.get(TIME_BUCKET)).longValue());
+            tree.setTreeBinary(converter.getBytes(TREE_BINARY));
+            return tree;
+        }
+
+        @Override
+        public void entity2Storage(final ProfileThreadSnapshotTreeRecord storageData, final Convert2Storage converter) {
+            converter.accept(TASK_ID, storageData.getTaskId());
+            converter.accept(SEGMENT_ID, storageData.getSegmentId());
+            converter.accept(BLOCK, storageData.getBlock());
+            converter.accept(TIME_BUCKET, storageData.getTimeBucket());
+            converter.accept(TREE_BINARY, storageData.getTreeBinary());
+        }
+    }
+}
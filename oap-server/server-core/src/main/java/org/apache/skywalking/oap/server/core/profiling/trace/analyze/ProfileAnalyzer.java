@@ -22,12 +22,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzation;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
 import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
@@ -39,7 +42,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Analyze {@link ProfileStack} data to {@link ProfileAnalyzation}
+ * Analyze {@link ProfileStack} data to {@link ProfileAnalyzation}. The {@link ProfileThreadSnapshotTreeRecord}s merged
+ * by {@link org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeAggregator} are used for the
+ * blocks fully included by the sequence ranges, the snapshots are only read for the rest.
  *
  * See: https://github.com/apache/skywalking/blob/421ba88dbfba48cdc5845547381aa4763775b4b1/docs/en/guides/backend-profile.md#thread-analyst
  */
@@ -47,8 +52,6 @@ public class ProfileAnalyzer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProfileAnalyzer.class);
 
-    private static final ProfileAnalyzeCollector ANALYZE_COLLECTOR = new ProfileAnalyzeCollector();
-
     private final int threadSnapshotAnalyzeBatchSize;
     private final int analyzeSnapshotMaxSize;
 
@@ -77,18 +80,30 @@ public class ProfileAnalyzer {
             analyzation.setTip("Out of snapshot analyze limit, " + sequenceSearch.getTotalSequenceCount() + " snapshots found, but analysis first " + analyzeSnapshotMaxSize + " snapshots only.");
         }
 
-        // query snapshots
-        List<ProfileStack> stacks = sequenceSearch.getRanges().parallelStream().map(r -> {
+        // query merged trees of the blocks, and snapshots out of them
+        final List<SequenceRange> ranges = combineRanges(sequenceSearch.getRanges());
+        final Map<Integer, ProfileSnapshotTree> blockTrees = queryBlockTrees(segmentId, ranges);
+        final List<SequenceRange> snapshotRanges = new ArrayList<>();
+        for (SequenceRange range : ranges) {
+            splitByBlockTrees(range, blockTrees, snapshotRanges);
+        }
+        List<ProfileStack> stacks = snapshotRanges.parallelStream().map(r -> {
             try {
-                return getProfileThreadSnapshotQueryDAO().queryRecords(segmentId, r.getMinSequence(), r.getMaxSequence());
+                // the records in the blocks having trees are excluded
+                return getProfileThreadSnapshotQueryDAO()
+                    .queryRecords(segmentId, r.getMinSequence(), r.getMaxSequence())
+                    .stream()
+                    .filter(record -> record.getSequence() >= r.getMinSequence()
+                        && record.getSequence() < r.getMaxSequence())
+                    .collect(Collectors.toList());
             } catch (IOException e) {
                 LOGGER.warn(e.getMessage(), e);
                 return Collections.<ProfileThreadSnapshotRecord>emptyList();
             }
-        }).flatMap(Collection::stream).map(ProfileStack::deserialize).distinct().collect(Collectors.toList());
+        }).flatMap(Collection::stream).map(ProfileStack::deserialize).distinct().sorted().collect(Collectors.toList());
 
         // analyze
-        final List<ProfileStackTree> trees = analyze(stacks);
+        final List<ProfileStackTree> trees = analyze(stacks, blockTrees);
         if (trees != null) {
             analyzation.getTrees().addAll(trees);
         }
@@ -96,6 +111,87 @@ public class ProfileAnalyzer {
         return analyzation;
     }
 
+    /**
+     * Combine the overlapping ranges, the returned ranges are sorted.
+     */
+    private List<SequenceRange> combineRanges(List<SequenceRange> ranges) {
+        final List<SequenceRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt(SequenceRange::getMinSequence));
+        final LinkedList<SequenceRange> combined = new LinkedList<>();
+        for (SequenceRange range : sorted) {
+            if (!combined.isEmpty() && combined.getLast().getMaxSequence() >= range.getMinSequence()) {
+                final SequenceRange last = combined.removeLast();
+                combined.add(new SequenceRange(
+                    last.getMinSequence(), Math.max(last.getMaxSequence(), range.getMaxSequence())));
+            } else {
+                combined.add(range);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Query the merged trees of the blocks fully included by the ranges.
+     *
+     * @return block -> tree
+     */
+    private Map<Integer, ProfileSnapshotTree> queryBlockTrees(String segmentId, List<SequenceRange> ranges) {
+        final Map<Integer, ProfileSnapshotTree> trees = new HashMap<>();
+        for (SequenceRange range : ranges) {
+            final int minBlock = Math.floorDiv(
+                range.getMinSequence() + ProfileThreadSnapshotTreeRecord.BLOCK_SIZE - 1,
+                ProfileThreadSnapshotTreeRecord.BLOCK_SIZE
+            );
+            final int maxBlock = Math.floorDiv(range.getMaxSequence(), ProfileThreadSnapshotTreeRecord.BLOCK_SIZE);
+            if (minBlock >= maxBlock) {
+                continue;
+            }
+            try {
+                for (ProfileThreadSnapshotTreeRecord record : getProfileThreadSnapshotQueryDAO().queryTreeRecords(
+                    segmentId, minBlock, maxBlock)) {
+                    try {
+                        trees.put(record.getBlock(), ProfileSnapshotTree.deserialize(record.getTreeBinary()));
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Can't read the stack tree of the block " + record.getBlock() + ", read its snapshots.", e);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }
+        return trees;
+    }
+
+    /**
+     * Split the range by the blocks having merged trees, the rest ranges are added to snapshot ranges in batches.
+     */
+    private void splitByBlockTrees(SequenceRange range,
+                                   Map<Integer, ProfileSnapshotTree> blockTrees,
+                                   List<SequenceRange> snapshotRanges) {
+        int minSequence = range.getMinSequence();
+        int sequence = minSequence;
+        while (sequence < range.getMaxSequence()) {
+            final int block = Math.floorDiv(sequence, ProfileThreadSnapshotTreeRecord.BLOCK_SIZE);
+            final int blockMinSequence = block * ProfileThreadSnapshotTreeRecord.BLOCK_SIZE;
+            final int blockMaxSequence = blockMinSequence + ProfileThreadSnapshotTreeRecord.BLOCK_SIZE;
+            if (sequence == blockMinSequence && blockMaxSequence <= range.getMaxSequence()
+                && blockTrees.containsKey(block)) {
+                addInBatches(minSequence, sequence, snapshotRanges);
+                minSequence = blockMaxSequence;
+            }
+            sequence = Math.min(blockMaxSequence, range.getMaxSequence());
+        }
+        addInBatches(minSequence, range.getMaxSequence(), snapshotRanges);
+    }
+
+    private void addInBatches(int minSequence, int maxSequence, List<SequenceRange> snapshotRanges) {
+        while (minSequence < maxSequence) {
+            int batchMax = Math.min(minSequence + threadSnapshotAnalyzeBatchSize, maxSequence);
+            snapshotRanges.add(new SequenceRange(minSequence, batchMax));
+            minSequence = batchMax;
+        }
+    }
+
     protected SequenceSearch getAllSequenceRange(String segmentId, List<ProfileAnalyzeTimeRange> timeRanges) {
         final List<SequenceSearch> searches = timeRanges.parallelStream().map(r -> {
             try {
@@ -134,21 +230,30 @@ public class ProfileAnalyzer {
     }
 
     /**
-     * Analyze records
+     * Analyze records and the merged trees of the blocks, the records are sorted and not included by the blocks.
      */
-    protected List<ProfileStackTree> analyze(List<ProfileStack> stacks) {
-        if (CollectionUtils.isEmpty(stacks)) {
+    protected List<ProfileStackTree> analyze(List<ProfileStack> stacks, Map<Integer, ProfileSnapshotTree> blockTrees) {
+        if (CollectionUtils.isEmpty(stacks) && blockTrees.isEmpty()) {
             return null;
         }
 
-        // using parallel stream
-        Map<String, ProfileStackTree> stackTrees = stacks.parallelStream()
-                                                         // stack list cannot be empty
-                                                         .filter(s -> CollectionUtils.isNotEmpty(s.getStack()))
-                                                         .collect(Collectors.groupingBy(s -> s.getStack()
-                                                                                              .get(0), ANALYZE_COLLECTOR));
+        // merge the trees and stacks in the order of the sequence
+        final List<Integer> blocks = new ArrayList<>(blockTrees.keySet());
+        Collections.sort(blocks);
+        final ProfileSnapshotTree tree = new ProfileSnapshotTree();
+        int stackIndex = 0;
+        for (Integer block : blocks) {
+            final int blockMinSequence = block * ProfileThreadSnapshotTreeRecord.BLOCK_SIZE;
+            for (; stackIndex < stacks.size() && stacks.get(stackIndex).getSequence() < blockMinSequence; stackIndex++) {
+                tree.accumulate(stacks.get(stackIndex));
+            }
+            tree.merge(blockTrees.get(block));
+        }
+        for (; stackIndex < stacks.size(); stackIndex++) {
+            tree.accumulate(stacks.get(stackIndex));
+        }
 
-        return new ArrayList<>(stackTrees.values());
+        return tree.buildAnalyzeResult();
     }
 
     protected IProfileThreadSnapshotQueryDAO getProfileThreadSnapshotQueryDAO() {
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.trace.analyze;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackElement;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
+
+/**
+ * The merged stack tree of the {@link ProfileStack}s, which is folded once and merged with the trees of the following
+ * sequences. The code signatures are interned as frame ids, and every node keeps the count, the first and the last
+ * detected snapshot, and the duration of the continuous snapshots, so the durations of {@link ProfileStackElement} are
+ * calculated without the detected snapshots.
+ *
+ * The stacks must be accumulated in the ascending order of the sequence, and a tree must be merged with the tree of the
+ * following sequences.
+ */
+public class ProfileSnapshotTree {
+    private static final int ROOT = 0;
+    private static final int NO_FRAME = -1;
+    private static final int NO_NODE = -1;
+    private static final int NO_SEQUENCE = -1;
+
+    private final List<String> frames = new ArrayList<>();
+    private final Map<String, Integer> frameIds = new HashMap<>();
+    /**
+     * (parent node << 32 | frame id) -> node
+     */
+    private final Map<Long, Integer> children = new HashMap<>();
+
+    private int size;
+    private int[] frame = new int[16];
+    private int[] parent = new int[16];
+    private int[] count = new int[16];
+    private int[] firstSequence = new int[16];
+    private long[] firstDumpTime = new long[16];
+    private int[] lastSequence = new int[16];
+    private long[] lastDumpTime = new long[16];
+    private long[] duration = new long[16];
+
+    public ProfileSnapshotTree() {
+        addNode(NO_FRAME, NO_NODE);
+    }
+
+    /**
+     * @return the number of the accumulated stacks.
+     */
+    public int getStackCount() {
+        return count[ROOT];
+    }
+
+    /**
+     * accumulate the stack following all accumulated stacks, the empty stack is ignored.
+     */
+    public void accumulate(ProfileStack stack) {
+        final List<String> codeSignatures = stack.getStack();
+        if (codeSignatures == null || codeSignatures.isEmpty()) {
+            return;
+        }
+        if (count[ROOT] > 0 && stack.getSequence() <= lastSequence[ROOT]) {
+            throw new IllegalArgumentException(
+                "Stack " + stack.getSequence() + " doesn't follow the sequence " + lastSequence[ROOT]);
+        }
+        int node = ROOT;
+        detect(node, stack.getSequence(), stack.getDumpTime());
+        for (final String codeSignature : codeSignatures) {
+            node = child(node, intern(codeSignature));
+            detect(node, stack.getSequence(), stack.getDumpTime());
+        }
+    }
+
+    /**
+     * merge the tree of the following sequences into this tree.
+     */
+    public ProfileSnapshotTree merge(ProfileSnapshotTree following) {
+        if (following.count[ROOT] == 0) {
+            return this;
+        }
+        if (count[ROOT] > 0 && following.firstSequence[ROOT] <= lastSequence[ROOT]) {
+            throw new IllegalArgumentException(
+                "Tree " + following.firstSequence[ROOT] + " doesn't follow the sequence " + lastSequence[ROOT]);
+        }
+        final int[] frameMapping = new int[following.frames.size()];
+        for (int i = 0; i < frameMapping.length; i++) {
+            frameMapping[i] = intern(following.frames.get(i));
+        }
+        // the parent is always added before its children, so the nodes are merged in the order of them
+        final int[] nodeMapping = new int[following.size];
+        for (int i = 0; i < following.size; i++) {
+            final int node = i == ROOT ? ROOT : child(nodeMapping[following.parent[i]], frameMapping[following.frame[i]]);
+            nodeMapping[i] = node;
+            if (count[node] == 0) {
+                count[node] = following.count[i];
+                firstSequence[node] = following.firstSequence[i];
+                firstDumpTime[node] = following.firstDumpTime[i];
+                duration[node] = following.duration[i];
+            } else {
+                duration[node] += following.duration[i];
+                if (lastSequence[node] + 1 == following.firstSequence[i]) {
+                    duration[node] += following.firstDumpTime[i] - lastDumpTime[node];
+                }
+                count[node] += following.count[i];
+            }
+            lastSequence[node] = following.lastSequence[i];
+            lastDumpTime[node] = following.lastDumpTime[i];
+        }
+        return this;
+    }
+
+    /**
+     * build GraphQL result, one {@link ProfileStackTree} for every code signature at the bottom of the stacks.
+     */
+    public List<ProfileStackTree> buildAnalyzeResult() {
+        // the children are kept in the order of their addition
+        final int[] firstChild = new int[size];
+        final int[] lastChild = new int[size];
+        final int[] nextSibling = new int[size];
+        Arrays.fill(firstChild, NO_NODE);
+        Arrays.fill(nextSibling, NO_NODE);
+        for (int node = 1; node < size; node++) {
+            final int p = parent[node];
+            if (firstChild[p] == NO_NODE) {
+                firstChild[p] = node;
+            } else {
+                nextSibling[lastChild[p]] = node;
+            }
+            lastChild[p] = node;
+        }
+
+        final Map<String, ProfileStackTree> trees = new HashMap<>();
+        for (int root = firstChild[ROOT]; root != NO_NODE; root = nextSibling[root]) {
+            final ProfileStackTree tree = new ProfileStackTree();
+            int idGenerator = 1;
+
+            final LinkedList<ProfileStackElement> elements = new LinkedList<>();
+            final LinkedList<Integer> nodes = new LinkedList<>();
+            elements.add(buildElement(root, idGenerator++));
+            nodes.add(root);
+            while (!nodes.isEmpty()) {
+                final ProfileStackElement element = elements.pop();
+                final int node = nodes.pop();
+                tree.getElements().add(element);
+
+                long childrenDuration = 0;
+                for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+                    final ProfileStackElement childElement = buildElement(child, idGenerator++);
+                    childElement.setParentId(element.getId());
+                    childrenDuration += childElement.getDuration();
+
+                    elements.add(childElement);
+                    nodes.add(child);
+                }
+                element.setDurationChildExcluded(Math.toIntExact(element.getDuration() - childrenDuration));
+            }
+            trees.put(frames.get(frame[root]), tree);
+        }
+        return new ArrayList<>(trees.values());
+    }
+
+    public byte[] serialize() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(frames.size());
+            for (final String codeSignature : frames) {
+                final byte[] data = codeSignature.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(data.length);
+                output.write(data);
+            }
+            output.writeInt(size);
+            for (int node = 0; node < size; node++) {
+                output.writeInt(frame[node]);
+                output.writeInt(parent[node]);
+                output.writeInt(count[node]);
+                output.writeInt(firstSequence[node]);
+                output.writeLong(firstDumpTime[node]);
+                output.writeInt(lastSequence[node]);
+                output.writeLong(lastDumpTime[node]);
+                output.writeLong(duration[node]);
+            }
+        } catch (IOException e) {
+            // should not happen
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static ProfileSnapshotTree deserialize(byte[] data) {
+        final ProfileSnapshotTree tree = new ProfileSnapshotTree();
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            final int frameCount = input.readInt();
+            for (int i = 0; i < frameCount; i++) {
+                final byte[] codeSignature = new byte[input.readInt()];
+                input.readFully(codeSignature);
+                tree.intern(new String(codeSignature, StandardCharsets.UTF_8));
+            }
+            final int nodeCount = input.readInt();
+            for (int i = 0; i < nodeCount; i++) {
+                final int frame = input.readInt();
+                final int parent = input.readInt();
+                if (i != ROOT && (frame < 0 || frame >= frameCount || parent < 0 || parent >= i)) {
+                    throw new IllegalArgumentException("wrong stack tree node " + i);
+                }
+                final int node = i == ROOT ? ROOT : tree.addNode(frame, parent);
+                tree.count[node] = input.readInt();
+                tree.firstSequence[node] = input.readInt();
+                tree.firstDumpTime[node] = input.readLong();
+                tree.lastSequence[node] = input.readInt();
+                tree.lastDumpTime[node] = input.readLong();
+                tree.duration[node] = input.readLong();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("wrong stack tree data", e);
+        }
+        return tree;
+    }
+
+    private int intern(String codeSignature) {
+        return frameIds.computeIfAbsent(codeSignature, s -> {
+            frames.add(s);
+            return frames.size() - 1;
+        });
+    }
+
+    private int child(int node, int frameId) {
+        final long key = (long) node << 32 | frameId;
+        final Integer child = children.get(key);
+        if (child != null) {
+            return child;
+        }
+        return addNode(frameId, node);
+    }
+
+    private int addNode(int frameId, int parentNode) {
+        if (size == frame.length) {
+            final int capacity = size * 2;
+            frame = Arrays.copyOf(frame, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            count = Arrays.copyOf(count, capacity);
+            firstSequence = Arrays.copyOf(firstSequence, capacity);
+            firstDumpTime = Arrays.copyOf(firstDumpTime, capacity);
+            lastSequence = Arrays.copyOf(lastSequence, capacity);
+            lastDumpTime = Arrays.copyOf(lastDumpTime, capacity);
+            duration = Arrays.copyOf(duration, capacity);
+        }
+        final int node = size++;
+        frame[node] = frameId;
+        parent[node] = parentNode;
+        firstSequence[node] = NO_SEQUENCE;
+        lastSequence[node] = NO_SEQUENCE;
+        if (node != ROOT) {
+            children.put((long) parentNode << 32 | frameId, node);
+        }
+        return node;
+    }
+
+    /**
+     * The duration is the sum of the time windows of the continuous sequences.
+     */
+    private void detect(int node, int sequence, long dumpTime) {
+        if (count[node] == 0) {
+            firstSequence[node] = sequence;
+            firstDumpTime[node] = dumpTime;
+        } else if (lastSequence[node] + 1 == sequence) {
+            duration[node] += dumpTime - lastDumpTime[node];
+        }
+        lastSequence[node] = sequence;
+        lastDumpTime[node] = dumpTime;
+        count[node]++;
+    }
+
+    private ProfileStackElement buildElement(int node, int id) {
+        ProfileStackElement element = new ProfileStackElement();
+        element.setId(id);
+        element.setCodeSignature(frames.get(frame[node]));
+        element.setCount(count[node]);
+        element.setDuration(Math.toIntExact(duration[node]));
+        return element;
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.manual.searchtag.Tag;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentBinaryCodec;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
 import org.apache.skywalking.oap.server.core.query.input.Duration;
@@ -102,7 +103,8 @@ public class TraceQueryService implements Service {
         } else {
             for (SegmentRecord segment : segmentRecords) {
                 if (nonNull(segment)) {
-                    SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
+                    SegmentObject segmentObject = SegmentObject.parseFrom(
+                        SegmentBinaryCodec.decode(segment.getDataBinary()));
                     trace.getSpans()
                          .addAll(buildSpanList(segmentObject));
                 }
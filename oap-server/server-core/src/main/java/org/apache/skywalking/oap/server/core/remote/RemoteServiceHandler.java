@@ -22,6 +22,7 @@ import io.grpc.stub.StreamObserver;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.BatchRemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
@@ -97,15 +98,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
      */
     @Override
     public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(workerInstanceGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(workerInstanceGetter)) {
-                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
-                                                             .provider()
-                                                             .getService(IWorkerInstanceGetter.class);
-                }
-            }
-        }
+        initWorkerInstanceGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override
@@ -120,15 +113,11 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                         RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
                         if (handleWorker != null) {
                             AbstractWorker nextWorker = handleWorker.getWorker();
-                            StreamData streamData = handleWorker.getStreamDataClass().newInstance();
+                            StreamData streamData = handleWorker.getStreamDataFactory().newInstance();
                             streamData.deserialize(remoteData);
                             nextWorker.in(streamData);
                         } else {
-                            remoteInTargetNotFoundCounter.inc();
-                            LOGGER.warn(
-                                "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
-                                nextWorkerName
-                            );
+                            targetNotFound(nextWorkerName);
                         }
                     } catch (Throwable t) {
                         remoteInErrorCounter.inc();
@@ -151,4 +140,74 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc} in batch. The worker is found once for all stream data in one message.
+     *
+     * @since 9.3.0
+     */
+    @Override
+    public StreamObserver<BatchRemoteMessage> batchCall(StreamObserver<Empty> responseObserver) {
+        initWorkerInstanceGetter();
+
+        return new StreamObserver<BatchRemoteMessage>() {
+            @Override
+            public void onNext(BatchRemoteMessage message) {
+                remoteInCounter.inc(message.getRemoteDataCount());
+                HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
+                try {
+                    String nextWorkerName = message.getNextWorkerName();
+                    RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
+                    if (handleWorker == null) {
+                        targetNotFound(nextWorkerName);
+                        return;
+                    }
+                    AbstractWorker nextWorker = handleWorker.getWorker();
+                    for (RemoteData remoteData : message.getRemoteDataList()) {
+                        try {
+                            StreamData streamData = handleWorker.getStreamDataFactory().newInstance();
+                            streamData.deserialize(remoteData);
+                            nextWorker.in(streamData);
+                        } catch (Throwable t) {
+                            remoteInErrorCounter.inc();
+                            LOGGER.error(t.getMessage(), t);
+                        }
+                    }
+                } finally {
+                    timer.finish();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.error(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void initWorkerInstanceGetter() {
+        if (Objects.isNull(workerInstanceGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(workerInstanceGetter)) {
+                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
+                                                             .provider()
+                                                             .getService(IWorkerInstanceGetter.class);
+                }
+            }
+        }
+    }
+
+    private void targetNotFound(String nextWorkerName) {
+        remoteInTargetNotFoundCounter.inc();
+        LOGGER.warn(
+            "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
+            nextWorkerName
+        );
+    }
 }
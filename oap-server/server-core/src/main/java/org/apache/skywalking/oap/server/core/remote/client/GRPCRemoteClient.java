@@ -21,7 +21,9 @@ package org.apache.skywalking.oap.server.core.remote.client;
 import io.grpc.ManagedChannel;
 import io.grpc.stub.StreamObserver;
 import io.netty.handler.ssl.SslContext;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
@@ -30,13 +32,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.library.datacarrier.DataCarrier;
 import org.apache.skywalking.oap.server.library.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.BatchRemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.library.util.StringUtil;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
@@ -56,7 +61,17 @@ public class GRPCRemoteClient implements RemoteClient {
     private boolean isConnect;
     private CounterMetrics remoteOutCounter;
     private CounterMetrics remoteOutErrorCounter;
+    private HistogramMetrics remoteOutBatchSizeHistogram;
     private int remoteTimeout;
+    /**
+     * The max number of stream data in one {@link BatchRemoteMessage}. Stream data is sent one by one in {@link
+     * RemoteMessage} if it is not positive.
+     */
+    private final int batchSize;
+    /**
+     * The gRPC compressor name, such as gzip. No compression if empty.
+     */
+    private final String compression;
 
     public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
                             final Address address,
@@ -64,12 +79,25 @@ public class GRPCRemoteClient implements RemoteClient {
                             final int bufferSize,
                             final int remoteTimeout,
                             final SslContext sslContext) {
+        this(moduleDefineHolder, address, channelSize, bufferSize, remoteTimeout, sslContext, 0, null);
+    }
+
+    public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
+                            final Address address,
+                            final int channelSize,
+                            final int bufferSize,
+                            final int remoteTimeout,
+                            final SslContext sslContext,
+                            final int batchSize,
+                            final String compression) {
 
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
         this.remoteTimeout = remoteTimeout;
         this.sslContext = sslContext;
+        this.batchSize = batchSize;
+        this.compression = compression;
 
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME)
                                              .provider()
@@ -91,6 +119,17 @@ public class GRPCRemoteClient implements RemoteClient {
                                                           address
                                                               .toString(), "N")
                                                   );
+        remoteOutBatchSizeHistogram = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                        .provider()
+                                                        .getService(MetricsCreator.class)
+                                                        .createHistogramMetric(
+                                                            "remote_out_batch_size",
+                                                            "The number of stream data(client side) in one batch message of inside remote inside aggregate rpc.",
+                                                            new MetricsTag.Keys("dest", "self"), new MetricsTag.Values(
+                                                                address
+                                                                    .toString(), "N"),
+                                                            1, 10, 50, 100, 200, 500, 1000, 2000, 5000
+                                                        );
     }
 
     @Override
@@ -123,7 +162,11 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     RemoteServiceGrpc.RemoteServiceStub getStub() {
-        return RemoteServiceGrpc.newStub(getChannel());
+        final RemoteServiceGrpc.RemoteServiceStub stub = RemoteServiceGrpc.newStub(getChannel());
+        if (StringUtil.isNotEmpty(compression)) {
+            return stub.withCompression(compression);
+        }
+        return stub;
     }
 
     DataCarrier<RemoteMessage> getDataCarrier() {
@@ -159,6 +202,10 @@ public class GRPCRemoteClient implements RemoteClient {
 
         @Override
         public void consume(List<RemoteMessage> remoteMessages) {
+            if (batchSize > 0) {
+                consumeInBatch(remoteMessages);
+                return;
+            }
             try {
                 StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
                 for (RemoteMessage remoteMessage : remoteMessages) {
@@ -172,6 +219,38 @@ public class GRPCRemoteClient implements RemoteClient {
             }
         }
 
+        /**
+         * Group the stream data by the next worker, and send them in {@link BatchRemoteMessage}s, which carry at most
+         * {@link #batchSize} stream data.
+         */
+        private void consumeInBatch(List<RemoteMessage> remoteMessages) {
+            try {
+                StreamObserver<BatchRemoteMessage> streamObserver = createBatchStreamObserver();
+                Map<String, BatchRemoteMessage.Builder> batches = new LinkedHashMap<>();
+                for (RemoteMessage remoteMessage : remoteMessages) {
+                    remoteOutCounter.inc();
+                    final String nextWorkerName = remoteMessage.getNextWorkerName();
+                    BatchRemoteMessage.Builder batch = batches.computeIfAbsent(
+                        nextWorkerName, name -> BatchRemoteMessage.newBuilder().setNextWorkerName(name));
+                    batch.addRemoteData(remoteMessage.getRemoteData());
+                    if (batch.getRemoteDataCount() >= batchSize) {
+                        sendBatch(streamObserver, batch);
+                        batches.remove(nextWorkerName);
+                    }
+                }
+                batches.values().forEach(batch -> sendBatch(streamObserver, batch));
+                streamObserver.onCompleted();
+            } catch (Throwable t) {
+                remoteOutErrorCounter.inc();
+                log.error(t.getMessage(), t);
+            }
+        }
+
+        private void sendBatch(StreamObserver<BatchRemoteMessage> streamObserver, BatchRemoteMessage.Builder batch) {
+            remoteOutBatchSizeHistogram.observe(batch.getRemoteDataCount());
+            streamObserver.onNext(batch.build());
+        }
+
         @Override
         public void onError(List<RemoteMessage> remoteMessages, Throwable t) {
             log.error(t.getMessage(), t);
@@ -189,6 +268,31 @@ public class GRPCRemoteClient implements RemoteClient {
      * @return stream observer
      */
     private StreamObserver<RemoteMessage> createStreamObserver() {
+        awaitStreamObserverSlot();
+
+        final StreamObserver<RemoteMessage> remoteMessageStreamObserver
+            = getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
+                       .call(newResponseObserver());
+        concurrentStreamObserverNumber.incrementAndGet();
+        return remoteMessageStreamObserver;
+    }
+
+    /**
+     * The batch version of {@link #createStreamObserver()}, sharing the same concurrency limitation.
+     *
+     * @return stream observer
+     */
+    private StreamObserver<BatchRemoteMessage> createBatchStreamObserver() {
+        awaitStreamObserverSlot();
+
+        final StreamObserver<BatchRemoteMessage> batchRemoteMessageStreamObserver
+            = getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
+                       .batchCall(newResponseObserver());
+        concurrentStreamObserverNumber.incrementAndGet();
+        return batchRemoteMessageStreamObserver;
+    }
+
+    private void awaitStreamObserverSlot() {
         int sleepTotalMillis = 0;
         int sleepMillis = 10;
 
@@ -211,27 +315,25 @@ public class GRPCRemoteClient implements RemoteClient {
                 sleepTotalMillis = 0;
             }
         }
+    }
 
-        final StreamObserver<RemoteMessage> remoteMessageStreamObserver
-            = getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
-                       .call(new StreamObserver<Empty>() {
-                           @Override
-                           public void onNext(Empty empty) {
-                           }
-
-                           @Override
-                           public void onError(Throwable throwable) {
-                               concurrentStreamObserverNumber.addAndGet(-1);
-                               log.error(throwable.getMessage(), throwable);
-                           }
-
-                           @Override
-                           public void onCompleted() {
-                               concurrentStreamObserverNumber.addAndGet(-1);
-                           }
-                       });
-        concurrentStreamObserverNumber.incrementAndGet();
-        return remoteMessageStreamObserver;
+    private StreamObserver<Empty> newResponseObserver() {
+        return new StreamObserver<Empty>() {
+            @Override
+            public void onNext(Empty empty) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                concurrentStreamObserverNumber.addAndGet(-1);
+                log.error(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                concurrentStreamObserverNumber.addAndGet(-1);
+            }
+        };
     }
 
     @Override
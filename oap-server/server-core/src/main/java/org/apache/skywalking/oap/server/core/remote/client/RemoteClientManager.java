@@ -62,6 +62,20 @@ public class RemoteClientManager implements Service {
     private volatile List<RemoteClient> usingClients;
     private GaugeMetrics gauge;
     private int remoteTimeout;
+    /**
+     * The max number of stream data in one batch message, see {@link GRPCRemoteClient}.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    private int remoteBatchSize = 0;
+    /**
+     * The gRPC compression of the remote clients, see {@link GRPCRemoteClient}.
+     *
+     * @since 9.3.0
+     */
+    @Setter
+    private String remoteCompression;
 
     /**
      * Initial the manager for all remote communication clients.
@@ -232,7 +246,10 @@ public class RemoteClientManager implements Service {
                         newRemoteClients.add(client);
                     } else {
                         RemoteClient client;
-                        client = new GRPCRemoteClient(moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext);
+                        client = new GRPCRemoteClient(
+                            moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext,
+                            remoteBatchSize, remoteCompression
+                        );
                         client.connect();
                         newRemoteClients.add(client);
                     }
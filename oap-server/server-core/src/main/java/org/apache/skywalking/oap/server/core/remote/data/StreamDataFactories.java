@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+
+/**
+ * StreamDataFactories generates the {@link StreamDataFactory} of the stream data classes, including the ones generated
+ * by OAL and MAL at runtime. The generated factory calls the no-arg constructor directly, rather than through the
+ * reflection for every instance.
+ *
+ * @since 9.3.0
+ */
+@Slf4j
+public final class StreamDataFactories {
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(StreamDataFactory.class);
+    private static final MethodType NEW_INSTANCE_TYPE = MethodType.methodType(StreamData.class);
+
+    private StreamDataFactories() {
+    }
+
+    public static StreamDataFactory create(Class<? extends StreamData> streamDataClass) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle constructor = lookup.findConstructor(
+                streamDataClass, MethodType.methodType(void.class));
+            final CallSite callSite = LambdaMetafactory.metafactory(
+                lookup, "newInstance", FACTORY_TYPE, NEW_INSTANCE_TYPE, constructor,
+                MethodType.methodType(streamDataClass)
+            );
+            final StreamDataFactory factory = (StreamDataFactory) callSite.getTarget().invokeExact();
+            // Make sure the generated factory could link the class, which maybe loaded by another class loader.
+            factory.newInstance();
+            return factory;
+        } catch (Throwable t) {
+            log.warn("Can't generate the factory of {}, fall back to the reflection.", streamDataClass.getName(), t);
+            return reflectiveFactory(streamDataClass);
+        }
+    }
+
+    static StreamDataFactory reflectiveFactory(Class<? extends StreamData> streamDataClass) {
+        return () -> {
+            try {
+                return streamDataClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new UnexpectedException(e.getMessage(), e);
+            }
+        };
+    }
+}
@@ -108,6 +108,7 @@ public class DefaultScopeDefine {
     public static final int PROCESS_RELATION = 54;
     public static final int CACHE_ACCESS = 55;
     public static final int CACHE_SLOW_ACCESS = 56;
+    public static final int PROFILE_TASK_SEGMENT_SNAPSHOT_TREE = 57;
 
     /**
      * Catalog of scope, the metrics processor could use this to group all generated metrics by oal rt.
@@ -21,15 +21,19 @@ package org.apache.skywalking.oap.server.core.storage;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.PersistenceWorker;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
@@ -45,11 +49,16 @@ public enum PersistenceTimer {
     INSTANCE;
     @VisibleForTesting
     boolean isStarted = false;
+    private MetricsCreator metricsCreator;
     private CounterMetrics errorCounter;
-    private HistogramMetrics prepareLatency;
-    private HistogramMetrics executeLatency;
     private HistogramMetrics allLatency;
     private ExecutorService prepareExecutorService;
+    private int maxInFlightRounds;
+    private long persistentPeriodMillis;
+    /**
+     * The telemetry and pipeline status of every worker.
+     */
+    private final Map<PersistenceWorker<? extends StorageData>, WorkerPipeline> pipelines = new ConcurrentHashMap<>();
 
     PersistenceTimer() {
     }
@@ -59,37 +68,40 @@ public enum PersistenceTimer {
         IBatchDAO batchDAO =
             moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
 
-        MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
-                                                     .provider()
-                                                     .getService(MetricsCreator.class);
+        metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                      .provider()
+                                      .getService(MetricsCreator.class);
         errorCounter = metricsCreator.createCounter(
             "persistence_timer_bulk_error_count",
             "Error execution of the prepare stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
         );
-        prepareLatency = metricsCreator.createHistogramMetric(
-            "persistence_timer_bulk_prepare_latency",
-            "Latency of the prepare stage in persistence timer",
-            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
-        );
-        executeLatency = metricsCreator.createHistogramMetric(
-            "persistence_timer_bulk_execute_latency",
-            "Latency of the execute stage in persistence timer",
-            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
-        );
         allLatency = metricsCreator.createHistogramMetric(
             "persistence_timer_bulk_all_latency", "Latency of the all stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
         );
 
         prepareExecutorService = Executors.newFixedThreadPool(moduleConfig.getPrepareThreads());
+        maxInFlightRounds = Math.max(1, moduleConfig.getPersistenceMaxInFlightRounds());
+        persistentPeriodMillis = TimeUnit.SECONDS.toMillis(moduleConfig.getPersistentPeriod());
         if (!isStarted) {
+            final Runnable round;
+            final long period;
+            if (moduleConfig.isEnablePersistencePipeline()) {
+                // Don't wait for the round, the pipeline of every worker controls its own progress and cadence. The
+                // timer only checks which workers are due.
+                round = () -> extractDataAndSavePipelined(batchDAO);
+                period = 1;
+            } else {
+                round = () -> extractDataAndSave(batchDAO).join();
+                period = moduleConfig.getPersistentPeriod();
+            }
             Executors.newSingleThreadScheduledExecutor()
                      .scheduleWithFixedDelay(
                          new RunnableWithExceptionProtection(
-                             () -> extractDataAndSave(batchDAO).join(),
+                             round,
                              t -> log.error("Extract data and save failure.", t)
-                         ), 5, moduleConfig.getPersistentPeriod(), TimeUnit.SECONDS
+                         ), 5, period, TimeUnit.SECONDS
                      );
 
             this.isStarted = true;
@@ -111,9 +123,10 @@ public enum PersistenceTimer {
         final CompletableFuture<Void> future =
             CompletableFuture.allOf(workers.stream().map(worker -> {
                 return CompletableFuture.runAsync(() -> {
+                    final WorkerPipeline pipeline = pipelineOf(worker);
                     List<PrepareRequest> innerPrepareRequests;
                     // Prepare stage
-                    try (HistogramMetrics.Timer ignored = prepareLatency.createTimer()) {
+                    try (HistogramMetrics.Timer ignored = pipeline.prepareLatency.createTimer()) {
                         if (log.isDebugEnabled()) {
                             log.debug(
                                 "extract {} worker data and save",
@@ -131,9 +144,7 @@ public enum PersistenceTimer {
                     }
 
                     // Execution stage
-                    HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
-                    batchDAO.flush(innerPrepareRequests)
-                            .whenComplete(($1, $2) -> executeLatencyTimer.close());
+                    execute(batchDAO, worker, pipeline, innerPrepareRequests);
                 }, prepareExecutorService);
             }).toArray(CompletableFuture[]::new));
 
@@ -153,4 +164,191 @@ public enum PersistenceTimer {
         });
         return future;
     }
+
+    /**
+     * The pipelined version of {@link #extractDataAndSave(IBatchDAO)}. Every worker has its own cadence, a new round
+     * starts once the persistent period passed since its previous round started, its previous prepare stage has been
+     * submitted to the storage, and its in-flight rounds are under the budget. The execute stages are not waited, so
+     * they overlap with the prepare stages of the next rounds. The execute stages of one worker run one by one in
+     * order. A delayed worker keeps the data in its cache, and the data would be merged into the next round.
+     */
+    private CompletableFuture<Void> extractDataAndSavePipelined(IBatchDAO batchDAO) {
+        if (log.isDebugEnabled()) {
+            log.debug("Extract data and save in pipeline");
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        List<PersistenceWorker<? extends StorageData>> workers = new ArrayList<>();
+        workers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
+        workers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
+
+        List<CompletableFuture<Void>> prepareFutures = new ArrayList<>(workers.size());
+        for (PersistenceWorker<? extends StorageData> worker : workers) {
+            final WorkerPipeline pipeline = pipelineOf(worker);
+            if (!pipeline.tryStartRound(startTime)) {
+                continue;
+            }
+            prepareFutures.add(CompletableFuture.runAsync(() -> {
+                boolean executing = false;
+                try {
+                    List<PrepareRequest> innerPrepareRequests;
+                    // Prepare stage
+                    try (HistogramMetrics.Timer ignored = pipeline.prepareLatency.createTimer()) {
+                        innerPrepareRequests = worker.buildBatchRequests();
+
+                        worker.endOfRound();
+                    }
+
+                    if (CollectionUtils.isEmpty(innerPrepareRequests)) {
+                        return;
+                    }
+
+                    // Execution stage, starts after the previous round of this worker finished in the storage. Otherwise,
+                    // the older value of one ID could be written after the newer one, and overwrite it.
+                    final CompletableFuture<Void> previous = pipeline.lastExecution;
+                    final CompletableFuture<Void> executed;
+                    if (previous.isDone()) {
+                        executed = execute(batchDAO, worker, pipeline, innerPrepareRequests);
+                    } else {
+                        executed = previous.exceptionally(ignored -> null).thenComposeAsync(
+                            ignored -> execute(batchDAO, worker, pipeline, innerPrepareRequests),
+                            prepareExecutorService
+                        );
+                    }
+                    pipeline.lastExecution = executed;
+                    executed.whenComplete(($1, $2) -> pipeline.finishRound());
+                    executing = true;
+                } finally {
+                    // Submit the rounds of the same worker in order, the later data of one ID must be flushed later.
+                    pipeline.preparing = false;
+                    if (!executing) {
+                        pipeline.finishRound();
+                    }
+                }
+            }, prepareExecutorService));
+        }
+        if (prepareFutures.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        HistogramMetrics.Timer allTimer = allLatency.createTimer();
+        final CompletableFuture<Void> future = CompletableFuture.allOf(
+            prepareFutures.toArray(new CompletableFuture[0]));
+        future.whenComplete((unused, throwable) -> {
+            batchDAO.endOfFlush();
+            allTimer.close();
+            if (log.isDebugEnabled()) {
+                log.debug(
+                    "Pipelined batch persistence prepare duration: {} ms",
+                    System.currentTimeMillis() - startTime
+                );
+            }
+            if (throwable != null) {
+                errorCounter.inc();
+                log.error(throwable.getMessage(), throwable);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Void> execute(IBatchDAO batchDAO,
+                                            PersistenceWorker<? extends StorageData> worker,
+                                            WorkerPipeline pipeline,
+                                            List<PrepareRequest> prepareRequests) {
+        HistogramMetrics.Timer executeLatencyTimer = pipeline.executeLatency.createTimer();
+        CompletableFuture<Void> executed;
+        try {
+            executed = batchDAO.flush(prepareRequests);
+        } catch (Throwable t) {
+            executed = new CompletableFuture<>();
+            executed.completeExceptionally(t);
+        }
+        // The rejected or failed requests are not retried, the storage reports them through the future.
+        return executed.whenComplete(($1, throwable) -> {
+            executeLatencyTimer.close();
+            worker.endOfExecution();
+            if (throwable != null) {
+                errorCounter.inc();
+                log.error("Failed to execute the batch requests of {}", worker.getModel().getName(), throwable);
+            }
+        });
+    }
+
+    private WorkerPipeline pipelineOf(PersistenceWorker<? extends StorageData> worker) {
+        return pipelines.computeIfAbsent(worker, w -> new WorkerPipeline(w.getModel()));
+    }
+
+    /**
+     * The per-model telemetry, and the status of the worker in the pipelined mode.
+     */
+    private class WorkerPipeline {
+        private final HistogramMetrics prepareLatency;
+        private final HistogramMetrics executeLatency;
+        private final CounterMetrics skippedCounter;
+        private final AtomicInteger inFlightRounds = new AtomicInteger(0);
+        private volatile boolean preparing = false;
+        /**
+         * The time when the next round is due, only accessed by the single timer thread.
+         */
+        private long nextRoundTime = 0;
+        /**
+         * Whether the due round has been counted as delayed, only accessed by the single timer thread.
+         */
+        private boolean delayed = false;
+        /**
+         * The execute stage of the latest round, which is only set in the prepare stage, and the prepare stages of one
+         * worker don't overlap.
+         */
+        private volatile CompletableFuture<Void> lastExecution = CompletableFuture.completedFuture(null);
+
+        private WorkerPipeline(Model model) {
+            final MetricsTag.Keys keys = new MetricsTag.Keys("metricName", "dimensionality");
+            final MetricsTag.Values values = new MetricsTag.Values(
+                model.getName(), model.getDownsampling().getName());
+            prepareLatency = metricsCreator.createHistogramMetric(
+                "persistence_timer_bulk_prepare_latency",
+                "Latency of the prepare stage in persistence timer",
+                keys, values
+            );
+            executeLatency = metricsCreator.createHistogramMetric(
+                "persistence_timer_bulk_execute_latency",
+                "Latency of the execute stage in persistence timer",
+                keys, values
+            );
+            skippedCounter = metricsCreator.createCounter(
+                "persistence_timer_bulk_skipped_count",
+                "The number of rounds delayed due to the in-flight rounds are over the budget in persistence timer",
+                keys, values
+            );
+        }
+
+        /**
+         * Only called by the single timer thread.
+         *
+         * @return true if a new round could start.
+         */
+        private boolean tryStartRound(long now) {
+            if (now < nextRoundTime) {
+                return false;
+            }
+            if (preparing || inFlightRounds.get() >= maxInFlightRounds) {
+                // Back pressure, the storage is behind this worker. The round starts once the budget is available.
+                if (!delayed) {
+                    delayed = true;
+                    skippedCounter.inc();
+                }
+                return false;
+            }
+            delayed = false;
+            nextRoundTime = now + persistentPeriodMillis;
+            preparing = true;
+            inFlightRounds.incrementAndGet();
+            return true;
+        }
+
+        private void finishRound() {
+            inFlightRounds.decrementAndGet();
+        }
+    }
 }
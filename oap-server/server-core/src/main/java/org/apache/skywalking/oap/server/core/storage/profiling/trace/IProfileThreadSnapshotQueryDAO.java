@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.storage.DAO;
 
@@ -58,6 +59,14 @@ public interface IProfileThreadSnapshotQueryDAO extends DAO {
      */
     List<ProfileThreadSnapshotRecord> queryRecords(String segmentId, int minSequence, int maxSequence) throws IOException;
 
+    /**
+     * search the merged stack trees of the snapshot blocks with block range
+     * @param minBlock min block, include self
+     * @param maxBlock max block, exclude self
+     * @return the trees of the blocks, the block without tree is absent
+     */
+    List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId, int minBlock, int maxBlock) throws IOException;
+
     /**
      * search segment data
      */
@@ -32,6 +32,28 @@ public interface Convert2Storage<R> {
      */
     void accept(String fieldName, Object fieldValue);
 
+    /**
+     * Accept String key and long value. The value is boxed by default, the implementation writing the value directly
+     * should override it.
+     */
+    default void accept(String fieldName, long fieldValue) {
+        accept(fieldName, (Object) fieldValue);
+    }
+
+    /**
+     * Accept String key and int value. The value is boxed by default.
+     */
+    default void accept(String fieldName, int fieldValue) {
+        accept(fieldName, (Object) fieldValue);
+    }
+
+    /**
+     * Accept String key and double value. The value is boxed by default.
+     */
+    default void accept(String fieldName, double fieldValue) {
+        accept(fieldName, (Object) fieldValue);
+    }
+
     /**
      * Accept String key and byte array value.
      */
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HashMergableBufferedDataTest {
+    @Test
+    public void testMerge() {
+        HashMergableBufferedData<MockMetrics> collection = new HashMergableBufferedData<>();
+        collection.accept(new MockMetrics("a", 202210181200L, 1));
+        collection.accept(new MockMetrics("b", 202210181200L, 2));
+        collection.accept(new MockMetrics("a", 202210181200L, 3));
+        collection.accept(new MockMetrics("a", 202210181201L, 4));
+
+        Map<String, Long> values = toMap(collection.read());
+        Assert.assertEquals(3, values.size());
+        Assert.assertEquals(4L, values.get("202210181200_a").longValue());
+        Assert.assertEquals(2L, values.get("202210181200_b").longValue());
+        Assert.assertEquals(4L, values.get("202210181201_a").longValue());
+
+        Assert.assertTrue(collection.read().isEmpty());
+    }
+
+    @Test
+    public void testHashCollisionAndAbandon() {
+        HashMergableBufferedData<MockMetrics> collection = new HashMergableBufferedData<>();
+        // All entities share the same remote hash code, only equals could tell them apart.
+        for (int i = 0; i < 1000; i++) {
+            collection.accept(new MockMetrics("e" + i, 202210181200L, 1, 7));
+        }
+        // Abandon the even entities, the removal must keep the odd ones reachable.
+        for (int i = 0; i < 1000; i += 2) {
+            collection.accept(new MockMetrics("e" + i, 202210181200L, MockMetrics.ABANDON, 7));
+        }
+        for (int i = 0; i < 1000; i++) {
+            collection.accept(new MockMetrics("e" + i, 202210181200L, 1, 7));
+        }
+
+        Map<String, Long> values = toMap(collection.read());
+        Assert.assertEquals(1000, values.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i % 2 == 0 ? 1L : 2L, values.get("202210181200_e" + i).longValue());
+        }
+    }
+
+    @Test
+    public void testReuseAfterRead() {
+        HashMergableBufferedData<MockMetrics> collection = new HashMergableBufferedData<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 5000; i++) {
+                collection.accept(new MockMetrics("e" + i, 202210181200L + round, 1));
+                collection.accept(new MockMetrics("e" + i, 202210181200L + round, 1));
+            }
+            List<MockMetrics> result = collection.read();
+            Assert.assertEquals(5000, result.size());
+            result.forEach(metrics -> Assert.assertEquals(2L, metrics.value));
+        }
+    }
+
+    private static Map<String, Long> toMap(List<MockMetrics> metricsList) {
+        Map<String, Long> values = new HashMap<>();
+        metricsList.forEach(metrics -> values.put(metrics.id(), metrics.value));
+        return values;
+    }
+
+    private static class MockMetrics extends Metrics {
+        private static final long ABANDON = -1;
+
+        private final String entityId;
+        private final int remoteHashCode;
+        private long value;
+
+        MockMetrics(String entityId, long timeBucket, long value) {
+            this(entityId, timeBucket, value, entityId.hashCode());
+        }
+
+        MockMetrics(String entityId, long timeBucket, long value, int remoteHashCode) {
+            this.entityId = entityId;
+            this.value = value;
+            this.remoteHashCode = remoteHashCode;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override
+        protected String id0() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override
+        public boolean combine(Metrics metrics) {
+            MockMetrics mockMetrics = (MockMetrics) metrics;
+            if (mockMetrics.value == ABANDON) {
+                return false;
+            }
+            value += mockMetrics.value;
+            return true;
+        }
+
+        @Override
+        public void calculate() {
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return remoteHashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MockMetrics)) {
+                return false;
+            }
+            MockMetrics metrics = (MockMetrics) o;
+            return entityId.equals(metrics.entityId) && getTimeBucket() == metrics.getTimeBucket();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, getTimeBucket());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+public class TinyLFUSessionCacheTest {
+    @Test
+    public void testSizeBounded() {
+        MockCounter evictionCounter = new MockCounter();
+        TinyLFUSessionCache cache = new TinyLFUSessionCache(100, evictionCounter);
+        for (int i = 0; i < 10000; i++) {
+            MockMetrics metrics = new MockMetrics("e" + i);
+            Assert.assertNull(cache.get(metrics));
+            cache.put(metrics);
+            Assert.assertTrue(cache.size() <= 100);
+        }
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(10000 - 100, evictionCounter.count.get());
+    }
+
+    @Test
+    public void testFrequentlyAccessedMetricsSurviveScan() {
+        TinyLFUSessionCache cache = new TinyLFUSessionCache(100, new MockCounter());
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                MockMetrics hot = new MockMetrics("hot" + i);
+                if (cache.get(hot) == null) {
+                    cache.put(hot);
+                }
+            }
+            // The one-hit entities of a high cardinality explosion.
+            for (int i = 0; i < 500; i++) {
+                MockMetrics cold = new MockMetrics("cold" + round + "_" + i);
+                if (cache.get(cold) == null) {
+                    cache.put(cold);
+                }
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            Assert.assertNotNull(cache.get(new MockMetrics("hot" + i)));
+        }
+    }
+
+    @Test
+    public void testPutReplacesCachedMetrics() {
+        MockCounter evictionCounter = new MockCounter();
+        TinyLFUSessionCache cache = new TinyLFUSessionCache(100, evictionCounter);
+        // e99 stays in the window, e0 to e98 are in the probation segment in order.
+        for (int i = 0; i < 100; i++) {
+            MockMetrics metrics = new MockMetrics("e" + i);
+            Assert.assertNull(cache.get(metrics));
+            cache.put(metrics);
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.get(new MockMetrics("e99"));
+        }
+        // Update the eldest one in the probation segment, it should become the most recently used one.
+        MockMetrics updated = new MockMetrics("e0");
+        cache.put(updated);
+        LinkedHashMap<Metrics, Metrics> probation = Whitebox.getInternalState(cache, "probation");
+        Metrics lastKey = null;
+        for (Metrics key : probation.keySet()) {
+            lastKey = key;
+        }
+        Assert.assertSame(updated, lastKey);
+
+        // e99 leaves the window, and wins over the eldest one of the probation segment.
+        MockMetrics newcomer = new MockMetrics("e100");
+        Assert.assertNull(cache.get(newcomer));
+        cache.put(newcomer);
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(1, evictionCounter.count.get());
+
+        Assert.assertSame(updated, cache.get(new MockMetrics("e0")));
+        Assert.assertNull(cache.get(new MockMetrics("e1")));
+        Assert.assertNotNull(cache.get(new MockMetrics("e99")));
+    }
+
+    @Test
+    public void testRemoveAndExpire() {
+        TinyLFUSessionCache cache = new TinyLFUSessionCache(10, new MockCounter());
+        for (int i = 0; i < 10; i++) {
+            MockMetrics metrics = new MockMetrics("e" + i);
+            metrics.setLastUpdateTimestamp(i < 5 ? 1000 : 5000);
+            cache.put(metrics);
+            // Promote some into the protected segment.
+            cache.get(metrics);
+        }
+        cache.remove(new MockMetrics("e9"));
+        Assert.assertNull(cache.get(new MockMetrics("e9")));
+
+        cache.removeExpired(6000, 2000);
+        Assert.assertEquals(4, cache.size());
+        Assert.assertNull(cache.get(new MockMetrics("e0")));
+        Assert.assertNotNull(cache.get(new MockMetrics("e5")));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private static class MockCounter implements CounterMetrics {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public void inc() {
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void inc(double value) {
+            count.addAndGet((long) value);
+        }
+    }
+
+    private static class MockMetrics extends Metrics {
+        private final String entityId;
+
+        MockMetrics(String entityId) {
+            this.entityId = entityId;
+            setTimeBucket(202210181200L);
+        }
+
+        @Override
+        protected String id0() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override
+        public boolean combine(Metrics metrics) {
+            return true;
+        }
+
+        @Override
+        public void calculate() {
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MockMetrics)) {
+                return false;
+            }
+            return entityId.equals(((MockMetrics) o).entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId);
+        }
+    }
+}
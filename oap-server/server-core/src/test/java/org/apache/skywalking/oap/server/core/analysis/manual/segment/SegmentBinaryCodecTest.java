@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentBinaryCodecTest {
+
+    @Test
+    public void testCompressAndDecompress() throws Exception {
+        final byte[] binary = buildSegment().toByteArray();
+        final byte[] compressed = SegmentBinaryCodec.encode(binary, SegmentBinaryCodec.Compression.DEFLATE);
+
+        Assert.assertTrue(SegmentBinaryCodec.isCompressed(compressed));
+        Assert.assertTrue(compressed.length < binary.length);
+        Assert.assertArrayEquals(binary, SegmentBinaryCodec.decode(compressed));
+        Assert.assertEquals(buildSegment(), SegmentObject.parseFrom(SegmentBinaryCodec.decode(compressed)));
+    }
+
+    @Test
+    public void testReadUncompressedBinary() {
+        final byte[] binary = buildSegment().toByteArray();
+
+        Assert.assertSame(binary, SegmentBinaryCodec.encode(binary, SegmentBinaryCodec.Compression.NONE));
+        Assert.assertFalse(SegmentBinaryCodec.isCompressed(binary));
+        Assert.assertSame(binary, SegmentBinaryCodec.decode(binary));
+    }
+
+    @Test
+    public void testKeepIncompressibleBinary() {
+        final byte[] binary = "tiny-segment".getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertSame(binary, SegmentBinaryCodec.encode(binary, SegmentBinaryCodec.Compression.DEFLATE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCompression() {
+        SegmentBinaryCodec.Compression.findByName("unknown");
+    }
+
+    private SegmentObject buildSegment() {
+        final SegmentObject.Builder segment = SegmentObject.newBuilder()
+                                                           .setTraceId("trace-id")
+                                                           .setTraceSegmentId("segment-id")
+                                                           .setService("service")
+                                                           .setServiceInstance("instance");
+        for (int i = 0; i < 20; i++) {
+            segment.addSpans(SpanObject.newBuilder()
+                                       .setSpanId(i)
+                                       .setParentSpanId(i - 1)
+                                       .setOperationName("/api/v1/users/{id}")
+                                       .setPeer("mysql.default.svc:3306")
+                                       .setStartTime(1_600_000_000_000L + i)
+                                       .setEndTime(1_600_000_000_010L + i));
+        }
+        return segment.build();
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.meter.function;
+
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.Layer;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.analysis.metrics.QuantileSketch;
+import org.apache.skywalking.oap.server.core.analysis.metrics.QuantileSketchTable;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.storage.type.HashMapConverter;
+import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HistogramPercentileSketchFunctionTest {
+    private static final long[] BUCKETS = new long[] {
+        0,
+        50,
+        100,
+        250
+    };
+
+    private static final long[] BUCKETS_2ND = new long[] {
+        0,
+        51,
+        100,
+        250
+    };
+
+    private static final int[] RANKS = new int[] {
+        50,
+        90
+    };
+
+    @BeforeClass
+    public static void setup() {
+        MeterEntity.setNamingControl(
+            new NamingControl(512, 512, 512, new EndpointNameGrouping()));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        MeterEntity.setNamingControl(null);
+    }
+
+    @Test
+    public void testFunction() {
+        HistogramPercentileSketchFunctionInst inst = new HistogramPercentileSketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+
+        inst.calculate();
+        final int[] values = inst.getValues();
+        /**
+         * Expected percentile dataset
+         * <pre>
+         *     0  , 20
+         *     50 , 40
+         *     100, 60 <- P50
+         *     250, 80 <- P90
+         * </pre>
+         */
+        Assert.assertEquals(2, values.length);
+        Assert.assertEquals(100, values[0], 100 * QuantileSketch.RELATIVE_ACCURACY + 1);
+        Assert.assertEquals(250, values[1], 250 * QuantileSketch.RELATIVE_ACCURACY + 1);
+    }
+
+    @Test
+    public void testDifferentBuckets() {
+        HistogramPercentileSketchFunctionInst inst = new HistogramPercentileSketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+
+        // The sketch doesn't require the same buckets of all inputs.
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS_2ND,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+
+        Assert.assertEquals(200, inst.getSketches().get("").getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatible() {
+        HistogramPercentileSketchFunctionInst inst = new HistogramPercentileSketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                new int[] {
+                    50,
+                    99
+                }
+            )
+        );
+    }
+
+    @Test
+    public void testCombine() {
+        HistogramPercentileSketchFunctionInst inst = new HistogramPercentileSketchFunctionInst();
+        HistogramPercentileSketchFunctionInst inst2 = new HistogramPercentileSketchFunctionInst();
+        HistogramPercentileSketchFunctionInst all = new HistogramPercentileSketchFunctionInst();
+        final PercentileArgument argument = new PercentileArgument(
+            new BucketedValues(
+                BUCKETS,
+                new long[] {
+                    10,
+                    20,
+                    30,
+                    40
+                }
+            ),
+            RANKS
+        );
+        final PercentileArgument argument2 = new PercentileArgument(
+            new BucketedValues(
+                BUCKETS_2ND,
+                new long[] {
+                    40,
+                    30,
+                    20,
+                    10
+                }
+            ),
+            RANKS
+        );
+        inst.accept(MeterEntity.newService("service-test", Layer.GENERAL), argument);
+        inst2.accept(MeterEntity.newService("service-test", Layer.GENERAL), argument2);
+        all.accept(MeterEntity.newService("service-test", Layer.GENERAL), argument);
+        all.accept(MeterEntity.newService("service-test", Layer.GENERAL), argument2);
+
+        inst.calculate();
+        Assert.assertTrue(inst.combine(inst2));
+        inst.calculate();
+        all.calculate();
+
+        Assert.assertEquals(all.getSketches().toStorageData(), inst.getSketches().toStorageData());
+        Assert.assertArrayEquals(all.getValues(), inst.getValues());
+    }
+
+    @Test
+    public void testSerialization() {
+        HistogramPercentileSketchFunctionInst inst = new HistogramPercentileSketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+
+        HistogramPercentileSketchFunctionInst inst2 = new HistogramPercentileSketchFunctionInst();
+        inst2.deserialize(inst.serialize().build());
+
+        Assert.assertEquals(inst, inst2);
+        // HistogramPercentileSketchFunction equal doesn't include sketches.
+        Assert.assertEquals(inst.getSketches().toStorageData(), inst2.getSketches().toStorageData());
+        Assert.assertEquals(inst.getRanks(), inst2.getRanks());
+        Assert.assertEquals(0, inst2.getPercentileValues().size());
+
+        inst.calculate();
+        inst2.calculate();
+        Assert.assertArrayEquals(inst.getValues(), inst2.getValues());
+    }
+
+    @Test
+    public void testBuilder() throws IllegalAccessException, InstantiationException {
+        HistogramPercentileSketchFunctionInst inst = new HistogramPercentileSketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test", Layer.GENERAL),
+            new PercentileArgument(
+                new BucketedValues(
+                    BUCKETS,
+                    new long[] {
+                        10,
+                        20,
+                        30,
+                        40
+                    }
+                ),
+                RANKS
+            )
+        );
+        inst.calculate();
+
+        final StorageBuilder storageBuilder = inst.builder().newInstance();
+
+        // Simulate the storage layer do, convert the complex objects to string.
+        final HashMapConverter.ToStorage hashMapConverter = new HashMapConverter.ToStorage();
+        storageBuilder.entity2Storage(inst, hashMapConverter);
+        final Map<String, Object> map = hashMapConverter.obtain();
+        map.put(HistogramPercentileSketchFunction.SKETCH,
+                ((QuantileSketchTable) map.get(HistogramPercentileSketchFunction.SKETCH)).toStorageData());
+        map.put(HistogramPercentileSketchFunction.VALUE,
+                ((DataTable) map.get(HistogramPercentileSketchFunction.VALUE)).toStorageData());
+        map.put(HistogramPercentileSketchFunction.RANKS,
+                ((IntList) map.get(HistogramPercentileSketchFunction.RANKS)).toStorageData());
+
+        final HistogramPercentileSketchFunction inst2 =
+            (HistogramPercentileSketchFunction) storageBuilder.storage2Entity(new HashMapConverter.ToEntity(map));
+        Assert.assertEquals(inst, inst2);
+        Assert.assertEquals(inst.getSketches().toStorageData(), inst2.getSketches().toStorageData());
+        Assert.assertEquals(inst.getPercentileValues(), inst2.getPercentileValues());
+        Assert.assertEquals(inst.getRanks(), inst2.getRanks());
+    }
+
+    private static class HistogramPercentileSketchFunctionInst extends HistogramPercentileSketchFunction {
+        @Override
+        public AcceptableValue<PercentileArgument> createNew() {
+            return new HistogramPercentileSketchFunctionInst();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PercentileSketchMetricsTest {
+    private static final int[] RANKS = {
+        50,
+        75,
+        90,
+        95,
+        99
+    };
+
+    @Test
+    public void percentileTest() {
+        PercentileSketchMetricsMocker metricsMocker = new PercentileSketchMetricsMocker();
+        for (int value = 1; value <= 1000; value++) {
+            metricsMocker.combine(value);
+        }
+
+        metricsMocker.calculate();
+
+        final int[] values = metricsMocker.getValues();
+        Assert.assertEquals(RANKS.length, values.length);
+        for (int i = 0; i < RANKS.length; i++) {
+            // The value of rank r is the (r% * (count - 1))th value in the ascending order, which is 1 based here.
+            final long expected = (long) (RANKS[i] / 100.0 * 999) + 1;
+            Assert.assertEquals(expected, values[i], expected * QuantileSketch.RELATIVE_ACCURACY + 1);
+        }
+    }
+
+    @Test
+    public void percentileTest2() {
+        PercentileSketchMetricsMocker metricsMocker = new PercentileSketchMetricsMocker();
+        for (int i = 0; i < 11; i++) {
+            metricsMocker.combine(90);
+        }
+
+        metricsMocker.calculate();
+
+        for (final int value : metricsMocker.getValues()) {
+            Assert.assertEquals(90, value, 90 * QuantileSketch.RELATIVE_ACCURACY + 1);
+        }
+    }
+
+    @Test
+    public void percentileTest3() {
+        PercentileSketchMetricsMocker metricsMocker = new PercentileSketchMetricsMocker();
+
+        metricsMocker.combine(0);
+        metricsMocker.combine(0);
+
+        metricsMocker.calculate();
+
+        Assert.assertArrayEquals(new int[] {
+            0,
+            0,
+            0,
+            0,
+            0
+        }, metricsMocker.getValues());
+    }
+
+    @Test
+    public void combineTest() {
+        PercentileSketchMetricsMocker all = new PercentileSketchMetricsMocker();
+        PercentileSketchMetricsMocker low = new PercentileSketchMetricsMocker();
+        PercentileSketchMetricsMocker high = new PercentileSketchMetricsMocker();
+        for (int value = 1; value <= 1000; value++) {
+            all.combine(value);
+            if (value % 3 == 0) {
+                low.combine(value);
+            } else {
+                high.combine(value);
+            }
+        }
+
+        low.calculate();
+        Assert.assertTrue(low.combine(high));
+        // The calculated values are refreshed after combining.
+        low.calculate();
+        all.calculate();
+
+        Assert.assertEquals(all.getSketch().getCount(), low.getSketch().getCount());
+        Assert.assertEquals(all.getSketch().toStorageData(), low.getSketch().toStorageData());
+        Assert.assertArrayEquals(all.getValues(), low.getValues());
+    }
+
+    @Test
+    public void combineEvenAndOddTest() {
+        PercentileSketchMetricsMocker metricsMocker = new PercentileSketchMetricsMocker();
+        PercentileSketchMetricsMocker other = new PercentileSketchMetricsMocker();
+        for (int i = 1; i <= 100; i++) {
+            (i % 2 == 0 ? metricsMocker : other).combine(i * 10);
+        }
+        metricsMocker.combine(other);
+        metricsMocker.calculate();
+
+        final int[] expected = {500, 750, 900, 950, 990};
+        final int[] values = metricsMocker.getValues();
+        Assert.assertEquals(expected.length, values.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], values[i], expected[i] * QuantileSketch.RELATIVE_ACCURACY + 1);
+        }
+    }
+
+    @Test
+    public void storageDataTest() {
+        PercentileSketchMetricsMocker metricsMocker = new PercentileSketchMetricsMocker();
+        metricsMocker.combine(5);
+        metricsMocker.combine(300);
+        metricsMocker.combine(120_000);
+
+        PercentileSketchMetricsMocker restored = new PercentileSketchMetricsMocker();
+        restored.setSketch(new QuantileSketch(metricsMocker.getSketch().toStorageData()));
+
+        metricsMocker.calculate();
+        restored.calculate();
+        Assert.assertArrayEquals(metricsMocker.getValues(), restored.getValues());
+    }
+
+    public class PercentileSketchMetricsMocker extends PercentileSketchMetrics {
+
+        @Override
+        protected String id0() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testRelativeAccuracy() {
+        final Random random = new Random(1);
+        final long[] values = new long[10_000];
+        final QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 15);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        Assert.assertEquals(values.length, sketch.getCount());
+        for (final double quantile : new double[] {0.5, 0.75, 0.9, 0.95, 0.99}) {
+            final long expected = values[(int) (quantile * (values.length - 1))];
+            Assert.assertEquals(expected, sketch.quantile(quantile), expected * QuantileSketch.RELATIVE_ACCURACY + 1);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        final QuantileSketch all = new QuantileSketch();
+        final QuantileSketch low = new QuantileSketch();
+        final QuantileSketch high = new QuantileSketch();
+        for (int i = 0; i < 1000; i++) {
+            all.add(i);
+            (i < 500 ? low : high).add(i);
+        }
+        low.merge(high);
+
+        Assert.assertEquals(all.getCount(), low.getCount());
+        Assert.assertEquals(all.toStorageData(), low.toStorageData());
+        Assert.assertEquals(0, low.quantile(0));
+        Assert.assertEquals(990, low.quantile(0.99), 990 * QuantileSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void testStorageData() {
+        final QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0, 3);
+        sketch.add(7, 5);
+        sketch.add(120_000);
+
+        final QuantileSketch restored = new QuantileSketch(sketch.toStorageData());
+        Assert.assertEquals(9, restored.getCount());
+        Assert.assertEquals(sketch.toStorageData(), restored.toStorageData());
+        Assert.assertEquals(0, restored.quantile(0.25));
+        Assert.assertEquals(7, restored.quantile(0.5));
+        Assert.assertEquals(120_000, restored.quantile(1), 120_000 * QuantileSketch.RELATIVE_ACCURACY);
+
+        Assert.assertEquals(0, new QuantileSketch("").getCount());
+        Assert.assertEquals("", new QuantileSketch().toStorageData());
+    }
+
+    @Test
+    public void testCollapseLowestBins() {
+        final QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Long.MAX_VALUE);
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i);
+        }
+
+        Assert.assertEquals(101, sketch.getCount());
+        Assert.assertEquals(
+            (double) Long.MAX_VALUE, sketch.quantile(1), Long.MAX_VALUE * QuantileSketch.RELATIVE_ACCURACY);
+    }
+}
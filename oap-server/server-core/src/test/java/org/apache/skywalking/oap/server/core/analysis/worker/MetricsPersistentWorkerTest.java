@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.SQLDatabaseModelExtension;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class MetricsPersistentWorkerTest {
+    private ModuleManager moduleManager;
+    private IMetricsDAO metricsDAO;
+    private List<Metrics> stored;
+    private List<String> written;
+
+    @Before
+    public void setUp() throws Exception {
+        moduleManager = mock(ModuleManager.class);
+        ModuleServiceHolder moduleServiceHolder = mock(ModuleServiceHolder.class);
+        doReturn((ModuleProviderHolder) () -> moduleServiceHolder).when(moduleManager).find(anyString());
+        doReturn(new MetricsCreatorNoop()).when(moduleServiceHolder).getService(MetricsCreator.class);
+
+        stored = new ArrayList<>();
+        written = new ArrayList<>();
+        metricsDAO = mock(IMetricsDAO.class);
+        doAnswer(invocation -> new ArrayList<>(stored)).when(metricsDAO).multiGet(any(), anyList());
+        doAnswer(invocation -> {
+            written.add("insert " + invocation.<MockMetrics>getArgument(1).value);
+            return mock(InsertRequest.class);
+        }).when(metricsDAO).prepareBatchInsert(any(), any());
+        doAnswer(invocation -> {
+            written.add("update " + invocation.<MockMetrics>getArgument(1).value);
+            return mock(UpdateRequest.class);
+        }).when(metricsDAO).prepareBatchUpdate(any(), any());
+    }
+
+    @Test
+    public void testMergeWithUnflushedRounds() {
+        MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager, genModel(), metricsDAO, null, null, null, true, true, 70_000, 3, false, 0);
+
+        // Round 1 inserts the metrics, but the storage doesn't have it before the execute stage is finished.
+        worker.onWork(Collections.singletonList(new MockMetrics("e", 1)));
+        Assert.assertEquals(1, worker.buildBatchRequests().size());
+        worker.endOfRound();
+
+        // Round 2 overlaps with the execute stage of round 1, it should update the inserted one rather than insert
+        // the partial value again.
+        worker.onWork(Collections.singletonList(new MockMetrics("e", 2)));
+        Assert.assertEquals(1, worker.buildBatchRequests().size());
+        worker.endOfRound();
+        Assert.assertEquals(2, written.size());
+        Assert.assertEquals("insert 1", written.get(0));
+        Assert.assertEquals("update 3", written.get(1));
+
+        worker.endOfExecution();
+        worker.endOfExecution();
+
+        // The rounds are flushed, the storage has the latest value.
+        stored.add(new MockMetrics("e", 3));
+        worker.onWork(Collections.singletonList(new MockMetrics("e", 4)));
+        Assert.assertEquals(1, worker.buildBatchRequests().size());
+        Assert.assertEquals("update 7", written.get(2));
+    }
+
+    @Test
+    public void testNotInsertUnflushedNonUpdatableMetricsAgain() {
+        MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager, genModel(), metricsDAO, null, null, null, false, false, 70_000, 3, false, 0);
+
+        worker.onWork(Collections.singletonList(new MockMetrics("e", 1)));
+        Assert.assertEquals(1, worker.buildBatchRequests().size());
+
+        worker.onWork(Collections.singletonList(new MockMetrics("e", 1)));
+        Assert.assertEquals(0, worker.buildBatchRequests().size());
+        Assert.assertEquals(Collections.singletonList("insert 1"), written);
+    }
+
+    private Model genModel() {
+        return new Model(
+            "mock_metrics", new ArrayList<>(), 0, DownSampling.Minute, false, false, MockMetrics.class, true,
+            new SQLDatabaseModelExtension()
+        );
+    }
+
+    private static class MockMetrics extends Metrics {
+        private final String entityId;
+        private long value;
+
+        MockMetrics(String entityId, long value) {
+            this.entityId = entityId;
+            this.value = value;
+            setTimeBucket(202210181200L);
+        }
+
+        @Override
+        protected String id0() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override
+        public boolean combine(Metrics metrics) {
+            value += ((MockMetrics) metrics).value;
+            return true;
+        }
+
+        @Override
+        public void calculate() {
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MockMetrics)) {
+                return false;
+            }
+            return entityId.equals(((MockMetrics) o).entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId);
+        }
+    }
+}
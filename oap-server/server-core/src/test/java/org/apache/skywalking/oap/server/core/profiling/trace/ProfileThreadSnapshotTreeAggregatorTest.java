@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
+import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileSnapshotTree;
+import org.apache.skywalking.oap.server.core.profiling.trace.analyze.ProfileStack;
+import org.junit.Test;
+
+import static org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord.BLOCK_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ProfileThreadSnapshotTreeAggregatorTest {
+
+    @Test
+    public void testFoldBlock() {
+        final List<ProfileThreadSnapshotRecord> snapshots = new ArrayList<>();
+        for (int sequence = BLOCK_SIZE; sequence < BLOCK_SIZE * 2; sequence++) {
+            snapshots.add(snapshot(sequence, "A-B-" + (sequence % 3)));
+        }
+        final ProfileSnapshotTree expected = new ProfileSnapshotTree();
+        snapshots.forEach(s -> expected.accumulate(ProfileStack.deserialize(s)));
+
+        final List<ProfileThreadSnapshotRecord> received = new ArrayList<>(snapshots);
+        // received out of order and duplicated
+        Collections.shuffle(received, new Random(3));
+        received.add(BLOCK_SIZE / 2, received.get(0));
+        final ProfileThreadSnapshotRecord last = received.remove(received.size() - 1);
+
+        final ProfileThreadSnapshotTreeAggregator aggregator = new ProfileThreadSnapshotTreeAggregator();
+        for (ProfileThreadSnapshotRecord snapshot : received) {
+            assertNull(aggregator.fold(snapshot));
+        }
+        final ProfileThreadSnapshotTreeRecord tree = aggregator.fold(last);
+        assertNotNull(tree);
+        assertEquals("task", tree.getTaskId());
+        assertEquals("segment", tree.getSegmentId());
+        assertEquals(1, tree.getBlock());
+        assertArrayEquals(expected.serialize(), tree.getTreeBinary());
+        assertEquals(0, aggregator.blockCount());
+    }
+
+    @Test
+    public void testRemoveIdleBlocks() {
+        final ProfileThreadSnapshotTreeAggregator aggregator = new ProfileThreadSnapshotTreeAggregator();
+        for (int sequence = 0; sequence < BLOCK_SIZE + 1; sequence += 2) {
+            assertNull(aggregator.fold(snapshot(sequence, "A-B")));
+        }
+        assertEquals(2, aggregator.blockCount());
+
+        aggregator.removeIdleBlocks(System.currentTimeMillis());
+        assertEquals(2, aggregator.blockCount());
+        aggregator.removeIdleBlocks(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10));
+        assertEquals(0, aggregator.blockCount());
+    }
+
+    private static ProfileThreadSnapshotRecord snapshot(int sequence, String codeSignatures) {
+        final ProfileThreadSnapshotRecord snapshot = new ProfileThreadSnapshotRecord();
+        snapshot.setTaskId("task");
+        snapshot.setSegmentId("segment");
+        snapshot.setSequence(sequence);
+        snapshot.setDumpTime(sequence * 10L);
+        final ThreadStack.Builder stack = ThreadStack.newBuilder();
+        for (String codeSignature : codeSignatures.split("-")) {
+            stack.addCodeSignatures(codeSignature);
+        }
+        snapshot.setStackBinary(stack.build().toByteArray());
+        return snapshot;
+    }
+}
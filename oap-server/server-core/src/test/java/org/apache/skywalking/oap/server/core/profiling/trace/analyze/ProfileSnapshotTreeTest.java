@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profiling.trace.analyze;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
+import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackElement;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
+import org.junit.Test;
+
+import static org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord.BLOCK_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProfileSnapshotTreeTest {
+
+    @Test
+    public void testMergeAndSerialize() {
+        final List<ProfileStack> stacks = Arrays.asList(
+            stack(0, 0, "A-B-C"),
+            stack(1, 10, "A-B"),
+            stack(2, 20, "A-B-C-D"),
+            stack(4, 40, "A-B-C"),
+            stack(5, 50, "B-C")
+        );
+        final ProfileSnapshotTree accumulated = new ProfileSnapshotTree();
+        stacks.forEach(accumulated::accumulate);
+
+        final ProfileSnapshotTree head = new ProfileSnapshotTree();
+        stacks.subList(0, 2).forEach(head::accumulate);
+        final ProfileSnapshotTree tail = new ProfileSnapshotTree();
+        stacks.subList(2, stacks.size()).forEach(tail::accumulate);
+        final ProfileSnapshotTree merged = ProfileSnapshotTree.deserialize(head.serialize())
+                                                              .merge(ProfileSnapshotTree.deserialize(tail.serialize()));
+
+        assertEquals(5, merged.getStackCount());
+        final Map<String, String> elements = elements(merged.buildAnalyzeResult());
+        assertEquals(elements(accumulated.buildAnalyzeResult()), elements);
+        // count:duration:durationChildExcluded
+        assertEquals("4:20:0", elements.get("A"));
+        assertEquals("4:20:20", elements.get("A/B"));
+        assertEquals("3:0:0", elements.get("A/B/C"));
+        assertEquals("1:0:0", elements.get("B"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeOutOfOrder() {
+        final ProfileSnapshotTree head = new ProfileSnapshotTree();
+        head.accumulate(stack(3, 30, "A-B"));
+        final ProfileSnapshotTree tail = new ProfileSnapshotTree();
+        tail.accumulate(stack(2, 20, "A-B"));
+        head.merge(tail);
+    }
+
+    @Test
+    public void testAnalyzeWithBlockTrees() throws IOException {
+        final Random random = new Random(7);
+        final List<ProfileThreadSnapshotRecord> snapshots = new ArrayList<>();
+        long dumpTime = 0;
+        for (int sequence = 0; sequence < BLOCK_SIZE * 5 + 17; sequence++) {
+            dumpTime += 10 + random.nextInt(10);
+            final ThreadStack.Builder stack = ThreadStack.newBuilder();
+            for (int depth = random.nextInt(5); depth >= 0; depth--) {
+                stack.addCodeSignatures(String.valueOf((char) ('A' + random.nextInt(3))));
+            }
+            final ProfileThreadSnapshotRecord snapshot = new ProfileThreadSnapshotRecord();
+            snapshot.setSequence(sequence);
+            snapshot.setDumpTime(dumpTime);
+            snapshot.setStackBinary(stack.build().toByteArray());
+            snapshots.add(snapshot);
+        }
+
+        // the block 2 doesn't have the tree
+        final Map<Integer, ProfileThreadSnapshotTreeRecord> trees = new HashMap<>();
+        for (int block : new int[] {0, 1, 3, 4}) {
+            final ProfileSnapshotTree tree = new ProfileSnapshotTree();
+            snapshots.subList(block * BLOCK_SIZE, (block + 1) * BLOCK_SIZE)
+                     .forEach(s -> tree.accumulate(ProfileStack.deserialize(s)));
+            final ProfileThreadSnapshotTreeRecord record = new ProfileThreadSnapshotTreeRecord();
+            record.setBlock(block);
+            record.setTreeBinary(tree.serialize());
+            trees.put(block, record);
+        }
+
+        final List<ProfileAnalyzeTimeRange> timeRanges = Arrays.asList(
+            timeRange(snapshots.get(20).getDumpTime(), snapshots.get(130).getDumpTime()),
+            timeRange(snapshots.get(110).getDumpTime(), snapshots.get(snapshots.size() - 1).getDumpTime())
+        );
+
+        final ProfileAnalyzer snapshotAnalyzer = new ProfileAnalyzer(null, 30, 1000);
+        snapshotAnalyzer.profileThreadSnapshotQueryDAO = new ProfileStackAnalyze.ThreadSnapshotDAO(snapshots);
+        final ProfileAnalyzer treeAnalyzer = new ProfileAnalyzer(null, 30, 1000);
+        treeAnalyzer.profileThreadSnapshotQueryDAO = new ProfileStackAnalyze.ThreadSnapshotDAO(snapshots) {
+            @Override
+            public List<ProfileThreadSnapshotRecord> queryRecords(String segmentId,
+                                                                  int minSequence,
+                                                                  int maxSequence) throws IOException {
+                for (int sequence = minSequence; sequence < maxSequence; sequence++) {
+                    // the block 0 is queried from the sequence 20 only, so its tree can't be used
+                    final int block = sequence / BLOCK_SIZE;
+                    assertFalse(block > 0 && trees.containsKey(block));
+                }
+                return super.queryRecords(segmentId, minSequence, maxSequence);
+            }
+
+            @Override
+            public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId, int minBlock, int maxBlock) {
+                return trees.values().stream()
+                            .filter(t -> t.getBlock() >= minBlock && t.getBlock() < maxBlock)
+                            .collect(Collectors.toList());
+            }
+        };
+
+        final Map<String, String> expected = elements(snapshotAnalyzer.analyze(null, timeRanges).getTrees());
+        assertTrue(expected.size() > 3);
+        assertEquals(expected, elements(treeAnalyzer.analyze(null, timeRanges).getTrees()));
+    }
+
+    private static ProfileStack stack(int sequence, long dumpTime, String codeSignatures) {
+        final ProfileStack stack = new ProfileStack();
+        stack.setSequence(sequence);
+        stack.setDumpTime(dumpTime);
+        stack.setStack(Arrays.asList(codeSignatures.split("-")));
+        return stack;
+    }
+
+    private static ProfileAnalyzeTimeRange timeRange(long start, long end) {
+        final ProfileAnalyzeTimeRange range = new ProfileAnalyzeTimeRange();
+        range.setStart(start);
+        range.setEnd(end);
+        return range;
+    }
+
+    /**
+     * @return the path of code signatures -> count:duration:durationChildExcluded
+     */
+    private static Map<String, String> elements(List<ProfileStackTree> trees) {
+        final Map<String, String> elements = new TreeMap<>();
+        for (ProfileStackTree tree : trees) {
+            final Map<Integer, ProfileStackElement> byId = new HashMap<>();
+            tree.getElements().forEach(e -> byId.put(e.getId(), e));
+            for (ProfileStackElement element : tree.getElements()) {
+                String path = element.getCodeSignature();
+                for (ProfileStackElement parent = element; parent.getParentId() != 0; ) {
+                    parent = byId.get(parent.getParentId());
+                    path = parent.getCodeSignature() + "/" + path;
+                }
+                elements.put(
+                    path, element.getCount() + ":" + element.getDuration() + ":" + element.getDurationChildExcluded());
+            }
+        }
+        return elements;
+    }
+}
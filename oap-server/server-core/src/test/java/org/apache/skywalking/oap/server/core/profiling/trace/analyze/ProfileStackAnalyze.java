@@ -19,12 +19,14 @@
 package org.apache.skywalking.oap.server.core.profiling.trace.analyze;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import lombok.Data;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
 import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
@@ -99,6 +101,11 @@ public class ProfileStackAnalyze {
                     .collect(Collectors.toList());
         }
 
+        @Override
+        public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId, int minBlock, int maxBlock) throws IOException {
+            return Collections.emptyList();
+        }
+
         @Override
         public SegmentRecord getProfiledSegment(String segmentId) throws IOException {
             return null;
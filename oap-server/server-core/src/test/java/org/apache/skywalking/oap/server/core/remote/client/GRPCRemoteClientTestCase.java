@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.remote.client;
 
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -33,6 +34,7 @@ import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
 import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
 import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
 import org.junit.Assert;
@@ -49,6 +51,7 @@ import static org.mockito.Mockito.when;
 public class GRPCRemoteClientTestCase {
 
     private final String nextWorkerName = "mock-worker";
+    private final AtomicInteger received = new AtomicInteger(0);
     private ModuleManagerTesting moduleManager;
     @Rule
     public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
@@ -113,6 +116,29 @@ public class GRPCRemoteClientTestCase {
         TimeUnit.SECONDS.sleep(2);
     }
 
+    @Test
+    public void testBatchPush() throws InterruptedException {
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(
+            new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null, 5, "gzip"));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+    }
+
     public static class TestStreamData extends StreamData {
 
         private long value;
@@ -145,6 +171,7 @@ public class GRPCRemoteClientTestCase {
         public void in(Object o) {
             TestStreamData streamData = (TestStreamData) o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
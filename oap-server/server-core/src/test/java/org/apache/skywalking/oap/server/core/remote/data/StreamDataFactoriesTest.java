@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamDataFactoriesTest {
+    @Test
+    public void testCreate() {
+        StreamDataFactory factory = StreamDataFactories.create(TestStreamData.class);
+        StreamData first = factory.newInstance();
+        StreamData second = factory.newInstance();
+        Assert.assertEquals(TestStreamData.class, first.getClass());
+        Assert.assertEquals(TestStreamData.class, second.getClass());
+        Assert.assertNotSame(first, second);
+    }
+
+    @Test(expected = UnexpectedException.class)
+    public void testFallbackWithoutDefaultConstructor() {
+        StreamDataFactory factory = StreamDataFactories.create(NoDefaultConstructorStreamData.class);
+        factory.newInstance();
+    }
+
+    public static class TestStreamData extends StreamData {
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder();
+        }
+    }
+
+    public static class NoDefaultConstructorStreamData extends TestStreamData {
+        public NoDefaultConstructorStreamData(int ignored) {
+        }
+    }
+}
@@ -24,12 +24,17 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Data;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsPersistentWorker;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNWorker;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.SQLDatabaseModelExtension;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -38,6 +43,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleServiceHolder;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.powermock.reflect.Whitebox;
 
@@ -48,6 +54,12 @@ import static org.mockito.Mockito.mock;
 
 public class PersistenceTimerTest {
 
+    @Before
+    public void setUp() {
+        MetricsStreamProcessor.getInstance().getPersistentWorkers().clear();
+        TopNStreamProcessor.getInstance().getPersistentWorkers().clear();
+    }
+
     @Test
     public void testExtractDataAndSave() throws Exception {
         Set<PrepareRequest> result = new HashSet();
@@ -87,6 +99,155 @@ public class PersistenceTimerTest {
         Assert.assertEquals(count * workCount * 2, result.size());
     }
 
+    @Test
+    public void testPipelinedExtractDataAndSave() throws Exception {
+        int count = 11;
+        int workCount = 3;
+        CoreModuleConfig moduleConfig = new CoreModuleConfig();
+        // Every worker is due in every check.
+        moduleConfig.setPersistentPeriod(0);
+        moduleConfig.setEnablePersistencePipeline(true);
+        moduleConfig.setPersistenceMaxInFlightRounds(1);
+        AtomicInteger flushed = new AtomicInteger(0);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        IBatchDAO iBatchDAO = new IBatchDAO() {
+            @Override
+            public void insert(InsertRequest insertRequest) {
+
+            }
+
+            @Override
+            public CompletableFuture<Void> flush(final List<PrepareRequest> prepareRequests) {
+                flushed.addAndGet(prepareRequests.size());
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                synchronized (pending) {
+                    pending.add(future);
+                }
+                return future;
+            }
+        };
+        for (int i = 0; i < workCount; i++) {
+            MetricsStreamProcessor.getInstance().getPersistentWorkers().add(genWorkers(i, count));
+        }
+        ModuleManager moduleManager = mock(ModuleManager.class);
+        ModuleServiceHolder moduleServiceHolder = mock(ModuleServiceHolder.class);
+        doReturn((ModuleProviderHolder) () -> moduleServiceHolder).when(moduleManager).find(anyString());
+        doReturn(new MetricsCreatorNoop()).when(moduleServiceHolder).getService(MetricsCreator.class);
+        doReturn(iBatchDAO).when(moduleServiceHolder).getService(IBatchDAO.class);
+        PersistenceTimer.INSTANCE.isStarted = true;
+
+        PersistenceTimer.INSTANCE.start(moduleManager, moduleConfig);
+        CompletableFuture<Void> f = Whitebox.invokeMethod(
+            PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        Assert.assertEquals(count * workCount, flushed.get());
+
+        // The previous rounds are still in flight, all workers are delayed.
+        f = Whitebox.invokeMethod(PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        Assert.assertEquals(count * workCount, flushed.get());
+
+        pending.forEach(future -> future.complete(null));
+        f = Whitebox.invokeMethod(PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        Assert.assertEquals(count * workCount * 2, flushed.get());
+    }
+
+    @Test
+    public void testPipelinedRoundsExecuteInOrder() throws Exception {
+        int count = 7;
+        CoreModuleConfig moduleConfig = new CoreModuleConfig();
+        // Every worker is due in every check.
+        moduleConfig.setPersistentPeriod(0);
+        moduleConfig.setEnablePersistencePipeline(true);
+        moduleConfig.setPersistenceMaxInFlightRounds(2);
+        AtomicInteger flushed = new AtomicInteger(0);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        IBatchDAO iBatchDAO = new IBatchDAO() {
+            @Override
+            public void insert(InsertRequest insertRequest) {
+
+            }
+
+            @Override
+            public CompletableFuture<Void> flush(final List<PrepareRequest> prepareRequests) {
+                flushed.addAndGet(prepareRequests.size());
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                synchronized (pending) {
+                    pending.add(future);
+                }
+                return future;
+            }
+        };
+        MetricsStreamProcessor.getInstance().getPersistentWorkers().add(genWorkers(0, count));
+        ModuleManager moduleManager = mock(ModuleManager.class);
+        ModuleServiceHolder moduleServiceHolder = mock(ModuleServiceHolder.class);
+        doReturn((ModuleProviderHolder) () -> moduleServiceHolder).when(moduleManager).find(anyString());
+        doReturn(new MetricsCreatorNoop()).when(moduleServiceHolder).getService(MetricsCreator.class);
+        doReturn(iBatchDAO).when(moduleServiceHolder).getService(IBatchDAO.class);
+        PersistenceTimer.INSTANCE.isStarted = true;
+
+        PersistenceTimer.INSTANCE.start(moduleManager, moduleConfig);
+        CompletableFuture<Void> f = Whitebox.invokeMethod(
+            PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        Assert.assertEquals(count, flushed.get());
+
+        // The second round is prepared, but not flushed until the first round finishes.
+        f = Whitebox.invokeMethod(PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        TimeUnit.MILLISECONDS.sleep(200);
+        Assert.assertEquals(count, flushed.get());
+
+        synchronized (pending) {
+            pending.get(0).complete(null);
+        }
+        for (int i = 0; i < 50 && flushed.get() < count * 2; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assert.assertEquals(count * 2, flushed.get());
+    }
+
+    @Test
+    public void testPipelinedWorkerCadence() throws Exception {
+        int count = 5;
+        CoreModuleConfig moduleConfig = new CoreModuleConfig();
+        moduleConfig.setPersistentPeriod(Integer.MAX_VALUE);
+        moduleConfig.setEnablePersistencePipeline(true);
+        AtomicInteger flushed = new AtomicInteger(0);
+        IBatchDAO iBatchDAO = new IBatchDAO() {
+            @Override
+            public void insert(InsertRequest insertRequest) {
+
+            }
+
+            @Override
+            public CompletableFuture<Void> flush(final List<PrepareRequest> prepareRequests) {
+                flushed.addAndGet(prepareRequests.size());
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        MetricsStreamProcessor.getInstance().getPersistentWorkers().add(genWorkers(0, count));
+        ModuleManager moduleManager = mock(ModuleManager.class);
+        ModuleServiceHolder moduleServiceHolder = mock(ModuleServiceHolder.class);
+        doReturn((ModuleProviderHolder) () -> moduleServiceHolder).when(moduleManager).find(anyString());
+        doReturn(new MetricsCreatorNoop()).when(moduleServiceHolder).getService(MetricsCreator.class);
+        doReturn(iBatchDAO).when(moduleServiceHolder).getService(IBatchDAO.class);
+        PersistenceTimer.INSTANCE.isStarted = true;
+
+        PersistenceTimer.INSTANCE.start(moduleManager, moduleConfig);
+        CompletableFuture<Void> f = Whitebox.invokeMethod(
+            PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        Assert.assertEquals(count, flushed.get());
+
+        // A new worker is due at once, the one persisted just now waits for its own period.
+        MetricsStreamProcessor.getInstance().getPersistentWorkers().add(genWorkers(1, count));
+        f = Whitebox.invokeMethod(PersistenceTimer.INSTANCE, "extractDataAndSavePipelined", iBatchDAO);
+        f.join();
+        Assert.assertEquals(count * 2, flushed.get());
+    }
+
     private MetricsPersistentWorker genWorkers(int num, int count) {
         MetricsPersistentWorker persistenceWorker = mock(MetricsPersistentWorker.class);
         doAnswer(invocation -> {
@@ -96,6 +257,7 @@ public class PersistenceTimerTest {
             }
             return results;
         }).when(persistenceWorker).buildBatchRequests();
+        doReturn(genModel("metrics_" + num)).when(persistenceWorker).getModel();
         return persistenceWorker;
     }
 
@@ -108,9 +270,17 @@ public class PersistenceTimerTest {
             }
             return results;
         }).when(persistenceWorker).buildBatchRequests();
+        doReturn(genModel("top_n_" + num)).when(persistenceWorker).getModel();
         return persistenceWorker;
     }
 
+    private Model genModel(String name) {
+        return new Model(
+            name, new ArrayList<>(), 0, DownSampling.Minute, false, false, MockStorageData.class, true,
+            new SQLDatabaseModelExtension()
+        );
+    }
+
     @Data
     static class MockStorageData implements StorageData {
         private final String id;
@@ -23,9 +23,11 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadSnapshot;
 import org.apache.skywalking.oap.server.analyzer.agent.kafka.module.KafkaFetcherConfig;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeAggregator;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
@@ -42,9 +44,13 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag.Values;
 public class ProfileTaskHandler extends AbstractKafkaHandler {
     private final HistogramMetrics histogram;
     private final CounterMetrics errorCounter;
+    private final ProfileThreadSnapshotTreeAggregator snapshotTreeAggregator;
 
     public ProfileTaskHandler(ModuleManager manager, KafkaFetcherConfig config) {
         super(manager, config);
+        snapshotTreeAggregator = manager.find(CoreModule.NAME)
+                .provider()
+                .getService(ProfileThreadSnapshotTreeAggregator.class);
         MetricsCreator metricsCreator = manager.find(TelemetryModule.NAME)
                 .provider()
                 .getService(MetricsCreator.class);
@@ -83,6 +89,7 @@ public class ProfileTaskHandler extends AbstractKafkaHandler {
             snapshotRecord.setTimeBucket(TimeBucket.getRecordTimeBucket(snapshot.getTime()));
 
             RecordStreamProcessor.getInstance().in(snapshotRecord);
+            snapshotTreeAggregator.in(snapshotRecord);
         } catch (Exception e) {
             errorCounter.inc();
             log.error("handle record failed", e);
@@ -358,13 +358,55 @@ public class ElasticSearchClient implements Client, HealthCheckable {
         return new UpdateRequestWrapper(indexName, TYPE, id, source);
     }
 
+    /**
+     * @param source the encoded JSON document, which is appended to the bulk without encoding again.
+     */
+    public IndexRequestWrapper prepareInsert(String indexName, String id, byte[] source) {
+        indexName = indexNameConverter.apply(indexName);
+        return new IndexRequestWrapper(indexName, TYPE, id, source);
+    }
+
+    /**
+     * @param source the encoded JSON document, which is appended to the bulk without encoding again.
+     */
+    public UpdateRequestWrapper prepareUpdate(String indexName, String id, byte[] source) {
+        indexName = indexNameConverter.apply(indexName);
+        return new UpdateRequestWrapper(indexName, TYPE, id, source);
+    }
+
     public BulkProcessor createBulkProcessor(int bulkActions,
                                              int flushInterval,
                                              int concurrentRequests) {
+        return createBulkProcessor(bulkActions, 0, flushInterval, concurrentRequests);
+    }
+
+    /**
+     * @param bulkSizeInMB the max encoded size of a bulk, 0 means the bulk is only capped by the bulkActions.
+     * @since 9.3.0
+     */
+    public BulkProcessor createBulkProcessor(int bulkActions,
+                                             int bulkSizeInMB,
+                                             int flushInterval,
+                                             int concurrentRequests) {
+        return createBulkProcessor(bulkActions, bulkSizeInMB, flushInterval, concurrentRequests, 10);
+    }
+
+    /**
+     * @param maxPendingBulks the max number of bulks waiting for the execution, the requests added beyond that wait
+     *                        to be admitted asynchronously.
+     * @since 9.3.0
+     */
+    public BulkProcessor createBulkProcessor(int bulkActions,
+                                             int bulkSizeInMB,
+                                             int flushInterval,
+                                             int concurrentRequests,
+                                             int maxPendingBulks) {
         return BulkProcessor.builder()
                             .bulkActions(bulkActions)
+                            .bulkSize(bulkSizeInMB * 1024L * 1024L)
                             .flushInterval(Duration.ofSeconds(flushInterval))
                             .concurrentRequests(concurrentRequests)
+                            .maxPendingBulks(maxPendingBulks)
                             .build(es);
     }
 
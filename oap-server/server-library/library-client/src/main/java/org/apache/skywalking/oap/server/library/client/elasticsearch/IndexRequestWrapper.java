@@ -35,4 +35,17 @@ public class IndexRequestWrapper implements InsertRequest {
                               .doc(source)
                               .build();
     }
+
+    /**
+     * @param source the encoded JSON document.
+     */
+    public IndexRequestWrapper(String index, String type, String id,
+                               byte[] source) {
+        request = IndexRequest.builder()
+                              .index(index)
+                              .type(type)
+                              .id(id)
+                              .source(source)
+                              .build();
+    }
 }
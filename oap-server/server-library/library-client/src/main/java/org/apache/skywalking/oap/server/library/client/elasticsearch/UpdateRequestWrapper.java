@@ -34,4 +34,17 @@ public class UpdateRequestWrapper implements UpdateRequest {
                                                                                     .doc(source)
                                                                                     .build();
     }
+
+    /**
+     * @param source the encoded JSON document.
+     */
+    public UpdateRequestWrapper(String index, String type, String id,
+                                byte[] source) {
+        request = org.apache.skywalking.library.elasticsearch.requests.UpdateRequest.builder()
+                                                                                    .index(index)
+                                                                                    .type(type)
+                                                                                    .id(id)
+                                                                                    .source(source)
+                                                                                    .build();
+    }
 }
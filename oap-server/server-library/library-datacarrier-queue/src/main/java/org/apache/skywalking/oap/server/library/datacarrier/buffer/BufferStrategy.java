@@ -19,5 +19,10 @@
 package org.apache.skywalking.oap.server.library.datacarrier.buffer;
 
 public enum BufferStrategy {
-    BLOCKING, IF_POSSIBLE
+    BLOCKING, IF_POSSIBLE,
+    /**
+     * Blocking when the buffer is full, like {@link #BLOCKING}, but backed by the lock-free {@link MpscRingBuffer}
+     * rather than a lock based queue. Suitable for channels which many producer threads write concurrently.
+     */
+    LOCK_FREE
 }
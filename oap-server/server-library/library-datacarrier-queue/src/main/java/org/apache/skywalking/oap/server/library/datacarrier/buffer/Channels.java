@@ -26,6 +26,7 @@ import org.apache.skywalking.oap.server.library.datacarrier.partition.IDataParti
  */
 public class Channels<T> {
     private final QueueBuffer<T>[] bufferChannels;
+    private final IDataArrivalListener[] arrivalListeners;
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
     private final long size;
@@ -34,9 +35,12 @@ public class Channels<T> {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
+        arrivalListeners = new IDataArrivalListener[channelSize];
         for (int i = 0; i < channelSize; i++) {
             if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.LOCK_FREE.equals(strategy)) {
+                bufferChannels[i] = new MpscRingBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
             }
@@ -56,6 +60,10 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                IDataArrivalListener listener = arrivalListeners[index];
+                if (listener != null) {
+                    listener.onDataArrival();
+                }
                 return true;
             }
         }
@@ -66,6 +74,14 @@ public class Channels<T> {
         this.dataPartitioner = dataPartitioner;
     }
 
+    /**
+     * Set the listener notified after the data saved into the channel of the given index. Consumers use this to get
+     * woken up instead of polling the channel periodically.
+     */
+    public void setArrivalListener(int index, IDataArrivalListener listener) {
+        this.arrivalListeners[index] = listener;
+    }
+
     /**
      * override the strategy at runtime. Notice, this will override several channels one by one. So, when running
      * setStrategy, each channel may use different BufferStrategy
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer/single-consumer ring queue.
+ * <p>
+ * Producers claim a slot by CAS on the producer sequence, and only re-read the consumer sequence when the cached
+ * claim limit is exhausted. The single consumer drains every published slot in one pass and releases the whole batch
+ * by one ordered write of the consumer sequence. Both sequences live in the middle of their own padded array, the same
+ * way as {@link org.apache.skywalking.oap.server.library.datacarrier.common.AtomicRangeInteger}, to avoid false
+ * sharing.
+ * <p>
+ * Producers don't claim several slots in one CAS, as every caller of {@link Channels#save(Object)} saves one element,
+ * and each element could be routed to a different channel by the partitioner. The cached claim limit already keeps the
+ * producers off the consumer sequence, so a producer only pays one CAS on its own sequence per element.
+ * <p>
+ * The buffer must only be drained by one thread at a time, which is guaranteed by the consumer drivers, as each
+ * channel is assigned to exactly one consumer thread.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    private static final int VALUE_OFFSET = 15;
+    private static final int MAX_PARK_NANOS = 1 << 20;
+
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final int capacity;
+    private volatile BufferStrategy strategy;
+
+    private final AtomicLongArray producerIndex = new AtomicLongArray(31);
+    private final AtomicLongArray producerLimit = new AtomicLongArray(31);
+    private final AtomicLongArray consumerIndex = new AtomicLongArray(31);
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        this.capacity = roundToPowerOfTwo(bufferSize);
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.strategy = strategy;
+        this.producerLimit.set(VALUE_OFFSET, capacity);
+    }
+
+    @Override
+    public boolean save(T data) {
+        long limit = producerLimit.get(VALUE_OFFSET);
+        long index;
+        int parkNanos = 1;
+        while (true) {
+            index = producerIndex.get(VALUE_OFFSET);
+            if (index >= limit) {
+                limit = consumerIndex.get(VALUE_OFFSET) + capacity;
+                if (index >= limit) {
+                    if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                        return false;
+                    }
+                    // Queue is full, back off until the consumer releases slots.
+                    LockSupport.parkNanos(parkNanos);
+                    parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+                    continue;
+                }
+                producerLimit.lazySet(VALUE_OFFSET, limit);
+            }
+            if (producerIndex.compareAndSet(VALUE_OFFSET, index, index + 1)) {
+                break;
+            }
+        }
+        // Volatile write, rather than lazySet, so the following read of the consumer waiting status in the
+        // IDataArrivalListener could not be reordered before the publishing.
+        buffer.set((int) index & mask, data);
+        return true;
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        long index = consumerIndex.get(VALUE_OFFSET);
+        final long end = producerIndex.get(VALUE_OFFSET);
+        for (; index < end; index++) {
+            int offset = (int) index & mask;
+            T data = buffer.get(offset);
+            if (data == null) {
+                // The slot is claimed but not published yet, pick it up in the next round.
+                break;
+            }
+            buffer.lazySet(offset, null);
+            consumeList.add(data);
+        }
+        consumerIndex.lazySet(VALUE_OFFSET, index);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return capacity;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 2;
+        }
+        int result = Integer.highestOneBit(value);
+        return result == value ? value : result << 1;
+    }
+}
@@ -35,10 +35,18 @@ public class BulkConsumePool implements ConsumerPool {
     private volatile boolean isStarted = false;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, false);
+    }
+
+    /**
+     * @param signalDriven true to make the consumer threads parked when there is no data, and woken up by the
+     *                     producers. The consume cycle becomes the max park time.
+     */
+    public BulkConsumePool(String name, int size, long consumeCycle, boolean signalDriven) {
         size = EnvUtil.getInt(name + "_THREAD", size);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, signalDriven);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
@@ -99,16 +107,22 @@ public class BulkConsumePool implements ConsumerPool {
         private String name;
         private int size;
         private long consumeCycle;
+        private boolean signalDriven;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, consumeCycle, false);
+        }
+
+        public Creator(String name, int poolSize, long consumeCycle, boolean signalDriven) {
             this.name = name;
             this.size = poolSize;
             this.consumeCycle = consumeCycle;
+            this.signalDriven = signalDriven;
         }
 
         @Override
         public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, consumeCycle, signalDriven);
         }
 
         public static int recommendMaxSize() {
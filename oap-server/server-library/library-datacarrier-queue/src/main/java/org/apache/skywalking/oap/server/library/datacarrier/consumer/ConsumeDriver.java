@@ -37,22 +37,44 @@ public class ConsumeDriver<T> implements IDriver {
                          int num,
                          long consumeCycle,
                          Properties properties) {
+        this(name, channels, consumerClass, num, consumeCycle, properties, false);
+    }
+
+    /**
+     * @param signalDriven true to make the consumer threads parked when there is no data, and woken up by the
+     *                     producers, rather than sleeping a whole consume cycle.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
+                         int num,
+                         long consumeCycle,
+                         Properties properties,
+                         boolean signalDriven) {
         this(channels, num);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
                 "DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass, properties),
-                consumeCycle
+                consumeCycle, signalDriven
             );
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, consumeCycle, false);
+    }
+
+    /**
+     * @param signalDriven true to make the consumer threads parked when there is no data, and woken up by the
+     *                     producers, rather than sleeping a whole consume cycle.
+     */
+    public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle,
+                         boolean signalDriven) {
         this(channels, num);
         prototype.init(new Properties());
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, signalDriven);
             consumerThreads[i].setDaemon(true);
         }
 
@@ -118,6 +140,10 @@ public class ConsumeDriver<T> implements IDriver {
         for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
             int consumerIndex = channelIndex % consumerThreads.length;
             consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
+            ConsumeSignal signal = consumerThreads[consumerIndex].getSignal();
+            if (signal != null) {
+                channels.setArrivalListener(channelIndex, signal);
+            }
         }
 
     }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.datacarrier.consumer;
+
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.oap.server.library.datacarrier.buffer.IDataArrivalListener;
+
+/**
+ * ConsumeSignal replaces the fixed sleep of a consumer thread with a spin-then-park wait. Producers unpark the consumer
+ * thread when it announces it is going to park, so new data is consumed immediately rather than after a whole consume
+ * cycle.
+ * <p>
+ * The spin phase is adaptive. It grows when data shows up while spinning, and shrinks every time the thread has to
+ * park. The park is bounded by the consume cycle, so {@link IConsumer#nothingToConsume()} keeps working as a timer, and
+ * a missed signal only delays the consuming as the sleep did before.
+ */
+public class ConsumeSignal implements IDataArrivalListener {
+    private static final int MIN_SPIN_TIMES = 4;
+    private static final int MAX_SPIN_TIMES = 256;
+
+    private final long maxParkNanos;
+    private volatile Thread consumerThread;
+    private volatile boolean waiting;
+    private int spinTimes = MIN_SPIN_TIMES;
+    private int idleRounds;
+
+    ConsumeSignal(long consumeCycle) {
+        this.maxParkNanos = consumeCycle * 1_000_000L;
+    }
+
+    /**
+     * Bind the signal to the thread which is waiting for data.
+     */
+    void bind(Thread consumerThread) {
+        this.consumerThread = consumerThread;
+    }
+
+    @Override
+    public void onDataArrival() {
+        if (waiting) {
+            waiting = false;
+            Thread thread = consumerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Notify the signal that the last round consumed some data.
+     */
+    void consumed() {
+        if (idleRounds > 0 && idleRounds <= spinTimes) {
+            spinTimes = Math.min(spinTimes << 1, MAX_SPIN_TIMES);
+        }
+        idleRounds = 0;
+        waiting = false;
+    }
+
+    /**
+     * Notify the signal that the last round found nothing. It spins at first, then announces the waiting status and
+     * lets the consumer check the channels once more, parks in the end.
+     */
+    void idle() {
+        idleRounds++;
+        if (idleRounds <= spinTimes) {
+            Thread.yield();
+            return;
+        }
+        if (!waiting) {
+            waiting = true;
+            return;
+        }
+        LockSupport.parkNanos(this, maxParkNanos);
+        waiting = false;
+        spinTimes = Math.max(spinTimes >> 1, MIN_SPIN_TIMES);
+    }
+
+    /**
+     * Wake up the consumer thread, such as at shutdown.
+     */
+    void wakeup() {
+        Thread thread = consumerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -28,13 +28,27 @@ public class ConsumerThread<T> extends Thread {
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
     private long consumeCycle;
+    /**
+     * Null means polling the data sources every consume cycle.
+     */
+    private final ConsumeSignal signal;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, false);
+    }
+
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, boolean signalDriven) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
         this.consumeCycle = consumeCycle;
+        if (signalDriven) {
+            this.signal = new ConsumeSignal(consumeCycle);
+            this.signal.bind(this);
+        } else {
+            this.signal = null;
+        }
     }
 
     /**
@@ -50,7 +64,13 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
+            if (consume(consumeList)) {
+                if (signal != null) {
+                    signal.consumed();
+                }
+            } else if (signal != null) {
+                signal.idle();
+            } else {
                 try {
                     Thread.sleep(consumeCycle);
                 } catch (InterruptedException e) {
@@ -86,6 +106,13 @@ public class ConsumerThread<T> extends Thread {
 
     void shutdown() {
         running = false;
+        if (signal != null) {
+            signal.wakeup();
+        }
+    }
+
+    ConsumeSignal getSignal() {
+        return signal;
     }
 
     /**
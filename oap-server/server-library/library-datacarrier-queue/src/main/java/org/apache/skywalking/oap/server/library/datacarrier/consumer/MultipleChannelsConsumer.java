@@ -33,11 +33,25 @@ public class MultipleChannelsConsumer extends Thread {
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
     private final long consumeCycle;
+    /**
+     * Null means polling the channels every consume cycle.
+     */
+    private final ConsumeSignal signal;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, false);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, boolean signalDriven) {
         super(threadName);
         this.consumeTargets = new ArrayList<>();
         this.consumeCycle = consumeCycle;
+        if (signalDriven) {
+            this.signal = new ConsumeSignal(consumeCycle);
+            this.signal.bind(this);
+        } else {
+            this.signal = null;
+        }
     }
 
     @Override
@@ -52,7 +66,13 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consumed;
             }
 
-            if (!hasData) {
+            if (signal != null) {
+                if (hasData) {
+                    signal.consumed();
+                } else {
+                    signal.idle();
+                }
+            } else if (!hasData) {
                 try {
                     Thread.sleep(consumeCycle);
                 } catch (InterruptedException e) {
@@ -102,6 +122,11 @@ public class MultipleChannelsConsumer extends Thread {
         newList.add(group);
         consumeTargets = newList;
         size += channels.size();
+        if (signal != null) {
+            for (int i = 0; i < channels.getChannelSize(); i++) {
+                channels.setArrivalListener(i, signal);
+            }
+        }
     }
 
     public long size() {
@@ -110,6 +135,9 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        if (signal != null) {
+            signal.wakeup();
+        }
     }
 
     private static class Group {
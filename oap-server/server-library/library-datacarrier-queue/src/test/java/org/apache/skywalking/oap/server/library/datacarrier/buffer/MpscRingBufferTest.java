@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.oap.server.library.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+    @Test
+    public void testCapacityRoundUp() {
+        Assert.assertEquals(128, new MpscRingBuffer<SampleData>(100, BufferStrategy.LOCK_FREE).getBufferSize());
+        Assert.assertEquals(64, new MpscRingBuffer<SampleData>(64, BufferStrategy.LOCK_FREE).getBufferSize());
+    }
+
+    @Test
+    public void testIfPossibleWhenFull() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(4, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        Assert.assertFalse(buffer.save(new SampleData().setIntValue(4)));
+
+        List<SampleData> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(4, result.size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(i, result.get(i).getIntValue());
+        }
+
+        Assert.assertTrue(buffer.save(new SampleData().setIntValue(5)));
+        result.clear();
+        buffer.obtain(result);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(5, result.get(0).getIntValue());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final int producers = 8;
+        final int perProducer = 20000;
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(1024, BufferStrategy.LOCK_FREE);
+        final CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.save(new SampleData().setIntValue(base + i));
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        Set<Integer> received = new HashSet<>();
+        List<SampleData> consumeList = new ArrayList<>();
+        while (received.size() < producers * perProducer) {
+            buffer.obtain(consumeList);
+            for (SampleData data : consumeList) {
+                Assert.assertTrue(received.add(data.getIntValue()));
+            }
+            consumeList.clear();
+        }
+        latch.await();
+
+        buffer.obtain(consumeList);
+        Assert.assertTrue(consumeList.isEmpty());
+    }
+}
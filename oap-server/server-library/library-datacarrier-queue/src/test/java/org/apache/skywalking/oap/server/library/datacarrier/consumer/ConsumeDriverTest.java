@@ -18,6 +18,10 @@
 
 package org.apache.skywalking.oap.server.library.datacarrier.consumer;
 
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.oap.server.library.datacarrier.SampleData;
 import org.apache.skywalking.oap.server.library.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.oap.server.library.datacarrier.buffer.Channels;
@@ -55,4 +59,42 @@ public class ConsumeDriverTest {
         Assert.assertFalse((Boolean) MemberModifier.field(ConsumerThread.class, "running").get(threads[0]));
         Assert.assertFalse((Boolean) MemberModifier.field(ConsumerThread.class, "running").get(threads[1]));
     }
+
+    @Test
+    public void testSignalDrivenConsumeDriver() throws InterruptedException {
+        Channels<SampleData> channels = new Channels<SampleData>(2, 100, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.LOCK_FREE);
+        final CountDownLatch latch = new CountDownLatch(4);
+        IConsumer<SampleData> consumer = new IConsumer<SampleData>() {
+            @Override
+            public void init(final Properties properties) {
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+                for (SampleData ignored : data) {
+                    latch.countDown();
+                }
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        };
+        // The consume cycle is far longer than the test, the data could only be consumed through the signal.
+        ConsumeDriver<SampleData> pool = new ConsumeDriver<SampleData>("default", channels, consumer, 2, 60_000, true);
+        pool.begin(channels);
+
+        // Make sure the consumer threads are parked.
+        Thread.sleep(1000);
+        for (int i = 0; i < 4; i++) {
+            channels.save(new SampleData().setIntValue(i));
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        pool.close(channels);
+    }
 }
@@ -20,50 +20,105 @@ package org.apache.skywalking.library.elasticsearch.bulk;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.util.Exceptions;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.library.elasticsearch.ElasticSearch;
+import org.apache.skywalking.library.elasticsearch.ElasticSearchVersion;
 import org.apache.skywalking.library.elasticsearch.requests.IndexRequest;
 import org.apache.skywalking.library.elasticsearch.requests.UpdateRequest;
+import org.apache.skywalking.library.elasticsearch.requests.factory.Codec;
 import org.apache.skywalking.library.elasticsearch.requests.factory.RequestFactory;
 import org.apache.skywalking.oap.server.library.util.RunnableWithExceptionProtection;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * BulkProcessor encodes the requests into the pooled buffers once they are added, and executes them in bulks, which
+ * are capped by the number of actions and the encoded bytes.
+ *
+ * Neither {@link #add(IndexRequest)} nor {@link #flush()} blocks the caller. At most {@code concurrentRequests}
+ * bulks are executing, the others queue up to {@code maxPendingBulks}. Beyond that, the added requests wait, without
+ * being encoded, and are admitted asynchronously once the pending bulks start executing. So the futures of the
+ * requests complete later, which is the backpressure to the callers. At most {@code maxPendingBulks * bulkActions}
+ * requests could wait, the others are rejected through their futures.
+ */
 @Slf4j
 public final class BulkProcessor {
-    private final ArrayBlockingQueue<Holder> requests;
+    private static final byte NEW_LINE = '\n';
 
     private final AtomicReference<ElasticSearch> es;
     private final int bulkActions;
-    private final Semaphore semaphore;
+    private final long bulkSize;
+    private final int concurrentRequests;
+    private final int maxPendingBulks;
+    private final int maxWaitingRequests;
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * The bulk accepting new requests, guarded by this.
+     */
+    private Bulk current;
+    /**
+     * The sealed bulks waiting for the execution slots, guarded by this.
+     */
+    private final ArrayDeque<Bulk> pendingBulks = new ArrayDeque<>();
+    /**
+     * The requests waiting for the pending bulks to start executing, guarded by this.
+     */
+    private final ArrayDeque<WaitingRequest> waitingRequests = new ArrayDeque<>();
+    /**
+     * Whether the requests are being rejected, to log once rather than for every rejected request, guarded by this.
+     */
+    private boolean rejecting;
+    /**
+     * The number of executing bulks, guarded by this.
+     */
+    private int executingBulks;
+    /**
+     * The sealed bulks which have not finished.
+     */
+    private final Set<Bulk> unfinishedBulks = ConcurrentHashMap.newKeySet();
+    /**
+     * The number of requests rejected without being executed.
+     */
+    @Getter
+    private final AtomicLong rejectedRequests = new AtomicLong();
 
     public static BulkProcessorBuilder builder() {
         return new BulkProcessorBuilder();
     }
 
     BulkProcessor(
-        final AtomicReference<ElasticSearch> es, final int bulkActions,
-        final Duration flushInterval, final int concurrentRequests) {
+        final AtomicReference<ElasticSearch> es, final int bulkActions, final long bulkSize,
+        final Duration flushInterval, final int concurrentRequests, final int maxPendingBulks) {
         requireNonNull(flushInterval, "flushInterval");
 
         this.es = requireNonNull(es, "es");
         this.bulkActions = bulkActions;
-        this.semaphore = new Semaphore(concurrentRequests > 0 ? concurrentRequests : 1);
-        this.requests = new ArrayBlockingQueue<>(bulkActions + 1);
+        this.bulkSize = bulkSize;
+        this.concurrentRequests = concurrentRequests > 0 ? concurrentRequests : 1;
+        this.maxPendingBulks = maxPendingBulks;
+        this.maxWaitingRequests = maxPendingBulks * Math.max(1, bulkActions);
 
-        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+        scheduler = new ScheduledThreadPoolExecutor(
             1, r -> {
             final Thread thread = new Thread(r);
             thread.setName("ElasticSearch BulkProcessor");
@@ -85,59 +140,150 @@ public final class BulkProcessor {
         return internalAdd(request);
     }
 
-    @SneakyThrows
     private CompletableFuture<Void> internalAdd(Object request) {
         requireNonNull(request, "request");
         final CompletableFuture<Void> f = new CompletableFuture<>();
-        requests.put(new Holder(f, request));
-        flushIfNeeded();
-        return f;
-    }
 
-    @SneakyThrows
-    private void flushIfNeeded() {
-        if (requests.size() >= bulkActions) {
-            flush();
+        synchronized (this) {
+            // Keep the order of the waiting requests, the new ones wait after them.
+            if (pendingBulks.size() >= maxPendingBulks || !waitingRequests.isEmpty()) {
+                if (waitingRequests.size() >= maxWaitingRequests) {
+                    rejectedRequests.incrementAndGet();
+                    if (!rejecting) {
+                        rejecting = true;
+                        log.error(
+                            "{} requests are waiting for {} pending bulks, the new requests are rejected",
+                            waitingRequests.size(), pendingBulks.size()
+                        );
+                    }
+                    f.completeExceptionally(new RejectedExecutionException(
+                        "Too many requests are waiting for the pending bulks"));
+                    return f;
+                }
+                waitingRequests.add(new WaitingRequest(request, f));
+                return f;
+            }
         }
+        admit(request, f);
+        return f;
     }
 
-    public void flush() {
-        if (requests.isEmpty()) {
+    /**
+     * Encode the request into the current bulk, and dispatch the bulk once it is full.
+     */
+    private void admit(final Object request, final CompletableFuture<Void> f) {
+        // Encode out of the lock, the callers could encode concurrently.
+        final ByteBuf encoded;
+        try {
+            encoded = encode(request);
+        } catch (Exception e) {
+            log.error("Failed to encode the request of bulk", e);
+            f.completeExceptionally(e);
             return;
         }
 
-        try {
-            semaphore.acquire();
-        } catch (InterruptedException e) {
-            log.error("Interrupted when trying to get semaphore to execute bulk requests", e);
-            return;
+        Bulk sealed = null;
+        synchronized (this) {
+            if (current == null) {
+                current = new Bulk(allocator.compositeBuffer(Math.max(1, bulkActions)));
+            }
+            current.add(encoded, f);
+            if (current.futures.size() >= bulkActions
+                || (bulkSize > 0 && current.content.readableBytes() >= bulkSize)) {
+                sealed = current;
+                current = null;
+            }
+        }
+        if (sealed != null) {
+            dispatch(sealed);
         }
+    }
 
-        final List<Holder> batch = new ArrayList<>(requests.size());
-        requests.drainTo(batch);
+    /**
+     * Admit the waiting requests until the pending bulks are full again, running in the scheduler thread rather than
+     * the thread finishing the bulk.
+     */
+    private void admitWaitingRequests() {
+        while (true) {
+            final WaitingRequest waiting;
+            synchronized (this) {
+                if (pendingBulks.size() >= maxPendingBulks) {
+                    return;
+                }
+                waiting = waitingRequests.poll();
+                if (waiting == null) {
+                    if (rejecting) {
+                        rejecting = false;
+                        log.info("The waiting requests are admitted, {} requests rejected so far",
+                                 rejectedRequests.get());
+                    }
+                    return;
+                }
+            }
+            admit(waiting.request, waiting.future);
+        }
+    }
 
-        final CompletableFuture<Void> flush = doFlush(batch);
-        flush.whenComplete((ignored1, ignored2) -> semaphore.release());
-        flush.join();
+    private ByteBuf encode(Object request) throws Exception {
+        final Codec codec = es.get().version().join().codec();
+        final ByteBuf buffer = allocator.buffer();
+        try (ByteBufOutputStream out = new ByteBufOutputStream(buffer)) {
+            codec.encode(request, out);
+            buffer.writeByte(NEW_LINE);
+            return buffer;
+        } catch (Exception e) {
+            buffer.release();
+            throw e;
+        }
     }
 
-    private CompletableFuture<Void> doFlush(final List<Holder> batch) {
-        log.debug("Executing bulk with {} requests", batch.size());
+    /**
+     * Execute the requests added so far, without waiting for the execution. The requests waiting for the pending bulks
+     * are not included.
+     *
+     * @return the future completed when all bulks sealed before, including the ones from this flush, have finished,
+     * no matter whether they succeeded.
+     */
+    public CompletableFuture<Void> flush() {
+        final Bulk sealed;
+        synchronized (this) {
+            sealed = current;
+            current = null;
+        }
+        if (sealed != null) {
+            dispatch(sealed);
+        }
+        return CompletableFuture.allOf(
+            unfinishedBulks.stream().map(it -> it.finished).toArray(CompletableFuture[]::new));
+    }
 
-        if (batch.isEmpty()) {
-            return CompletableFuture.completedFuture(null);
+    private void dispatch(final Bulk bulk) {
+        unfinishedBulks.add(bulk);
+        synchronized (this) {
+            if (executingBulks >= concurrentRequests) {
+                pendingBulks.add(bulk);
+                return;
+            }
+            executingBulks++;
         }
+        execute(bulk);
+    }
+
+    private void execute(final Bulk bulk) {
+        log.debug("Executing bulk with {} requests, {} bytes", bulk.futures.size(), bulk.content.readableBytes());
 
-        final CompletableFuture<Void> future = es.get().version().thenCompose(v -> {
+        final CompletableFuture<ElasticSearchVersion> version = es.get().version();
+        version.whenComplete((ignored, exception) -> {
+            // The content never reaches the client when the version is unknown.
+            if (exception != null && bulk.content.refCnt() > 0) {
+                bulk.content.release();
+            }
+        });
+        final CompletableFuture<Void> future = version.thenCompose(v -> {
             try {
                 final RequestFactory rf = v.requestFactory();
-                final List<byte[]> bs = new ArrayList<>();
-                for (final Holder holder : batch) {
-                    bs.add(v.codec().encode(holder.request));
-                    bs.add("\n".getBytes());
-                }
-                final ByteBuf content = Unpooled.wrappedBuffer(bs.toArray(new byte[0][]));
-                return es.get().client().execute(rf.bulk().bulk(content))
+                // The content is released by the client after being written out.
+                return es.get().client().execute(rf.bulk().bulk(bulk.content))
                          .aggregate().thenAccept(response -> {
                         final HttpStatus status = response.status();
                         if (status != HttpStatus.OK) {
@@ -145,25 +291,59 @@ public final class BulkProcessor {
                         }
                     });
             } catch (Exception e) {
+                if (bulk.content.refCnt() > 0) {
+                    bulk.content.release();
+                }
                 return Exceptions.throwUnsafely(e);
             }
         });
         future.whenComplete((ignored, exception) -> {
             if (exception != null) {
-                batch.stream().map(it -> it.future)
-                     .forEach(it -> it.completeExceptionally(exception));
+                bulk.futures.forEach(it -> it.completeExceptionally(exception));
                 log.error("Failed to execute requests in bulk", exception);
             } else {
-                log.debug("Succeeded to execute {} requests in bulk", batch.size());
-                batch.stream().map(it -> it.future).forEach(it -> it.complete(null));
+                log.debug("Succeeded to execute {} requests in bulk", bulk.futures.size());
+                bulk.futures.forEach(it -> it.complete(null));
+            }
+            unfinishedBulks.remove(bulk);
+            bulk.finished.complete(null);
+
+            final Bulk next;
+            final boolean admitting;
+            synchronized (this) {
+                next = pendingBulks.poll();
+                if (next == null) {
+                    executingBulks--;
+                }
+                admitting = !waitingRequests.isEmpty();
+            }
+            if (admitting) {
+                scheduler.execute(this::admitWaitingRequests);
+            }
+            if (next != null) {
+                execute(next);
             }
         });
-        return future;
     }
 
     @RequiredArgsConstructor
-    static class Holder {
-        private final CompletableFuture<Void> future;
+    private static class WaitingRequest {
         private final Object request;
+        private final CompletableFuture<Void> future;
+    }
+
+    private static class Bulk {
+        private final CompositeByteBuf content;
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        private Bulk(final CompositeByteBuf content) {
+            this.content = content;
+        }
+
+        private void add(final ByteBuf encoded, final CompletableFuture<Void> future) {
+            content.addComponent(true, encoded);
+            futures.add(future);
+        }
     }
 }
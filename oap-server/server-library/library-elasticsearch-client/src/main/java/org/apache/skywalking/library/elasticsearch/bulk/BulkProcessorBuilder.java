@@ -32,6 +32,8 @@ public final class BulkProcessorBuilder {
     private int bulkActions = -1;
     private Duration flushInterval;
     private int concurrentRequests = 2;
+    private long bulkSize = 0;
+    private int maxPendingBulks = 10;
 
     public BulkProcessorBuilder bulkActions(int bulkActions) {
         checkArgument(bulkActions > 0, "bulkActions must be positive");
@@ -50,8 +52,28 @@ public final class BulkProcessorBuilder {
         return this;
     }
 
+    /**
+     * @param bulkSize the max encoded bytes of a bulk, 0 means the bulk is only capped by {@link #bulkActions}.
+     */
+    public BulkProcessorBuilder bulkSize(long bulkSize) {
+        checkArgument(bulkSize >= 0, "bulkSize must be >= 0");
+        this.bulkSize = bulkSize;
+        return this;
+    }
+
+    /**
+     * @param maxPendingBulks the max number of sealed bulks waiting for the execution, the requests beyond that wait
+     *                        to be admitted asynchronously, and are rejected once {@code maxPendingBulks *
+     *                        bulkActions} requests are waiting.
+     */
+    public BulkProcessorBuilder maxPendingBulks(int maxPendingBulks) {
+        checkArgument(maxPendingBulks > 0, "maxPendingBulks must be positive");
+        this.maxPendingBulks = maxPendingBulks;
+        return this;
+    }
+
     public BulkProcessor build(AtomicReference<ElasticSearch> es) {
         return new BulkProcessor(
-            es, bulkActions, flushInterval, concurrentRequests);
+            es, bulkActions, bulkSize, flushInterval, concurrentRequests, maxPendingBulks);
     }
 }
@@ -30,4 +30,9 @@ public final class IndexRequest {
     private final String type;
     private final String id;
     private final Map<String, ?> doc;
+    /**
+     * The encoded JSON document, which is appended to the bulk as it is instead of the {@link #doc}. Only supported by
+     * the bulk processor.
+     */
+    private final byte[] source;
 }
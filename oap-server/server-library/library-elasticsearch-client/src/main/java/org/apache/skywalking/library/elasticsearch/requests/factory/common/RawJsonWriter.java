@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.skywalking.library.elasticsearch.requests.factory.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Write the encoded JSON documents to the output of the generator as they are, without decoding and encoding again.
+ */
+public final class RawJsonWriter {
+    private RawJsonWriter() {
+    }
+
+    /**
+     * Write the JSON document of the index request, following the action line.
+     */
+    public static void writeIndexSource(final JsonGenerator gen, final byte[] source) throws IOException {
+        gen.writeRaw('\n');
+        writeRaw(gen, source);
+    }
+
+    /**
+     * Write the partial JSON document of the update request, following the action line.
+     */
+    public static void writeUpdateSource(final JsonGenerator gen, final byte[] source) throws IOException {
+        gen.writeRaw("\n{\"doc\":");
+        writeRaw(gen, source);
+        gen.writeRaw('}');
+    }
+
+    private static void writeRaw(final JsonGenerator gen, final byte[] source) throws IOException {
+        gen.flush();
+        ((OutputStream) gen.getOutputTarget()).write(source);
+    }
+}
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import java.io.IOException;
 import org.apache.skywalking.library.elasticsearch.requests.IndexRequest;
+import org.apache.skywalking.library.elasticsearch.requests.factory.common.RawJsonWriter;
 
 final class V7IndexRequestSerializer extends JsonSerializer<IndexRequest> {
     @Override
@@ -42,6 +43,10 @@ final class V7IndexRequestSerializer extends JsonSerializer<IndexRequest> {
         }
         gen.writeEndObject();
 
+        if (value.getSource() != null) {
+            RawJsonWriter.writeIndexSource(gen, value.getSource());
+            return;
+        }
         gen.writeObject(value.getDoc());
     }
 }
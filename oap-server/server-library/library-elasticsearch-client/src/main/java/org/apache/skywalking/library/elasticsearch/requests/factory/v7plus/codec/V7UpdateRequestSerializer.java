@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import java.io.IOException;
 import org.apache.skywalking.library.elasticsearch.requests.UpdateRequest;
+import org.apache.skywalking.library.elasticsearch.requests.factory.common.RawJsonWriter;
 
 final class V7UpdateRequestSerializer extends JsonSerializer<UpdateRequest> {
     @Override
@@ -43,6 +44,10 @@ final class V7UpdateRequestSerializer extends JsonSerializer<UpdateRequest> {
 
         gen.writeEndObject();
 
+        if (value.getSource() != null) {
+            RawJsonWriter.writeUpdateSource(gen, value.getSource());
+            return;
+        }
         gen.writeStartObject();
         {
             gen.writeFieldName("doc");
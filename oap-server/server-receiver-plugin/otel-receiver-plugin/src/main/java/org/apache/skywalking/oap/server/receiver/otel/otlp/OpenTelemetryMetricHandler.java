@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.server.receiver.otel.otlp;
 
 import static io.opentelemetry.proto.metrics.v1.AggregationTemporality.AGGREGATION_TEMPORALITY_CUMULATIVE;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import java.util.HashMap;
 import java.util.List;
@@ -65,7 +64,7 @@ public class OpenTelemetryMetricHandler
             .put("job", "job_name")
             .put("service.name", "job_name")
             .build();
-    private List<PrometheusMetricConverter> converters;
+    private PrometheusMetricConverter converter;
 
     @Override
     public String type() {
@@ -87,10 +86,7 @@ public class OpenTelemetryMetricHandler
             return;
         }
 
-        converters = rules
-            .stream()
-            .map(r -> new PrometheusMetricConverter(r, service))
-            .collect(toList());
+        converter = new PrometheusMetricConverter(rules, service);
 
         grpcHandlerRegister.addHandler(this);
     }
@@ -117,16 +113,16 @@ public class OpenTelemetryMetricHandler
                         it -> it.getValue().getStringValue(),
                         (v1, v2) -> v1));
 
-            converters
-                .forEach(convert -> convert.toMeter(
-                    request
-                        .getScopeMetricsList().stream()
-                        .flatMap(scopeMetrics -> scopeMetrics
-                            .getMetricsList().stream()
-                            .flatMap(metric -> adaptMetrics(nodeLabels, metric))
-                            .map(Function1.liftTry(Function.identity()))
-                            .flatMap(tryIt -> MetricConvert.log(tryIt,
-                                "Convert OTEL metric to prometheus metric")))));
+            converter.toMeter(
+                request
+                    .getScopeMetricsList().stream()
+                    .flatMap(scopeMetrics -> scopeMetrics
+                        .getMetricsList().stream()
+                        .filter(metric -> converter.isMetricReferenced(metric.getName()))
+                        .flatMap(metric -> adaptMetrics(nodeLabels, metric))
+                        .map(Function1.liftTry(Function.identity()))
+                        .flatMap(tryIt -> MetricConvert.log(tryIt,
+                            "Convert OTEL metric to prometheus metric"))));
         });
 
         responseObserver.onNext(ExportMetricsServiceResponse.getDefaultInstance());
@@ -34,6 +34,7 @@ import org.apache.skywalking.oap.server.core.cache.ProfileTaskCache;
 import org.apache.skywalking.oap.server.core.command.CommandService;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileTaskLogRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeAggregator;
 import org.apache.skywalking.oap.server.core.query.type.ProfileTask;
 import org.apache.skywalking.oap.server.core.query.type.ProfileTaskLogOperationType;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -48,10 +49,14 @@ public class ProfileTaskServiceHandler extends ProfileTaskGrpc.ProfileTaskImplBa
 
     private ProfileTaskCache profileTaskCache;
     private final CommandService commandService;
+    private final ProfileThreadSnapshotTreeAggregator snapshotTreeAggregator;
 
     public ProfileTaskServiceHandler(ModuleManager moduleManager) {
         this.profileTaskCache = moduleManager.find(CoreModule.NAME).provider().getService(ProfileTaskCache.class);
         this.commandService = moduleManager.find(CoreModule.NAME).provider().getService(CommandService.class);
+        this.snapshotTreeAggregator = moduleManager.find(CoreModule.NAME)
+                                                   .provider()
+                                                   .getService(ProfileThreadSnapshotTreeAggregator.class);
     }
 
     @Override
@@ -107,6 +112,7 @@ public class ProfileTaskServiceHandler extends ProfileTaskGrpc.ProfileTaskImplBa
 
                 // async storage
                 RecordStreamProcessor.getInstance().in(record);
+                snapshotTreeAggregator.in(record);
             }
 
             @Override
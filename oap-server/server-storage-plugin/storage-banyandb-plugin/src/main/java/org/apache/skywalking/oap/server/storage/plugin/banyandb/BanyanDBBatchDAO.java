@@ -18,8 +18,11 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.banyandb;
 
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.banyandb.v1.client.MeasureBulkWriteProcessor;
+import org.apache.skywalking.banyandb.v1.client.MeasureWrite;
 import org.apache.skywalking.banyandb.v1.client.StreamBulkWriteProcessor;
+import org.apache.skywalking.banyandb.v1.client.StreamWrite;
 import org.apache.skywalking.oap.server.core.storage.AbstractDAO;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
@@ -28,10 +31,29 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.banyandb.measure.BanyanDBMeasureInsertRequest;
 import org.apache.skywalking.oap.server.storage.plugin.banyandb.measure.BanyanDBMeasureUpdateRequest;
 import org.apache.skywalking.oap.server.storage.plugin.banyandb.stream.BanyanDBStreamInsertRequest;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
+/**
+ * The writes are handed to the bulk write processors of the BanyanDB client by a dispatcher per processor. The
+ * writes queued in the dispatcher are bounded by {@link #maxInFlightWrites}, the producers are blocked once the
+ * bound is reached, until the processor accepts the queued writes.
+ */
+@Slf4j
 public class BanyanDBBatchDAO extends AbstractDAO<BanyanDBStorageClient> implements IBatchDAO {
     private static final Object STREAM_SYNCHRONIZER = new Object();
     private static final Object MEASURE_SYNCHRONIZER = new Object();
@@ -45,38 +67,81 @@ public class BanyanDBBatchDAO extends AbstractDAO<BanyanDBStorageClient> impleme
 
     private final int concurrency;
 
-    public BanyanDBBatchDAO(BanyanDBStorageClient client, int maxBulkSize, int flushInterval, int concurrency) {
+    private final int maxInFlightWrites;
+
+    private WriteChannel<StreamWrite> streamWriteChannel;
+
+    private WriteChannel<MeasureWrite> measureWriteChannel;
+
+    private MetricsCreator metricsCreator;
+
+    /**
+     * group -> the number of writes accepted by the processors
+     */
+    private final Map<String, CounterMetrics> groupWriteCounters = new ConcurrentHashMap<>();
+
+    public BanyanDBBatchDAO(BanyanDBStorageClient client,
+                            int maxBulkSize,
+                            int flushInterval,
+                            int concurrency,
+                            int maxInFlightWrites) {
         super(client);
         this.maxBulkSize = maxBulkSize;
         this.flushInterval = flushInterval;
         this.concurrency = concurrency;
+        this.maxInFlightWrites = maxInFlightWrites;
+    }
+
+    /**
+     * Start the dispatchers, should be called before any write.
+     */
+    public void start(MetricsCreator metricsCreator) {
+        this.metricsCreator = metricsCreator;
+        this.streamWriteChannel = new WriteChannel<>("stream", w -> getStreamBulkWriteProcessor().add(w));
+        this.measureWriteChannel = new WriteChannel<>("measure", w -> getMeasureBulkWriteProcessor().add(w));
     }
 
     @Override
     public void insert(InsertRequest insertRequest) {
         if (insertRequest instanceof BanyanDBStreamInsertRequest) {
-            getStreamBulkWriteProcessor().add(((BanyanDBStreamInsertRequest) insertRequest).getStreamWrite());
+            final BanyanDBStreamInsertRequest request = (BanyanDBStreamInsertRequest) insertRequest;
+            streamWriteChannel.write(
+                Collections.singletonList(request.getStreamWrite()), Collections.singletonList(request.getGroup()));
         } else if (insertRequest instanceof BanyanDBMeasureInsertRequest) {
-            getMeasureBulkWriteProcessor().add(((BanyanDBMeasureInsertRequest) insertRequest).getMeasureWrite());
+            final BanyanDBMeasureInsertRequest request = (BanyanDBMeasureInsertRequest) insertRequest;
+            measureWriteChannel.write(
+                Collections.singletonList(request.getMeasureWrite()), Collections.singletonList(request.getGroup()));
         }
     }
 
+    /**
+     * @return the future completed when all requests are accepted by the bulk write processors.
+     */
     @Override
     public CompletableFuture<Void> flush(List<PrepareRequest> prepareRequests) {
-        if (CollectionUtils.isNotEmpty(prepareRequests)) {
-            for (final PrepareRequest r : prepareRequests) {
-                if (r instanceof BanyanDBStreamInsertRequest) {
-                    // TODO: return CompletableFuture<Void>
-                    getStreamBulkWriteProcessor().add(((BanyanDBStreamInsertRequest) r).getStreamWrite());
-                } else if (r instanceof BanyanDBMeasureInsertRequest) {
-                    getMeasureBulkWriteProcessor().add(((BanyanDBMeasureInsertRequest) r).getMeasureWrite());
-                } else if (r instanceof BanyanDBMeasureUpdateRequest) {
-                    getMeasureBulkWriteProcessor().add(((BanyanDBMeasureUpdateRequest) r).getMeasureWrite());
-                }
+        if (CollectionUtils.isEmpty(prepareRequests)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final List<StreamWrite> streamWrites = new ArrayList<>();
+        final List<String> streamGroups = new ArrayList<>();
+        final List<MeasureWrite> measureWrites = new ArrayList<>();
+        final List<String> measureGroups = new ArrayList<>();
+        for (final PrepareRequest r : prepareRequests) {
+            if (r instanceof BanyanDBStreamInsertRequest) {
+                streamWrites.add(((BanyanDBStreamInsertRequest) r).getStreamWrite());
+                streamGroups.add(((BanyanDBStreamInsertRequest) r).getGroup());
+            } else if (r instanceof BanyanDBMeasureInsertRequest) {
+                measureWrites.add(((BanyanDBMeasureInsertRequest) r).getMeasureWrite());
+                measureGroups.add(((BanyanDBMeasureInsertRequest) r).getGroup());
+            } else if (r instanceof BanyanDBMeasureUpdateRequest) {
+                measureWrites.add(((BanyanDBMeasureUpdateRequest) r).getMeasureWrite());
+                measureGroups.add(((BanyanDBMeasureUpdateRequest) r).getGroup());
             }
         }
-
-        return CompletableFuture.completedFuture(null);
+        return CompletableFuture.allOf(
+            streamWriteChannel.write(streamWrites, streamGroups),
+            measureWriteChannel.write(measureWrites, measureGroups)
+        );
     }
 
     private StreamBulkWriteProcessor getStreamBulkWriteProcessor() {
@@ -100,4 +165,80 @@ public class BanyanDBBatchDAO extends AbstractDAO<BanyanDBStorageClient> impleme
         }
         return measureBulkWriteProcessor;
     }
+
+    private CounterMetrics groupWriteCounter(String group) {
+        return groupWriteCounters.computeIfAbsent(group, g -> metricsCreator.createCounter(
+            "banyandb_write_count",
+            "The number of writes accepted by the BanyanDB bulk write processors",
+            new MetricsTag.Keys("group"), new MetricsTag.Values(g)
+        ));
+    }
+
+    private class WriteChannel<W> {
+        private final Consumer<W> processor;
+        private final int chunkSize;
+        private final Semaphore inFlightWrites;
+        private final ExecutorService dispatcher;
+        private final HistogramMetrics writeLatency;
+        private final GaugeMetrics inFlightWritesGauge;
+
+        private WriteChannel(String kind, Consumer<W> processor) {
+            this.processor = processor;
+            this.chunkSize = Math.max(1, Math.min(maxBulkSize, maxInFlightWrites));
+            this.inFlightWrites = new Semaphore(Math.max(chunkSize, maxInFlightWrites));
+            this.dispatcher = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r, "BanyanDB-" + kind + "-Dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final MetricsTag.Keys keys = new MetricsTag.Keys("kind");
+            final MetricsTag.Values values = new MetricsTag.Values(kind);
+            this.writeLatency = metricsCreator.createHistogramMetric(
+                "banyandb_write_latency",
+                "The latency from the writes are queued to they are accepted by the BanyanDB bulk write processor",
+                keys, values
+            );
+            this.inFlightWritesGauge = metricsCreator.createGauge(
+                "banyandb_write_in_flight_count",
+                "The number of writes queued but not accepted by the BanyanDB bulk write processor",
+                keys, values
+            );
+        }
+
+        /**
+         * Queue the writes in chunks, blocked if the in-flight writes are over the bound.
+         *
+         * @param groups the BanyanDB groups of the writes.
+         */
+        private CompletableFuture<Void> write(List<W> writes, List<String> groups) {
+            if (writes.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < writes.size(); from += chunkSize) {
+                final List<W> chunk = writes.subList(from, Math.min(from + chunkSize, writes.size()));
+                final List<String> chunkGroups = groups.subList(from, from + chunk.size());
+                inFlightWrites.acquireUninterruptibly(chunk.size());
+                inFlightWritesGauge.inc(chunk.size());
+                final HistogramMetrics.Timer timer = writeLatency.createTimer();
+                chunks.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            processor.accept(chunk.get(i));
+                            groupWriteCounter(chunkGroups.get(i)).inc();
+                        }
+                    } finally {
+                        inFlightWrites.release(chunk.size());
+                        inFlightWritesGauge.dec(chunk.size());
+                        timer.close();
+                    }
+                }, dispatcher).whenComplete((ignored, t) -> {
+                    if (t != null) {
+                        log.error("Failed to hand the writes to the BanyanDB bulk write processor", t);
+                    }
+                }));
+            }
+            return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]));
+        }
+    }
 }
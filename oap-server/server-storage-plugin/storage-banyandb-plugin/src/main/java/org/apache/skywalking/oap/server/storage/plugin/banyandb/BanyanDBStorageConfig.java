@@ -39,11 +39,31 @@ public class BanyanDBStorageConfig extends ModuleConfig {
      * Concurrent consumer threads for batch writing.
      */
     private int concurrentWriteThreads = 2;
+    /**
+     * The max number of writes queued but not accepted by the bulk write processor, for the stream and the measure
+     * respectively. The persistence is blocked once it is reached.
+     *
+     * @since 9.3.0
+     */
+    private int maxInFlightWrites = 10000;
     /**
      * Max size of {@link org.apache.skywalking.oap.server.core.query.type.ProfileTask} to be fetched
      * in a single request.
      */
     private int profileTaskQueryMaxSize;
+    /**
+     * The max number of metrics looked up by a single task, when loading the metrics absent in the L2 aggregation
+     * cache.
+     *
+     * @since 9.3.0
+     */
+    private int metricsMultiGetBatchSize = 100;
+    /**
+     * The max number of tasks looking up the metrics concurrently, shared by all metrics.
+     *
+     * @since 9.3.0
+     */
+    private int metricsMultiGetConcurrency = 4;
     /**
      * Shards Number for measure/metrics.
      */
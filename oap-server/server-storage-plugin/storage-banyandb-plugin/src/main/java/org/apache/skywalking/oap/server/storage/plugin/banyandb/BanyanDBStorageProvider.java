@@ -80,6 +80,7 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 public class BanyanDBStorageProvider extends ModuleProvider {
     private BanyanDBStorageConfig config;
     private BanyanDBStorageClient client;
+    private BanyanDBBatchDAO batchDAO;
 
     public BanyanDBStorageProvider() {
         this.config = new BanyanDBStorageConfig();
@@ -107,8 +108,9 @@ public class BanyanDBStorageProvider extends ModuleProvider {
         this.client = new BanyanDBStorageClient(config.getHost(), config.getPort());
 
         // Stream
-        this.registerServiceImplementation(IBatchDAO.class, new BanyanDBBatchDAO(client, config.getMaxBulkSize(), config.getFlushInterval(), config.getConcurrentWriteThreads()));
-        this.registerServiceImplementation(StorageDAO.class, new BanyanDBStorageDAO(client));
+        this.batchDAO = new BanyanDBBatchDAO(client, config.getMaxBulkSize(), config.getFlushInterval(), config.getConcurrentWriteThreads(), config.getMaxInFlightWrites());
+        this.registerServiceImplementation(IBatchDAO.class, batchDAO);
+        this.registerServiceImplementation(StorageDAO.class, new BanyanDBStorageDAO(client, config.getMetricsMultiGetBatchSize(), config.getMetricsMultiGetConcurrency()));
         this.registerServiceImplementation(INetworkAddressAliasDAO.class, new BanyanDBNetworkAddressAliasDAO(client));
         this.registerServiceImplementation(ITraceQueryDAO.class, new BanyanDBTraceQueryDAO(client));
         this.registerServiceImplementation(IBrowserLogQueryDAO.class, new BanyanDBBrowserLogQueryDAO(client));
@@ -146,6 +148,7 @@ public class BanyanDBStorageProvider extends ModuleProvider {
         HealthCheckMetrics healthChecker = metricCreator.createHealthCheckerGauge(
                 "storage_banyandb", MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE);
         this.client.registerChecker(healthChecker);
+        this.batchDAO.start(metricCreator);
         try {
             this.client.connect();
             BanyanDBIndexInstaller installer = new BanyanDBIndexInstaller(client, getManager(), this.config);
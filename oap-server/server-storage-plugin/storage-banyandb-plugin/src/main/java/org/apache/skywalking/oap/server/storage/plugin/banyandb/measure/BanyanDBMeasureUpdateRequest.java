@@ -27,4 +27,8 @@ import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
 @Getter
 public class BanyanDBMeasureUpdateRequest implements UpdateRequest {
     private final MeasureWrite measureWrite;
+    /**
+     * The BanyanDB group of the write.
+     */
+    private final String group;
 }
@@ -23,6 +23,7 @@ import org.apache.skywalking.banyandb.v1.client.DataPoint;
 import org.apache.skywalking.banyandb.v1.client.MeasureQuery;
 import org.apache.skywalking.banyandb.v1.client.MeasureQueryResponse;
 import org.apache.skywalking.banyandb.v1.client.MeasureWrite;
+import org.apache.skywalking.banyandb.v1.client.TimestampRange;
 import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
@@ -37,36 +38,104 @@ import org.apache.skywalking.oap.server.storage.plugin.banyandb.stream.AbstractB
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @Slf4j
 public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsDAO {
     private final StorageBuilder<Metrics> storageBuilder;
+    private final ExecutorService multiGetExecutor;
+    private final int multiGetBatchSize;
 
-    public BanyanDBMetricsDAO(BanyanDBStorageClient client, StorageBuilder<Metrics> storageBuilder) {
+    public BanyanDBMetricsDAO(BanyanDBStorageClient client,
+                              StorageBuilder<Metrics> storageBuilder,
+                              ExecutorService multiGetExecutor,
+                              int multiGetBatchSize) {
         super(client);
         this.storageBuilder = storageBuilder;
+        this.multiGetExecutor = multiGetExecutor;
+        this.multiGetBatchSize = multiGetBatchSize;
     }
 
+    /**
+     * The metrics are grouped by the time bucket, and looked up in the time range of the bucket if the ID includes the
+     * time bucket. The groups are split into batches, which are looked up concurrently by the shared executor.
+     */
     @Override
     public List<Metrics> multiGet(Model model, List<Metrics> metrics) throws IOException {
-        log.info("multiGet {} from BanyanDB", model.getName());
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(model.getName());
         if (schema == null) {
             throw new IOException(model.getName() + " is not registered");
         }
-        // TODO: add time range
-        List<Metrics> metricsInStorage = new ArrayList<>(metrics.size());
-        for (final Metrics missCachedMetric : metrics) {
-            MeasureQueryResponse resp = query(model.getName(), schema.getTags(), schema.getFields(), new QueryBuilder<MeasureQuery>() {
+        final List<Metrics> metricsInStorage = new ArrayList<>(metrics.size());
+        final List<List<String>> batches = new ArrayList<>();
+        final List<TimestampRange> batchRanges = new ArrayList<>();
+        for (final Map.Entry<Long, List<String>> bucketIds : groupByTimeBucket(model, metrics).entrySet()) {
+            // the metrics not having time relative ID are stored with the latest time bucket, search all time
+            final TimestampRange timestampRange;
+            if (model.isTimeRelativeID()) {
+                final long timestamp = TimeBucket.getTimestamp(bucketIds.getKey(), model.getDownsampling());
+                timestampRange = new TimestampRange(timestamp, timestamp + 1);
+            } else {
+                timestampRange = null;
+            }
+            final List<String> ids = bucketIds.getValue();
+            for (int from = 0; from < ids.size(); from += multiGetBatchSize) {
+                batches.add(ids.subList(from, Math.min(from + multiGetBatchSize, ids.size())));
+                batchRanges.add(timestampRange);
+            }
+        }
+        if (batches.size() == 1) {
+            metricsInStorage.addAll(multiGet(model, schema, batchRanges.get(0), batches.get(0)));
+            return metricsInStorage;
+        }
+
+        final List<Future<List<Metrics>>> futures = new ArrayList<>(batches.size());
+        for (int i = 0; i < batches.size(); i++) {
+            final List<String> ids = batches.get(i);
+            final TimestampRange timestampRange = batchRanges.get(i);
+            futures.add(multiGetExecutor.submit(() -> multiGet(model, schema, timestampRange, ids)));
+        }
+        try {
+            for (final Future<List<Metrics>> future : futures) {
+                metricsInStorage.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted to query " + model.getName(), e);
+        } catch (ExecutionException e) {
+            throw new IOException("fail to query " + model.getName(), e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return metricsInStorage;
+    }
+
+    private Map<Long, List<String>> groupByTimeBucket(Model model, List<Metrics> metrics) {
+        final Map<Long, List<String>> bucketIds = new HashMap<>();
+        for (final Metrics metric : metrics) {
+            final long timeBucket = model.isTimeRelativeID() ? metric.getTimeBucket() : 0L;
+            bucketIds.computeIfAbsent(timeBucket, k -> new ArrayList<>()).add(metric.id());
+        }
+        return bucketIds;
+    }
+
+    private List<Metrics> multiGet(Model model,
+                                   MetadataRegistry.Schema schema,
+                                   TimestampRange timestampRange,
+                                   List<String> ids) throws IOException {
+        final List<Metrics> metricsInStorage = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            MeasureQueryResponse resp = query(model.getName(), schema.getTags(), schema.getFields(), timestampRange, new QueryBuilder<MeasureQuery>() {
                 @Override
                 protected void apply(MeasureQuery query) {
-                    query.andWithID(missCachedMetric.id());
+                    query.andWithID(id);
                 }
             });
-            if (resp.size() == 0) {
-                continue;
-            }
             for (final DataPoint dataPoint : resp.getDataPoints()) {
                 metricsInStorage.add(storageBuilder.storage2Entity(new BanyanDBConverter.StorageToMeasure(model.getName(), dataPoint)));
             }
@@ -76,7 +145,7 @@ public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsD
 
     @Override
     public InsertRequest prepareBatchInsert(Model model, Metrics metrics) throws IOException {
-        log.info("prepare to insert {}", model.getName());
+        log.debug("prepare to insert {}", model.getName());
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(model.getName());
         if (schema == null) {
             throw new IOException(model.getName() + " is not registered");
@@ -87,12 +156,12 @@ public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsD
         final BanyanDBConverter.MeasureToStorage toStorage = new BanyanDBConverter.MeasureToStorage(schema, measureWrite);
         storageBuilder.entity2Storage(metrics, toStorage);
         toStorage.acceptID(metrics.id());
-        return new BanyanDBMeasureInsertRequest(toStorage.obtain());
+        return new BanyanDBMeasureInsertRequest(toStorage.obtain(), schema.getMetadata().getGroup());
     }
 
     @Override
     public UpdateRequest prepareBatchUpdate(Model model, Metrics metrics) throws IOException {
-        log.info("prepare to update {}", model.getName());
+        log.debug("prepare to update {}", model.getName());
         MetadataRegistry.Schema schema = MetadataRegistry.INSTANCE.findMetadata(model.getName());
         if (schema == null) {
             throw new IOException(model.getName() + " is not registered");
@@ -103,6 +172,6 @@ public class BanyanDBMetricsDAO extends AbstractBanyanDBDAO implements IMetricsD
         final BanyanDBConverter.MeasureToStorage toStorage = new BanyanDBConverter.MeasureToStorage(schema, measureWrite);
         storageBuilder.entity2Storage(metrics, toStorage);
         toStorage.acceptID(metrics.id());
-        return new BanyanDBMeasureUpdateRequest(toStorage.obtain());
+        return new BanyanDBMeasureUpdateRequest(toStorage.obtain(), schema.getMetadata().getGroup());
     }
 }
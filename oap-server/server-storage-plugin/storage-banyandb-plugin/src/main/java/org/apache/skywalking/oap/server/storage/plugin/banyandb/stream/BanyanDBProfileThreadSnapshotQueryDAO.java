@@ -25,6 +25,7 @@ import org.apache.skywalking.banyandb.v1.client.StreamQueryResponse;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
@@ -55,6 +56,12 @@ public class BanyanDBProfileThreadSnapshotQueryDAO extends AbstractBanyanDBDAO i
             ProfileThreadSnapshotRecord.TIME_BUCKET,
             ProfileThreadSnapshotRecord.STACK_BINARY);
 
+    private static final Set<String> TAGS_TREE = ImmutableSet.of(ProfileThreadSnapshotTreeRecord.TASK_ID,
+            ProfileThreadSnapshotTreeRecord.SEGMENT_ID,
+            ProfileThreadSnapshotTreeRecord.BLOCK,
+            ProfileThreadSnapshotTreeRecord.TIME_BUCKET,
+            ProfileThreadSnapshotTreeRecord.TREE_BINARY);
+
     private static final Set<String> TAGS_TRACE = ImmutableSet.of(SegmentRecord.TRACE_ID,
             SegmentRecord.IS_ERROR,
             SegmentRecord.SERVICE_ID,
@@ -78,6 +85,9 @@ public class BanyanDBProfileThreadSnapshotQueryDAO extends AbstractBanyanDBDAO i
     protected final ProfileThreadSnapshotRecord.Builder builder =
             new ProfileThreadSnapshotRecord.Builder();
 
+    protected final ProfileThreadSnapshotTreeRecord.Builder treeBuilder =
+            new ProfileThreadSnapshotTreeRecord.Builder();
+
     public BanyanDBProfileThreadSnapshotQueryDAO(BanyanDBStorageClient client, int profileTaskQueryMaxSize) {
         super(client);
         this.querySegmentMaxSize = profileTaskQueryMaxSize;
@@ -177,6 +187,28 @@ public class BanyanDBProfileThreadSnapshotQueryDAO extends AbstractBanyanDBDAO i
         return result;
     }
 
+    @Override
+    public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId, int minBlock, int maxBlock) throws IOException {
+        StreamQueryResponse resp = query(ProfileThreadSnapshotTreeRecord.INDEX_NAME,
+                TAGS_TREE,
+                new QueryBuilder<StreamQuery>() {
+                    @Override
+                    public void apply(StreamQuery query) {
+                        query.and(eq(ProfileThreadSnapshotTreeRecord.SEGMENT_ID, segmentId))
+                                .and(lte(ProfileThreadSnapshotTreeRecord.BLOCK, maxBlock - 1))
+                                .and(gte(ProfileThreadSnapshotTreeRecord.BLOCK, minBlock));
+                        query.setLimit(maxBlock - minBlock);
+                    }
+                });
+
+        List<ProfileThreadSnapshotTreeRecord> result = new ArrayList<>(maxBlock - minBlock);
+        for (final RowEntity rowEntity : resp.getElements()) {
+            result.add(this.treeBuilder.storage2Entity(
+                    new BanyanDBConverter.StorageToStream(ProfileThreadSnapshotTreeRecord.INDEX_NAME, rowEntity)));
+        }
+        return result;
+    }
+
     @Override
     public SegmentRecord getProfiledSegment(String segmentId) throws IOException {
         StreamQueryResponse resp = query(SegmentRecord.INDEX_NAME,
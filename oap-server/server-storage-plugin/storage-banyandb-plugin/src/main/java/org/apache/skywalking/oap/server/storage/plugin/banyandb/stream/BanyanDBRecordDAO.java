@@ -49,6 +49,6 @@ public class BanyanDBRecordDAO implements IRecordDAO {
         Convert2Storage<StreamWrite> convert2Storage = new BanyanDBConverter.StreamToStorage(schema, streamWrite);
         storageBuilder.entity2Storage(record, convert2Storage);
 
-        return new BanyanDBStreamInsertRequest(convert2Storage.obtain());
+        return new BanyanDBStreamInsertRequest(convert2Storage.obtain(), schema.getMetadata().getGroup());
     }
 }
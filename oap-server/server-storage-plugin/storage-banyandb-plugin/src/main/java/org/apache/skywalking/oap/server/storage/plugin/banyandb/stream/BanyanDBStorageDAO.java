@@ -18,6 +18,9 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.banyandb.stream;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.analysis.config.NoneStream;
 import org.apache.skywalking.oap.server.core.analysis.management.ManagementData;
@@ -37,13 +40,27 @@ import org.apache.skywalking.oap.server.storage.plugin.banyandb.BanyanDBStorageC
 
 @Slf4j
 public class BanyanDBStorageDAO extends AbstractDAO<BanyanDBStorageClient> implements StorageDAO {
-    public BanyanDBStorageDAO(BanyanDBStorageClient client) {
+    private final int metricsMultiGetBatchSize;
+    /**
+     * The executor looking up the metrics of all models.
+     */
+    private final ExecutorService metricsMultiGetExecutor;
+
+    public BanyanDBStorageDAO(BanyanDBStorageClient client, int metricsMultiGetBatchSize, int metricsMultiGetConcurrency) {
         super(client);
+        this.metricsMultiGetBatchSize = metricsMultiGetBatchSize;
+        final AtomicInteger threadIndex = new AtomicInteger();
+        this.metricsMultiGetExecutor = Executors.newFixedThreadPool(metricsMultiGetConcurrency, r -> {
+            final Thread thread = new Thread(r, "BanyanDB-MultiGet-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public IMetricsDAO newMetricsDao(StorageBuilder storageBuilder) {
-        return new BanyanDBMetricsDAO(getClient(), (StorageBuilder<Metrics>) storageBuilder);
+        return new BanyanDBMetricsDAO(
+            getClient(), (StorageBuilder<Metrics>) storageBuilder, metricsMultiGetExecutor, metricsMultiGetBatchSize);
     }
 
     @Override
@@ -27,4 +27,8 @@ import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 @Getter
 public class BanyanDBStreamInsertRequest implements InsertRequest {
     private final StreamWrite streamWrite;
+    /**
+     * The BanyanDB group of the write.
+     */
+    private final String group;
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.banyandb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.banyandb.v1.client.StreamBulkWriteProcessor;
+import org.apache.skywalking.banyandb.v1.client.StreamWrite;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.storage.plugin.banyandb.stream.BanyanDBStreamInsertRequest;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BanyanDBBatchDAOTest {
+    private static final int MAX_BULK_SIZE = 2;
+    private static final int MAX_IN_FLIGHT_WRITES = 4;
+
+    private final StreamBulkWriteProcessor processor = mock(StreamBulkWriteProcessor.class);
+    private BanyanDBBatchDAO dao;
+
+    @Before
+    public void setup() {
+        final BanyanDBStorageClient client = mock(BanyanDBStorageClient.class);
+        when(client.createStreamBulkProcessor(anyInt(), anyInt(), anyInt())).thenReturn(processor);
+        dao = new BanyanDBBatchDAO(client, MAX_BULK_SIZE, 1, 1, MAX_IN_FLIGHT_WRITES);
+        dao.start(new MetricsCreatorNoop());
+    }
+
+    @Test
+    public void testFlushAfterAllWritesHandedOver() throws Exception {
+        final List<Object> accepted = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(5);
+            accepted.add(invocation.getArgument(0));
+            return null;
+        }).when(processor).add(any());
+
+        final List<PrepareRequest> requests = new ArrayList<>();
+        final List<StreamWrite> writes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final StreamWrite write = mock(StreamWrite.class);
+            writes.add(write);
+            requests.add(new BanyanDBStreamInsertRequest(write, "group"));
+        }
+
+        dao.flush(requests).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(writes, accepted);
+        Assert.assertEquals(MAX_IN_FLIGHT_WRITES, inFlightWrites().availablePermits());
+    }
+
+    @Test
+    public void testProducerBlockedOverMaxInFlightWrites() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return null;
+        }).when(processor).add(any());
+
+        final AtomicInteger inserted = new AtomicInteger();
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < MAX_IN_FLIGHT_WRITES + 1; i++) {
+                dao.insert(new BanyanDBStreamInsertRequest(mock(StreamWrite.class), "group"));
+                inserted.incrementAndGet();
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+
+        Assert.assertTrue(entered.await(10, TimeUnit.SECONDS));
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (inserted.get() < MAX_IN_FLIGHT_WRITES && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+        Assert.assertEquals(MAX_IN_FLIGHT_WRITES, inserted.get());
+        Assert.assertTrue(producer.isAlive());
+        Assert.assertEquals(0, inFlightWrites().availablePermits());
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertEquals(MAX_IN_FLIGHT_WRITES + 1, inserted.get());
+    }
+
+    @Test
+    public void testProcessorFailure() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("processor failure");
+        final AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                throw failure;
+            }
+            return null;
+        }).when(processor).add(any());
+
+        final List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < MAX_IN_FLIGHT_WRITES; i++) {
+            requests.add(new BanyanDBStreamInsertRequest(mock(StreamWrite.class), "group"));
+        }
+
+        final CompletableFuture<Void> future = dao.flush(requests);
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail("The future should fail when the processor fails");
+        } catch (ExecutionException e) {
+            Assert.assertSame(failure, e.getCause());
+        }
+        Assert.assertEquals(MAX_IN_FLIGHT_WRITES, inFlightWrites().availablePermits());
+
+        // The released permits are available to the following writes.
+        dao.flush(requests).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(MAX_IN_FLIGHT_WRITES, inFlightWrites().availablePermits());
+    }
+
+    private Semaphore inFlightWrites() {
+        return Whitebox.getInternalState(Whitebox.getInternalState(dao, "streamWriteChannel"), "inFlightWrites");
+    }
+}
@@ -80,6 +80,12 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
      * @since 8.7.0 This setting affects all traces/logs/metrics/metadata flush policy.
      */
     private int bulkActions = 5000;
+    /**
+     * The max encoded size of a bulk, no matter `bulkActions` reached or not. 0 means no limit. Unit is MB.
+     *
+     * @since 9.3.0
+     */
+    private int bulkSize = 10;
     /**
      * Period of flush, no matter `bulkActions` reached or not.
      * INT(flushInterval * 2/3) would be used for index refresh period.
@@ -90,6 +96,14 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
      */
     private int flushInterval = 15;
     private int concurrentRequests = 2;
+    /**
+     * The max number of bulks waiting for the execution, when all `concurrentRequests` are in use. Beyond that, the
+     * new requests wait to be admitted asynchronously, up to `maxPendingBulks * bulkActions` requests, and the others
+     * are rejected.
+     *
+     * @since 9.3.0
+     */
+    private int maxPendingBulks = 10;
     /**
      * @since 7.0.0 This could be managed inside {@link #secretsManagementFile}
      */
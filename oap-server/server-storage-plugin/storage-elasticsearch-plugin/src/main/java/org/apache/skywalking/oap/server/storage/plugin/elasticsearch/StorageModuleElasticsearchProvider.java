@@ -174,8 +174,8 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
         );
         this.registerServiceImplementation(
             IBatchDAO.class,
-            new BatchProcessEsDAO(elasticSearchClient, config.getBulkActions(), config
-                .getFlushInterval(), config.getConcurrentRequests())
+            new BatchProcessEsDAO(elasticSearchClient, config.getBulkActions(), config.getBulkSize(), config
+                .getFlushInterval(), config.getConcurrentRequests(), config.getMaxPendingBulks())
         );
         this.registerServiceImplementation(StorageDAO.class, new StorageEsDAO(elasticSearchClient));
         this.registerServiceImplementation(
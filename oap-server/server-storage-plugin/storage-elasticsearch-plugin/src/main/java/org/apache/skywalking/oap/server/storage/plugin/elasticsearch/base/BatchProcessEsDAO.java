@@ -20,7 +20,6 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.library.elasticsearch.bulk.BulkProcessor;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
@@ -30,21 +29,26 @@ import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
-@Slf4j
 public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     private volatile BulkProcessor bulkProcessor;
     private final int bulkActions;
+    private final int bulkSize;
     private final int flushInterval;
     private final int concurrentRequests;
+    private final int maxPendingBulks;
 
     public BatchProcessEsDAO(ElasticSearchClient client,
                              int bulkActions,
+                             int bulkSize,
                              int flushInterval,
-                             int concurrentRequests) {
+                             int concurrentRequests,
+                             int maxPendingBulks) {
         super(client);
         this.bulkActions = bulkActions;
+        this.bulkSize = bulkSize;
         this.flushInterval = flushInterval;
         this.concurrentRequests = concurrentRequests;
+        this.maxPendingBulks = maxPendingBulks;
     }
 
     @Override
@@ -53,11 +57,12 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
             synchronized (this) {
                 if (bulkProcessor == null) {
                     this.bulkProcessor = getClient().createBulkProcessor(
-                        bulkActions, flushInterval, concurrentRequests);
+                        bulkActions, bulkSize, flushInterval, concurrentRequests, maxPendingBulks);
                 }
             }
         }
 
+        // The failures and the rejections are logged by the bulk processor.
         this.bulkProcessor.add(((IndexRequestWrapper) insertRequest).getRequest());
     }
 
@@ -67,7 +72,7 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
             synchronized (this) {
                 if (bulkProcessor == null) {
                     this.bulkProcessor = getClient().createBulkProcessor(
-                        bulkActions, flushInterval, concurrentRequests);
+                        bulkActions, bulkSize, flushInterval, concurrentRequests, maxPendingBulks);
                 }
             }
         }
@@ -87,6 +92,7 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     @Override
     public void endOfFlush() {
         // Flush forcedly due to this kind of metrics has been pushed into the bulk processor.
+        // The futures returned by #flush(List) complete once their bulks finish, no need to wait here.
         bulkProcessor.flush();
     }
 }
@@ -18,6 +18,12 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
@@ -26,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.storage.type.Convert2Entity;
 import org.apache.skywalking.oap.server.core.storage.type.Convert2Storage;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.library.util.StringUtil;
 
@@ -94,6 +101,181 @@ public class ElasticSearchConverter {
         }
     }
 
+    /**
+     * ToJson writes the fields into the JSON document directly, rather than collecting them in a map to be encoded by
+     * the bulk processor. The generator and its buffer are reused per thread, so only the document is allocated per
+     * row. The null values are skipped, and the values of other types are encoded by the same rules as the map. The written values are not kept, so
+     * {@link #get(String)} is not supported, none of the storage builders reads the fields back in entity2Storage.
+     */
+    public static class ToJson implements Convert2Storage<byte[]> {
+        private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        private static final ThreadLocal<Writer> WRITER = new ThreadLocal<>();
+
+        private final String modelName;
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        public ToJson(String modelName) {
+            this.modelName = modelName;
+            Writer writer = WRITER.get();
+            if (writer == null || writer.writing) {
+                // The previous document of this thread is not finished due to an error, start over.
+                writer = new Writer();
+                WRITER.set(writer);
+            }
+            writer.writing = true;
+            this.writer = writer;
+            this.generator = writer.generator;
+            try {
+                generator.writeStartObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void accept(final String fieldName, final Object fieldValue) {
+            if (fieldValue == null) {
+                return;
+            }
+            final String columnName = getPhysicalColumnName(modelName, fieldName);
+            try {
+                generator.writeFieldName(columnName);
+                if (fieldValue instanceof String) {
+                    generator.writeString((String) fieldValue);
+                } else if (fieldValue instanceof Long) {
+                    generator.writeNumber((Long) fieldValue);
+                } else if (fieldValue instanceof Integer) {
+                    generator.writeNumber((Integer) fieldValue);
+                } else if (fieldValue instanceof Double) {
+                    generator.writeNumber((Double) fieldValue);
+                } else if (fieldValue instanceof StorageDataComplexObject) {
+                    generator.writeString(((StorageDataComplexObject<?>) fieldValue).toStorageData());
+                } else {
+                    generator.writeObject(fieldValue);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void accept(final String fieldName, final long fieldValue) {
+            final String columnName = getPhysicalColumnName(modelName, fieldName);
+            try {
+                generator.writeNumberField(columnName, fieldValue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void accept(final String fieldName, final int fieldValue) {
+            final String columnName = getPhysicalColumnName(modelName, fieldName);
+            try {
+                generator.writeNumberField(columnName, fieldValue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void accept(final String fieldName, final double fieldValue) {
+            final String columnName = getPhysicalColumnName(modelName, fieldName);
+            try {
+                generator.writeNumberField(columnName, fieldValue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void accept(final String fieldName, final byte[] fieldValue) {
+            final String columnName = getPhysicalColumnName(modelName, fieldName);
+            final String value = CollectionUtils.isEmpty(fieldValue)
+                ? Const.EMPTY_STRING : Base64.getEncoder().encodeToString(fieldValue);
+            try {
+                generator.writeStringField(columnName, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void accept(final String fieldName, final List<String> fieldValue) {
+            if (fieldValue == null) {
+                return;
+            }
+            final String columnName = getPhysicalColumnName(modelName, fieldName);
+            try {
+                generator.writeArrayFieldStart(columnName);
+                for (final String value : fieldValue) {
+                    generator.writeString(value);
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Append the column of the physical index, which isn't a field of the model.
+         */
+        public void appendColumn(final String physicalColumnName, final String value) {
+            try {
+                generator.writeStringField(physicalColumnName, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Not supported, the written values are not kept.
+         */
+        @Override
+        public Object get(final String fieldName) {
+            throw new UnsupportedOperationException(
+                "The fields written into the JSON document can't be read back, field: " + fieldName);
+        }
+
+        /**
+         * @return the JSON document, no more field could be accepted.
+         */
+        @Override
+        public byte[] obtain() {
+            try {
+                generator.writeEndObject();
+                generator.flush();
+                final byte[] document = writer.buffer.toByteArray();
+                writer.buffer.reset();
+                writer.writing = false;
+                return document;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * The generator writing the documents one by one into the buffer, which is reset after every document.
+         */
+        private static class Writer {
+            private final ByteArrayBuilder buffer = new ByteArrayBuilder();
+            private final JsonGenerator generator;
+            private boolean writing;
+
+            private Writer() {
+                try {
+                    generator = MAPPER.getFactory().createGenerator(buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // The documents are separated by the bulk processor.
+                generator.setRootValueSeparator(null);
+            }
+        }
+    }
+
     private static String getPhysicalColumnName(String modelName, String fieldName) {
         return IndexController.LogicIndicesRegister.getPhysicalColumnName(modelName, fieldName);
     }
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -108,13 +109,22 @@ public enum IndexController {
      * The value of the column is the original table name in other storages.
      */
     public Map<String, Object> appendTableColumn(Model model, Map<String, Object> columns) {
+        appendTableColumn(model, columns::put);
+        return columns;
+    }
+
+    public ElasticSearchConverter.ToJson appendTableColumn(Model model, ElasticSearchConverter.ToJson columns) {
+        appendTableColumn(model, columns::appendColumn);
+        return columns;
+    }
+
+    private void appendTableColumn(Model model, BiConsumer<String, String> columns) {
         if (isMetricModel(model)) {
-            columns.put(LogicIndicesRegister.METRIC_TABLE_NAME, model.getName());
+            columns.accept(LogicIndicesRegister.METRIC_TABLE_NAME, model.getName());
         }
         if (!logicSharding && isRecordModel(model) && !model.isSuperDataset()) {
-            columns.put(LogicIndicesRegister.RECORD_TABLE_NAME, model.getName());
+            columns.accept(LogicIndicesRegister.RECORD_TABLE_NAME, model.getName());
         }
-        return columns;
     }
 
     public static class LogicIndicesRegister {
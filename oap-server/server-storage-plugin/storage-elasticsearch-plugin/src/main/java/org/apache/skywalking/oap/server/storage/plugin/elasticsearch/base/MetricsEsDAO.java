@@ -98,23 +98,22 @@ public class MetricsEsDAO extends EsDAO implements IMetricsDAO {
 
     @Override
     public InsertRequest prepareBatchInsert(Model model, Metrics metrics) {
-        final ElasticSearchConverter.ToStorage toStorage = new ElasticSearchConverter.ToStorage(model.getName());
-        storageBuilder.entity2Storage(metrics, toStorage);
-        Map<String, Object> builder = IndexController.INSTANCE.appendTableColumn(model, toStorage.obtain());
+        final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson(model.getName());
+        storageBuilder.entity2Storage(metrics, toJson);
+        byte[] source = IndexController.INSTANCE.appendTableColumn(model, toJson).obtain();
         String modelName = TimeSeriesUtils.writeIndexName(model, metrics.getTimeBucket());
         String id = IndexController.INSTANCE.generateDocId(model, metrics.id());
-        return getClient().prepareInsert(modelName, id, builder);
+        return getClient().prepareInsert(modelName, id, source);
     }
 
     @Override
     public UpdateRequest prepareBatchUpdate(Model model, Metrics metrics) {
-        final ElasticSearchConverter.ToStorage toStorage = new ElasticSearchConverter.ToStorage(model.getName());
-        storageBuilder.entity2Storage(metrics, toStorage);
-        Map<String, Object> builder =
-            IndexController.INSTANCE.appendTableColumn(model, toStorage.obtain());
+        final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson(model.getName());
+        storageBuilder.entity2Storage(metrics, toJson);
+        byte[] source = IndexController.INSTANCE.appendTableColumn(model, toJson).obtain();
         String modelName = TimeSeriesUtils.writeIndexName(model, metrics.getTimeBucket());
         String id = IndexController.INSTANCE.generateDocId(model, metrics.id());
-        return getClient().prepareUpdate(modelName, id, builder);
+        return getClient().prepareUpdate(modelName, id, source);
     }
 
     @Override
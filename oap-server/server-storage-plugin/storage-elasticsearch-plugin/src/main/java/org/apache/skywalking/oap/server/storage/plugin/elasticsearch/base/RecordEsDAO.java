@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.io.IOException;
-import java.util.Map;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
@@ -38,11 +37,11 @@ public class RecordEsDAO extends EsDAO implements IRecordDAO {
 
     @Override
     public InsertRequest prepareBatchInsert(Model model, Record record) throws IOException {
-        final ElasticSearchConverter.ToStorage toStorage = new ElasticSearchConverter.ToStorage(model.getName());
-        storageBuilder.entity2Storage(record, toStorage);
-        Map<String, Object> builder = IndexController.INSTANCE.appendTableColumn(model, toStorage.obtain());
+        final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson(model.getName());
+        storageBuilder.entity2Storage(record, toJson);
+        byte[] source = IndexController.INSTANCE.appendTableColumn(model, toJson).obtain();
         String modelName = TimeSeriesUtils.writeIndexName(model, record.getTimeBucket());
         String id = IndexController.INSTANCE.generateDocId(model, record.id());
-        return getClient().prepareInsert(modelName, id, builder);
+        return getClient().prepareInsert(modelName, id, source);
     }
 }
@@ -37,6 +37,7 @@ import org.apache.skywalking.library.elasticsearch.response.search.SearchRespons
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
@@ -54,6 +55,9 @@ public class ProfileThreadSnapshotQueryEsDAO extends EsDAO
     protected final ProfileThreadSnapshotRecord.Builder builder =
         new ProfileThreadSnapshotRecord.Builder();
 
+    protected final ProfileThreadSnapshotTreeRecord.Builder treeBuilder =
+        new ProfileThreadSnapshotTreeRecord.Builder();
+
     public ProfileThreadSnapshotQueryEsDAO(ElasticSearchClient client,
                                            int profileTaskQueryMaxSize) {
         super(client);
@@ -177,6 +181,36 @@ public class ProfileThreadSnapshotQueryEsDAO extends EsDAO
         return result;
     }
 
+    @Override
+    public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId,
+                                                                  int minBlock,
+                                                                  int maxBlock) {
+        final String index = IndexController.LogicIndicesRegister.getPhysicalTableName(
+            ProfileThreadSnapshotTreeRecord.INDEX_NAME);
+
+        final BoolQueryBuilder query =
+            Query.bool()
+                 .must(Query.term(ProfileThreadSnapshotTreeRecord.SEGMENT_ID, segmentId))
+                 .must(Query.range(ProfileThreadSnapshotTreeRecord.BLOCK)
+                            .gte(minBlock)
+                            .lt(maxBlock));
+        if (IndexController.LogicIndicesRegister.isPhysicalTable(ProfileThreadSnapshotTreeRecord.INDEX_NAME)) {
+            query.must(Query.term(IndexController.LogicIndicesRegister.RECORD_TABLE_NAME, ProfileThreadSnapshotTreeRecord.INDEX_NAME));
+        }
+
+        final SearchBuilder search =
+            Search.builder().query(query)
+                  .size(maxBlock - minBlock);
+        final SearchResponse response = getClient().search(index, search.build());
+
+        List<ProfileThreadSnapshotTreeRecord> result = new ArrayList<>(maxBlock - minBlock);
+        for (SearchHit searchHit : response.getHits().getHits()) {
+            result.add(treeBuilder.storage2Entity(
+                new ElasticSearchConverter.ToEntity(ProfileThreadSnapshotTreeRecord.INDEX_NAME, searchHit.getSource())));
+        }
+        return result;
+    }
+
     @Override
     public SegmentRecord getProfiledSegment(String segmentId) {
         final String index =
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.storage.type.Convert2Storage;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ElasticSearchConverterTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @Test
+    public void testToJsonSameAsToStorage() throws IOException {
+        final ElasticSearchConverter.ToStorage toStorage = new ElasticSearchConverter.ToStorage("test");
+        final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson("test");
+        accept(toStorage);
+        accept(toJson);
+        toStorage.obtain().put("metric_table", "test");
+        toJson.appendColumn("metric_table", "test");
+
+        Assert.assertEquals(
+            MAPPER.readTree(MAPPER.writeValueAsBytes(toStorage.obtain())),
+            MAPPER.readTree(toJson.obtain())
+        );
+    }
+
+    @Test
+    public void testToJsonReusedInThread() throws IOException {
+        // Not finished, the next one should start over.
+        accept(new ElasticSearchConverter.ToJson("test"));
+
+        final ElasticSearchConverter.ToStorage toStorage = new ElasticSearchConverter.ToStorage("test");
+        accept(toStorage);
+        final byte[] expected = MAPPER.writeValueAsBytes(toStorage.obtain());
+        for (int i = 0; i < 3; i++) {
+            final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson("test");
+            accept(toJson);
+            final byte[] document = toJson.obtain();
+            // No separator before the document.
+            Assert.assertEquals('{', document[0]);
+            Assert.assertEquals(MAPPER.readTree(expected), MAPPER.readTree(document));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToJsonIsWriteOnly() {
+        final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson("test");
+        accept(toJson);
+        toJson.get("entity_id");
+    }
+
+    @Test
+    public void testToJsonAllocatesLessThanToStorage() throws IOException {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled());
+
+        final int rows = 20_000;
+        // Warm up both paths, the allocations of the interpreter and the class loading are not counted.
+        for (int i = 0; i < rows; i++) {
+            writeByToStorage(i);
+            writeByToJson(i);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        long start = allocation.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rows; i++) {
+            writeByToStorage(i);
+        }
+        final long toStorageBytes = (allocation.getThreadAllocatedBytes(threadId) - start) / rows;
+
+        start = allocation.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rows; i++) {
+            writeByToJson(i);
+        }
+        final long toJsonBytes = (allocation.getThreadAllocatedBytes(threadId) - start) / rows;
+
+        Assert.assertTrue(
+            "ToJson allocates " + toJsonBytes + " bytes per row, ToStorage allocates " + toStorageBytes,
+            toJsonBytes * 2 < toStorageBytes
+        );
+    }
+
+    /**
+     * The path before the ToJson, the boxed fields are collected in the map, which is encoded by the bulk processor.
+     */
+    private static byte[] writeByToStorage(int row) throws IOException {
+        final ElasticSearchConverter.ToStorage toStorage = new ElasticSearchConverter.ToStorage("test");
+        toStorage.accept("entity_id", "c2VydmljZV8x.1_ZW5kcG9pbnRf" + (row & 1023));
+        toStorage.accept("time_bucket", (Object) (202210181230L + row));
+        toStorage.accept("total", (Object) (long) row);
+        toStorage.accept("summation", (Object) (row * 3L));
+        toStorage.accept("value", (Object) (long) (row % 17));
+        toStorage.accept("percentage", (Object) (row % 100 / 100D));
+        toStorage.obtain().put("metric_table", "test");
+        return MAPPER.writeValueAsBytes(toStorage.obtain());
+    }
+
+    private static byte[] writeByToJson(int row) {
+        final ElasticSearchConverter.ToJson toJson = new ElasticSearchConverter.ToJson("test");
+        toJson.accept("entity_id", "c2VydmljZV8x.1_ZW5kcG9pbnRf" + (row & 1023));
+        toJson.accept("time_bucket", 202210181230L + row);
+        toJson.accept("total", (long) row);
+        toJson.accept("summation", row * 3L);
+        toJson.accept("value", (long) (row % 17));
+        toJson.accept("percentage", row % 100 / 100D);
+        toJson.appendColumn("metric_table", "test");
+        return toJson.obtain();
+    }
+
+    private static void accept(Convert2Storage<?> converter) {
+        final DataTable dataTable = new DataTable();
+        dataTable.put("50", 100L);
+        dataTable.put("99", 200L);
+
+        converter.accept("entity_id", "service_1");
+        converter.accept("time_bucket", 202210181230L);
+        converter.accept("total", 10);
+        converter.accept("value", 0.75D);
+        converter.accept("summation", (Object) 3L);
+        converter.accept("percentage", 1.5F);
+        converter.accept("dataset", dataTable);
+        converter.accept("binary", new byte[] {1, 2, 3});
+        converter.accept("empty_binary", new byte[0]);
+        converter.accept("tags", Arrays.asList("http.method=GET", "status_code=200"));
+        converter.accept("properties", (Object) null);
+    }
+}
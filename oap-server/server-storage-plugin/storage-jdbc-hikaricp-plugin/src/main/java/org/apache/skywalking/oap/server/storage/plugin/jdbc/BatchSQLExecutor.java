@@ -34,6 +34,10 @@ import java.util.List;
 @Slf4j
 @RequiredArgsConstructor
 public class BatchSQLExecutor implements InsertRequest, UpdateRequest {
+    /**
+     * The max number of parameters of one statement, which is limited to 32767 by PostgreSQL and 65535 by MySQL.
+     */
+    private static final int MAX_PARAMETERS = 32767;
 
     private final List<PrepareRequest> prepareRequests;
 
@@ -44,6 +48,10 @@ public class BatchSQLExecutor implements InsertRequest, UpdateRequest {
         if (prepareRequests.size() == 0) {
             return;
         }
+        if (prepareRequests.get(0) instanceof UpsertSQLExecutor) {
+            invokeUpsert(connection, maxBatchSqlSize);
+            return;
+        }
         String sql = prepareRequests.get(0).toString();
         try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             int pendingCount = 0;
@@ -64,6 +72,43 @@ public class BatchSQLExecutor implements InsertRequest, UpdateRequest {
         }
     }
 
+    /**
+     * Upsert the rows in chunks, every chunk is one statement with multiple rows.
+     */
+    private void invokeUpsert(Connection connection, int maxBatchSqlSize) throws SQLException {
+        final UpsertSQLExecutor first = (UpsertSQLExecutor) prepareRequests.get(0);
+        final int chunkSize = Math.max(1, Math.min(maxBatchSqlSize, MAX_PARAMETERS / first.getColumnCount()));
+        final int fullChunks = prepareRequests.size() / chunkSize;
+        if (fullChunks > 0) {
+            final String sql = first.toSQL(chunkSize);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                for (int chunk = 0; chunk < fullChunks; chunk++) {
+                    executeUpsert(preparedStatement, chunk * chunkSize, chunkSize);
+                }
+            }
+        }
+        final int remaining = prepareRequests.size() - fullChunks * chunkSize;
+        if (remaining > 0) {
+            final String sql = first.toSQL(remaining);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                executeUpsert(preparedStatement, fullChunks * chunkSize, remaining);
+            }
+        }
+    }
+
+    private void executeUpsert(PreparedStatement preparedStatement, int from, int rowCount) throws SQLException {
+        long start = System.currentTimeMillis();
+        int offset = 0;
+        for (int i = from; i < from + rowCount; i++) {
+            offset = ((SQLExecutor) prepareRequests.get(i)).setParameters(preparedStatement, offset);
+        }
+        preparedStatement.executeUpdate();
+        if (log.isDebugEnabled()) {
+            long cost = System.currentTimeMillis() - start;
+            log.debug("execute upsert sql, rows: {}, cost:{}ms, sql of one row: {}", rowCount, cost, prepareRequests.get(from));
+        }
+    }
+
     private void executeBatch(PreparedStatement preparedStatement, int pendingCount, String sql) throws SQLException {
         long start = System.currentTimeMillis();
         preparedStatement.executeBatch();
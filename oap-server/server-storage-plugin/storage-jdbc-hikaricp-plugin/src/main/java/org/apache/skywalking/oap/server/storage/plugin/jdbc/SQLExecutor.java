@@ -63,9 +63,19 @@ public class SQLExecutor implements InsertRequest, UpdateRequest {
     }
 
     public void setParameters(PreparedStatement preparedStatement) throws SQLException {
+        setParameters(preparedStatement, 0);
+    }
+
+    /**
+     * Set the parameters after the given number of parameters of the statement.
+     *
+     * @return the number of parameters of the statement after this one.
+     */
+    public int setParameters(PreparedStatement preparedStatement, int offset) throws SQLException {
         for (int i = 0; i < param.size(); i++) {
-            preparedStatement.setObject(i + 1, param.get(i));
+            preparedStatement.setObject(offset + i + 1, param.get(i));
         }
+        return offset + param.size();
     }
 
     @Override
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.joda.time.DateTime;
+
+/**
+ * Partitions the tables of metrics and records by day of the time bucket, so the expired data are removed by dropping
+ * the partitions rather than deleting the rows, and the queries in a duration only scan the partitions of the days
+ * covered.
+ *
+ * <p>The metrics of all downsamplings share one table, so the partitions are grouped by the {@link Unit} of the time
+ * bucket, a partition named as the unit code and the day, such as {@code m20221018}, covers the time buckets of the
+ * unit in that day. The partitions of the following {@link #PRE_CREATED_DAYS} days are created ahead by the TTL
+ * timer.</p>
+ */
+@Slf4j
+public abstract class TablePartitioner {
+    /**
+     * The number of days after today, whose partitions are created ahead.
+     */
+    public static final int PRE_CREATED_DAYS = 2;
+
+    /**
+     * @return true if the table of the model, or its additional table with the given columns, is partitioned.
+     */
+    public boolean isPartitioned(Model model, List<ModelColumn> columns) {
+        return model.isTimeSeries() && columns.stream().anyMatch(
+            column -> Metrics.TIME_BUCKET.equals(column.getColumnName().getStorageName()));
+    }
+
+    /**
+     * @return the partition clause appended to the table creation statement.
+     */
+    public abstract String partitionBy(Model model);
+
+    /**
+     * Create the initial partitions of the new table, if they are not declared by {@link #partitionBy(Model)}.
+     */
+    public void createPartitions(JDBCHikariCPClient client,
+                                 Connection connection,
+                                 String tableName,
+                                 Model model) throws JDBCClientException {
+    }
+
+    /**
+     * Drop the partitions of the days before the deadline, and create the partitions of the following days.
+     *
+     * @param deadline the time bucket in the unit of the model, the data at or before it are expired.
+     * @return false if the table isn't partitioned, the expired data should be deleted row by row.
+     */
+    public boolean dropExpiredPartitions(JDBCHikariCPClient client,
+                                         Connection connection,
+                                         String tableName,
+                                         Model model,
+                                         long deadline) throws JDBCClientException {
+        final Set<String> partitions = partitions(client, connection, tableName);
+        if (partitions.isEmpty()) {
+            return false;
+        }
+        final Unit unit = Unit.of(model);
+        final long deadlineDay = deadline / unit.getMultiplier();
+
+        final List<String> expired = new ArrayList<>();
+        long lastDay = 0;
+        for (final String partition : partitions) {
+            final long day = unit.dayOf(partition);
+            if (day < 0) {
+                continue;
+            }
+            if (day < deadlineDay) {
+                expired.add(partition);
+            }
+            lastDay = Math.max(lastDay, day);
+        }
+        if (!expired.isEmpty()) {
+            Collections.sort(expired);
+            log.info("Drop the expired partitions {} of table {}", expired, tableName);
+            dropPartitions(client, connection, tableName, expired);
+        }
+
+        final List<Long> newDays = new ArrayList<>();
+        for (final long day : upcomingDays()) {
+            if (day > lastDay) {
+                newDays.add(day);
+            }
+        }
+        if (!newDays.isEmpty()) {
+            log.info("Create the partitions of days {} in unit {} of table {}", newDays, unit, tableName);
+            try {
+                addPartitions(client, connection, tableName, unit, newDays);
+            } catch (JDBCClientException e) {
+                // The data of the days stay in the partition catching the time buckets out of the created days, which
+                // are removed row by row when expired. Try again in the next round.
+                log.error("Failed to create the partitions of days {} of table {}", newDays, tableName, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the names of the partitions of the table, empty if the table isn't partitioned.
+     */
+    protected abstract Set<String> partitions(JDBCHikariCPClient client,
+                                              Connection connection,
+                                              String tableName) throws JDBCClientException;
+
+    /**
+     * Add the partitions of the days, which are later than all existing partitions of the unit.
+     */
+    protected abstract void addPartitions(JDBCHikariCPClient client,
+                                          Connection connection,
+                                          String tableName,
+                                          Unit unit,
+                                          List<Long> days) throws JDBCClientException;
+
+    protected abstract void dropPartitions(JDBCHikariCPClient client,
+                                           Connection connection,
+                                           String tableName,
+                                           List<String> partitions) throws JDBCClientException;
+
+    /**
+     * @return the units of the time buckets stored in the table of the model, in ascending order of the time buckets.
+     */
+    protected static List<Unit> unitsOf(Model model) {
+        if (model.isRecord()) {
+            return Collections.singletonList(Unit.SECOND);
+        }
+        return Arrays.asList(Unit.DAY, Unit.HOUR, Unit.MINUTE);
+    }
+
+    /**
+     * @return today and the following {@link #PRE_CREATED_DAYS} days, in yyyyMMdd.
+     */
+    protected static List<Long> upcomingDays() {
+        final DateTime today = new DateTime();
+        final List<Long> days = new ArrayList<>(PRE_CREATED_DAYS + 1);
+        for (int i = 0; i <= PRE_CREATED_DAYS; i++) {
+            days.add(Long.parseLong(today.plusDays(i).toString("yyyyMMdd")));
+        }
+        return days;
+    }
+
+    /**
+     * The unit of the time bucket, in which the table is partitioned.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Unit {
+        DAY("d", 1L),
+        HOUR("h", 100L),
+        MINUTE("m", 100_00L),
+        SECOND("s", 100_00_00L);
+
+        /**
+         * The prefix of the partition names.
+         */
+        private final String code;
+        /**
+         * The time bucket of the unit divided by it is the day.
+         */
+        private final long multiplier;
+
+        public static Unit of(Model model) {
+            if (model.isRecord()) {
+                return SECOND;
+            }
+            switch (model.getDownsampling()) {
+                case Hour:
+                    return HOUR;
+                case Day:
+                    return DAY;
+                default:
+                    return MINUTE;
+            }
+        }
+
+        public String partitionName(long day) {
+            return code + day;
+        }
+
+        /**
+         * @return the name of the partition catching the time buckets later than the created days.
+         */
+        public String maxPartitionName() {
+            return code + "_max";
+        }
+
+        /**
+         * @return the first time bucket of the day.
+         */
+        public long lowerBound(long day) {
+            return day * multiplier;
+        }
+
+        /**
+         * @return the time bucket after the day, exclusively.
+         */
+        public long upperBound(long day) {
+            return (day + 1) * multiplier;
+        }
+
+        /**
+         * @return the time bucket after the year 9999, the max of the unit.
+         */
+        public long maxBound() {
+            return 1_0000_00_00L * multiplier;
+        }
+
+        /**
+         * @return the day of the partition in this unit, or -1 if the partition doesn't belong to this unit.
+         */
+        public long dayOf(String partition) {
+            if (!partition.startsWith(code) || partition.length() != code.length() + 8) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(partition.substring(code.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
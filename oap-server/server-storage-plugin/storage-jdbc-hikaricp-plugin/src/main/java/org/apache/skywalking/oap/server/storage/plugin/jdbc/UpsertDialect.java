@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * The SQL syntax of inserting the rows, or updating them if their ids exist. The rows of the same table are inserted by
+ * one statement in the batch, see {@link UpsertSQLExecutor}.
+ */
+public enum UpsertDialect {
+    H2 {
+        @Override
+        public String prefix(final String tableName, final List<String> columns) {
+            return "MERGE INTO " + tableName + " (" + String.join(",", columns) + ") KEY (" + Metrics.ID + ") VALUES ";
+        }
+
+        @Override
+        public String suffix(final String tableName, final List<String> columns) {
+            return "";
+        }
+    },
+    /**
+     * MySQL and TiDB.
+     */
+    MYSQL {
+        @Override
+        public String suffix(final String tableName, final List<String> columns) {
+            return " ON DUPLICATE KEY UPDATE " + updatedColumns(columns).stream()
+                                                                       .map(column -> column + "=VALUES(" + column + ")")
+                                                                       .collect(Collectors.joining(","));
+        }
+    },
+    POSTGRESQL {
+        @Override
+        public String suffix(final String tableName, final List<String> columns) {
+            // The primary key may include the time bucket in the partitioned tables, so the conflict target is
+            // the constraint rather than the columns.
+            return " ON CONFLICT ON CONSTRAINT " + tableName + "_pkey DO UPDATE SET " + updatedColumns(columns)
+                .stream()
+                .map(column -> column + "=EXCLUDED." + column)
+                .collect(Collectors.joining(","));
+        }
+    };
+
+    /**
+     * @param columns the storage names of the columns, including the id.
+     * @return the statement before the values of the rows.
+     */
+    public String prefix(String tableName, List<String> columns) {
+        return "INSERT INTO " + tableName + " (" + String.join(",", columns) + ") VALUES ";
+    }
+
+    /**
+     * @param columns the storage names of the columns, including the id.
+     * @return the statement after the values of the rows.
+     */
+    public abstract String suffix(String tableName, List<String> columns);
+
+    private static List<String> updatedColumns(List<String> columns) {
+        return columns.stream().filter(column -> !Metrics.ID.equals(column)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Inserts or updates one row. The executors of the same table are merged into one statement with multiple rows by
+ * {@link BatchSQLExecutor}, so the inserts and updates of the metrics are sent together.
+ */
+public class UpsertSQLExecutor extends SQLExecutor {
+    @Getter
+    private final String prefix;
+    @Getter
+    private final String suffix;
+    @Getter
+    private final int columnCount;
+
+    public UpsertSQLExecutor(UpsertDialect dialect, String tableName, List<String> columns, List<Object> param) {
+        this(dialect.prefix(tableName, columns), dialect.suffix(tableName, columns), columns.size(), param);
+    }
+
+    private UpsertSQLExecutor(String prefix, String suffix, int columnCount, List<Object> param) {
+        super(prefix + rows(columnCount, 1) + suffix, param);
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.columnCount = columnCount;
+    }
+
+    /**
+     * @return the statement of the given number of rows.
+     */
+    public String toSQL(int rowCount) {
+        return prefix + rows(columnCount, rowCount) + suffix;
+    }
+
+    private static String rows(int columnCount, int rowCount) {
+        final StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columnCount; i++) {
+            row.append(i == 0 ? "?" : ",?");
+        }
+        row.append(")");
+        final StringBuilder rows = new StringBuilder(row.length() * rowCount + rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                rows.append(",");
+            }
+            rows.append(row);
+        }
+        return rows.toString();
+    }
+}
@@ -42,4 +42,11 @@ public class H2StorageConfig extends ModuleConfig {
      * @since 8.8.0
      */
     private int asyncBatchPersistentPoolSize  = 1;
+    /**
+     * Insert and update the metrics by the upsert statements of multiple rows, at most {@link #maxSizeOfBatchSql}
+     * rows in one statement.
+     *
+     * @since 9.3.0
+     */
+    private boolean enableMetricsUpsert = false;
 }
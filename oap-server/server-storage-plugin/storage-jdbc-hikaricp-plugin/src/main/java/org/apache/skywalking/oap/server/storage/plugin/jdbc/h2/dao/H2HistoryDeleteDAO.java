@@ -27,14 +27,24 @@ import org.apache.skywalking.oap.server.core.storage.model.SQLDatabaseModelExten
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
 import org.joda.time.DateTime;
 
 public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
 
     private final JDBCHikariCPClient client;
+    /**
+     * Drops the expired partitions of the partitioned tables if not null.
+     */
+    private final TablePartitioner partitioner;
 
     public H2HistoryDeleteDAO(JDBCHikariCPClient client) {
+        this(client, null);
+    }
+
+    public H2HistoryDeleteDAO(JDBCHikariCPClient client, TablePartitioner partitioner) {
         this.client = client;
+        this.partitioner = partitioner;
     }
 
     @Override
@@ -68,11 +78,18 @@ public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
                         return;
                 }
             }
-            client.executeUpdate(connection, dataDeleteSQL.toString(), deadline, minTime);
+            if (partitioner == null || !partitioner.dropExpiredPartitions(
+                client, connection, model.getName(), model, deadline)) {
+                client.executeUpdate(connection, dataDeleteSQL.toString(), deadline, minTime);
+            }
             //delete additional tables
             for (SQLDatabaseModelExtension.AdditionalTable additionalTable : model.getSqlDBModelExtension()
                                                                                   .getAdditionalTables()
                                                                                   .values()) {
+                if (partitioner != null && partitioner.dropExpiredPartitions(
+                    client, connection, additionalTable.getName(), model, deadline)) {
+                    continue;
+                }
                 SQLBuilder additionalTableDeleteSQL = new SQLBuilder("delete from " + additionalTable.getName() + " where ")
                     .append(timeBucketColumnName).append("<= ? ")
                     .append(" and ")
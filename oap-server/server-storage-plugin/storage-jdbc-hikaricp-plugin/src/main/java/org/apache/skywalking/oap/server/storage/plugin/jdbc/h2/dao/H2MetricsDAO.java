@@ -30,15 +30,23 @@ import org.apache.skywalking.oap.server.core.storage.type.HashMapConverter;
 import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.UpsertDialect;
 
 public class H2MetricsDAO extends H2SQLExecutor implements IMetricsDAO {
 
     private JDBCHikariCPClient h2Client;
     private StorageBuilder<Metrics> storageBuilder;
+    private final UpsertDialect upsertDialect;
 
     public H2MetricsDAO(JDBCHikariCPClient h2Client, StorageBuilder<Metrics> storageBuilder) {
+        this(h2Client, storageBuilder, null);
+    }
+
+    public H2MetricsDAO(JDBCHikariCPClient h2Client, StorageBuilder<Metrics> storageBuilder,
+                        UpsertDialect upsertDialect) {
         this.h2Client = h2Client;
         this.storageBuilder = storageBuilder;
+        this.upsertDialect = upsertDialect;
     }
 
     @Override
@@ -54,11 +62,29 @@ public class H2MetricsDAO extends H2SQLExecutor implements IMetricsDAO {
 
     @Override
     public SQLExecutor prepareBatchInsert(Model model, Metrics metrics) throws IOException {
+        final SQLExecutor upsertExecutor = prepareUpsert(model, metrics);
+        if (upsertExecutor != null) {
+            return upsertExecutor;
+        }
         return getInsertExecutor(model.getName(), metrics, storageBuilder, new HashMapConverter.ToStorage());
     }
 
     @Override
     public SQLExecutor prepareBatchUpdate(Model model, Metrics metrics) throws IOException {
+        final SQLExecutor upsertExecutor = prepareUpsert(model, metrics);
+        if (upsertExecutor != null) {
+            return upsertExecutor;
+        }
         return getUpdateExecutor(model.getName(), metrics, storageBuilder);
     }
+
+    /**
+     * The insert and the update of the metrics are the same upsert, so they are sent in the same statements.
+     */
+    private SQLExecutor prepareUpsert(Model model, Metrics metrics) throws IOException {
+        if (upsertDialect == null) {
+            return null;
+        }
+        return getUpsertExecutor(model.getName(), metrics, storageBuilder, upsertDialect);
+    }
 }
@@ -87,6 +87,7 @@ public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO
             parameters.add(ids.get(i));
         }
         sql.append(")");
+        buildTimeBucketCondition(sql, parameters, duration);
         sql.append(" group by " + Metrics.ENTITY_ID);
 
         try (Connection connection = h2Client.getConnection()) {
@@ -133,6 +134,7 @@ public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO
             parameters.add(ids.get(i));
         }
         sql.append(")");
+        buildTimeBucketCondition(sql, parameters, duration);
 
         buildShardingCondition(sql, parameters, entityId);
 
@@ -186,6 +188,7 @@ public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO
             parameters.add(ids.get(i));
         }
         sql.append(")");
+        buildTimeBucketCondition(sql, parameters, duration);
 
         buildShardingCondition(sql, parameters, entityId);
 
@@ -235,6 +238,7 @@ public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO
             parameters.add(ids.get(i));
         }
         sql.append(")");
+        buildTimeBucketCondition(sql, parameters, duration);
 
         buildShardingCondition(sql, parameters, entityId);
 
@@ -259,6 +263,17 @@ public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO
         }
     }
 
+    /**
+     * The time bucket condition is implied by the ids, but lets the day partitioned tables only scan the partitions of
+     * the duration.
+     */
+    private void buildTimeBucketCondition(StringBuilder sql, List<Object> parameters, Duration duration) {
+        sql.append(" and ").append(Metrics.TIME_BUCKET).append(" >= ?");
+        parameters.add(duration.getStartTimeBucket());
+        sql.append(" and ").append(Metrics.TIME_BUCKET).append(" <= ?");
+        parameters.add(duration.getEndTimeBucket());
+    }
+
     protected void buildShardingCondition(StringBuilder sql, List<Object> parameters, String entityId) {
     }
 }
@@ -32,6 +32,7 @@ import org.apache.skywalking.oap.server.library.util.StringUtil;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
@@ -164,6 +165,48 @@ public class H2ProfileThreadSnapshotQueryDAO implements IProfileThreadSnapshotQu
         return result;
     }
 
+    @Override
+    public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId,
+                                                                  int minBlock,
+                                                                  int maxBlock) throws IOException {
+        StringBuilder sql = new StringBuilder();
+        sql.append("select * from ").append(ProfileThreadSnapshotTreeRecord.INDEX_NAME).append(" where ");
+        sql.append(" 1=1 ");
+        sql.append(" and ").append(ProfileThreadSnapshotTreeRecord.SEGMENT_ID).append(" = ? ");
+        sql.append(" and ").append(ProfileThreadSnapshotTreeRecord.BLOCK).append(" >= ? ");
+        sql.append(" and ").append(ProfileThreadSnapshotTreeRecord.BLOCK).append(" < ? ");
+
+        Object[] params = new Object[] {
+            segmentId,
+            minBlock,
+            maxBlock
+        };
+
+        ArrayList<ProfileThreadSnapshotTreeRecord> result = new ArrayList<>(maxBlock - minBlock);
+        try (Connection connection = h2Client.getConnection()) {
+
+            try (ResultSet resultSet = h2Client.executeQuery(connection, sql.toString(), params)) {
+                while (resultSet.next()) {
+                    ProfileThreadSnapshotTreeRecord record = new ProfileThreadSnapshotTreeRecord();
+
+                    record.setTaskId(resultSet.getString(ProfileThreadSnapshotTreeRecord.TASK_ID));
+                    record.setSegmentId(resultSet.getString(ProfileThreadSnapshotTreeRecord.SEGMENT_ID));
+                    record.setBlock(resultSet.getInt(ProfileThreadSnapshotTreeRecord.BLOCK));
+                    String dataBinaryBase64 = resultSet.getString(ProfileThreadSnapshotTreeRecord.TREE_BINARY);
+                    if (StringUtil.isNotEmpty(dataBinaryBase64)) {
+                        record.setTreeBinary(Base64.getDecoder().decode(dataBinaryBase64));
+                    }
+
+                    result.add(record);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        return result;
+    }
+
     @Override
     public SegmentRecord getProfiledSegment(String segmentId) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
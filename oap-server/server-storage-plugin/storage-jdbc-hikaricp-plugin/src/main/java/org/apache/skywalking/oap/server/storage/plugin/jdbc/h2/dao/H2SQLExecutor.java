@@ -42,6 +42,8 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.UpsertDialect;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.UpsertSQLExecutor;
 
 @Slf4j
 public class H2SQLExecutor {
@@ -255,4 +257,37 @@ public class H2SQLExecutor {
 
         return new SQLExecutor(sqlBuilder.toString(), param);
     }
+
+    /**
+     * @return the executor inserting or updating the row of the main table, or null if the model is not supported, such
+     * as the model having additional tables or sharding.
+     */
+    protected <T extends StorageData> SQLExecutor getUpsertExecutor(String modelName, T metrics,
+                                                                    StorageBuilder<T> storageBuilder,
+                                                                    UpsertDialect dialect) throws IOException {
+        Model model = TableMetaInfo.get(modelName);
+        if (!model.getSqlDBModelExtension().getAdditionalTables().isEmpty()
+            || model.getSqlDBModelExtension().isShardingTable()) {
+            return null;
+        }
+        final HashMapConverter.ToStorage toStorage = new HashMapConverter.ToStorage();
+        storageBuilder.entity2Storage(metrics, toStorage);
+        Map<String, Object> objectMap = toStorage.obtain();
+
+        List<ModelColumn> columns = model.getColumns();
+        List<String> columnNames = new ArrayList<>(columns.size() + 1);
+        List<Object> param = new ArrayList<>(columns.size() + 1);
+        columnNames.add(H2TableInstaller.ID_COLUMN);
+        param.add(metrics.id());
+        for (ModelColumn column : columns) {
+            columnNames.add(column.getColumnName().getStorageName());
+            Object value = objectMap.get(column.getColumnName().getName());
+            if (value instanceof StorageDataComplexObject) {
+                param.add(((StorageDataComplexObject) value).toStorageData());
+            } else {
+                param.add(value);
+            }
+        }
+        return new UpsertSQLExecutor(dialect, modelName, columnNames, param);
+    }
 }
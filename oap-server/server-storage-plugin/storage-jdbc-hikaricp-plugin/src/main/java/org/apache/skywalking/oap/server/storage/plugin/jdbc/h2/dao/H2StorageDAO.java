@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
-import lombok.RequiredArgsConstructor;
 import org.apache.skywalking.oap.server.core.analysis.config.NoneStream;
 import org.apache.skywalking.oap.server.core.analysis.management.ManagementData;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
@@ -30,14 +29,27 @@ import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageDAO;
 import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.UpsertDialect;
 
-@RequiredArgsConstructor
 public class H2StorageDAO implements StorageDAO {
     private final JDBCHikariCPClient h2Client;
+    /**
+     * Upserts the metrics in the multiple rows statements if not null.
+     */
+    private final UpsertDialect upsertDialect;
+
+    public H2StorageDAO(JDBCHikariCPClient h2Client) {
+        this(h2Client, null);
+    }
+
+    public H2StorageDAO(JDBCHikariCPClient h2Client, UpsertDialect upsertDialect) {
+        this.h2Client = h2Client;
+        this.upsertDialect = upsertDialect;
+    }
 
     @Override
     public IMetricsDAO newMetricsDao(StorageBuilder storageBuilder) {
-        return new H2MetricsDAO(h2Client, (StorageBuilder<Metrics>) storageBuilder);
+        return new H2MetricsDAO(h2Client, (StorageBuilder<Metrics>) storageBuilder, upsertDialect);
     }
 
     @Override
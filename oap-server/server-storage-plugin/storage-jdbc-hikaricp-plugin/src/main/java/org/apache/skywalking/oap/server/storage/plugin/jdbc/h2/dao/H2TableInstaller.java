@@ -66,7 +66,7 @@ public class H2TableInstaller extends ModelInstaller {
         try (Connection connection = jdbcHikariCPClient.getConnection()) {
             //Consider there additional table columns need to remove from model columns.
             model = TableMetaInfo.get(model.getName());
-            createTable(jdbcHikariCPClient, connection, model.getName(), model.getColumns(), false);
+            createTable(jdbcHikariCPClient, connection, model, model.getName(), model.getColumns(), false);
             createTableIndexes(jdbcHikariCPClient, connection, model.getName(), model.getColumns(), false);
             createAdditionalTable(jdbcHikariCPClient, connection, model);
         } catch (JDBCClientException | SQLException e) {
@@ -124,11 +124,21 @@ public class H2TableInstaller extends ModelInstaller {
         Map<String, SQLDatabaseModelExtension.AdditionalTable> additionalTables = model.getSqlDBModelExtension()
                                                                                        .getAdditionalTables();
         for (SQLDatabaseModelExtension.AdditionalTable table : additionalTables.values()) {
-            createTable(client, connection, table.getName(), table.getColumns(), true);
+            createTable(client, connection, model, table.getName(), table.getColumns(), true);
             createTableIndexes(client, connection, table.getName(), table.getColumns(), true);
         }
     }
 
+    /**
+     * Create the table of the model, or its additional table.
+     */
+    protected void createTable(JDBCHikariCPClient client,
+                               Connection connection,
+                               Model model,
+                               String tableName, List<ModelColumn> columns, boolean additionalTable) throws JDBCClientException {
+        createTable(client, connection, tableName, columns, additionalTable);
+    }
+
     protected void createTable(JDBCHikariCPClient client,
                              Connection connection,
                              String tableName, List<ModelColumn> columns, boolean additionalTable) throws JDBCClientException {
@@ -40,4 +40,19 @@ public class MySQLStorageConfig extends ModuleConfig {
      */
     private int asyncBatchPersistentPoolSize  = 4;
     private Properties properties;
+    /**
+     * Partition the new tables of metrics and records by day, the expired data are removed by dropping the partitions.
+     * The existing tables are not changed, and their expired data are still deleted row by row. Only MySQL and
+     * PostgreSQL support it.
+     *
+     * @since 9.3.0
+     */
+    private boolean enableDayPartition = false;
+    /**
+     * Insert and update the metrics by the upsert statements of multiple rows, at most {@link #maxSizeOfBatchSql}
+     * rows in one statement. Not supported by MySQL-Sharding.
+     *
+     * @since 9.3.0
+     */
+    private boolean enableMetricsUpsert = false;
 }
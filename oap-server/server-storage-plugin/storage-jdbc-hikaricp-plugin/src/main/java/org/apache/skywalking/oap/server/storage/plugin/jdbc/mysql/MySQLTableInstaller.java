@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
@@ -37,6 +38,7 @@ import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariC
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TableInstaller;
 
 /**
@@ -44,8 +46,18 @@ import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TableInstal
  */
 @Slf4j
 public class MySQLTableInstaller extends H2TableInstaller {
+    /**
+     * Partitions the time series tables by day if not null.
+     */
+    private final TablePartitioner partitioner;
+
     public MySQLTableInstaller(Client client, ModuleManager moduleManager) {
+        this(client, moduleManager, null);
+    }
+
+    public MySQLTableInstaller(Client client, ModuleManager moduleManager, TablePartitioner partitioner) {
         super(client, moduleManager);
+        this.partitioner = partitioner;
         /*
          * Override column because the default column names in core have syntax conflict with MySQL.
          */
@@ -69,6 +81,37 @@ public class MySQLTableInstaller extends H2TableInstaller {
         return false;
     }
 
+    @Override
+    protected void createTable(JDBCHikariCPClient client,
+                               Connection connection,
+                               Model model,
+                               String tableName, List<ModelColumn> columns, boolean additionalTable) throws JDBCClientException {
+        if (partitioner == null || !partitioner.isPartitioned(model, columns)) {
+            super.createTable(client, connection, model, tableName, columns, additionalTable);
+            return;
+        }
+        SQLBuilder tableCreateSQL = new SQLBuilder("CREATE TABLE IF NOT EXISTS " + tableName + " (");
+        tableCreateSQL.appendLine(ID_COLUMN).appendLine(" VARCHAR(512), ");
+        for (int i = 0; i < columns.size(); i++) {
+            ModelColumn column = columns.get(i);
+            tableCreateSQL.appendLine(
+                getColumn(column) + (i != columns.size() - 1 || !additionalTable ? "," : ""));
+        }
+        if (!additionalTable) {
+            // The primary key of a partitioned table must include the partition column.
+            tableCreateSQL.appendLine("PRIMARY KEY (" + ID_COLUMN + ", " + Metrics.TIME_BUCKET + ")");
+        }
+        tableCreateSQL.appendLine(")");
+        tableCreateSQL.appendLine(partitioner.partitionBy(model));
+
+        if (log.isDebugEnabled()) {
+            log.debug("creating partitioned table: " + tableCreateSQL.toStringInNewLine());
+        }
+
+        client.execute(connection, tableCreateSQL.toString());
+        partitioner.createPartitions(client, connection, tableName, model);
+    }
+
     @Override
     protected void createTableIndexes(JDBCHikariCPClient client,
                                       Connection connection,
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
+
+/**
+ * MySQL range partitions of the time bucket. The range partitions must be in order, so the partitions of every unit
+ * end with a partition catching the later time buckets of the unit, which is reorganized into the partitions of the
+ * new days.
+ */
+public class MySQLTablePartitioner extends TablePartitioner {
+    @Override
+    public String partitionBy(final Model model) {
+        SQLBuilder sql = new SQLBuilder("PARTITION BY RANGE (" + Metrics.TIME_BUCKET + ") (");
+        final List<Unit> units = unitsOf(model);
+        final List<Long> days = upcomingDays();
+        for (int i = 0; i < units.size(); i++) {
+            final Unit unit = units.get(i);
+            for (final long day : days) {
+                sql.appendLine(partition(unit.partitionName(day), unit.upperBound(day)) + ",");
+            }
+            sql.appendLine(partition(unit.maxPartitionName(), unit.maxBound()) + (i != units.size() - 1 ? "," : ""));
+        }
+        return sql.append(")").toString();
+    }
+
+    @Override
+    protected Set<String> partitions(final JDBCHikariCPClient client,
+                                     final Connection connection,
+                                     final String tableName) throws JDBCClientException {
+        final Set<String> partitions = new HashSet<>();
+        try (ResultSet resultSet = client.executeQuery(
+            connection,
+            "select PARTITION_NAME from information_schema.PARTITIONS"
+                + " where TABLE_SCHEMA = database() and TABLE_NAME = ? and PARTITION_NAME is not null",
+            tableName
+        )) {
+            while (resultSet.next()) {
+                partitions.add(resultSet.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new JDBCClientException(e.getMessage(), e);
+        }
+        return partitions;
+    }
+
+    @Override
+    protected void addPartitions(final JDBCHikariCPClient client,
+                                 final Connection connection,
+                                 final String tableName,
+                                 final Unit unit,
+                                 final List<Long> days) throws JDBCClientException {
+        SQLBuilder sql = new SQLBuilder("ALTER TABLE " + tableName)
+            .append(" REORGANIZE PARTITION ").append(unit.maxPartitionName()).appendLine(" INTO (");
+        for (final long day : days) {
+            sql.appendLine(partition(unit.partitionName(day), unit.upperBound(day)) + ",");
+        }
+        sql.appendLine(partition(unit.maxPartitionName(), unit.maxBound())).append(")");
+        client.execute(connection, sql.toString());
+    }
+
+    @Override
+    protected void dropPartitions(final JDBCHikariCPClient client,
+                                  final Connection connection,
+                                  final String tableName,
+                                  final List<String> partitions) throws JDBCClientException {
+        client.execute(
+            connection, "ALTER TABLE " + tableName + " DROP PARTITION " + String.join(",", partitions));
+    }
+
+    private static String partition(String name, long upperBound) {
+        return "PARTITION " + name + " VALUES LESS THAN (" + upperBound + ")";
+    }
+}
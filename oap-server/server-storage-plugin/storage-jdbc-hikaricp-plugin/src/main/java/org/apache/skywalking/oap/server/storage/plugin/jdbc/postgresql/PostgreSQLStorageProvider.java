@@ -54,6 +54,8 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.UpsertDialect;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2BatchDAO;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2EBPFProfilingDataDAO;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2EBPFProfilingScheduleDAO;
@@ -87,6 +89,7 @@ import org.apache.skywalking.oap.server.storage.plugin.jdbc.postgresql.dao.Postg
 public class PostgreSQLStorageProvider extends ModuleProvider {
     private PostgreSQLStorageConfig config;
     private JDBCHikariCPClient postgresqlClient;
+    private TablePartitioner partitioner;
 
     public PostgreSQLStorageProvider() {
         config = new PostgreSQLStorageConfig();
@@ -112,11 +115,14 @@ public class PostgreSQLStorageProvider extends ModuleProvider {
         this.registerServiceImplementation(StorageBuilderFactory.class, new StorageBuilderFactory.Default());
 
         postgresqlClient = new JDBCHikariCPClient(config.getProperties());
+        if (config.isEnableDayPartition()) {
+            partitioner = new PostgreSQLTablePartitioner();
+        }
 
         this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(postgresqlClient, config.getMaxSizeOfBatchSql(), config.getAsyncBatchPersistentPoolSize()));
         this.registerServiceImplementation(
                 StorageDAO.class,
-                new H2StorageDAO(postgresqlClient));
+                new H2StorageDAO(postgresqlClient, config.isEnableMetricsUpsert() ? UpsertDialect.POSTGRESQL : null));
         this.registerServiceImplementation(
                 INetworkAddressAliasDAO.class, new H2NetworkAddressAliasDAO(postgresqlClient));
 
@@ -132,7 +138,7 @@ public class PostgreSQLStorageProvider extends ModuleProvider {
         this.registerServiceImplementation(IAggregationQueryDAO.class, new PostgreSQLAggregationQueryDAO(postgresqlClient));
         this.registerServiceImplementation(IAlarmQueryDAO.class, new PostgreSQLAlarmQueryDAO(postgresqlClient, getManager()));
         this.registerServiceImplementation(
-                IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(postgresqlClient));
+                IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(postgresqlClient, partitioner));
         this.registerServiceImplementation(ITopNRecordsQueryDAO.class, new H2TopNRecordsQueryDAO(postgresqlClient));
         this.registerServiceImplementation(
                 ILogQueryDAO.class,
@@ -158,7 +164,7 @@ public class PostgreSQLStorageProvider extends ModuleProvider {
         try {
             postgresqlClient.connect();
 
-            MySQLTableInstaller installer = new PostgreSQLTableInstaller(postgresqlClient, getManager());
+            MySQLTableInstaller installer = new PostgreSQLTableInstaller(postgresqlClient, getManager(), partitioner);
             getManager().find(CoreModule.NAME).provider().getService(ModelCreator.class).addModelListener(installer);
         } catch (StorageException e) {
             throw new ModuleStartException(e.getMessage(), e);
@@ -24,6 +24,7 @@ import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 import org.apache.skywalking.oap.server.library.client.Client;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql.MySQLTableInstaller;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -35,6 +36,10 @@ public class PostgreSQLTableInstaller extends MySQLTableInstaller {
         super(client, moduleManager);
     }
 
+    public PostgreSQLTableInstaller(Client client, ModuleManager moduleManager, TablePartitioner partitioner) {
+        super(client, moduleManager, partitioner);
+    }
+
     @Override
     protected String transform(ModelColumn column, Class<?> type, Type genericType) {
         final String storageName = column.getColumnName().getStorageName();
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.postgresql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
+
+/**
+ * PostgreSQL declarative range partitions of the time bucket, the partitions are the tables named as the parent table
+ * and the partition name, such as {@code segment_s20221018}. The time buckets out of the created days are kept in the
+ * default partition, whose expired data are deleted row by row.
+ *
+ * <p>PostgreSQL refuses to create a partition when the default partition holds rows of its range, such as the late
+ * data, or the days not created ahead when the TTL timer is off. The default partition is detached, and the rows are
+ * moved into the new partition in one transaction then.</p>
+ */
+@Slf4j
+public class PostgreSQLTablePartitioner extends TablePartitioner {
+    private static final String DEFAULT_PARTITION = "default";
+
+    @Override
+    public String partitionBy(final Model model) {
+        return "PARTITION BY RANGE (" + Metrics.TIME_BUCKET + ")";
+    }
+
+    @Override
+    public void createPartitions(final JDBCHikariCPClient client,
+                                 final Connection connection,
+                                 final String tableName,
+                                 final Model model) throws JDBCClientException {
+        client.execute(
+            connection,
+            "CREATE TABLE IF NOT EXISTS " + partitionTable(tableName, DEFAULT_PARTITION)
+                + " PARTITION OF " + tableName + " DEFAULT"
+        );
+        for (final Unit unit : unitsOf(model)) {
+            addPartitions(client, connection, tableName, unit, upcomingDays());
+        }
+    }
+
+    @Override
+    public boolean dropExpiredPartitions(final JDBCHikariCPClient client,
+                                         final Connection connection,
+                                         final String tableName,
+                                         final Model model,
+                                         final long deadline) throws JDBCClientException {
+        if (!super.dropExpiredPartitions(client, connection, tableName, model, deadline)) {
+            return false;
+        }
+        final Unit unit = Unit.of(model);
+        SQLBuilder deleteSQL = new SQLBuilder("delete from " + partitionTable(tableName, DEFAULT_PARTITION) + " where ")
+            .append(Metrics.TIME_BUCKET).append("<= ? ")
+            .append(" and ")
+            .append(Metrics.TIME_BUCKET).append(">= ? ");
+        client.executeUpdate(connection, deleteSQL.toString(), deadline, unit.lowerBound(1000_00_00L));
+        return true;
+    }
+
+    @Override
+    protected Set<String> partitions(final JDBCHikariCPClient client,
+                                     final Connection connection,
+                                     final String tableName) throws JDBCClientException {
+        final String prefix = tableName + "_";
+        final Set<String> partitions = new HashSet<>();
+        try (ResultSet resultSet = client.executeQuery(
+            connection,
+            "select c.relname from pg_inherits i"
+                + " join pg_class c on c.oid = i.inhrelid"
+                + " join pg_class p on p.oid = i.inhparent"
+                + " where p.relname = ?",
+            tableName
+        )) {
+            while (resultSet.next()) {
+                final String name = resultSet.getString(1);
+                if (name.startsWith(prefix)) {
+                    partitions.add(name.substring(prefix.length()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new JDBCClientException(e.getMessage(), e);
+        }
+        return partitions;
+    }
+
+    @Override
+    protected void addPartitions(final JDBCHikariCPClient client,
+                                 final Connection connection,
+                                 final String tableName,
+                                 final Unit unit,
+                                 final List<Long> days) throws JDBCClientException {
+        for (final long day : days) {
+            final String createSQL = "CREATE TABLE IF NOT EXISTS " + partitionTable(tableName, unit.partitionName(day))
+                + " PARTITION OF " + tableName
+                + " FOR VALUES FROM (" + unit.lowerBound(day) + ") TO (" + unit.upperBound(day) + ")";
+            if (hasDefaultRows(client, connection, tableName, unit.lowerBound(day), unit.upperBound(day))) {
+                log.info("Move the rows of day {} in unit {} out of the default partition of table {}",
+                         day, unit, tableName);
+                moveDefaultRows(client, connection, tableName, createSQL, unit.lowerBound(day), unit.upperBound(day));
+            } else {
+                client.execute(connection, createSQL);
+            }
+        }
+    }
+
+    private boolean hasDefaultRows(final JDBCHikariCPClient client,
+                                   final Connection connection,
+                                   final String tableName,
+                                   final long lowerBound,
+                                   final long upperBound) throws JDBCClientException {
+        try (ResultSet resultSet = client.executeQuery(
+            connection,
+            "select 1 from " + partitionTable(tableName, DEFAULT_PARTITION)
+                + " where " + Metrics.TIME_BUCKET + ">= ? and " + Metrics.TIME_BUCKET + "< ? limit 1",
+            lowerBound, upperBound
+        )) {
+            return resultSet.next();
+        } catch (SQLException e) {
+            throw new JDBCClientException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Detach the default partition, create the partition, move the rows of its range from the default partition, and
+     * attach the default partition back, in one transaction.
+     */
+    private void moveDefaultRows(final JDBCHikariCPClient client,
+                                 final Connection connection,
+                                 final String tableName,
+                                 final String createSQL,
+                                 final long lowerBound,
+                                 final long upperBound) throws JDBCClientException {
+        final String defaultTable = partitionTable(tableName, DEFAULT_PARTITION);
+        final String range = " where " + Metrics.TIME_BUCKET + ">= ? and " + Metrics.TIME_BUCKET + "< ?";
+        try {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                client.execute(connection, "ALTER TABLE " + tableName + " DETACH PARTITION " + defaultTable);
+                client.execute(connection, createSQL);
+                client.executeUpdate(
+                    connection, "insert into " + tableName + " select * from " + defaultTable + range,
+                    lowerBound, upperBound
+                );
+                client.executeUpdate(connection, "delete from " + defaultTable + range, lowerBound, upperBound);
+                client.execute(connection, "ALTER TABLE " + tableName + " ATTACH PARTITION " + defaultTable + " DEFAULT");
+                connection.commit();
+            } catch (JDBCClientException | SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new JDBCClientException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void dropPartitions(final JDBCHikariCPClient client,
+                                  final Connection connection,
+                                  final String tableName,
+                                  final List<String> partitions) throws JDBCClientException {
+        client.execute(
+            connection,
+            "DROP TABLE IF EXISTS " + partitions.stream()
+                                                .map(partition -> partitionTable(tableName, partition))
+                                                .collect(Collectors.joining(","))
+        );
+    }
+
+    private static String partitionTable(String tableName, String partition) {
+        return tableName + "_" + partition;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchSQLExecutorTest {
+    private static final List<String> COLUMNS = Arrays.asList("id", "time_bucket", "value_");
+
+    @Test
+    public void testUpsertDialect() {
+        Assert.assertEquals(
+            "MERGE INTO service_cpm (id,time_bucket,value_) KEY (id) VALUES (?,?,?),(?,?,?)",
+            upsert(UpsertDialect.H2, "a").toSQL(2)
+        );
+        Assert.assertEquals(
+            "INSERT INTO service_cpm (id,time_bucket,value_) VALUES (?,?,?)"
+                + " ON DUPLICATE KEY UPDATE time_bucket=VALUES(time_bucket),value_=VALUES(value_)",
+            upsert(UpsertDialect.MYSQL, "a").toString()
+        );
+        Assert.assertEquals(
+            "INSERT INTO service_cpm (id,time_bucket,value_) VALUES (?,?,?)"
+                + " ON CONFLICT ON CONSTRAINT service_cpm_pkey DO UPDATE SET"
+                + " time_bucket=EXCLUDED.time_bucket,value_=EXCLUDED.value_",
+            upsert(UpsertDialect.POSTGRESQL, "a").toString()
+        );
+    }
+
+    @Test
+    public void testUpsertInChunks() throws Exception {
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+        final List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(upsert(UpsertDialect.MYSQL, "id" + i));
+        }
+        new BatchSQLExecutor(requests).invoke(connection, 2);
+
+        final UpsertSQLExecutor first = (UpsertSQLExecutor) requests.get(0);
+        verify(connection).prepareStatement(first.toSQL(2));
+        verify(connection).prepareStatement(first.toSQL(1));
+        verify(preparedStatement, times(3)).executeUpdate();
+        verify(preparedStatement, never()).executeBatch();
+        // The rows are set after the previous rows of the same statement.
+        verify(preparedStatement).setObject(1, "id0");
+        verify(preparedStatement).setObject(4, "id1");
+        verify(preparedStatement).setObject(1, "id4");
+    }
+
+    private static UpsertSQLExecutor upsert(UpsertDialect dialect, String id) {
+        return new UpsertSQLExecutor(dialect, "service_cpm", COLUMNS, Arrays.asList(id, 202210181230L, 1L));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.SQLDatabaseModelExtension;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TablePartitionerTest {
+    @Test
+    public void testUnit() {
+        Assert.assertEquals(20221018L, TablePartitioner.Unit.MINUTE.dayOf("m20221018"));
+        Assert.assertEquals(-1L, TablePartitioner.Unit.MINUTE.dayOf("h20221018"));
+        Assert.assertEquals(-1L, TablePartitioner.Unit.MINUTE.dayOf("m_max"));
+        Assert.assertEquals(-1L, TablePartitioner.Unit.DAY.dayOf("default"));
+
+        Assert.assertEquals(202210180000L, TablePartitioner.Unit.MINUTE.lowerBound(20221018L));
+        Assert.assertTrue(TablePartitioner.Unit.MINUTE.upperBound(20221018L) > 202210182359L);
+        Assert.assertTrue(TablePartitioner.Unit.HOUR.maxBound() < TablePartitioner.Unit.MINUTE.lowerBound(10000101L));
+    }
+
+    @Test
+    public void testDropExpiredPartitions() throws Exception {
+        final StubPartitioner partitioner = new StubPartitioner(
+            "m20221001", "m20221002", "m20221003", "m_max", "h20221001", "h_max");
+
+        Assert.assertTrue(partitioner.dropExpiredPartitions(null, null, "service_cpm", model(false), 202210021200L));
+        Assert.assertEquals(Collections.singletonList("m20221001"), partitioner.dropped);
+        Assert.assertEquals(TablePartitioner.Unit.MINUTE, partitioner.addedUnit);
+        Assert.assertEquals(TablePartitioner.upcomingDays(), partitioner.addedDays);
+    }
+
+    @Test
+    public void testNotPartitioned() throws Exception {
+        final StubPartitioner partitioner = new StubPartitioner();
+
+        Assert.assertFalse(partitioner.dropExpiredPartitions(null, null, "segment", model(true), 20221002120000L));
+        Assert.assertTrue(partitioner.dropped.isEmpty());
+    }
+
+    private static Model model(boolean record) {
+        return new Model(
+            "test", new ArrayList<>(), 0, record ? DownSampling.Second : DownSampling.Minute, record, false,
+            Object.class, true, new SQLDatabaseModelExtension()
+        );
+    }
+
+    private static class StubPartitioner extends TablePartitioner {
+        private final Set<String> partitions;
+        private final List<String> dropped = new ArrayList<>();
+        private Unit addedUnit;
+        private List<Long> addedDays;
+
+        private StubPartitioner(String... partitions) {
+            this.partitions = new HashSet<>(Arrays.asList(partitions));
+        }
+
+        @Override
+        public String partitionBy(final Model model) {
+            return "";
+        }
+
+        @Override
+        protected Set<String> partitions(final JDBCHikariCPClient client,
+                                         final Connection connection,
+                                         final String tableName) {
+            return partitions;
+        }
+
+        @Override
+        protected void addPartitions(final JDBCHikariCPClient client,
+                                     final Connection connection,
+                                     final String tableName,
+                                     final Unit unit,
+                                     final List<Long> days) {
+            addedUnit = unit;
+            addedDays = days;
+        }
+
+        @Override
+        protected void dropPartitions(final JDBCHikariCPClient client,
+                                      final Connection connection,
+                                      final String tableName,
+                                      final List<String> partitions) {
+            dropped.addAll(partitions);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.postgresql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.SQLDatabaseModelExtension;
+import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TablePartitioner;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PostgreSQLTablePartitionerTest {
+    private final PostgreSQLTablePartitioner partitioner = new PostgreSQLTablePartitioner();
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+    }
+
+    @Test
+    public void testAddPartitionsWithoutDefaultRows() throws Exception {
+        final RecordingClient client = new RecordingClient(false, null);
+
+        partitioner.addPartitions(
+            client, connection, "service_cpm", TablePartitioner.Unit.MINUTE, Collections.singletonList(20221018L));
+
+        Assert.assertEquals(Arrays.asList(
+            "select 1 from service_cpm_default where time_bucket>= ? and time_bucket< ? limit 1",
+            "CREATE TABLE IF NOT EXISTS service_cpm_m20221018 PARTITION OF service_cpm"
+                + " FOR VALUES FROM (202210180000) TO (202210190000)"
+        ), client.statements);
+        verify(connection, never()).setAutoCommit(false);
+    }
+
+    @Test
+    public void testMoveDefaultRowsIntoNewPartition() throws Exception {
+        final RecordingClient client = new RecordingClient(true, null);
+
+        partitioner.addPartitions(
+            client, connection, "service_cpm", TablePartitioner.Unit.MINUTE, Collections.singletonList(20221018L));
+
+        Assert.assertEquals(Arrays.asList(
+            "select 1 from service_cpm_default where time_bucket>= ? and time_bucket< ? limit 1",
+            "ALTER TABLE service_cpm DETACH PARTITION service_cpm_default",
+            "CREATE TABLE IF NOT EXISTS service_cpm_m20221018 PARTITION OF service_cpm"
+                + " FOR VALUES FROM (202210180000) TO (202210190000)",
+            "insert into service_cpm select * from service_cpm_default where time_bucket>= ? and time_bucket< ?",
+            "delete from service_cpm_default where time_bucket>= ? and time_bucket< ?",
+            "ALTER TABLE service_cpm ATTACH PARTITION service_cpm_default DEFAULT"
+        ), client.statements);
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void testDeleteRowsWhenFailedToCreatePartitions() throws Exception {
+        final RecordingClient client = new RecordingClient(true, "CREATE TABLE");
+
+        Assert.assertTrue(partitioner.dropExpiredPartitions(
+            client, connection, "service_cpm", model(), 202210021200L));
+
+        // The partition creation is rolled back, and the expired rows of the default partition are still deleted.
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+        Assert.assertTrue(client.statements.contains("DROP TABLE IF EXISTS service_cpm_m20221001"));
+        Assert.assertEquals(
+            "delete from service_cpm_default where time_bucket<= ?  and time_bucket>= ? ",
+            client.statements.get(client.statements.size() - 1)
+        );
+    }
+
+    private static Model model() {
+        return new Model(
+            "service_cpm", new ArrayList<>(), 0, DownSampling.Minute, false, false,
+            Object.class, true, new SQLDatabaseModelExtension()
+        );
+    }
+
+    /**
+     * Records the statements, the table has the partitions of 2022-10-01 and the default, and fails the statements
+     * starting with the given prefix.
+     */
+    private static class RecordingClient extends JDBCHikariCPClient {
+        private final List<String> statements = new ArrayList<>();
+        private final boolean hasDefaultRows;
+        private final String failurePrefix;
+
+        private RecordingClient(boolean hasDefaultRows, String failurePrefix) {
+            super(new Properties());
+            this.hasDefaultRows = hasDefaultRows;
+            this.failurePrefix = failurePrefix;
+        }
+
+        @Override
+        public void execute(final Connection connection, final String sql) throws JDBCClientException {
+            record(sql);
+        }
+
+        @Override
+        public int executeUpdate(final Connection connection,
+                                 final String sql,
+                                 final Object... params) throws JDBCClientException {
+            record(sql);
+            return 0;
+        }
+
+        @Override
+        public ResultSet executeQuery(final Connection connection,
+                                      final String sql,
+                                      final Object... params) throws JDBCClientException {
+            final ResultSet resultSet = mock(ResultSet.class);
+            try {
+                if (sql.startsWith("select c.relname")) {
+                    when(resultSet.next()).thenReturn(true, true, false);
+                    when(resultSet.getString(1)).thenReturn("service_cpm_m20221001", "service_cpm_default");
+                } else {
+                    record(sql);
+                    when(resultSet.next()).thenReturn(hasDefaultRows);
+                }
+            } catch (SQLException e) {
+                throw new JDBCClientException(e.getMessage(), e);
+            }
+            return resultSet;
+        }
+
+        private void record(String sql) throws JDBCClientException {
+            statements.add(sql);
+            if (failurePrefix != null && sql.startsWith(failurePrefix)) {
+                throw new JDBCClientException("Failed to execute " + sql);
+            }
+        }
+    }
+}
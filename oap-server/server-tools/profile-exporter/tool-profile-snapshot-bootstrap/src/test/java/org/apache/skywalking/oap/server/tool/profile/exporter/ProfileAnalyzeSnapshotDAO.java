@@ -22,10 +22,12 @@ import com.google.common.primitives.Ints;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadSnapshot;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -61,6 +63,11 @@ public class ProfileAnalyzeSnapshotDAO implements IProfileThreadSnapshotQueryDAO
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId, int minBlock, int maxBlock) throws IOException {
+        return Collections.emptyList();
+    }
+
     @Override
     public SegmentRecord getProfiledSegment(String segmentId) throws IOException {
         return null;
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.tool.profile.exporter.test;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeRecord;
 import org.apache.skywalking.oap.server.core.query.type.BasicTrace;
 import org.apache.skywalking.oap.server.core.storage.profiling.trace.IProfileThreadSnapshotQueryDAO;
 
@@ -85,6 +86,11 @@ public class ProfileExportSnapshotDAO implements IProfileThreadSnapshotQueryDAO
         return records;
     }
 
+    @Override
+    public List<ProfileThreadSnapshotTreeRecord> queryTreeRecords(String segmentId, int minBlock, int maxBlock) throws IOException {
+        return Collections.emptyList();
+    }
+
     @Override
     public SegmentRecord getProfiledSegment(String segmentId) throws IOException {
         return null;
@@ -45,6 +45,7 @@ import org.apache.skywalking.oap.server.core.query.MetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
 import org.apache.skywalking.oap.server.core.profiling.trace.ProfileTaskQueryService;
+import org.apache.skywalking.oap.server.core.profiling.trace.ProfileThreadSnapshotTreeAggregator;
 import org.apache.skywalking.oap.server.core.query.TopNRecordsQueryService;
 import org.apache.skywalking.oap.server.core.query.TopologyQueryService;
 import org.apache.skywalking.oap.server.core.query.TraceQueryService;
@@ -161,6 +162,8 @@ public class MockCoreModuleProvider extends CoreModuleProvider {
         this.registerServiceImplementation(
                 ProfileTaskQueryService.class, new ProfileTaskQueryService(getManager(), moduleConfig));
         this.registerServiceImplementation(ProfileTaskCache.class, new ProfileTaskCache(getManager(), moduleConfig));
+        this.registerServiceImplementation(
+                ProfileThreadSnapshotTreeAggregator.class, new ProfileThreadSnapshotTreeAggregator());
 
         this.registerServiceImplementation(CommandService.class, new CommandService(getManager()));
 